@@ -6,25 +6,33 @@ import static io.leitstand.security.accesskeys.service.ReasonCode.AKY0103E_CANNO
 import static io.leitstand.security.mac.MessageAuthenticationCodes.hmac;
 import static io.leitstand.security.rsa.RsaKeys.PEM_FILE_PROCESSOR;
 import static io.leitstand.security.rsa.RsaKeys.exportKeyPair;
+import static io.leitstand.security.rsa.RsaKeyPairLoader.await;
+import static io.leitstand.security.rsa.RsaKeyPairLoader.loadRsaKeyPair;
 import static io.leitstand.security.rsa.RsaKeys.generateRsaKeyPair;
 import static java.lang.String.format;
 import static java.util.Base64.getDecoder;
 import static java.util.Base64.getUrlEncoder;
+import static java.util.concurrent.ForkJoinPool.commonPool;
 import static java.util.logging.Logger.getLogger;
 
 import java.security.KeyPair;
-import java.util.function.Supplier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
 import javax.crypto.spec.SecretKeySpec;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import com.nimbusds.jose.jwk.JWKSet;
 
 import io.leitstand.commons.AccessDeniedException;
+import io.leitstand.commons.StartupListener;
 import io.leitstand.commons.etc.Environment;
+import io.leitstand.security.auth.accesskeys.ApiAccessKeys;
 import io.leitstand.security.auth.jwt.Claims;
 import io.leitstand.security.auth.jwt.Claims.Builder;
 import io.leitstand.security.auth.jwt.DefaultRsaJwtService;
@@ -43,12 +51,16 @@ import io.leitstand.security.mac.MessageAuthenticationCode;
  * the generated key in the <em>LEITSTAND_HOME/api.pem</em> file.
  * <p>
  * The key ID for API access keys is <em>api-access</em>.
+ * <p>
+ * The key pair is loaded in the background when the configuration is created at startup. 
+ * Signing and decoding an access key waits for the key pair if the key pair has not been loaded yet.
+ * The HMAC key to verify legacy access keys is derived when the first legacy access key gets verified.
  */
 @ApplicationScoped
-public class AccessKeyConfig {
+public class AccessKeyConfig implements StartupListener {
 
 	/** Holds the API access key ID. */
-	public static final String API_KEY_ID = "api-access";
+	public static final String API_KEY_ID = ApiAccessKeys.API_KEY_ID;
 
 	private static final Logger LOG = getLogger(AccessKeyConfig.class.getName());
     private static final int API_KEY_SIZE = 2048;
@@ -56,11 +68,13 @@ public class AccessKeyConfig {
     private static final String API_ACCESSKEY_SECRET = "API_SECRET";
         
     private Environment env;
-    private JwtService jwtService;
-    private JWKSet keySet;
+    private CompletableFuture<DefaultRsaJwtService> jwtService;
+    
+    @Resource
+    private ManagedExecutorService executor;
    
     @Deprecated
-    private Supplier<MessageAuthenticationCode> apiMac;
+    private volatile SecretKeySpec apiHmacKey;
     
     @Deprecated
     private LegacyMasterSecret legacy;
@@ -82,17 +96,33 @@ public class AccessKeyConfig {
     public AccessKeyConfig(Environment env) {
         this.env = env;
         legacy = new LegacyMasterSecret(env);
-        legacy.init();
         readAccessKeyConfig();
-        readLegacyAccessKeyConfig();
     }
     
     @PostConstruct
     protected void readAccessKeyConfig() {    
-        KeyPair keyPair = readApiAccessKeyPair();
-        DefaultRsaJwtService service = new DefaultRsaJwtService(keyPair, API_KEY_ID);
-        jwtService = service;
-        keySet = service.getKeySet();
+        Executor keyLoader = executor != null ? executor : commonPool();
+        jwtService = loadRsaKeyPair(API_KEY_PEM_FILE, 
+                                    this::readApiAccessKeyPair, 
+                                    keyLoader)
+                     .thenApply(keyPair -> new DefaultRsaJwtService(keyPair, API_KEY_ID));
+    }
+    
+    /**
+     * Starts loading the API access key pair at startup.
+     * <p>
+     * Being a startup listener makes the container create this configuration at deployment, 
+     * which in turn starts loading the key pair in the background by {@link #readAccessKeyConfig()}.
+     * The key pair loading is not started here, because the non-CDI constructor does not run startup listeners. 
+     * Hence this method has nothing left to do.
+     */
+    @Override
+    public void onStartup() {
+        // Key pair loading already started by readAccessKeyConfig() when this bean was created.
+    }
+    
+    private JwtService jwtService() {
+        return await(jwtService);
     }
 
     private KeyPair readApiAccessKeyPair() {
@@ -106,18 +136,16 @@ public class AccessKeyConfig {
     }
     
     @Deprecated
-    private void readLegacyAccessKeyConfig() {
-        String secret64 = getSystemProperty(API_ACCESSKEY_SECRET,"changeit");
-        
-        
-        if(secret64 != null) {
+    private MessageAuthenticationCode apiMac() {
+        SecretKeySpec key = apiHmacKey;
+        if (key == null) {
             // Compute apiMac for backward compatibility.
-            SecretKeySpec apiHmacKey = new SecretKeySpec(legacyDecodeSecret(secret64).toByteArray(), 
-                                                        "HS256");
-            this.apiMac = () -> {
-                return hmac(apiHmacKey);
-            };
+            String secret64 = getSystemProperty(API_ACCESSKEY_SECRET,"changeit");
+            key = new SecretKeySpec(legacyDecodeSecret(secret64).toByteArray(), 
+                                    "HS256");
+            apiHmacKey = key;
         }
+        return hmac(key);
     }
 
     /**
@@ -128,7 +156,7 @@ public class AccessKeyConfig {
      */
     public Claims decodeAccessKey(String token){
         try {
-            return jwtService.decode(token);
+            return jwtService().decode(token);
         } catch (JwtException e) {
             LOG.fine(() -> format("%s: Cannot devode %s access token: %s",
                                   AKY0100E_INVALID_ACCESSKEY.getReasonCode(),
@@ -146,7 +174,7 @@ public class AccessKeyConfig {
      */
     String signAccessKey(Claims claims) {
         try {
-            return jwtService.encode(claims);
+            return jwtService().encode(claims);
         } catch (JwtException e) {
             LOG.fine(() -> format("%: Cannot sign API access key: %s", 
                                   AKY0103E_CANNOT_SIGN_ACCESSKEY.getReasonCode(),
@@ -167,7 +195,7 @@ public class AccessKeyConfig {
    
     @Deprecated
     public String apiKeyHmac(String key) {
-        return getUrlEncoder().encodeToString(apiMac.get().sign(key));
+        return getUrlEncoder().encodeToString(apiMac().sign(key));
     }
     
     @Deprecated
@@ -181,7 +209,7 @@ public class AccessKeyConfig {
     }
 
 	public JWKSet getKeySet() {
-		return keySet;
+		return await(jwtService).getKeySet();
 	}
 
 
@@ -43,4 +43,14 @@ public class AccessKeysDatabaseServiceProducer {
 		return new DatabaseService(ds);
 	}
 	
+	/**
+	 * Makes the data source of the access-key management module available to stream large query results.
+	 * @return the access-key management data source.
+	 */
+	@Produces
+	@AccessKeys
+	public DataSource accessKeysDataSource() {
+		return ds;
+	}
+	
 }
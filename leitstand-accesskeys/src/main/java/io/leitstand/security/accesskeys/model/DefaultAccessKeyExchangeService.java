@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.accesskeys.model;
+
+import static io.leitstand.commons.model.StringUtil.isEmptyString;
+import static io.leitstand.security.accesskeys.service.ReasonCode.AKY0101E_MALFORMED_ACCESSKEY;
+import static io.leitstand.security.accesskeys.service.ReasonCode.AKY0104E_ACCESSKEY_REVOKED;
+import static io.leitstand.security.accesskeys.service.ReasonCode.AKY0105E_ACCESSKEY_EXPIRED;
+import static io.leitstand.security.accesskeys.service.ReasonCode.AKY0106E_TEMPORARY_ACCESSKEY_NOT_EXCHANGEABLE;
+import static io.leitstand.security.accesskeys.service.TemporaryAccessToken.newTemporaryAccessToken;
+import static io.leitstand.security.auth.accesskeys.ApiAccessKey.newApiAccessKey;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.logging.Logger.getLogger;
+
+import java.util.Date;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.leitstand.commons.AccessDeniedException;
+import io.leitstand.security.accesskeys.service.AccessKeyExchangeService;
+import io.leitstand.security.accesskeys.service.AccessKeyValidatorService;
+import io.leitstand.security.accesskeys.service.TemporaryAccessToken;
+import io.leitstand.security.auth.accesskeys.ApiAccessKey;
+
+/**
+ * The <code>DefaultAccessKeyExchangeService</code> exchanges a long-living API access key for a temporary API access key,
+ * which expires after 5 minutes but not later than the long-living API access key.
+ * <p>
+ * The temporary API access key conveys the ID, the user and the scopes of the long-living API access key 
+ * and is marked as <code>temporary</code>. 
+ * Temporary API access keys are not checked for revocation and cannot be exchanged again.
+ */
+@ApplicationScoped
+public class DefaultAccessKeyExchangeService implements AccessKeyExchangeService {
+
+	private static final Logger LOG = getLogger(DefaultAccessKeyExchangeService.class.getName());
+	
+	static final long TEMPORARY_ACCESS_KEY_TTL = MINUTES.toMillis(5);
+	
+	private DefaultApiAccessKeyService codec;
+	
+	private AccessKeyValidatorService validator;
+	
+	protected DefaultAccessKeyExchangeService() {
+		// CDI
+	}
+	
+	@Inject
+	protected DefaultAccessKeyExchangeService(DefaultApiAccessKeyService codec,
+											  AccessKeyValidatorService validator) {
+		this.codec = codec;
+		this.validator = validator;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TemporaryAccessToken exchangeAccessKey(String accessKey) {
+		if (isEmptyString(accessKey)) {
+			throw new AccessDeniedException(AKY0101E_MALFORMED_ACCESSKEY);
+		}
+		ApiAccessKey key = codec.decode(accessKey);
+		
+		if (key.isTemporary()) {
+			// Exchanging temporary keys would allow extending their lifetime infinitely.
+			LOG.fine(() -> format("%s: Cannot exchange temporary access key %s.",
+								  AKY0106E_TEMPORARY_ACCESSKEY_NOT_EXCHANGEABLE.getReasonCode(),
+								  key.getId()));
+			throw new AccessDeniedException(AKY0106E_TEMPORARY_ACCESSKEY_NOT_EXCHANGEABLE, key.getId());
+		}
+		
+		if (key.isExpired()) {
+			LOG.fine(() -> format("%s: Cannot exchange expired access key %s.",
+								  AKY0105E_ACCESSKEY_EXPIRED.getReasonCode(),
+								  key.getId()));
+			throw new AccessDeniedException(AKY0105E_ACCESSKEY_EXPIRED, key.getId());
+		}
+		
+		if (!validator.getRevokedAccessKeys(singleton(key.getId())).isEmpty()) {
+			LOG.fine(() -> format("%s: Cannot exchange revoked access key %s.",
+								  AKY0104E_ACCESSKEY_REVOKED.getReasonCode(),
+								  key.getId()));
+			throw new AccessDeniedException(AKY0104E_ACCESSKEY_REVOKED, key.getId());
+		}
+		
+		long now = currentTimeMillis();
+		long expiry = now + TEMPORARY_ACCESS_KEY_TTL;
+		if (key.getDateExpiry() != null) {
+			expiry = min(expiry, key.getDateExpiry().getTime());
+		}
+		
+		// The temporary access flag sets a default expiry date and must therefore be set before the expiry date.
+		ApiAccessKey temporary = newApiAccessKey()
+								 .withId(key.getId())
+								 .withUserName(key.getUserName())
+								 .withScopes(key.getScopes())
+								 .withDateCreated(new Date(now))
+								 .withTemporaryAccess(true)
+								 .withDateExpiry(new Date(expiry))
+								 .build();
+		
+		return newTemporaryAccessToken()
+			   .withAccessToken(codec.encode(temporary))
+			   .withExpiresIn((int) MILLISECONDS.toSeconds(temporary.getDateExpiry().getTime() - now))
+			   .build();
+	}
+	
+}
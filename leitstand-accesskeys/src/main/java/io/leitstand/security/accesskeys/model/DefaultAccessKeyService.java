@@ -16,7 +16,6 @@
 package io.leitstand.security.accesskeys.model;
 
 import static io.leitstand.commons.UniqueKeyConstraintViolationException.key;
-import static io.leitstand.commons.db.DatabaseService.prepare;
 import static io.leitstand.commons.model.StringUtil.isEmptyString;
 import static io.leitstand.security.accesskeys.event.AccessKeyEvent.newAccessKeyEvent;
 import static io.leitstand.security.accesskeys.event.AccessKeyEvent.Type.CREATED;
@@ -29,15 +28,18 @@ import static io.leitstand.security.accesskeys.service.ReasonCode.AKY0001E_ACCES
 import static io.leitstand.security.accesskeys.service.ReasonCode.AKY0005E_DUPLICATE_KEY_NAME;
 import static io.leitstand.security.auth.UserName.userName;
 import static io.leitstand.security.auth.accesskeys.ApiAccessKey.newApiAccessKey;
+import static io.leitstand.security.auth.jdbc.QueryStream.streamQuery;
 
+import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
+import javax.sql.DataSource;
 
 import io.leitstand.commons.EntityNotFoundException;
 import io.leitstand.commons.UniqueKeyConstraintViolationException;
-import io.leitstand.commons.db.DatabaseService;
 import io.leitstand.commons.model.Repository;
 import io.leitstand.commons.model.Service;
 import io.leitstand.security.accesskeys.event.AccessKeyEvent;
@@ -55,9 +57,11 @@ import io.leitstand.security.auth.accesskeys.ApiAccessKeyEncoder;
 @Service
 public class DefaultAccessKeyService implements AccessKeyService{
 
+	static final int FETCH_SIZE = 500;
+
 	private Repository repository;
 	
-	private DatabaseService db;
+	private DataSource ds;
 	
 	private ApiAccessKeyEncoder encoder;
 	
@@ -69,11 +73,11 @@ public class DefaultAccessKeyService implements AccessKeyService{
 	
 	@Inject
 	protected DefaultAccessKeyService(@AccessKeys Repository repository,
-									  @AccessKeys DatabaseService db,
+									  @AccessKeys DataSource ds,
 									  ApiAccessKeyEncoder encoder,
 									  Event<AccessKeyEvent> events) {
 			this.repository = repository;
-			this.db = db;
+			this.ds = ds;
 			this.encoder = encoder;
 			this.events = events;
 	}
@@ -170,22 +174,35 @@ public class DefaultAccessKeyService implements AccessKeyService{
 	 */
 	@Override
 	public List<AccessKeyInfo> findAccessKeys(String filter) {
+		List<AccessKeyInfo> keys = new LinkedList<>();
+		findAccessKeys(filter, keys::add);
+		return keys;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void findAccessKeys(String filter, Consumer<AccessKeyInfo> keys) {
 		String pattern = filter;
 		if(isEmptyString(pattern)) {
 			pattern = ".*";
 		}
-		
-		return db.executeQuery(prepare("SELECT uuid, name, description, tscreated "+ 
-									   "FROM auth.accesskey "+
-									   "WHERE name ~ ? "+
-									   "ORDER BY name", 
-									   filter), 
-							   rs -> newAccessKeyMetaData()
-							   		 .withAccessKeyId(AccessKeyId.accessKeyId(rs.getString(1)))
-							   		 .withAccessKeyName(AccessKeyName.accessKeyName(rs.getString(2)))
-							   		 .withDescription(rs.getString(3))
-							   		 .withDateCreated(rs.getTimestamp(4))
-							   		 .build());
+		// Pass the access keys to the consumer while iterating over the result set.
+		streamQuery(ds,
+					FETCH_SIZE,
+					"SELECT uuid, name, description, tscreated "+ 
+					"FROM auth.accesskey "+
+					"WHERE name ~ ? "+
+					"ORDER BY name", 
+					rs -> newAccessKeyMetaData()
+						  .withAccessKeyId(AccessKeyId.accessKeyId(rs.getString(1)))
+						  .withAccessKeyName(AccessKeyName.accessKeyName(rs.getString(2)))
+						  .withDescription(rs.getString(3))
+						  .withDateCreated(rs.getTimestamp(4))
+						  .build(),
+					keys,
+					pattern);
 	}
 
 }
@@ -20,9 +20,16 @@ import static io.leitstand.security.accesskeys.model.AccessKey.findByAccessKeyId
 import static io.leitstand.security.auth.accesskeys.AccessKeyId.accessKeyId;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.emptySet;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.logging.Logger.getLogger;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
@@ -68,7 +75,7 @@ public class DefaultAccessKeyValidatorService implements AccessKeyValidatorServi
 		}
 		
 		public void nextCheck() {
-			nextCheck = currentTimeMillis() + SECONDS.toSeconds(60);
+			nextCheck = currentTimeMillis() + SECONDS.toMillis(60);
 		}
 	}
 	
@@ -163,6 +170,47 @@ public class DefaultAccessKeyValidatorService implements AccessKeyValidatorServi
 		return false;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<AccessKeyId> getRevokedAccessKeys(Collection<AccessKeyId> keyIds) {
+		Set<AccessKeyId> revoked = new HashSet<>();
+		List<AccessKeyId> unknown = new ArrayList<>();
+		for (AccessKeyId keyId : new HashSet<>(keyIds)) {
+			AccessKeyState state = getKeyState(keyId);
+			if (state.isRevoked()) {
+				revoked.add(keyId);
+			} else if (state.evaluateState()) {
+				unknown.add(keyId);
+			}
+		}
+		
+		if (unknown.isEmpty()) {
+			return revoked.isEmpty() ? emptySet() : revoked;
+		}
+		
+		// Check all keys of unknown state with a single query.
+		StringJoiner params = new StringJoiner(",","(",")");
+		unknown.forEach(keyId -> params.add("?"));
+		Set<String> existing = new HashSet<>(db.executeQuery(prepare("SELECT uuid FROM auth.accesskey WHERE uuid IN "+params, 
+																	 unknown.toArray()), 
+															 rs -> rs.getString(1)));
+		for (AccessKeyId keyId : unknown) {
+			AccessKeyState state = getKeyState(keyId);
+			if (existing.contains(keyId.toString())) {
+				state.nextCheck();
+				continue;
+			}
+			// Key is revoked as no database record exists.
+			state.revoked();
+			revoked.add(keyId);
+			LOG.warning(() -> format("Access attempt with revoked key %s.", 
+								 	 keyId));
+		}
+		return revoked;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -28,7 +28,6 @@ import static javax.crypto.Cipher.DECRYPT_MODE;
 import java.util.Properties;
 import java.util.logging.Logger;
 
-import javax.annotation.PostConstruct;
 import javax.crypto.Cipher;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
@@ -53,8 +52,8 @@ class LegacyMasterSecret {
     
     private Environment env;
     
-    private byte[] master;
-    private byte[] iv;
+    private volatile byte[] master;
+    private volatile byte[] iv;
     
     protected LegacyMasterSecret() {
         // CDI
@@ -65,10 +64,17 @@ class LegacyMasterSecret {
         this.env = env;
     }
     
-    @PostConstruct
-    public void init() {
-        this.master = new byte[AES_KEY_SIZE];
-        this.iv     = new byte[GCM_IV_LENGTH];
+    /**
+     * Derives the legacy master secret. 
+     * The master secret is derived lazily when the first legacy secret gets decrypted.
+     */
+    public synchronized void init() {
+        if (master != null) {
+            // Already initialized
+            return;
+        }
+        byte[] master = new byte[AES_KEY_SIZE];
+        byte[] iv     = new byte[GCM_IV_LENGTH];
         
         // Load the master.secret file. 
         // Defaults to empty properties file, if file does not exist.
@@ -116,10 +122,14 @@ class LegacyMasterSecret {
                       0,
                       GCM_IV_LENGTH);
         }
-        
+        this.iv = iv;
+        this.master = master;
     }
     
     public byte[] decrypt(byte[] ciphertext){
+        if (master == null) {
+            init();
+        }
         try{
             Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
             cipher.init(DECRYPT_MODE, 
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.accesskeys.rs;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_FORM_URLENCODED;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+import javax.inject.Inject;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import io.leitstand.commons.AccessDeniedException;
+import io.leitstand.commons.rs.Public;
+import io.leitstand.commons.rs.Resource;
+import io.leitstand.security.accesskeys.service.AccessKeyExchangeService;
+import io.leitstand.security.accesskeys.service.TemporaryAccessToken;
+
+/**
+ * REST resource to exchange a long-living API access key for a short-living access token.
+ * <p>
+ * The resource is public, because the API access key is the credential of the exchange request.
+ */
+@Public
+@Resource
+@Path("/accesskeys/_exchange")
+@Consumes(APPLICATION_FORM_URLENCODED)
+@Produces(APPLICATION_JSON)
+public class AccessKeyExchangeResource {
+
+	private AccessKeyExchangeService service;
+	
+	public AccessKeyExchangeResource() {
+		// CDI and JAX-RS
+	}
+	
+	@Inject
+	protected AccessKeyExchangeResource(AccessKeyExchangeService service) {
+		this.service = service;
+	}
+	
+	/**
+	 * Exchanges a long-living API access key for a short-living access token.
+	 * @param accessKey the long-living API access key
+	 * @return the short-living access token
+	 * @throws AccessDeniedException if the access key is invalid, expired, revoked or a temporary access key.
+	 */
+	@POST
+	public TemporaryAccessToken exchangeAccessKey(@FormParam("access_key") String accessKey) {
+		return service.exchangeAccessKey(accessKey);
+	}
+	
+}
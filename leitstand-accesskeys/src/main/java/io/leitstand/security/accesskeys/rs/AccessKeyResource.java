@@ -21,6 +21,9 @@ import static io.leitstand.security.accesskeys.rs.Scopes.ADM_ACCESSKEY_READ;
 import static io.leitstand.security.accesskeys.rs.Scopes.ADM_READ;
 import static io.leitstand.security.accesskeys.service.AccessKeyName.accessKeyName;
 import static io.leitstand.security.accesskeys.service.AccessKeySettings.newAccessKeySettings;
+import static io.leitstand.security.auth.rs.EntityTags.conditionalGet;
+import static io.leitstand.security.auth.rs.EntityTags.entityTag;
+import static io.leitstand.security.auth.rs.JsonArrayOutput.jsonArray;
 import static java.lang.String.format;
 import static java.net.URI.create;
 import static javax.servlet.http.HttpServletResponse.SC_CONFLICT;
@@ -33,8 +36,6 @@ import static javax.ws.rs.core.Response.noContent;
 import static javax.ws.rs.core.Response.ok;
 import static javax.ws.rs.core.Response.status;
 
-import java.util.List;
-
 import javax.inject.Inject;
 import javax.validation.Valid;
 import javax.ws.rs.Consumes;
@@ -47,7 +48,10 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Providers;
 
 import io.leitstand.commons.AccessDeniedException;
 import io.leitstand.commons.UnprocessableEntityException;
@@ -92,25 +96,40 @@ public class AccessKeyResource {
 	
 	/**
 	 * Lists all access key matching the given filter query.
+	 * The access keys are streamed to the client as they are read from the database.
 	 * @param filter access key name pattern
+	 * @param providers the JAX-RS providers to serialize the access keys
 	 * @return list of all matching access keys.
 	 */
 	@GET
 	@Scopes({ADM,ADM_READ,ADM_ACCESSKEY,ADM_ACCESSKEY_READ})
-	public List<AccessKeyInfo> findAccessKey(@QueryParam("filter") @DefaultValue(".*") String filter){
-		return service.findAccessKeys(filter);
+	public Response findAccessKey(@QueryParam("filter") @DefaultValue(".*") String filter,
+								  @Context Providers providers){
+		return ok(jsonArray(AccessKeyInfo.class, 
+							providers, 
+							keys -> service.findAccessKeys(filter, keys)),
+				  APPLICATION_JSON).build();
 	}
 	
 	/**
 	 * Returns the access key with the given ID.
+	 * An access key is immutable except for its description. 
+	 * Renewing an access key creates a new access key with a new ID.
+	 * Hence the entity tag is derived from the access key ID and the description.
+	 * @param request the request to evaluate the <code>If-None-Match</code> header
 	 * @param accessKeyId the access key ID
 	 * @return the access key with the given ID
 	 */
 	@GET
 	@Path("/{key_id}")
 	@Scopes({ADM,ADM_READ,ADM_ACCESSKEY,ADM_ACCESSKEY_READ})
-	public AccessKeySettings getAccessKey(@PathParam("key_id") @Valid AccessKeyId accessKeyId){
-		return service.getAccessKey(accessKeyId);
+	public Response getAccessKey(@Context Request request,
+								 @PathParam("key_id") @Valid AccessKeyId accessKeyId){
+		AccessKeySettings key = service.getAccessKey(accessKeyId);
+		return conditionalGet(request, 
+							  entityTag(key.getAccessKeyId(), 
+									  	key.getDescription()), 
+							  () -> key);
 	}
 	
 	/**
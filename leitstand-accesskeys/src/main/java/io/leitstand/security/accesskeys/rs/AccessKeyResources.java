@@ -35,7 +35,8 @@ public class AccessKeyResources implements ApiResourceProvider {
 	 */
 	@Override
 	public Set<Class<?>> getResources() {
-		return asSet(AccessKeyResource.class);
+		return asSet(AccessKeyResource.class,
+					 AccessKeyExchangeResource.class);
 	}
 
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.accesskeys.service;
+
+import io.leitstand.commons.AccessDeniedException;
+
+/**
+ * The <code>AccessKeyExchangeService</code> exchanges a long-living API access key for a short-living access token.
+ * <p>
+ * A long-living API access key must be checked for revocation whenever it is used.
+ * The short-living access token is a temporary API access key with the same scopes, 
+ * which is verified by its signature and expiry date only.
+ * Hence the revocation check is moved from every request to the exchange of the API access key.
+ */
+public interface AccessKeyExchangeService {
+
+	/**
+	 * Exchanges a long-living API access key for a short-living access token.
+	 * @param accessKey the long-living API access key
+	 * @return the short-living access token
+	 * @throws AccessDeniedException if the access key is invalid, expired, revoked or a temporary access key.
+	 */
+	TemporaryAccessToken exchangeAccessKey(String accessKey);
+	
+}
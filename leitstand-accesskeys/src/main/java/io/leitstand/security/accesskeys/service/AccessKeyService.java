@@ -16,6 +16,7 @@
 package io.leitstand.security.accesskeys.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import io.leitstand.commons.ConflictException;
 import io.leitstand.commons.EntityNotFoundException;
@@ -65,4 +66,12 @@ public interface AccessKeyService {
 	 */
 	List<AccessKeyInfo> findAccessKeys(String filter);
 	
+	/**
+	 * Passes all access keys with a matching name to the given consumer.
+	 * The access keys are passed while the query result is read and are not retained by the service.
+	 * @param filter the name pattern
+	 * @param keys the consumer of the matching access keys
+	 */
+	void findAccessKeys(String filter, Consumer<AccessKeyInfo> keys);
+	
 }
@@ -1,5 +1,9 @@
 package io.leitstand.security.accesskeys.service;
 
+import java.util.Collection;
+import java.util.Set;
+
+import io.leitstand.security.auth.accesskeys.AccessKeyId;
 import io.leitstand.security.auth.jwt.Jwt;
 
 
@@ -15,6 +19,15 @@ public interface AccessKeyValidatorService {
 	 */
 	boolean isRevoked(Jwt jwt);
 	
+	/**
+	 * Returns the revoked access keys of the given access keys.
+	 * All access keys of unknown state are checked by a single query,
+	 * which allows checking a batch of access keys with one database round trip.
+	 * @param keyIds the IDs of the non-temporary access keys to be checked
+	 * @return the IDs of the revoked access keys or an empty set if no access key has been revoked.
+	 */
+	Set<AccessKeyId> getRevokedAccessKeys(Collection<AccessKeyId> keyIds);
+	
 	/**
 	 * Decodes and validates an access key JSON web token.
 	 * @param token the access key JSON web token.
@@ -65,7 +65,19 @@ public enum ReasonCode implements Reason{
 	/**
 	 * Cannot sign the access key due to a configuration issue.
 	 */
-	AKY0103E_CANNOT_SIGN_ACCESSKEY;
+	AKY0103E_CANNOT_SIGN_ACCESSKEY,
+	/**
+	 * The access key cannot be exchanged because it has been revoked.
+	 */
+	AKY0104E_ACCESSKEY_REVOKED,
+	/**
+	 * The access key cannot be exchanged because it has expired.
+	 */
+	AKY0105E_ACCESSKEY_EXPIRED,
+	/**
+	 * The access key cannot be exchanged because it is a temporary access key.
+	 */
+	AKY0106E_TEMPORARY_ACCESSKEY_NOT_EXCHANGEABLE;
 	
 	private static final ResourceBundle MESSAGES = ResourceBundle.getBundle("AccesskeyMessages");
 	
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.accesskeys.service;
+
+import static io.leitstand.commons.model.BuilderUtil.assertNotInvalidated;
+
+import javax.json.bind.annotation.JsonbProperty;
+
+import io.leitstand.commons.model.ValueObject;
+
+/**
+ * A short-living access token issued in exchange for a long-living API access key.
+ * The token is formatted as an OAuth2 access token response.
+ */
+public class TemporaryAccessToken extends ValueObject {
+
+	/**
+	 * Creates a builder for an immutable <code>TemporaryAccessToken</code>.
+	 * @return a builder for an immutable <code>TemporaryAccessToken</code>.
+	 */
+	public static Builder newTemporaryAccessToken() {
+		return new Builder();
+	}
+	
+	/**
+	 * A builder for an immutable <code>TemporaryAccessToken</code>.
+	 */
+	public static class Builder {
+		
+		private TemporaryAccessToken token = new TemporaryAccessToken();
+		
+		/**
+		 * Sets the signed access token.
+		 * @param accessToken the signed access token
+		 * @return a reference to this builder to continue with object creation
+		 */
+		public Builder withAccessToken(String accessToken) {
+			assertNotInvalidated(getClass(), token);
+			token.accessToken = accessToken;
+			return this;
+		}
+		
+		/**
+		 * Sets the access token time-to-live in seconds.
+		 * @param expiresIn the access token time-to-live in seconds
+		 * @return a reference to this builder to continue with object creation
+		 */
+		public Builder withExpiresIn(int expiresIn) {
+			assertNotInvalidated(getClass(), token);
+			token.expiresIn = expiresIn;
+			return this;
+		}
+		
+		/**
+		 * Returns the immutable <code>TemporaryAccessToken</code> and invalidates this builder.
+		 * @return the immutable <code>TemporaryAccessToken</code>.
+		 */
+		public TemporaryAccessToken build() {
+			try {
+				assertNotInvalidated(getClass(), token);
+				return token;
+			} finally {
+				this.token = null;
+			}
+		}
+	}
+	
+	@JsonbProperty("access_token")
+	private String accessToken;
+	
+	@JsonbProperty("token_type")
+	private String tokenType = "Bearer";
+	
+	@JsonbProperty("expires_in")
+	private int expiresIn;
+	
+	/**
+	 * Returns the signed access token.
+	 * @return the signed access token.
+	 */
+	public String getAccessToken() {
+		return accessToken;
+	}
+	
+	/**
+	 * Returns the token type, which is always <code>Bearer</code>.
+	 * @return the token type.
+	 */
+	public String getTokenType() {
+		return tokenType;
+	}
+	
+	/**
+	 * Returns the access token time-to-live in seconds.
+	 * @return the access token time-to-live in seconds.
+	 */
+	public int getExpiresIn() {
+		return expiresIn;
+	}
+	
+}
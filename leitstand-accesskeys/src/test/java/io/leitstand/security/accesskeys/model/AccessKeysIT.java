@@ -27,6 +27,16 @@ import io.leitstand.testing.it.JpaIT;
 
 public class AccessKeysIT extends JpaIT{
 
+	private static DataSource dataSource;
+	
+	/**
+	 * Returns the data source of the test database.
+	 * @return the data source of the test database.
+	 */
+	protected static DataSource dataSource() {
+		return dataSource;
+	}
+
 	@Override
 	protected Properties getConnectionProperties() {
 		try {
@@ -40,6 +50,7 @@ public class AccessKeysIT extends JpaIT{
 	
 	@Override
 	protected void initDatabase(DataSource ds) throws SQLException {
+		dataSource = ds;
 		try(Connection c = ds.getConnection()){
 			c.createStatement().execute("CREATE SCHEMA AUTH");
 			c.createStatement().execute("CREATE SCHEMA LEITSTAND");
@@ -0,0 +1,116 @@
+package io.leitstand.security.accesskeys.model;
+
+import static io.leitstand.security.accesskeys.service.ReasonCode.AKY0104E_ACCESSKEY_REVOKED;
+import static io.leitstand.security.accesskeys.service.ReasonCode.AKY0105E_ACCESSKEY_EXPIRED;
+import static io.leitstand.security.accesskeys.service.ReasonCode.AKY0106E_TEMPORARY_ACCESSKEY_NOT_EXCHANGEABLE;
+import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.auth.accesskeys.AccessKeyId.randomAccessKeyId;
+import static io.leitstand.security.auth.accesskeys.ApiAccessKey.newApiAccessKey;
+import static io.leitstand.testing.ut.LeitstandCoreMatchers.reason;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import io.leitstand.commons.AccessDeniedException;
+import io.leitstand.commons.etc.Environment;
+import io.leitstand.security.accesskeys.service.AccessKeyValidatorService;
+import io.leitstand.security.accesskeys.service.TemporaryAccessToken;
+import io.leitstand.security.auth.accesskeys.AccessKeyId;
+import io.leitstand.security.auth.accesskeys.ApiAccessKey;
+
+public class DefaultAccessKeyExchangeServiceTest {
+
+	@Rule
+	public TemporaryFolder envFolder = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	private DefaultApiAccessKeyService codec;
+	private AccessKeyValidatorService validator;
+	private DefaultAccessKeyExchangeService service;
+
+	@Before
+	public void initTestEnvironment() throws IOException {
+		codec = new DefaultApiAccessKeyService(new AccessKeyConfig(new Environment(envFolder.newFolder())));
+		validator = mock(AccessKeyValidatorService.class);
+		when(validator.getRevokedAccessKeys(anyCollectionOf(AccessKeyId.class))).thenReturn(emptySet());
+		service = new DefaultAccessKeyExchangeService(codec, validator);
+	}
+
+	private String accessKey(AccessKeyId id, Date expiry) {
+		return codec.encode(newApiAccessKey()
+							.withId(id)
+							.withUserName(userName("unittest"))
+							.withScopes("ivt","ivt.read")
+							.withDateExpiry(expiry)
+							.build());
+	}
+
+	@Test
+	public void exchange_access_key_for_temporary_access_key_with_same_scopes() {
+		AccessKeyId id = randomAccessKeyId();
+
+		TemporaryAccessToken token = service.exchangeAccessKey(accessKey(id, null));
+
+		ApiAccessKey temporary = codec.decode(token.getAccessToken());
+		assertTrue(temporary.isTemporary());
+		assertEquals(id,temporary.getId());
+		assertEquals(userName("unittest"),temporary.getUserName());
+		assertEquals(2,temporary.getScopes().size());
+		assertTrue(temporary.getScopes().contains("ivt.read"));
+		assertEquals("Bearer",token.getTokenType());
+		assertTrue(token.getExpiresIn() > 290 && token.getExpiresIn() <= 300);
+	}
+
+	@Test
+	public void temporary_access_key_does_not_outlive_access_key() {
+		TemporaryAccessToken token = service.exchangeAccessKey(accessKey(randomAccessKeyId(), 
+																		 new Date(currentTimeMillis()+MINUTES.toMillis(1))));
+
+		assertTrue(token.getExpiresIn() <= 60);
+	}
+
+	@Test
+	public void throw_AccessDeniedException_when_access_key_is_revoked() {
+		exception.expect(AccessDeniedException.class);
+		exception.expect(reason(AKY0104E_ACCESSKEY_REVOKED));
+		AccessKeyId id = randomAccessKeyId();
+		when(validator.getRevokedAccessKeys(singleton(id))).thenReturn(singleton(id));
+
+		service.exchangeAccessKey(accessKey(id, null));
+	}
+
+	@Test
+	public void throw_AccessDeniedException_when_access_key_is_expired() {
+		exception.expect(AccessDeniedException.class);
+		exception.expect(reason(AKY0105E_ACCESSKEY_EXPIRED));
+
+		service.exchangeAccessKey(accessKey(randomAccessKeyId(), new Date(currentTimeMillis()-1000)));
+	}
+
+	@Test
+	public void throw_AccessDeniedException_when_access_key_is_temporary() {
+		exception.expect(AccessDeniedException.class);
+		exception.expect(reason(AKY0106E_TEMPORARY_ACCESSKEY_NOT_EXCHANGEABLE));
+		TemporaryAccessToken token = service.exchangeAccessKey(accessKey(randomAccessKeyId(), null));
+
+		service.exchangeAccessKey(token.getAccessToken());
+	}
+
+}
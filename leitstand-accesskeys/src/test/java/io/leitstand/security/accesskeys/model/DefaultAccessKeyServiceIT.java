@@ -73,7 +73,7 @@ public class DefaultAccessKeyServiceIT extends AccessKeysIT{
 		doNothing().when(event).fire(captor.capture());
 		encoder = new DefaultApiAccessKeyService(config);
 		service = new DefaultAccessKeyService(repository,
-											  getDatabase(),
+											  dataSource(),
 											  encoder,
 											  event);
 	}
@@ -0,0 +1,71 @@
+package io.leitstand.security.auth.client;
+
+import static com.nimbusds.jose.JWSAlgorithm.RS256;
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+
+import io.leitstand.security.auth.jwt.DefaultJwksDecoder;
+import io.leitstand.security.auth.jwt.Jwt;
+import io.leitstand.security.auth.jwt.JwtDecoder;
+import io.leitstand.security.auth.jwt.JwtException;
+
+/**
+ * An immutable verifier holding one decoder per trusted key, indexed by the key ID.
+ * <p>
+ * A token is verified by the decoder of the key referred to by the token header,
+ * which avoids probing all keys of the key set.
+ * Keys without key ID are ignored.
+ */
+final class KeyIndexedVerifier {
+
+	private final Map<String,JwtDecoder> decoders;
+
+	KeyIndexedVerifier(JWKSet keySet) {
+		Map<String,JwtDecoder> decoders = new HashMap<>();
+		for (JWK key : keySet.getKeys()) {
+			if (key.getKeyID() != null) {
+				decoders.put(key.getKeyID(), new DefaultJwksDecoder(RS256, key));
+			}
+		}
+		this.decoders = unmodifiableMap(decoders);
+	}
+
+	/**
+	 * Tests whether this verifier trusts the key with the given key ID.
+	 * @param keyId the key ID
+	 * @return <code>true</code> if the key is trusted, <code>false</code> otherwise.
+	 */
+	boolean knows(String keyId) {
+		return keyId != null && decoders.containsKey(keyId);
+	}
+
+	/**
+	 * Verifies a token against the key with the given key ID.
+	 * @param token the JSON web token
+	 * @param keyId the key ID from the token header
+	 * @return the verified token
+	 * @throws JwtException if the key is unknown, the signature is invalid or the token has expired.
+	 */
+	Jwt verify(String token, String keyId) {
+		JwtDecoder decoder = decoders.get(keyId);
+		if (decoder == null) {
+			throw new JwtException("Untrusted token key: "+keyId);
+		}
+		return decoder.decodeToken(token);
+	}
+
+	/**
+	 * Returns the IDs of all trusted keys.
+	 * @return the IDs of all trusted keys.
+	 */
+	Set<String> getKeyIds() {
+		return decoders.keySet();
+	}
+
+}
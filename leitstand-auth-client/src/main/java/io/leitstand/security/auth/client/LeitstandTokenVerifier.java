@@ -0,0 +1,229 @@
+package io.leitstand.security.auth.client;
+
+import static com.nimbusds.jose.util.JSONObjectUtils.getURI;
+import static io.leitstand.security.auth.jwt.Jwt.keyIdOf;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Logger.getLogger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.text.ParseException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jose.util.ResourceRetriever;
+
+import io.leitstand.security.auth.jwt.Jwt;
+import io.leitstand.security.auth.jwt.JwtException;
+
+/**
+ * The <code>LeitstandTokenVerifier</code> verifies Leitstand access tokens locally
+ * against the trusted keys published by the Leitstand authorization service.
+ * <p>
+ * The verifier reads the JSON Web Key Set (JWKS) location from the <code>/system/auth/config</code> resource
+ * and loads the trusted keys when the first token is verified.
+ * The key set is reloaded whenever a token refers to an unknown key ID and when the key set is older than one hour.
+ * Reloads are rate-limited and single-flight: concurrent callers await the running reload
+ * and no reload is attempted if the last attempt is more recent than the minimum refresh interval.
+ * A key set that is only too old is reloaded by a single caller per refresh interval. 
+ * All other callers continue with the current key set without waiting for the reload.
+ * The last successfully loaded key set remains in use if the authorization service is unreachable.
+ * <p>
+ * Consequently, the authorization service is only contacted when keys are rotated.
+ * Long-living API access keys can be revoked before they expire, which cannot be detected locally.
+ * See {@link UserContext#isRevocable()} for details.
+ */
+public class LeitstandTokenVerifier {
+
+	private static final Logger LOG = getLogger(LeitstandTokenVerifier.class.getName());
+
+	private static final String SETTINGS_PATH = "/system/auth/config";
+	private static final String BEARER_PREFIX = "Bearer ";
+	private static final int TIMEOUT_MILLIS = 5000;
+	private static final long MIN_REFRESH_INTERVAL = SECONDS.toMillis(30);
+	private static final long MAX_KEY_SET_AGE = HOURS.toMillis(1);
+
+	private final URI settingsUri;
+	private final ResourceRetriever retriever;
+	private final long minRefreshIntervalMillis;
+	private final long maxKeySetAgeMillis;
+	private final AtomicLong lastAttempt = new AtomicLong();
+	private volatile KeyIndexedVerifier current;
+	private volatile URI jwksUri;
+	private volatile URI tokenEndpoint;
+	private volatile long lastRefresh;
+
+	/**
+	 * Creates a <code>LeitstandTokenVerifier</code>.
+	 * @param authService the base URI of the Leitstand authorization service, e.g. <code>http://rbms-app:8080</code>
+	 */
+	public LeitstandTokenVerifier(URI authService) {
+		this(authService,
+			 new DefaultResourceRetriever(TIMEOUT_MILLIS, TIMEOUT_MILLIS),
+			 MIN_REFRESH_INTERVAL);
+	}
+
+	/**
+	 * Creates a <code>LeitstandTokenVerifier</code>.
+	 * @param authService the base URI of the Leitstand authorization service, e.g. <code>http://rbms-app:8080</code>
+	 * @param retriever the retriever to read the authorization service settings and the trusted keys
+	 * @param minRefreshIntervalMillis the minimum interval between two key set reloads in milliseconds
+	 */
+	public LeitstandTokenVerifier(URI authService,
+								  ResourceRetriever retriever,
+								  long minRefreshIntervalMillis) {
+		this(authService,
+			 retriever,
+			 minRefreshIntervalMillis,
+			 MAX_KEY_SET_AGE);
+	}
+
+	LeitstandTokenVerifier(URI authService,
+						   ResourceRetriever retriever,
+						   long minRefreshIntervalMillis,
+						   long maxKeySetAgeMillis) {
+		String base = authService.toString();
+		if (base.endsWith("/")) {
+			base = base.substring(0, base.length()-1);
+		}
+		this.settingsUri = URI.create(base+SETTINGS_PATH);
+		this.retriever = retriever;
+		this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+		this.maxKeySetAgeMillis = maxKeySetAgeMillis;
+	}
+
+	/**
+	 * Verifies the bearer token of a HTTP <code>Authorization</code> header.
+	 * @param authorization the <code>Authorization</code> header value
+	 * @return the authenticated user
+	 * @throws JwtException if the header does not convey a bearer token or the bearer token is invalid or expired.
+	 */
+	public UserContext verifyAuthorization(String authorization) {
+		if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+			throw new JwtException("Missing bearer token");
+		}
+		return verify(authorization.substring(BEARER_PREFIX.length()).trim());
+	}
+
+	/**
+	 * Verifies an access token.
+	 * @param token the access token
+	 * @return the authenticated user
+	 * @throws JwtException if the token is malformed, signed by an untrusted key or expired.
+	 */
+	public UserContext verify(String token) {
+		String keyId = keyIdOf(token);
+		if (keyId == null) {
+			throw new JwtException("Missing token key ID");
+		}
+		KeyIndexedVerifier verifier = verifierFor(keyId);
+		if (verifier == null) {
+			throw new JwtException("Trusted keys not available");
+		}
+		Jwt jwt = verifier.verify(token, keyId);
+		if (jwt.isExpired()) {
+			throw new JwtException("Expired token");
+		}
+		return new UserContext(jwt);
+	}
+
+	private KeyIndexedVerifier verifierFor(String keyId) {
+		KeyIndexedVerifier verifier = current;
+		if (verifier != null && verifier.knows(keyId)) {
+			if (currentTimeMillis() - lastRefresh >= maxKeySetAgeMillis) {
+				refreshExpiredVerifier();
+				return current;
+			}
+			return verifier;
+		}
+		return refreshStaleVerifier(verifier);
+	}
+
+	private void refreshExpiredVerifier() {
+		long attempt = lastAttempt.get();
+		long now = currentTimeMillis();
+		// Only the caller claiming the attempt reloads the key set. 
+		// All other callers continue with the current key set, even if the authorization service is unreachable.
+		if (now - attempt >= minRefreshIntervalMillis && lastAttempt.compareAndSet(attempt, now)) {
+			refresh();
+		}
+	}
+
+	private synchronized KeyIndexedVerifier refreshStaleVerifier(KeyIndexedVerifier stale) {
+		if (current != stale) {
+			// Key set reloaded by a concurrent request.
+			return current;
+		}
+		if (currentTimeMillis() - lastAttempt.get() < minRefreshIntervalMillis) {
+			// Rate limit reached. Do not bother the authorization service.
+			return stale;
+		}
+		refresh();
+		return current;
+	}
+
+	/**
+	 * Reloads the trusted keys from the authorization service.
+	 * The current key set remains in use if the key set cannot be loaded.
+	 * @return <code>true</code> if the key set was reloaded, <code>false</code> otherwise.
+	 */
+	public synchronized boolean refresh() {
+		lastAttempt.set(currentTimeMillis());
+		try {
+			if (jwksUri == null) {
+				readSettings();
+			}
+			KeyIndexedVerifier verifier = new KeyIndexedVerifier(JWKSet.parse(retrieve(jwksUri)));
+			current = verifier;
+			lastRefresh = currentTimeMillis();
+			LOG.fine(() -> format("JSON Web Key Set refreshed. Trusted key IDs: %s",
+								  verifier.getKeyIds()));
+			return true;
+		} catch (IOException | ParseException | RuntimeException e) {
+			LOG.warning(() -> format("Cannot refresh JSON Web Key Set from %s. Continue with last known key set. Reason: %s",
+									 jwksUri != null ? jwksUri : settingsUri,
+									 e.getMessage()));
+			LOG.log(FINER, e.getMessage(), e);
+			return false;
+		}
+	}
+
+	private void readSettings() throws IOException, ParseException {
+		Map<String,Object> settings = JSONObjectUtils.parse(retrieve(settingsUri));
+		URI jwks = getURI(settings, "jwksUri");
+		if (jwks == null) {
+			throw new ParseException("Missing JWKS URI", 0);
+		}
+		tokenEndpoint = getURI(settings, "tokenEndpoint");
+		jwksUri = jwks;
+	}
+
+	private String retrieve(URI uri) throws IOException {
+		return retriever.retrieveResource(uri.toURL()).getContent();
+	}
+
+	/**
+	 * Returns the token endpoint to refresh expired access tokens.
+	 * @return the token endpoint or <code>null</code> if the authorization service settings have not been read yet.
+	 */
+	public URI getTokenEndpoint() {
+		return tokenEndpoint;
+	}
+
+	/**
+	 * Returns the timestamp of the last successful key set reload in milliseconds since epoch.
+	 * @return the timestamp of the last successful key set reload or <code>0</code> if no key set has been loaded yet.
+	 */
+	public long getLastRefresh() {
+		return lastRefresh;
+	}
+
+}
@@ -0,0 +1,67 @@
+package io.leitstand.security.auth.client;
+
+import java.util.Date;
+import java.util.Set;
+
+import io.leitstand.security.auth.accesskeys.ApiAccessKeys;
+import io.leitstand.security.auth.jwt.Claims;
+import io.leitstand.security.auth.jwt.Jwt;
+
+/**
+ * The authenticated user of a verified access token.
+ */
+public final class UserContext {
+
+	private final Claims claims;
+	private final boolean revocable;
+
+	UserContext(Jwt jwt) {
+		this.claims = jwt.getClaims();
+		this.revocable = ApiAccessKeys.isRevocable(jwt);
+	}
+
+	/**
+	 * Returns the name of the authenticated user.
+	 * @return the name of the authenticated user.
+	 */
+	public String getUserName() {
+		return claims.getSubject();
+	}
+
+	/**
+	 * Returns the scopes granted to the authenticated user.
+	 * @return the granted scopes or an empty set if no scopes are granted.
+	 */
+	public Set<String> getScopes() {
+		return claims.getScopes();
+	}
+
+	/**
+	 * Tests whether at least one of the given scopes is granted to the authenticated user.
+	 * Wildcard grants like <code>adm.*</code> contain the parent scope and all its sub-scopes.
+	 * @param scopes the required scopes
+	 * @return <code>true</code> if at least one of the given scopes is granted, <code>false</code> otherwise.
+	 */
+	public boolean hasScope(String... scopes) {
+		return claims.hasScope(scopes);
+	}
+
+	/**
+	 * Returns when the access token expires.
+	 * @return the expiry date or <code>null</code> if the token does not expire.
+	 */
+	public Date getExpiresAt() {
+		return claims.getExpiresAt();
+	}
+
+	/**
+	 * Returns whether the access token is a long-living API access key, which can be revoked before it expires.
+	 * A revoked access key cannot be detected by a local verification.
+	 * Services that must reject revoked access keys immediately shall introspect revocable tokens at the authorization service.
+	 * @return <code>true</code> if the token is a long-living API access key, <code>false</code> otherwise.
+	 */
+	public boolean isRevocable() {
+		return revocable;
+	}
+
+}
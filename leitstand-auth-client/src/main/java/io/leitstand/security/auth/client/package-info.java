@@ -0,0 +1,4 @@
+/**
+ * Verifies Leitstand access tokens locally against the trusted keys of the Leitstand authorization service.
+ */
+package io.leitstand.security.auth.client;
\ No newline at end of file
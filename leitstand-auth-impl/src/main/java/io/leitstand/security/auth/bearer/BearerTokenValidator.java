@@ -4,6 +4,7 @@ import static com.nimbusds.jose.JWSAlgorithm.RS256;
 import static io.leitstand.security.accesskeys.model.AccessKeyConfig.API_KEY_ID;
 import static io.leitstand.security.auth.UserName.userName;
 import static io.leitstand.security.auth.http.Authorization.authorization;
+import static io.leitstand.security.auth.jwt.Jwt.keyIdOf;
 import static java.util.logging.Logger.getLogger;
 import static java.util.stream.Collectors.toList;
 import static javax.security.enterprise.identitystore.CredentialValidationResult.INVALID_RESULT;
@@ -11,6 +12,7 @@ import static javax.security.enterprise.identitystore.CredentialValidationResult
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.logging.Logger;
@@ -34,18 +36,22 @@ import io.leitstand.security.auth.jwt.DefaultJwksDecoder;
 import io.leitstand.security.auth.jwt.Jwt;
 import io.leitstand.security.auth.jwt.JwtDecoder;
 import io.leitstand.security.auth.jwt.JwtException;
-import io.leitstand.security.sso.oidc.config.OidcConfig;
+import io.leitstand.security.sso.oidc.config.OidcIssuers;
 import io.leitstand.security.sso.standalone.config.StandaloneLoginConfig;
 
 /**
  * The <code>BearerTokenValidator</code> validates a bearer token against the the API access and the OpenId/Connect or standalone login key. 
+ * <p>
+ * Tokens signed by a Leitstand key are verified against the API access and standalone login keys.
+ * All other tokens are routed to the trusted OpenID/Connect issuer owning the token key and verified against the 
+ * current key set of this issuer, which gets refreshed when the issuer rotates its keys.
  */
 @ApplicationScoped
 public class BearerTokenValidator implements AccessTokenManager {
 	
 	private static final Logger LOG = getLogger(BearerTokenValidator.class.getName());
 
-    private OidcConfig oidcConfig;
+    private OidcIssuers oidcIssuers;
     
     private StandaloneLoginConfig standaloneConfig;
     
@@ -57,6 +63,8 @@ public class BearerTokenValidator implements AccessTokenManager {
     
     private JwtDecoder decoder;
     
+    private Set<String> localKeyIds;
+    
     protected BearerTokenValidator() {
     	// CDI
     }
@@ -66,22 +74,20 @@ public class BearerTokenValidator implements AccessTokenManager {
     							   UserContextProvider userContext,
     							   AccessKeyConfig accessKeyConfig,
     							   StandaloneLoginConfig standaloneConfig,
-    							   OidcConfig oidcConfig) {
+    							   OidcIssuers oidcIssuers) {
     	this.accesskeys = accesskeys;
     	this.userContext = userContext;
     	this.accessKeyConfig = accessKeyConfig;
     	this.standaloneConfig = standaloneConfig;
-    	this.oidcConfig = oidcConfig;
+    	this.oidcIssuers = oidcIssuers;
     }
     
     @PostConstruct
     protected void createJwtDecoder() {
     	
-    	// Build set of trusted keys.
+    	// Build set of trusted Leitstand keys.
+    	// OpenID/Connect keys are managed by the OpenID/Connect configuration.
     	List<JWK> trustedKeys = new LinkedList<>();
-    	if (oidcConfig != null) {
-    		trustedKeys.addAll(oidcConfig.getKeySet().getKeys());
-    	}
     	if (standaloneConfig != null) {
     		trustedKeys.addAll(standaloneConfig.getKeySet().getKeys());
     	}
@@ -93,13 +99,33 @@ public class BearerTokenValidator implements AccessTokenManager {
     											 .map(JWK::getKeyID)
     											 .collect(toList()));
     	
-    	LOG.info("Bearer tokens must signed with RS256 and use one of the following keys: "+keyIds);
-    	
+    	if (!oidcIssuers.isEmpty()) {
+    		LOG.info("Bearer tokens must signed with RS256 and use one of the following keys: "+keyIds+" or a key of a trusted OpenID/Connect issuer");
+    	} else {
+    		LOG.info("Bearer tokens must signed with RS256 and use one of the following keys: "+keyIds);
+    	}
     	
+    	localKeyIds = keyIds;
     	decoder = new DefaultJwksDecoder(RS256, trustedKeys);
     	
     }
     
+    /**
+     * Verifies the signature of the given bearer token.
+     * Leitstand tokens are verified against the API access and standalone login keys,
+     * all other tokens against the keys of the trusted OpenID/Connect issuer owning the token key.
+     * The returned token can be expired.
+     * @param token the bearer token
+     * @return the verified token
+     * @throws JwtException if the token is malformed, has an invalid signature or was issued by an untrusted issuer.
+     */
+    public Jwt decodeToken(String token) {
+    	if (oidcIssuers.isEmpty() || localKeyIds.contains(keyIdOf(token))) {
+    		return decoder.decodeToken(token);
+    	}
+    	return oidcIssuers.decodeToken(token);
+    }
+    
     /**
      * Validates a HTTP bearer token against all trusted keys
      * @param request the HTTP request
@@ -113,7 +139,7 @@ public class BearerTokenValidator implements AccessTokenManager {
 		Authorization auth = authorization(request);
 		if(auth != null && auth.isBearerToken()) {
 			try {
-				Jwt jwt = decoder.decodeToken(auth.getCredentials());
+				Jwt jwt = decodeToken(auth.getCredentials());
 				// Reject all expired access tokens.
 				if (jwt.isExpired()) {
 					return INVALID_RESULT;
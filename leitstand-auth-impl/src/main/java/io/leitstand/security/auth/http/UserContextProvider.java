@@ -16,6 +16,11 @@
 package io.leitstand.security.auth.http;
 
 import static io.leitstand.commons.model.ObjectUtil.asSet;
+import static io.leitstand.security.auth.scope.ScopeMask.NO_SCOPES;
+import static io.leitstand.security.auth.scope.ScopeRegistry.scopeRegistry;
+import static io.leitstand.security.auth.scope.ScopeTrie.NO_GRANTS;
+import static io.leitstand.security.auth.scope.ScopeTrie.compile;
+import static io.leitstand.security.auth.scope.ScopeTrie.containsWildcard;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableSet;
 
@@ -25,9 +30,13 @@ import javax.enterprise.context.RequestScoped;
 
 import io.leitstand.security.auth.UserContext;
 import io.leitstand.security.auth.UserName;
+import io.leitstand.security.auth.scope.ScopeMask;
+import io.leitstand.security.auth.scope.ScopeTrie;
 
 /**
  * The <code>UserContextProvider</code> is a request-scoped CDI bean that provides the <code>UserContext</code> of the authenticated user.
+ * <p>
+ * The provider maintains a {@link ScopeMask} of the accessible scopes to test scope access by scope ID rather than by scope name.
  * @author mast
  *
  */
@@ -36,6 +45,8 @@ public class UserContextProvider implements UserContext{
 
 	private UserName userName;
 	private Set<String> scopes = emptySet();
+	private ScopeMask scopeMask = NO_SCOPES;
+	private ScopeTrie grants = NO_GRANTS;
 	private boolean sealed;
 	
 	
@@ -52,13 +63,22 @@ public class UserContextProvider implements UserContext{
 	
 	/**
 	 * Sets the scopes the authenticated user can access.
+	 * Wildcard grants like <code>adm.*</code> grant access to the parent scope and all its sub-scopes.
 	 * @param scopes the accessible scopes.
 	 */
 	public void setScopes(Set<String> scopes) {
 		if(sealed) {
 			throw new IllegalStateException("Cannot change scopes of a sealed user context!");
 		}
-		this.scopes = scopes;
+		this.scopes = unmodifiableSet(scopes);
+		if(containsWildcard(scopes)) {
+			// Wildcard grants cover scopes that are possibly not registered yet and cannot be represented as mask.
+			this.grants = compile(scopes);
+			this.scopeMask = null;
+		} else {
+			this.grants = NO_GRANTS;
+			this.scopeMask = scopeRegistry().mask(scopes);
+		}
 	}
 	
 	/**
@@ -82,7 +102,15 @@ public class UserContextProvider implements UserContext{
 	 */
 	@Override
 	public Set<String> getScopes(){
-		return unmodifiableSet(scopes);
+		return scopes;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ScopeMask getScopeMask() {
+		return scopeMask;
 	}
 
 	/**
@@ -101,8 +129,22 @@ public class UserContextProvider implements UserContext{
 		if(scopes.length == 0) {
 			return !isUnauthenticated();
 		}
+		if(grants.hasWildcards()) {
+			return grants.matchesOneOf(scopes);
+		}
+		if(scopeMask == null) {
+			// Too many scopes to be represented as mask.
+			for(String scope : scopes) {
+				if(this.scopes.contains(scope)) {
+					return true;
+				}
+			}
+			return false;
+		}
 		for(String scope : scopes) {
-			if(this.scopes.contains(scope)) {
+			// All scopes of this user context are registered. 
+			// Unregistered scopes have ID -1 and are never contained in the mask.
+			if(scopeMask.contains(scopeRegistry().getScopeId(scope))) {
 				return true;
 			}
 		}
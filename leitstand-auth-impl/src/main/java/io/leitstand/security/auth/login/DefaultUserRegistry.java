@@ -16,7 +16,6 @@
 package io.leitstand.security.auth.login;
 
 import static io.leitstand.security.auth.UserName.userName;
-import static io.leitstand.security.users.service.UserInfo.newUserInfo;
 import static java.util.Collections.emptySet;
 import static javax.security.enterprise.identitystore.CredentialValidationResult.INVALID_RESULT;
 
@@ -38,25 +37,22 @@ public class DefaultUserRegistry implements UserRegistry{
 
 	private UserService users;
 	
+	private UserInfoCache cache;
+	
 	protected DefaultUserRegistry() {
 		// CDI
 	}
 	
 	@Inject
-	protected DefaultUserRegistry(UserService users) {
+	protected DefaultUserRegistry(UserService users, UserInfoCache cache) {
 		this.users = users;
+		this.cache = cache;
 	}
 	
 	@Override
 	public UserInfo getUserInfo(UserName userName) {
 		try {
-			UserSettings user = users.getUser(userName);
-			return newUserInfo()
-				   .withUserName(user.getUserName())
-				   .withScopes(user.getScopes())
-				   .withAccessTokenTtl(user.getAccessTokenTtl(), 
-						   		   	   user.getAccessTokenTtlUnit())
-				   .build();
+			return cache.getUserInfo(userName, users::getUser);
 		} catch(EntityNotFoundException e) {
 			return null;
 		}
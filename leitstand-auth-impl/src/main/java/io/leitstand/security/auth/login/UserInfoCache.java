@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.login;
+
+import static io.leitstand.commons.etc.Environment.getSystemProperty;
+import static io.leitstand.commons.rs.ResourceUtil.tryParseInt;
+import static io.leitstand.security.users.service.UserInfo.newUserInfo;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.logging.Logger.getLogger;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import io.leitstand.security.auth.UserName;
+import io.leitstand.security.users.event.RoleEvent;
+import io.leitstand.security.users.event.UserEvent;
+import io.leitstand.security.users.service.RoleName;
+import io.leitstand.security.users.service.UserInfo;
+import io.leitstand.security.users.service.UserSettings;
+
+/**
+ * Caches the resolved {@link UserInfo} of recently authenticated users.
+ * <p>
+ * The user info is resolved on every login, every access token refresh and every request authenticated by basic authentication.
+ * Resolving the user info requires loading the user, the user's roles and the scopes of each role from the database.
+ * The cache keeps the resolved user info for a configurable time-to-live and evicts a cached user info
+ * when the user or one of the user's roles is modified or removed.
+ * <p>
+ * The following environment properties allow to tune the cache:
+ * <ul>
+ * <li><code>USER_INFO_CACHE_TTL</code> the time-to-live of a cached user info in seconds. Defaults to 60 seconds. <code>0</code> disables the cache.</li>
+ * <li><code>USER_INFO_CACHE_SIZE</code> the maximum number of cached user infos. Defaults to 1000.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class UserInfoCache {
+	
+	private static final Logger LOG = getLogger(UserInfoCache.class.getName());
+	
+	private static final String USER_INFO_CACHE_TTL  = "USER_INFO_CACHE_TTL";
+	private static final String USER_INFO_CACHE_SIZE = "USER_INFO_CACHE_SIZE";
+	
+	private static final int DEFAULT_TTL  = 60;
+	private static final int DEFAULT_SIZE = 1000;
+
+	private static final class Entry {
+		private final UserInfo userInfo;
+		private final Set<RoleName> roles;
+		private final long expires;
+		
+		private Entry(UserInfo userInfo, Set<RoleName> roles, long expires){
+			this.userInfo = userInfo;
+			this.roles = roles;
+			this.expires = expires;
+		}
+	}
+	
+	private final ConcurrentMap<UserName,Entry> entries = new ConcurrentHashMap<>();
+	// Incremented on every invalidation to discard user infos that were loaded concurrently.
+	private final AtomicLong generation = new AtomicLong();
+	private final long ttlMillis;
+	private final int maxSize;
+	
+	public UserInfoCache() {
+		this(SECONDS.toMillis(max(0, tryParseInt(getSystemProperty(USER_INFO_CACHE_TTL), DEFAULT_TTL))),
+			 max(0, tryParseInt(getSystemProperty(USER_INFO_CACHE_SIZE), DEFAULT_SIZE)));
+	}
+	
+	UserInfoCache(long ttlMillis, int maxSize){
+		this.ttlMillis = ttlMillis;
+		this.maxSize = maxSize;
+	}
+	
+	/**
+	 * Returns the user info of the given user.
+	 * @param userName the user name
+	 * @param loader the loader to read the user settings if the user info is not cached or has expired.
+	 * @return the user info
+	 */
+	public UserInfo getUserInfo(UserName userName, Function<UserName,UserSettings> loader) {
+		long now = currentTimeMillis();
+		Entry entry = entries.get(userName);
+		if(entry != null && entry.expires > now) {
+			return entry.userInfo;
+		}
+		long loadedGeneration = generation.get();
+		UserSettings user = loader.apply(userName);
+		UserInfo userInfo = newUserInfo()
+							.withUserName(user.getUserName())
+							.withScopes(user.getScopes())
+							.withAccessTokenTtl(user.getAccessTokenTtl(), 
+												user.getAccessTokenTtlUnit())
+							.build();
+		if(ttlMillis > 0 && maxSize > 0) {
+			put(userName, new Entry(userInfo, user.getRoles(), now + ttlMillis), loadedGeneration);
+		}
+		return userInfo;
+	}
+	
+	private void put(UserName userName, Entry entry, long loadedGeneration) {
+		if(entries.size() >= maxSize) {
+			evict(currentTimeMillis());
+		}
+		entries.put(userName, entry);
+		if(generation.get() != loadedGeneration) {
+			// User or role was modified while the user was loaded.
+			entries.remove(userName, entry);
+		}
+	}
+	
+	private void evict(long now) {
+		entries.values().removeIf(entry -> entry.expires <= now);
+		Iterator<UserName> i = entries.keySet().iterator();
+		while(entries.size() >= maxSize && i.hasNext()) {
+			i.next();
+			i.remove();
+		}
+	}
+	
+	/**
+	 * Evicts the cached user info of a modified or removed user.
+	 * @param event the user event
+	 */
+	void userModified(@Observes(during=AFTER_SUCCESS) UserEvent event) {
+		generation.incrementAndGet();
+		if(entries.remove(event.getUserName()) != null) {
+			LOG.fine(() -> format("Evicted cached user info of user %s.", event.getUserName()));
+		}
+	}
+	
+	/**
+	 * Evicts the cached user infos of all users in a modified or removed role.
+	 * @param event the role event
+	 */
+	void roleModified(@Observes(during=AFTER_SUCCESS) RoleEvent event) {
+		generation.incrementAndGet();
+		entries.values().removeIf(entry -> entry.roles.contains(event.getRoleName()));
+		LOG.fine(() -> format("Evicted cached user infos of role %s.", event.getRoleName()));
+	}
+	
+}
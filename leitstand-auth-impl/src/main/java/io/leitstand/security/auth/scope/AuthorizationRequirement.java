@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.scope;
+
+import static io.leitstand.security.auth.scope.ScopeIndex.scopeIndex;
+import static io.leitstand.security.auth.scope.ScopeRegistry.scopeRegistry;
+import static java.util.Arrays.asList;
+
+import java.lang.reflect.Method;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import io.leitstand.commons.rs.Public;
+import io.leitstand.security.auth.Scopes;
+import io.leitstand.security.auth.UserContext;
+
+/**
+ * The immutable authorization requirement of a resource method.
+ * <p>
+ * A requirement is compiled once per method from the {@link ScopeIndex} or, 
+ * if the resource was not compiled with the scope index processor, from the resource annotations.
+ * A method is either public, accessible to all authenticated users, or requires one of the declared method or resource scopes.
+ * The declared scopes are also compiled to {@link ScopeMask}s to test the scopes of the user by a word-wise <code>AND</code> operation.
+ */
+final class AuthorizationRequirement {
+	
+	private static final String[] NO_SCOPES = new String[0];
+
+	/**
+	 * Compiles the authorization requirement of the given method.
+	 * @param method the resource method
+	 * @return the authorization requirement of the method.
+	 */
+	static AuthorizationRequirement compile(Method method) {
+		Class<?> clazz = method.getDeclaringClass();
+		ScopeIndex.Entry classEntry = scopeIndex().getTypeEntry(clazz);
+		if(classEntry != null) {
+			ScopeIndex.Entry methodEntry = scopeIndex().getMethodEntry(method);
+			return new AuthorizationRequirement(classEntry.isPublic() || (methodEntry != null && methodEntry.isPublic()),
+												scopes(methodEntry),
+												scopes(classEntry));
+		}
+		// Type was not compiled with the scope index processor. 
+		return new AuthorizationRequirement(clazz.isAnnotationPresent(Public.class) || method.isAnnotationPresent(Public.class),
+											scopes(method.getAnnotation(Scopes.class)),
+											scopes(clazz.getAnnotation(Scopes.class)));
+	}
+	
+	private static String[] scopes(Scopes scopes) {
+		return scopes != null ? scopes.value() : NO_SCOPES;
+	}
+	
+	private static String[] scopes(ScopeIndex.Entry entry) {
+		return entry != null ? entry.getScopes().toArray(NO_SCOPES) : NO_SCOPES;
+	}
+	
+	private final boolean publicAccess;
+	private final String[] methodScopes;
+	private final String[] classScopes;
+	private final ScopeMask methodMask;
+	private final ScopeMask classMask;
+	private final String scopesAllowed;
+	
+	private AuthorizationRequirement(boolean publicAccess, String[] methodScopes, String[] classScopes) {
+		this.publicAccess = publicAccess;
+		this.methodScopes = methodScopes;
+		this.classScopes = classScopes;
+		this.methodMask = scopeRegistry().mask(asList(methodScopes));
+		this.classMask = scopeRegistry().mask(asList(classScopes));
+		// Precompute the summary of allowed scopes for access denied messages.
+		SortedSet<String> scopes = new TreeSet<>(asList(methodScopes));
+		scopes.addAll(asList(classScopes));
+		this.scopesAllowed = String.join(", ", scopes);
+	}
+	
+	/**
+	 * Returns whether everyone can access the method.
+	 * @return <code>true</code> if the method is public.
+	 */
+	boolean isPublic() {
+		return publicAccess;
+	}
+	
+	/**
+	 * Tests whether the given authenticated user is allowed to invoke the method.
+	 * @param user the authenticated user
+	 * @return <code>true</code> if no scopes are declared or the user is allowed to access one of the declared scopes.
+	 */
+	boolean isSatisfiedBy(UserContext user) {
+		// A resource without scope assignments can be accessed by all authenticated users.
+		if(methodScopes.length == 0 && classScopes.length == 0) {
+			return true;
+		}
+		// Grant access if the user is allowed to access any of the declared method or resource scopes.
+		ScopeMask granted = user.getScopeMask();
+		if(granted != null && methodMask != null && classMask != null) {
+			return granted.intersects(methodMask) || granted.intersects(classMask);
+		}
+		return (methodScopes.length > 0 && user.scopesIncludeOneOf(methodScopes))
+			   || (classScopes.length > 0 && user.scopesIncludeOneOf(classScopes));
+	}
+	
+	/**
+	 * Returns the comma-separated, sorted list of the scopes allowed to invoke the method.
+	 * @return the scopes allowed to invoke the method.
+	 */
+	String getScopesAllowed() {
+		return scopesAllowed;
+	}
+	
+}
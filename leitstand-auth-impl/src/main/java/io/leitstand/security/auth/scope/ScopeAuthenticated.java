@@ -15,16 +15,12 @@
  */
 package io.leitstand.security.auth.scope;
 
-import static io.leitstand.commons.model.ObjectUtil.optional;
 import static io.leitstand.security.auth.ReasonCode.AUT0001E_UNAUTHENTICATED_ACCESS_DENIED;
 import static io.leitstand.security.auth.ReasonCode.AUT0002E_SCOPE_ACCESS_DENIED;
-import static java.util.Arrays.asList;
-import static java.util.Collections.emptySet;
-import static java.util.stream.Collectors.joining;
 
 import java.lang.reflect.Method;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.enterprise.context.Dependent;
 import javax.inject.Inject;
@@ -34,15 +30,21 @@ import javax.interceptor.InvocationContext;
 
 import io.leitstand.commons.AccessDeniedException;
 import io.leitstand.commons.rs.Authenticated;
-import io.leitstand.commons.rs.Public;
-import io.leitstand.security.auth.Scopes;
 import io.leitstand.security.auth.UserContext;
 
+/**
+ * Interceptor that authorizes the invocation of Leitstand resource methods.
+ * <p>
+ * The authorization requirement of a method is compiled on the first invocation and cached for subsequent invocations.
+ * @see AuthorizationRequirement
+ */
 @Authenticated
 @Interceptor
 @Dependent
 public class ScopeAuthenticated {
 	
+	private static final ConcurrentMap<Method,AuthorizationRequirement> REQUIREMENTS = new ConcurrentHashMap<>();
+	
 	private UserContext user;
 	
 	protected ScopeAuthenticated() {
@@ -57,10 +59,11 @@ public class ScopeAuthenticated {
 	@AroundInvoke
 	public Object authenticate(InvocationContext context) throws Exception{
 		
-		Method method = context.getMethod();
-		Class<?> clazz = method.getDeclaringClass();
+		AuthorizationRequirement requirement = REQUIREMENTS.computeIfAbsent(context.getMethod(), 
+																			AuthorizationRequirement::compile);
+		
 		// Everyone can access a public resource
-		if(clazz.isAnnotationPresent(Public.class) || method.isAnnotationPresent(Public.class)) {
+		if(requirement.isPublic()) {
 			return context.proceed();
 		}
 		
@@ -69,33 +72,14 @@ public class ScopeAuthenticated {
 			throw new AccessDeniedException(AUT0001E_UNAUTHENTICATED_ACCESS_DENIED);
 		}
 		
-		Scopes methodScopes = method.getAnnotation(Scopes.class);
-		Scopes classScopes = method.getDeclaringClass().getAnnotation(Scopes.class);
-		
-		// A resource without scope assignments can be accessed by all authenticated users.
-		if(methodScopes == null && classScopes == null) {
-			return context.proceed();
-		}
-		
-		// Grant access if the user is allowed to access any of the declared method scopes.
-		if(methodScopes != null && user.scopesIncludeOneOf(methodScopes.value())) {
-			return context.proceed();
-		}
-		// Grant access  if user is allowed to access any of the declared resource scopes.
-		if(classScopes != null && user.scopesIncludeOneOf(classScopes.value())) {
+		if(requirement.isSatisfiedBy(user)) {
 			return context.proceed();
 		}
 		
 		// Deny access and provide a summary about allowed scopes.
-		SortedSet<String> scopesAllowed = new TreeSet<>();
-		scopesAllowed.addAll(optional(methodScopes, s -> asList(s.value()), emptySet()));
-		scopesAllowed.addAll(optional(classScopes,s -> asList(s.value()),emptySet()));
-		
-		
 		throw new AccessDeniedException(AUT0002E_SCOPE_ACCESS_DENIED,
 										user.getUserName(),
-										scopesAllowed.stream()
-										.collect(joining(", ")));
+										requirement.getScopesAllowed());
 		
 	}
 	
@@ -55,7 +55,31 @@ public enum ReasonCode implements Reason{
 	/**
 	 * Cannot read JSON Web Key Set.
 	 */
-	OID0007E_CANNOT_READ_JWKS;
+	OID0007E_CANNOT_READ_JWKS,
+	/**
+	 * Expired refresh tokens purged.
+	 */
+	OID0008I_EXPIRED_REFRESH_TOKENS_PURGED,
+	/**
+	 * Cannot purge expired refresh tokens.
+	 */
+	OID0009E_CANNOT_PURGE_REFRESH_TOKENS,
+	/**
+	 * JSON Web Key Set refreshed.
+	 */
+	OID0010I_JWKS_REFRESHED,
+	/**
+	 * Cannot discover OpenID/Connect configuration.
+	 */
+	OID0011E_CANNOT_DISCOVER_CONFIGURATION,
+	/**
+	 * OpenID/Connect configuration discovered.
+	 */
+	OID0012I_CONFIGURATION_DISCOVERED,
+	/**
+	 * OpenID/Connect configuration discovery is still pending.
+	 */
+	OID0013E_CONFIGURATION_NOT_READY;
 	
 	private static final ResourceBundle MESSAGES = getBundle("OidcMessages");
 	
@@ -17,6 +17,7 @@ package io.leitstand.security.sso.oidc.auth;
 
 import static io.leitstand.commons.etc.Environment.getSystemProperty;
 import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.sso.oidc.ReasonCode.OID0013E_CONFIGURATION_NOT_READY;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.net.URLEncoder.encode;
@@ -24,7 +25,10 @@ import static java.util.Collections.emptySet;
 import static java.util.logging.Level.FINE;
 import static javax.security.enterprise.identitystore.CredentialValidationResult.INVALID_RESULT;
 import static javax.security.enterprise.identitystore.CredentialValidationResult.NOT_VALIDATED_RESULT;
+import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static javax.ws.rs.core.HttpHeaders.RETRY_AFTER;
 
+import java.io.IOException;
 import java.util.Date;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -43,6 +47,7 @@ import io.leitstand.security.auth.http.UserContextProvider;
 import io.leitstand.security.auth.jwt.Claims;
 import io.leitstand.security.oauth2.Oauth2AccessToken;
 import io.leitstand.security.sso.oidc.config.OidcConfig;
+import io.leitstand.security.sso.oidc.config.OidcConfigNotReadyException;
 import io.leitstand.security.sso.oidc.oauth2.RefreshTokenStore;
 import io.leitstand.security.sso.oidc.service.OidcService;
 
@@ -57,6 +62,9 @@ import io.leitstand.security.sso.oidc.service.OidcService;
  * <p>
  * The cookie manager also supports invalidating an access token. The browser gets instructed to drop all Leitstand cookies 
  * and gets then redirected to OpenID/Connect end-session endpoint to terminate the user's session in the OpenID/Connect server.
+ * <p>
+ * Requests that need to contact the OpenID/Connect server are answered with <code>503 Service Unavailable</code> and a 
+ * <code>Retry-After</code> header while the OpenID/Connect configuration discovery is pending.
  */
 @Dependent
 public class CookieManager implements AccessTokenManager{
@@ -140,9 +148,16 @@ public class CookieManager implements AccessTokenManager{
 		Cookie idCookie = findIdToken(request);
 
 		// Parse access token.
-		Claims claims = getAccessTokenClaims(response, 
-										     jwtCookie, 
-										     idCookie);
+		Claims claims;
+		try {
+			claims = getAccessTokenClaims(response, 
+										  jwtCookie, 
+										  idCookie);
+		} catch (OidcConfigNotReadyException e) {
+			// Expired access token cannot be refreshed until the token endpoint is known.
+			serviceUnavailable(response, e);
+			return INVALID_RESULT;
+		}
 		
 		if(claims == null) {
 			// User is not authenticated
@@ -230,6 +245,12 @@ public class CookieManager implements AccessTokenManager{
 		cookie.setMaxAge(0);
 		response.addCookie(cookie);	
 		
+		if(!oidcConfig.isReady()) {
+			// End-session endpoint is unknown until the configuration discovery has completed.
+			serviceUnavailable(response, new OidcConfigNotReadyException());
+			return;
+		}
+		
 		try{
 			String referer = request.getHeader("Referer");
 			response.sendRedirect(oidcConfig.getEndSessionEndpoint()+"?redirect_uri="+encode(referer, "UTF-8"));
@@ -240,4 +261,17 @@ public class CookieManager implements AccessTokenManager{
 		} 
 	}
 	
+	private void serviceUnavailable(HttpServletResponse response, OidcConfigNotReadyException e) {
+		LOG.fine(() -> format("%s: OpenID/Connect configuration discovery pending. Retry in %d seconds.", 
+							  OID0013E_CONFIGURATION_NOT_READY.getReasonCode(),
+							  e.getRetryAfter()));
+		response.setHeader(RETRY_AFTER, String.valueOf(e.getRetryAfter()));
+		try {
+			// Commits the response. The authentication mechanism cannot override the status code afterwards.
+			response.sendError(SC_SERVICE_UNAVAILABLE);
+		} catch (IOException io) {
+			LOG.log(FINE, io.getMessage(), io);
+		}
+	}
+	
 }
@@ -53,6 +53,7 @@ public class OidcConfig {
 	public static class Builder {
 		
 		private OidcConfig config = new OidcConfig();
+		private Endpoints endpoints = new Endpoints();
 		
 		
 		/**
@@ -62,7 +63,7 @@ public class OidcConfig {
 		 */
 		public Builder withIssuer(String issuer) {
 		    assertNotInvalidated(getClass(), config);
-		    config.issuer = issuer;
+		    endpoints.issuer = issuer;
 		    return this;
 		}
 		
@@ -73,7 +74,7 @@ public class OidcConfig {
 		 */
 		public Builder withAuthorizationEndpoint(URI endpoint) {
 			assertNotInvalidated(getClass(),config);
-			config.authorizationEndpoint = endpoint;
+			endpoints.authorizationEndpoint = endpoint;
 			return this;
 		}
 
@@ -84,7 +85,7 @@ public class OidcConfig {
          */
 		public Builder withUserInfoEndpoint(URI endpoint) {
 			assertNotInvalidated(getClass(), config);
-			config.userInfoEndpoint = endpoint;
+			endpoints.userInfoEndpoint = endpoint;
 			return this;
 		}
 		
@@ -96,7 +97,7 @@ public class OidcConfig {
          */
 		public Builder withTokenEndpoint(URI endpoint) {
 			assertNotInvalidated(getClass(), config);
-			config.tokenEndpoint = endpoint;
+			endpoints.tokenEndpoint = endpoint;
 			return this;
 		}
 		
@@ -107,7 +108,7 @@ public class OidcConfig {
          */	
 		public Builder withEndSessionEndpoint(URI endpoint) {
 			assertNotInvalidated(getClass(), config);
-			config.endSessionEndpoint = endpoint;
+			endpoints.endSessionEndpoint = endpoint;
 			return this;
 		}
 
@@ -158,41 +159,34 @@ public class OidcConfig {
 		}
 		
 		/**
-		 * Sets the access key decoder.
-		 * @param decoder the access key decoder.
+		 * Sets the key set manager used to validate the access key.
+		 * @param keys the key set manager
 		 * @return a reference to this builder to continue with object creation
 		 */
-        public Builder withDecoder(JwtDecoder decoder) {
-            assertNotInvalidated(getClass(), config);
-            config.decoder = decoder;
-            return this;
-        }
-
-        
-		/**
-		 * Sets the key set used to validate the access key.
-		 * @param keySet the trusted keys
-		 * @return a reference to this builder to continue with object creation
-		 */
-        public Builder withKeySet(JWKSet keySet) {
+        public Builder withKeySetManager(OidcKeySetManager keys) {
         	assertNotInvalidated(getClass(),config);
-        	config.keySet = keySet;
+        	config.keys = keys;
         	return this;
         }
 		
 		/**
-		 * Creates an immutable OpenID/Connect configuration and invalidates this builder.
+		 * Creates an OpenID/Connect configuration and invalidates this builder.
 		 * Subsequent calls to the <code>build()</code> method will raise an exception.
+		 * The configuration is not ready if no authorization endpoint was specified, 
+		 * i.e. if the endpoints are still to be discovered.
 		 * @return the OpenID/Connect configuration
 		 */
 		public OidcConfig build() {
 			try {
 				assertNotInvalidated(getClass(), config);
-				requireNonNull(config.keySet,"KeySet must not be null");
-				requireNonNull(config.decoder,"Decoder must not be null");
+				requireNonNull(config.keys,"KeySetManager must not be null");
+				if(endpoints.authorizationEndpoint != null) {
+					config.endpoints = endpoints;
+				}
 				return config;
 			} finally {
 				this.config = null;
+				this.endpoints = null;
 			}
 		}
 
@@ -200,24 +194,33 @@ public class OidcConfig {
 	
 	}
 	
-	private String issuer;
-	private URI authorizationEndpoint;
-	private URI userInfoEndpoint;
-	private URI tokenEndpoint;
-	private URI endSessionEndpoint;
+	/**
+	 * The endpoints of the OpenID/Connect server.
+	 * An <code>Endpoints</code> instance is never modified once it has been published by the builder or by {@link OidcConfig#discovered(OidcConfigDiscovery)}.
+	 */
+	private static final class Endpoints {
+		private String issuer;
+		private URI authorizationEndpoint;
+		private URI userInfoEndpoint;
+		private URI tokenEndpoint;
+		private URI endSessionEndpoint;
+	}
+	
+	private static final Endpoints PENDING = new Endpoints();
+	
+	private volatile Endpoints endpoints = PENDING;
 	private UserName clientId;
 	private Password clientSecret;
 	private long connectTimeoutMillis;
 	private long readTimeoutMillis;
-	private JwtDecoder decoder;
-	private JWKSet keySet;
+	private OidcKeySetManager keys;
 	
 	/**
 	 * Returns the authorization endpoint URL.
 	 * @return the authorization endpoint URL.
 	 */
 	public URI getAuthorizationEndpoint() {
-		return authorizationEndpoint;
+		return endpoints.authorizationEndpoint;
 	}
 	
 	/**
@@ -225,7 +228,7 @@ public class OidcConfig {
 	 * @return the user-info endpoint URL.
 	 */
 	public URI getUserInfoEndpoint() {
-		return userInfoEndpoint;
+		return endpoints.userInfoEndpoint;
 	}
 	
 	/**
@@ -233,7 +236,7 @@ public class OidcConfig {
 	 * @return the token endpoint URL.
 	 */
 	public URI getTokenEndpoint() {
-		return tokenEndpoint;
+		return endpoints.tokenEndpoint;
 	}
 	
 	/**
@@ -241,7 +244,7 @@ public class OidcConfig {
 	 * @return the end-session endpoint URL.
 	 */
 	public URI getEndSessionEndpoint() {
-		return endSessionEndpoint;
+		return endpoints.endSessionEndpoint;
 	}
 	
 	/**
@@ -282,9 +285,9 @@ public class OidcConfig {
 	 * @return the extracted claims.
 	 */
 	public Claims decodeAccessToken(String jwt){
-	    // Create verifier from keyset
+	    // Verify against the current key set of the authorization server
 	    try {
-	        return decoder.decode(jwt);
+	        return keys.decode(jwt);
 	    } catch (JwtException e) {
 	        throw new AccessDeniedException(e,OID0006E_INVALID_ACCESS_TOKEN);
 	    }
@@ -295,11 +298,53 @@ public class OidcConfig {
 	 * @return the access token issuer name.
 	 */
     public String getIssuer() {
-        return issuer;
+        return endpoints.issuer;
     }
 
 	public JWKSet getKeySet() {
-		return keySet;
+		return keys.getKeySet();
+	}
+	
+	/**
+	 * Returns whether the OpenID/Connect server endpoints are known.
+	 * The endpoints are unknown while the configuration discovery is pending.
+	 * @return <code>true</code> if the endpoints are known, <code>false</code> otherwise.
+	 */
+	public boolean isReady() {
+		return endpoints != PENDING;
+	}
+	
+	/**
+	 * Asserts that the OpenID/Connect server endpoints are known.
+	 * @throws OidcConfigNotReadyException if the configuration discovery is pending.
+	 */
+	public void assertReady() {
+		if(!isReady()) {
+			throw new OidcConfigNotReadyException();
+		}
+	}
+	
+	/**
+	 * Applies the discovered endpoints and key set.
+	 * @param discovery the completed configuration discovery
+	 */
+	void discovered(OidcConfigDiscovery discovery) {
+		Endpoints discovered = new Endpoints();
+		discovered.issuer = discovery.getIssuer();
+		discovered.authorizationEndpoint = URI.create(discovery.getAuthorizationEndpoint());
+		discovered.tokenEndpoint = URI.create(discovery.getTokenEndpoint());
+		discovered.userInfoEndpoint = URI.create(discovery.getUserInfoEndpoint());
+		discovered.endSessionEndpoint = URI.create(discovery.getEndSessionEndpoint());
+		keys.update(discovery.getKeySet());
+		this.endpoints = discovered;
+	}
+	
+	/**
+	 * Returns the decoder to verify access tokens against the current key set of the authorization server.
+	 * @return the access token decoder.
+	 */
+	public JwtDecoder getDecoder() {
+		return keys;
 	}
     
 }
@@ -17,17 +17,22 @@ package io.leitstand.security.sso.oidc.config;
 
 import static io.leitstand.security.auth.http.BasicAuthentication.basicAuthentication;
 import static io.leitstand.security.sso.oidc.ReasonCode.OID0005E_CERTIFICATE_CHAIN_ERROR;
+import static io.leitstand.security.sso.oidc.ReasonCode.OID0011E_CANNOT_DISCOVER_CONFIGURATION;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.logging.Logger.getLogger;
+import static javax.json.Json.createObjectBuilder;
+import static javax.json.Json.createReader;
 import static javax.ws.rs.client.ClientBuilder.newBuilder;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
+import java.io.StringReader;
 import java.net.URI;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import javax.json.JsonObject;
+import javax.json.JsonReader;
 import javax.security.enterprise.credential.Password;
 import javax.ws.rs.client.Client;
 
@@ -54,6 +59,7 @@ public class OidcConfigDiscovery {
 	private String userInfoEndpoint;
 	private String tokenEndpoint;
 	private String endSessionEndpoint;
+	private URI jwksEndpoint;
 	private JWKSet keys;
 	
 	/**
@@ -106,13 +112,9 @@ public class OidcConfigDiscovery {
 	 * @return the discovered configuration
 	 * @throws OidcConfigException if the configuration discovery fails 
 	 */
-	public OidcConfigDiscovery discover()  {
+	public synchronized OidcConfigDiscovery discover()  {
 		
-		Client client = newBuilder()
-				 		.connectTimeout(connectTimeoutMillis, MILLISECONDS)
-				 		.readTimeout(readTimeoutMillis, MILLISECONDS)
-				 		.register(new JsonbDefaults())
-				 		.build();
+		Client client = newClient();
 		
 		try {
 			JsonObject config = client.target(configEndpoint)
@@ -121,31 +123,15 @@ public class OidcConfigDiscovery {
 									  .header("Authorization", basicAuthentication(clientId, clientSecret))
 									  .buildGet()
 									  .invoke(JsonObject.class);
-			issuer = config.getString("issuer");
-			authorizationEndpoint = config.getString("authorization_endpoint");
-			tokenEndpoint = config.getString("token_endpoint");
-			userInfoEndpoint = config.getString("userinfo_endpoint");
-			endSessionEndpoint = config.getString("end_session_endpoint");
+			readConfiguration(config);
 			// Read public key
-			URI jwksEndpoint = URI.create(config.getString("jwks_uri"));
-	
-			
-			try {
-				JsonObject jwks = client.target(jwksEndpoint)
-						  				.request()
-						  				.accept(APPLICATION_JSON)
-						  				.header("Authorization", basicAuthentication(clientId, clientSecret))
-						  				.buildGet()
-						  				.invoke(JsonObject.class);
-				
-				this.keys = JWKSet.parse(jwks.toString());
-			} catch (Exception e) {
-				LOG.severe(format("%s: Cannot decode key chain: %s", 
-								  OID0005E_CERTIFICATE_CHAIN_ERROR.getReasonCode(), 
-								  e.getMessage()));
-				throw new OidcConfigException(e, OID0005E_CERTIFICATE_CHAIN_ERROR);
-			}
+			this.keys = readKeySet(client);
 			return this;
+		} catch (OidcConfigException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			// Configuration endpoint not reachable or malformed configuration
+			throw new OidcConfigException(e, OID0011E_CANNOT_DISCOVER_CONFIGURATION, configEndpoint);
 		} finally {
 			client.close();
 		}
@@ -153,6 +139,95 @@ public class OidcConfigDiscovery {
 		
 	}
 	
+	private void readConfiguration(JsonObject config) {
+		issuer = config.getString("issuer");
+		authorizationEndpoint = config.getString("authorization_endpoint");
+		tokenEndpoint = config.getString("token_endpoint");
+		userInfoEndpoint = config.getString("userinfo_endpoint");
+		endSessionEndpoint = config.getString("end_session_endpoint");
+		jwksEndpoint = URI.create(config.getString("jwks_uri"));
+	}
+	
+	/**
+	 * Restores a previously discovered configuration.
+	 * @param config the discovered configuration as returned by {@link #toJson()}
+	 * @return a reference to this discovery object.
+	 * @throws OidcConfigException if the configuration is malformed
+	 */
+	synchronized OidcConfigDiscovery restore(JsonObject config) {
+		try {
+			readConfiguration(config);
+			this.keys = JWKSet.parse(config.getJsonObject("jwks").toString());
+			return this;
+		} catch (Exception e) {
+			throw new OidcConfigException(e, OID0011E_CANNOT_DISCOVER_CONFIGURATION, configEndpoint);
+		}
+	}
+	
+	/**
+	 * Returns the discovered configuration and the public keys of the discovered key set as JSON object.
+	 * @return the discovered configuration as JSON object.
+	 */
+	synchronized JsonObject toJson() {
+		try (JsonReader jwks = createReader(new StringReader(keys.toString()))){
+			// JWKSet.toString() exports public keys only
+			return createObjectBuilder()
+				   .add("issuer", issuer)
+				   .add("authorization_endpoint", authorizationEndpoint)
+				   .add("token_endpoint", tokenEndpoint)
+				   .add("userinfo_endpoint", userInfoEndpoint)
+				   .add("end_session_endpoint", endSessionEndpoint)
+				   .add("jwks_uri", jwksEndpoint.toString())
+				   .add("jwks", jwks.readObject())
+				   .build();
+		}
+	}
+	
+	/**
+	 * Reloads the JSON Web Key Set from the discovered JWKS endpoint.
+	 * @return the current JSON Web Key Set of the authorization server or <code>null</code> if the configuration has not been discovered yet.
+	 * @throws OidcConfigException if the key set cannot be loaded
+	 */
+	public synchronized JWKSet reloadKeySet() {
+		if(jwksEndpoint == null) {
+			// Configuration not yet discovered. 
+			// The key set is applied along with the discovered configuration.
+			return null;
+		}
+		Client client = newClient();
+		try {
+			return readKeySet(client);
+		} finally {
+			client.close();
+		}
+	}
+	
+	private Client newClient() {
+		return newBuilder()
+			   .connectTimeout(connectTimeoutMillis, MILLISECONDS)
+			   .readTimeout(readTimeoutMillis, MILLISECONDS)
+			   .register(new JsonbDefaults())
+			   .build();
+	}
+	
+	private JWKSet readKeySet(Client client) {
+		try {
+			JsonObject jwks = client.target(jwksEndpoint)
+					  				.request()
+					  				.accept(APPLICATION_JSON)
+					  				.header("Authorization", basicAuthentication(clientId, clientSecret))
+					  				.buildGet()
+					  				.invoke(JsonObject.class);
+			
+			return JWKSet.parse(jwks.toString());
+		} catch (Exception e) {
+			LOG.severe(format("%s: Cannot decode key chain: %s", 
+							  OID0005E_CERTIFICATE_CHAIN_ERROR.getReasonCode(), 
+							  e.getMessage()));
+			throw new OidcConfigException(e, OID0005E_CERTIFICATE_CHAIN_ERROR);
+		}
+	}
+	
 	/**
 	 * Returns the authorization endpoint URL.
 	 * @return the authorization endpoint URL.
@@ -193,6 +268,18 @@ public class OidcConfigDiscovery {
         return issuer;
     }
 	
+	/**
+	 * Returns the JSON Web Key Set endpoint URL.
+	 * @return the JSON Web Key Set endpoint URL.
+	 */
+	public URI getJwksEndpoint() {
+		return jwksEndpoint;
+	}
+	
+	/**
+	 * Returns the discovered JSON Web Key Set.
+	 * @return the discovered JSON Web Key Set.
+	 */
 	public JWKSet getKeySet() {
 	    return keys;
 	}
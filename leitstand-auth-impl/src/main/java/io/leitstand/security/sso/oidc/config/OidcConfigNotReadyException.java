@@ -0,0 +1,32 @@
+package io.leitstand.security.sso.oidc.config;
+
+import static io.leitstand.security.sso.oidc.ReasonCode.OID0013E_CONFIGURATION_NOT_READY;
+
+import io.leitstand.commons.LeitstandException;
+
+/**
+ * The <code>OidcConfigNotReadyException</code> signals that the OpenID/Connect server endpoints are unknown,
+ * because the configuration discovery is still pending.
+ */
+public class OidcConfigNotReadyException extends LeitstandException {
+
+    private static final long serialVersionUID = 1L;
+    
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    /**
+     * Creates a new <code>OidcConfigNotReadyException</code>.
+     */
+    public OidcConfigNotReadyException() {
+        super(OID0013E_CONFIGURATION_NOT_READY, RETRY_AFTER_SECONDS);
+    }
+    
+    /**
+     * Returns the number of seconds until the client shall retry the request.
+     * @return the number of seconds until the client shall retry the request.
+     */
+    public long getRetryAfter() {
+        return RETRY_AFTER_SECONDS;
+    }
+    
+}
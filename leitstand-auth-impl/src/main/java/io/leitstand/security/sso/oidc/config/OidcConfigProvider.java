@@ -26,12 +26,19 @@ import static io.leitstand.commons.model.StringUtil.trim;
 import static io.leitstand.security.auth.UserName.userName;
 import static io.leitstand.security.sso.oidc.ReasonCode.OID0005E_CERTIFICATE_CHAIN_ERROR;
 import static io.leitstand.security.sso.oidc.ReasonCode.OID0007E_CANNOT_READ_JWKS;
+import static io.leitstand.security.sso.oidc.ReasonCode.OID0011E_CANNOT_DISCOVER_CONFIGURATION;
+import static io.leitstand.security.sso.oidc.ReasonCode.OID0012I_CONFIGURATION_DISCOVERED;
 import static io.leitstand.security.sso.oidc.config.OidcConfig.newOpenIdConfig;
+import static io.leitstand.security.sso.oidc.config.OidcIssuers.noIssuers;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.security.cert.CertificateFactory.getInstance;
 import static java.util.Base64.getDecoder;
 import static java.util.Base64.getUrlDecoder;
+import static java.util.concurrent.ThreadLocalRandom.current;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.logging.Level.FINE;
 import static java.util.logging.Logger.getLogger;
 
@@ -43,9 +50,19 @@ import java.security.PublicKey;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
@@ -57,7 +74,6 @@ import com.nimbusds.jose.jwk.JWKSet;
 import io.leitstand.commons.StartupListener;
 import io.leitstand.commons.etc.Environment;
 import io.leitstand.security.auth.UserName;
-import io.leitstand.security.auth.jwt.DefaultJwksDecoder;
 import io.leitstand.security.auth.jwt.JwtDecoder;
 import io.leitstand.security.crypto.MasterSecret;
 
@@ -93,6 +109,10 @@ import io.leitstand.security.crypto.MasterSecret;
  *      <td>Read timeout for all OpenID/Connect server requests in milliseconds.</td>
  *  </tr>
  *  <tr>
+ *      <td>OIDC_ISSUER</td>
+ *      <td>Issuer name as conveyed in the <code>iss</code> claim of the access tokens. This property is obsolete if a OIDC_CONFIGURATION_ENDPOINT is specified.</td>
+ *  </tr>
+ *  <tr>
  *      <td>OIDC_AUTHORIZATION_ENDPOINT</td>
  *      <td>Authorization endpoint URL. This property is obsolete if a OIDC_CONFIGURATION_ENDPOINT is specified.</td>
  *  </tr>
@@ -116,7 +136,43 @@ import io.leitstand.security.crypto.MasterSecret;
  *      <td>OIDC_JWKS_URL</td>
  *      <td>The JSON Web Key Set location. This property is obsolete if a OIDC_CONFIGURATION_ENDPOINT is specified.</td>
  *  </tr>
+ *  <tr>
+ *      <td>OIDC_JWKS_REFRESH_INTERVAL</td>
+ *      <td>Interval in seconds to reload the JSON Web Key Set. Defaults to 3600 seconds.</td>
+ *  </tr>
+ *  <tr>
+ *      <td>OIDC_JWKS_MIN_REFRESH_INTERVAL</td>
+ *      <td>Minimum interval in seconds between two JSON Web Key Set reloads triggered by access tokens signed with an unknown key. Defaults to 30 seconds.</td>
+ *  </tr>
+ *  <tr>
+ *      <td>OIDC_DISCOVERY_RETRY_INITIAL</td>
+ *      <td>Initial delay in seconds to retry a failed configuration discovery. The delay doubles with every failed attempt. Defaults to 1 second.</td>
+ *  </tr>
+ *  <tr>
+ *      <td>OIDC_DISCOVERY_RETRY_MAX</td>
+ *      <td>Maximum delay in seconds to retry a failed configuration discovery. Defaults to 300 seconds.</td>
+ *  </tr>
+ *  <tr>
+ *      <td>OIDC_TRUSTED_ISSUERS</td>
+ *      <td>Comma-separated list of names of additional OpenID/Connect servers whose access tokens are accepted as bearer tokens.</td>
+ *  </tr>
  * </table>
+ * <p>
+ * Every additional trusted issuer is configured by properties prefixed with <code>OIDC_&lt;NAME&gt;_</code>, 
+ * where <code>&lt;NAME&gt;</code> is the upper-case issuer name from the <code>OIDC_TRUSTED_ISSUERS</code> list.
+ * A trusted issuer either specifies a <code>CONFIGURATION_ENDPOINT</code> or an <code>ISSUER</code> along with a <code>JWKS_URL</code>.
+ * The <code>CLIENT_ID</code>, <code>CLIENT_SECRET</code> and <code>JWS_ALGORITHM</code> properties are optional.
+ * For example, <code>OIDC_EU_CONFIGURATION_ENDPOINT</code> specifies the configuration endpoint of the trusted issuer named <em>eu</em>.
+ * Trusted issuers are only used to verify bearer tokens. 
+ * The login flow is always conducted by the OpenID/Connect server configured by the properties listed in the table above.
+ * <p>
+ * The configuration is discovered asynchronously from the configuration endpoint. 
+ * Failed attempts are retried with exponential backoff.
+ * The last successfully discovered configuration is stored in <code>LEITSTAND_ETC/oidc-discovery.json</code> 
+ * and applied immediately on the next startup while the configuration is rediscovered in the background.
+ * The configurations of trusted issuers are discovered the same way and cached in <code>LEITSTAND_ETC/oidc-discovery-&lt;name&gt;.json</code>.
+ * A trusted issuer that is unreachable on startup is retained and accepts tokens as soon as its configuration or key set could be loaded.
+ * The OpenID/Connect configuration is not ready until either a cached configuration was restored or the discovery has completed.
  * The settings read from the configuration endpoint have precedence over manually applied settings. 
  * In order to avoid troubles it is strongly recommended to not combine the configuration endpoint with explicit settings. 
  * 
@@ -132,15 +188,26 @@ public class OidcConfigProvider implements StartupListener {
 	private static final String OIDC_CONNECT_TIMEOUT		= "OIDC_CONNECT_TIMEOUT";
 	private static final String OIDC_READ_TIMEOUT		    = "OIDC_READ_TIMEOUT";
 	
+	private static final String OIDC_ISSUER				    = "OIDC_ISSUER";
 	private static final String OIDC_AUTHORIZATION_ENDPOINT = "OIDC_AUTHORIZATION_ENDPOINT";
 	private static final String OIDC_TOKEN_ENDPOINT	  	    = "OIDC_TOKEN_ENDPOINT";
 	private static final String OIDC_USERINFO_ENDPOINT 	    = "OIDC_USERINFO_ENDPOINT";
 	private static final String OIDC_ENDSESSION_ENDPOINT	= "OIDC_ENDSESSION_ENDPOINT";
 	private static final String OIDC_JWS_ALGORITHM 			= "OIDC_JWS_ALGORITHM";
 	private static final String OIDC_JWKS                   = "OIDC_JWKS_URL";
+	private static final String OIDC_JWKS_REFRESH_INTERVAL  = "OIDC_JWKS_REFRESH_INTERVAL";
+	private static final String OIDC_JWKS_MIN_REFRESH_INTERVAL = "OIDC_JWKS_MIN_REFRESH_INTERVAL";
+	private static final String OIDC_TRUSTED_ISSUERS		= "OIDC_TRUSTED_ISSUERS";
+	private static final String OIDC_DISCOVERY_RETRY_INITIAL = "OIDC_DISCOVERY_RETRY_INITIAL";
+	private static final String OIDC_DISCOVERY_RETRY_MAX	= "OIDC_DISCOVERY_RETRY_MAX";
+	static final String DEFAULT_ISSUER_NAME					= "default";
 	
 	private static final long DEFAULT_OIDC_READ_TIMEOUT 	= 10000;
 	private static final long DEFAULT_OIDC_CONNECT_TIMEOUT	= 10000;
+	private static final long DEFAULT_OIDC_JWKS_REFRESH_INTERVAL = 3600;
+	private static final long DEFAULT_OIDC_JWKS_MIN_REFRESH_INTERVAL = 30;
+	private static final long DEFAULT_OIDC_DISCOVERY_RETRY_INITIAL = 1;
+	private static final long DEFAULT_OIDC_DISCOVERY_RETRY_MAX = 300;
 	
 	
 	
@@ -172,6 +239,17 @@ public class OidcConfigProvider implements StartupListener {
 	
 	private OidcConfig config;
 	
+	@Resource
+	private ManagedScheduledExecutorService scheduler;
+	
+	private volatile OidcIssuers issuers = noIssuers();
+	
+	private List<ScheduledFuture<?>> keySetRefreshes = new LinkedList<>();
+	
+	private Map<String,ScheduledFuture<?>> pendingDiscoveries = new ConcurrentHashMap<>();
+	
+	private volatile boolean stopped;
+	
 	protected OidcConfigProvider() {
 		// CID
 	}
@@ -192,7 +270,7 @@ public class OidcConfigProvider implements StartupListener {
 											   () -> new Properties());
 		// Read credentials to connect to the authorization service
 		UserName clientId	  = userName(readOidcProperty(OIDC_CLIENT_ID, properties));
-		Password clientSecret   = readClientSecret(properties);
+		Password clientSecret   = readClientSecret(OIDC_CLIENT_SECRET, properties);
 		// Read timeout settings
 		long connectTimeout = asLong(readOidcProperty(OIDC_CONNECT_TIMEOUT,properties),
 													  DEFAULT_OIDC_CONNECT_TIMEOUT);
@@ -200,62 +278,103 @@ public class OidcConfigProvider implements StartupListener {
 													  DEFAULT_OIDC_READ_TIMEOUT);
 		
 		// Read configured endpoints and certificate to verify tokens.
-		String issuer = "leitstand";
+		String issuer				 = readOidcProperty(OIDC_ISSUER, properties);
 		String authorizationEndpoint = readOidcProperty(OIDC_AUTHORIZATION_ENDPOINT,properties);
 		String tokenEndpoint		 = readOidcProperty(OIDC_TOKEN_ENDPOINT,properties);
 		String userInfoEndpoint		 = readOidcProperty(OIDC_USERINFO_ENDPOINT, properties);
 		String endSessionEndpoint	 = readOidcProperty(OIDC_ENDSESSION_ENDPOINT,properties);
-		JWSAlgorithm algorithm       = readJWSAlgorithm(properties);
+		JWSAlgorithm algorithm       = readJWSAlgorithm(OIDC_JWS_ALGORITHM, properties);
         JWKSet keys = null;
-        JwtDecoder decoder = null;
+        Supplier<JWKSet> keyLoader = null;
+        OidcConfigDiscovery discovery = null;
+        OidcDiscoveryCache discoveryCache = new OidcDiscoveryCache(env, DEFAULT_ISSUER_NAME);
 		
 		String configEndpoint = readOidcProperty(OIDC_CONFIGURATION_ENDPOINT,properties);
 		if(isNonEmptyString(configEndpoint)) {
 			// Discover all endpoints and configured secrets from the specified endpoint.
 			// Replaces all statically configured values.
-			OidcConfigDiscovery discovery = new OidcConfigDiscovery(URI.create(configEndpoint))
-											.connectTimeout(connectTimeout, MILLISECONDS)
-											.readTimeout(readTimeout, MILLISECONDS)
-											.credentials(clientId,clientSecret)
-											.discover();
-											
-			issuer = discovery.getIssuer();
-			authorizationEndpoint = discovery.getAuthorizationEndpoint();
-			tokenEndpoint = discovery.getTokenEndpoint();
-			userInfoEndpoint = discovery.getUserInfoEndpoint();
-			endSessionEndpoint = discovery.getEndSessionEndpoint();
-			keys = discovery.getKeySet();
-			decoder = new DefaultJwksDecoder(algorithm, keys);
-
+			discovery = new OidcConfigDiscovery(URI.create(configEndpoint))
+						.connectTimeout(connectTimeout, MILLISECONDS)
+						.readTimeout(readTimeout, MILLISECONDS)
+						.credentials(clientId,clientSecret);
+			keyLoader = discovery::reloadKeySet;
+			if(discoveryCache.restore(discovery)) {
+				// Bootstrap from last known good configuration.
+				issuer = discovery.getIssuer();
+				authorizationEndpoint = discovery.getAuthorizationEndpoint();
+				tokenEndpoint = discovery.getTokenEndpoint();
+				userInfoEndpoint = discovery.getUserInfoEndpoint();
+				endSessionEndpoint = discovery.getEndSessionEndpoint();
+				keys = discovery.getKeySet();
+			} else {
+				// Endpoints and keys are applied when the discovery has completed.
+				issuer = null;
+				authorizationEndpoint = null;
+				tokenEndpoint = null;
+				userInfoEndpoint = null;
+				endSessionEndpoint = null;
+				keys = new JWKSet();
+			}
 		} else {
 	        keys = readKeySet(properties);
-	        decoder = new DefaultJwksDecoder(algorithm, keys);
+	        keyLoader = () -> readKeySet(properties);
+		}
+		
+		long minRefreshInterval = asLong(readOidcProperty(OIDC_JWKS_MIN_REFRESH_INTERVAL, properties),
+										 DEFAULT_OIDC_JWKS_MIN_REFRESH_INTERVAL);
+		long refreshInterval = asLong(readOidcProperty(OIDC_JWKS_REFRESH_INTERVAL, properties),
+									  DEFAULT_OIDC_JWKS_REFRESH_INTERVAL);
+		long initialRetryDelay = SECONDS.toMillis(asLong(readOidcProperty(OIDC_DISCOVERY_RETRY_INITIAL, properties),
+														 DEFAULT_OIDC_DISCOVERY_RETRY_INITIAL));
+		long maxRetryDelay = SECONDS.toMillis(asLong(readOidcProperty(OIDC_DISCOVERY_RETRY_MAX, properties),
+													 DEFAULT_OIDC_DISCOVERY_RETRY_MAX));
+
+		OidcKeySetManager keySetManager = null;
+		if(keys != null) {
+			keySetManager = new OidcKeySetManager(algorithm, 
+												  keys, 
+												  keyLoader, 
+												  SECONDS.toMillis(minRefreshInterval));
 		}
 		
-		if(isOpenIdEnabled(authorizationEndpoint, 
-						   tokenEndpoint, 
-						   userInfoEndpoint,
-						   endSessionEndpoint,
-						   clientId,
-						   clientSecret,
-						   decoder)) {
+		List<OidcIssuers.Issuer> trustedIssuers = new LinkedList<>();
+		Map<OidcIssuers.Issuer,OidcConfigDiscovery> discoveries = new LinkedHashMap<>();
+		
+		boolean enabled = discovery != null 
+						  ? clientId != null && clientSecret != null
+						  : isOpenIdEnabled(authorizationEndpoint, 
+								  			tokenEndpoint, 
+								  			userInfoEndpoint,
+								  			endSessionEndpoint,
+								  			clientId,
+								  			clientSecret,
+								  			keySetManager);
+		
+		if(enabled) {
 
 			try {
 				config = newOpenIdConfig()
 				         .withIssuer(issuer)
-						 .withAuthorizationEndpoint(new URI(authorizationEndpoint))
-						 .withTokenEndpoint(new URI(tokenEndpoint))
-						 .withUserInfoEndpoint(new URI(userInfoEndpoint))
-						 .withEndSessionEndpoint(new URI(endSessionEndpoint))
+						 .withAuthorizationEndpoint(uri(authorizationEndpoint))
+						 .withTokenEndpoint(uri(tokenEndpoint))
+						 .withUserInfoEndpoint(uri(userInfoEndpoint))
+						 .withEndSessionEndpoint(uri(endSessionEndpoint))
 						 .withClientId(clientId)
 						 .withClientSecret(clientSecret)
 						 .withConnectTimeout(connectTimeout,MILLISECONDS)
 						 .withReadTimeout(readTimeout,MILLISECONDS)
-						 .withDecoder(decoder)
-						 .withKeySet(keys)
+						 .withKeySetManager(keySetManager)
 						 .build();
-
+				
+				OidcIssuers.Issuer defaultIssuer = new OidcIssuers.Issuer(DEFAULT_ISSUER_NAME, issuer, keySetManager);
+				trustedIssuers.add(defaultIssuer);
+				scheduleKeySetRefresh(keySetManager, refreshInterval);
+				if(discovery != null) {
+					discoveries.put(defaultIssuer, discovery);
+				}
+				
 				LOG.info("OpenID/Connect enabled.");
+				LOG.info(format("OpenID configuration ......... : %s", discovery == null ? "static" : config.isReady() ? "cached, rediscovery pending" : "discovery pending"));
 				LOG.info(format("OpenID access token issuer ... : %s", issuer));
 				LOG.info(format("OpenID authorization endpoint  : %s", authorizationEndpoint));
 				LOG.info(format("OpenID token endpoint ........ : %s", tokenEndpoint));
@@ -265,6 +384,7 @@ public class OidcConfigProvider implements StartupListener {
 				LOG.info(format("OpenID read timeout .......... : %d ms", readTimeout));
 				LOG.info(format("OpenID client ID ............. : %s",clientId));
 				LOG.info(format("OpenID client secret ......... : %s", clientSecret == null ? "not specified" : "specified"));
+				LOG.info(format("OpenID JWKS refresh interval . : %d s", refreshInterval));
 				
 				
 			} catch (URISyntaxException e) {
@@ -272,10 +392,174 @@ public class OidcConfigProvider implements StartupListener {
 			}
 		} 
 		
+		if(config != null) {
+			// Additional issuers are only trusted if OpenID/Connect is enabled.
+			for(String name : readTrustedIssuerNames(properties)) {
+				OidcIssuers.Issuer trustedIssuer = readTrustedIssuer(name,
+																	 properties,
+																	 connectTimeout,
+																	 readTimeout,
+																	 minRefreshInterval,
+																	 discoveries);
+				if(trustedIssuer != null) {
+					trustedIssuers.add(trustedIssuer);
+					scheduleKeySetRefresh(trustedIssuer.getKeySetManager(), refreshInterval);
+					LOG.info(format("OpenID trusted issuer %s ... : %s", 
+									name, 
+									trustedIssuer.getIssuer() != null ? trustedIssuer.getIssuer() : "discovery pending"));
+				}
+			}
+		}
+		issuers = new OidcIssuers(trustedIssuers);
+		
+		// Discoveries are scheduled after all issuers are registered, 
+		// because the discovered issuer name replaces the configured issuer name.
+		for(Map.Entry<OidcIssuers.Issuer,OidcConfigDiscovery> discovered : discoveries.entrySet()) {
+			scheduleDiscovery(discovered.getKey(), 
+							  discovered.getValue(),
+							  initialRetryDelay,
+							  maxRetryDelay);
+		}
+		
+	}
+	
+	private static URI uri(String uri) throws URISyntaxException {
+		return uri != null ? new URI(uri) : null;
+	}
+	
+	private void scheduleDiscovery(OidcIssuers.Issuer issuer,
+								   OidcConfigDiscovery discovery, 
+								   long initialRetryDelay, 
+								   long maxRetryDelay) {
+		OidcDiscoveryCache discoveryCache = new OidcDiscoveryCache(env, issuer.getName());
+		Runnable attempt = new Runnable() {
+			
+			private long retryDelay = max(initialRetryDelay,1);
+			
+			@Override
+			public void run() {
+				if(stopped) {
+					return;
+				}
+				try {
+					discovery.discover();
+					if(DEFAULT_ISSUER_NAME.equals(issuer.getName())) {
+						// The login flow is conducted by the default issuer only.
+						config.discovered(discovery);
+					} else {
+						issuer.getKeySetManager().update(discovery.getKeySet());
+					}
+					issuers.issuerDiscovered(issuer, discovery.getIssuer());
+					discoveryCache.store(discovery);
+					pendingDiscoveries.remove(issuer.getName());
+					LOG.info(() -> format("%s: OpenID/Connect configuration of issuer %s discovered. Issuer name: %s", 
+										  OID0012I_CONFIGURATION_DISCOVERED.getReasonCode(),
+										  issuer.getName(),
+										  discovery.getIssuer()));
+				} catch (RuntimeException e) {
+					// Add jitter to avoid all nodes retrying at the same time.
+					long delay = retryDelay/2 + current().nextLong(retryDelay/2 + 1);
+					retryDelay = min(retryDelay*2, max(maxRetryDelay,1));
+					LOG.warning(() -> format("%s: Cannot discover OpenID/Connect configuration of issuer %s: %s. Retry in %d ms.", 
+											 OID0011E_CANNOT_DISCOVER_CONFIGURATION.getReasonCode(),
+											 issuer.getName(),
+											 e.getMessage(),
+											 delay));
+					LOG.log(FINE,e.getMessage(),e);
+					if(!stopped) {
+						pendingDiscoveries.put(issuer.getName(), scheduler.schedule(this, delay, MILLISECONDS));
+					}
+				}
+			}
+		};
+		pendingDiscoveries.put(issuer.getName(), scheduler.submit(attempt));
+	}
+	
+	static List<String> readTrustedIssuerNames(Properties properties){
+		List<String> names = new LinkedList<>();
+		String value = readOidcProperty(OIDC_TRUSTED_ISSUERS, properties);
+		if(isEmptyString(value)) {
+			return names;
+		}
+		for(String name : value.split(",")) {
+			if(isNonEmptyString(name.trim()) && !DEFAULT_ISSUER_NAME.equalsIgnoreCase(name.trim())) {
+				names.add(name.trim());
+			}
+		}
+		return names;
+	}
+	
+	private OidcIssuers.Issuer readTrustedIssuer(String name, 
+												 Properties properties, 
+												 long connectTimeout, 
+												 long readTimeout,
+												 long minRefreshInterval,
+												 Map<OidcIssuers.Issuer,OidcConfigDiscovery> discoveries) {
+		String prefix = "OIDC_"+name.toUpperCase()+"_";
+		UserName clientId = userName(readOidcProperty(prefix+"CLIENT_ID", properties));
+		Password clientSecret = readClientSecret(prefix+"CLIENT_SECRET", properties);
+		JWSAlgorithm algorithm = readJWSAlgorithm(prefix+"JWS_ALGORITHM", properties);
+		String configEndpoint = readOidcProperty(prefix+"CONFIGURATION_ENDPOINT", properties);
+		if(isNonEmptyString(configEndpoint)) {
+			OidcConfigDiscovery discovery = new OidcConfigDiscovery(URI.create(configEndpoint))
+											.connectTimeout(connectTimeout, MILLISECONDS)
+											.readTimeout(readTimeout, MILLISECONDS)
+											.credentials(clientId,clientSecret);
+			String issuer = null;
+			JWKSet keys = new JWKSet();
+			if(new OidcDiscoveryCache(env, name).restore(discovery)) {
+				// Bootstrap from last known good configuration.
+				issuer = discovery.getIssuer();
+				keys = discovery.getKeySet();
+			}
+			// Issuer name and keys are applied when the discovery has completed.
+			OidcIssuers.Issuer trustedIssuer = new OidcIssuers.Issuer(name, 
+																	  issuer, 
+																	  new OidcKeySetManager(algorithm,
+																			  				keys,
+																			  				discovery::reloadKeySet,
+																			  				SECONDS.toMillis(minRefreshInterval)));
+			discoveries.put(trustedIssuer, discovery);
+			return trustedIssuer;
+		}
+		
+		String issuer = readOidcProperty(prefix+"ISSUER", properties);
+		String jwksLocation = readOidcProperty(prefix+"JWKS_URL", properties);
+		if(isEmptyString(issuer) || isEmptyString(jwksLocation)) {
+			LOG.warning(() -> format("Incomplete configuration of trusted issuer %s. Issuer ignored.", name));
+			return null;
+		}
+		JWKSet keys;
+		try {
+			keys = loadKeySet(jwksLocation);
+		} catch (OidcConfigException e) {
+			// Keys are loaded by the next key set refresh.
+			LOG.severe(format("%s: Cannot read key set of trusted issuer %s: %s",
+							  OID0007E_CANNOT_READ_JWKS.getReasonCode(),
+							  name,
+							  e.getMessage()));
+			LOG.log(FINE,e.getMessage(),e);
+			keys = new JWKSet();
+		}
+		return new OidcIssuers.Issuer(name, 
+									  issuer, 
+									  new OidcKeySetManager(algorithm,
+											  				keys,
+											  				() -> loadKeySet(jwksLocation),
+											  				SECONDS.toMillis(minRefreshInterval)));
+	}
+	
+	private void scheduleKeySetRefresh(OidcKeySetManager keys, long refreshInterval) {
+		if(refreshInterval > 0) {
+			keySetRefreshes.add(scheduler.scheduleWithFixedDelay(keys::refresh, 
+																 refreshInterval, 
+																 refreshInterval, 
+																 SECONDS));
+		}
 	}
 
-	private JWSAlgorithm readJWSAlgorithm(Properties properties) {
-	    String alg = trim(properties.getProperty(OIDC_JWS_ALGORITHM));
+	private JWSAlgorithm readJWSAlgorithm(String propertyName, Properties properties) {
+	    String alg = trim(properties.getProperty(propertyName));
 	    if (isEmptyString(alg)) {
 	        return RS256;
 	    }
@@ -300,13 +584,13 @@ public class OidcConfigProvider implements StartupListener {
 	}
 	
 	
-	Password readClientSecret(Properties properties) {
-		String clientSecret   = getSystemProperty(OIDC_CLIENT_SECRET,properties.getProperty(OIDC_CLIENT_SECRET));
+	Password readClientSecret(String propertyName, Properties properties) {
+		String clientSecret   = getSystemProperty(propertyName,properties.getProperty(propertyName));
 		if(isNonEmptyString(clientSecret)) {
 			try {
 				return new Password(fromUtf8Bytes(masterSecret.decrypt(getDecoder().decode(clientSecret))));
 			} catch (Exception e) {
-				LOG.warning(() -> format("Cannot decrypt value of %s. Use client secret as specified (assuming secret was specified in plain text). Encrypted secrets must be Base64 encoded.",OIDC_CLIENT_SECRET));
+				LOG.warning(() -> format("Cannot decrypt value of %s. Use client secret as specified (assuming secret was specified in plain text). Encrypted secrets must be Base64 encoded.",propertyName));
 				return new Password(clientSecret);
 			}
 		}
@@ -314,7 +598,10 @@ public class OidcConfigProvider implements StartupListener {
 	}
 	
 	JWKSet readKeySet(Properties properties) {
-	    String jwksLocation = trim(getSystemProperty(OIDC_JWKS));
+	    return loadKeySet(trim(getSystemProperty(OIDC_JWKS)));
+	}
+	
+	static JWKSet loadKeySet(String jwksLocation) {
 	    try {
 	        if (isEmptyString(jwksLocation)) {
 	            return null;
@@ -342,6 +629,20 @@ public class OidcConfigProvider implements StartupListener {
 			   && decoder != null;
 	}
 	
+	/**
+	 * Stops the periodic JSON Web Key Set refresh and a pending configuration discovery.
+	 */
+	@PreDestroy
+	protected void stopKeySetRefresh() {
+		stopped = true;
+		for(ScheduledFuture<?> pendingDiscovery : pendingDiscoveries.values()) {
+			pendingDiscovery.cancel(true);
+		}
+		for(ScheduledFuture<?> keySetRefresh : keySetRefreshes) {
+			keySetRefresh.cancel(true);
+		}
+	}
+	
 	/**
 	 * Makes the OpenID/Connect configuration available as CDI managed bean.
 	 * @return
@@ -350,4 +651,13 @@ public class OidcConfigProvider implements StartupListener {
 	OidcConfig getOpenIdConfig() {
 		return config;
 	}
+	
+	/**
+	 * Makes the trusted OpenID/Connect issuers available as CDI managed bean.
+	 * @return the trusted issuers or an empty issuer registry if OpenID/Connect is disabled.
+	 */
+	@Produces
+	OidcIssuers getTrustedIssuers() {
+		return issuers;
+	}
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.sso.oidc.config;
+
+import static io.leitstand.security.sso.oidc.config.OidcConfigProvider.DEFAULT_ISSUER_NAME;
+import static java.lang.String.format;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Logger.getLogger;
+import static javax.json.Json.createReader;
+import static javax.json.Json.createWriter;
+
+import java.util.logging.Logger;
+
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonWriter;
+
+import io.leitstand.commons.etc.Environment;
+
+/**
+ * The <code>OidcDiscoveryCache</code> stores the last successfully discovered OpenID/Connect configuration
+ * including the public keys of the authorization server in <code>LEITSTAND_ETC/oidc-discovery.json</code>.
+ * The configurations of additional trusted issuers are stored in <code>LEITSTAND_ETC/oidc-discovery-&lt;name&gt;.json</code>.
+ * <p>
+ * The cached configuration allows a node to serve logins and verify access tokens immediately after startup,
+ * while the configuration is rediscovered in the background.
+ */
+class OidcDiscoveryCache {
+
+	private static final Logger LOG = getLogger(OidcDiscoveryCache.class.getName());
+	static final String OIDC_DISCOVERY_CACHE_FILE = "oidc-discovery.json";
+
+	private final Environment env;
+	private final String fileName;
+
+	/**
+	 * Creates a <code>OidcDiscoveryCache</code> for the given issuer.
+	 * @param env the environment
+	 * @param issuerName the configuration name of the issuer
+	 */
+	OidcDiscoveryCache(Environment env, String issuerName){
+		this.env = env;
+		this.fileName = DEFAULT_ISSUER_NAME.equals(issuerName) 
+						? OIDC_DISCOVERY_CACHE_FILE 
+						: "oidc-discovery-"+issuerName.toLowerCase()+".json";
+	}
+
+	/**
+	 * Restores the cached configuration into the given discovery object.
+	 * @param discovery the discovery object
+	 * @return <code>true</code> if the cached configuration was restored, <code>false</code> if no cached configuration exists or the cached configuration is malformed.
+	 */
+	boolean restore(OidcConfigDiscovery discovery) {
+		if(!env.fileExists(fileName)) {
+			return false;
+		}
+		try {
+			JsonObject config = env.loadFile(fileName, r -> {
+				try(JsonReader reader = createReader(r)){
+					return reader.readObject();
+				}
+			});
+			discovery.restore(config);
+			return true;
+		} catch (RuntimeException e) {
+			LOG.warning(() -> format("Cannot read cached OpenID/Connect configuration from %s: %s",
+									 fileName,
+									 e.getMessage()));
+			LOG.log(FINE,e.getMessage(),e);
+			return false;
+		}
+	}
+
+	/**
+	 * Stores the given discovered configuration.
+	 * @param discovery the discovered configuration
+	 */
+	void store(OidcConfigDiscovery discovery) {
+		try {
+			JsonObject config = discovery.toJson();
+			env.storeFile(fileName, w -> {
+				try(JsonWriter writer = createWriter(w)){
+					writer.writeObject(config);
+				}
+			});
+		} catch (RuntimeException e) {
+			// Cache is optional. Continue with the discovered configuration.
+			LOG.warning(() -> format("Cannot store OpenID/Connect configuration in %s: %s",
+									 fileName,
+									 e.getMessage()));
+			LOG.log(FINE,e.getMessage(),e);
+		}
+	}
+
+}
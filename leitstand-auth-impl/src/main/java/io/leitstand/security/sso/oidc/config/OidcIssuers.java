@@ -0,0 +1,244 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.sso.oidc.config;
+
+import static io.leitstand.security.auth.jwt.Jwt.issuerOf;
+import static io.leitstand.security.auth.jwt.Jwt.keyIdOf;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.inject.Typed;
+
+import com.nimbusds.jose.jwk.JWK;
+
+import io.leitstand.security.auth.jwt.Jwt;
+import io.leitstand.security.auth.jwt.JwtException;
+
+/**
+ * The trusted OpenID/Connect access token issuers.
+ * <p>
+ * Every issuer has its own key set.
+ * A token is routed to the issuer that owns the key referred by the token's key ID.
+ * The key IDs of all issuers are indexed, so that routing a token costs a single lookup regardless of the number of issuers.
+ * The index is rebuilt whenever the key set of an issuer is replaced.
+ * If no issuer owns the key, the token is routed by its <code>iss</code> claim,
+ * which gives the issuer the chance to reload its key set.
+ * Routing happens before any signature verification, so that a token gets verified against the keys of a single issuer only.
+ */
+@Typed()
+public class OidcIssuers {
+
+	/**
+	 * Returns an empty issuer registry.
+	 * @return an empty issuer registry.
+	 */
+	static OidcIssuers noIssuers() {
+		return new OidcIssuers(emptyList());
+	}
+
+	/**
+	 * A trusted OpenID/Connect access token issuer.
+	 */
+	public static final class Issuer {
+
+		private final String name;
+		private volatile String issuer;
+		private final OidcKeySetManager keys;
+		private final AtomicLong accepted = new AtomicLong();
+		private final AtomicLong rejected = new AtomicLong();
+
+		/**
+		 * Creates a trusted issuer.
+		 * @param name the configuration name of the issuer
+		 * @param issuer the issuer name as conveyed in the <code>iss</code> claim or <code>null</code> if the issuer name is still to be discovered
+		 * @param keys the key set of the issuer
+		 */
+		Issuer(String name, String issuer, OidcKeySetManager keys){
+			this.name = requireNonNull(name,"Name is a mandatory attribute");
+			this.issuer = issuer;
+			this.keys = requireNonNull(keys,"KeySetManager is a mandatory attribute");
+		}
+
+		/**
+		 * Returns the configuration name of this issuer.
+		 * @return the configuration name.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the issuer name as conveyed in the <code>iss</code> claim.
+		 * @return the issuer name or <code>null</code> if the issuer name is still to be discovered.
+		 */
+		public String getIssuer() {
+			return issuer;
+		}
+
+		/**
+		 * Returns the key set manager of this issuer.
+		 * @return the key set manager.
+		 */
+		public OidcKeySetManager getKeySetManager() {
+			return keys;
+		}
+
+		/**
+		 * Returns the number of accepted tokens of this issuer.
+		 * @return the number of accepted tokens.
+		 */
+		public long getAcceptedTokenCount() {
+			return accepted.get();
+		}
+
+		/**
+		 * Returns the number of rejected tokens of this issuer.
+		 * @return the number of rejected tokens.
+		 */
+		public long getRejectedTokenCount() {
+			return rejected.get();
+		}
+
+		Jwt decodeToken(String token) {
+			try {
+				Jwt jwt = keys.decodeToken(token);
+				accepted.incrementAndGet();
+				return jwt;
+			} catch (JwtException e) {
+				rejected.incrementAndGet();
+				throw e;
+			}
+		}
+
+	}
+
+	private final List<Issuer> issuers;
+	private final Map<String,Issuer> byIssuer;
+	private volatile Map<String,Issuer> byKeyId;
+
+	OidcIssuers(List<Issuer> issuers){
+		this.issuers = unmodifiableList(new ArrayList<>(issuers));
+		this.byIssuer = new ConcurrentHashMap<>();
+		for(Issuer issuer : issuers) {
+			if(issuer.getIssuer() != null) {
+				byIssuer.put(issuer.getIssuer(), issuer);
+			}
+		}
+		indexKeyIds();
+		for(Issuer issuer : issuers) {
+			issuer.getKeySetManager().addKeySetListener(this::indexKeyIds);
+		}
+	}
+
+	private synchronized void indexKeyIds() {
+		Map<String,Issuer> index = new HashMap<>();
+		for(Issuer issuer : issuers) {
+			for(String keyId : issuer.getKeySetManager().getKeyIds()) {
+				if(keyId != null) {
+					// The first issuer owning a key ID wins.
+					index.putIfAbsent(keyId, issuer);
+				}
+			}
+		}
+		byKeyId = unmodifiableMap(index);
+	}
+
+	/**
+	 * Updates the issuer name of a trusted issuer when the issuer configuration was discovered.
+	 * Tokens conveying the discovered issuer name in their <code>iss</code> claim are routed to the given issuer afterwards.
+	 * @param issuer the trusted issuer
+	 * @param discoveredIssuer the discovered issuer name
+	 */
+	synchronized void issuerDiscovered(Issuer issuer, String discoveredIssuer) {
+		String previous = issuer.getIssuer();
+		if(previous != null) {
+			byIssuer.remove(previous, issuer);
+		}
+		issuer.issuer = discoveredIssuer;
+		if(discoveredIssuer != null) {
+			byIssuer.put(discoveredIssuer, issuer);
+		}
+	}
+
+	/**
+	 * Returns whether no trusted issuer exists.
+	 * @return <code>true</code> if no trusted issuer exists, <code>false</code> otherwise.
+	 */
+	public boolean isEmpty() {
+		return issuers.isEmpty();
+	}
+
+	/**
+	 * Returns all trusted issuers.
+	 * @return an immutable list of all trusted issuers.
+	 */
+	public List<Issuer> getIssuers() {
+		return issuers;
+	}
+
+	/**
+	 * Returns the current keys of all trusted issuers.
+	 * @return the current keys of all trusted issuers.
+	 */
+	public List<JWK> getKeys(){
+		List<JWK> keys = new LinkedList<>();
+		for(Issuer issuer : issuers) {
+			keys.addAll(issuer.getKeySetManager().getKeySet().getKeys());
+		}
+		return keys;
+	}
+
+	/**
+	 * Verifies the given token against the keys of the token issuer.
+	 * @param token the JSON web token
+	 * @return the verified token
+	 * @throws JwtException if the token is malformed, has an invalid signature or was issued by an untrusted issuer.
+	 */
+	public Jwt decodeToken(String token) {
+		return route(token).decodeToken(token);
+	}
+
+	private Issuer route(String token) {
+		String keyId = keyIdOf(token);
+		if(keyId != null) {
+			Issuer owner = byKeyId.get(keyId);
+			if(owner != null) {
+				return owner;
+			}
+		}
+		// Unknown key. Route by issuer claim to allow the issuer to reload its key set.
+		if(issuers.size() == 1) {
+			return issuers.get(0);
+		}
+		String iss = issuerOf(token);
+		Issuer issuer = iss != null ? byIssuer.get(iss) : null;
+		if(issuer == null) {
+			throw new JwtException("Untrusted token issuer");
+		}
+		return issuer;
+	}
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.sso.oidc.config;
+
+import static io.leitstand.security.auth.jwt.Jwt.keyIdOf;
+import static io.leitstand.security.sso.oidc.ReasonCode.OID0007E_CANNOT_READ_JWKS;
+import static io.leitstand.security.sso.oidc.ReasonCode.OID0010I_JWKS_REFRESHED;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Logger.getLogger;
+import static java.util.stream.Collectors.toSet;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+
+import io.leitstand.security.auth.jwt.Claims;
+import io.leitstand.security.auth.jwt.DefaultJwksDecoder;
+import io.leitstand.security.auth.jwt.Jwt;
+import io.leitstand.security.auth.jwt.JwtDecoder;
+
+/**
+ * The <code>OidcKeySetManager</code> verifies OpenID/Connect access tokens against the current JSON Web Key Set (JWKS) of the authorization server.
+ * <p>
+ * The key set is reloaded periodically by calling {@link #refresh()} and whenever a token refers to an unknown key ID.
+ * Reloads triggered by unknown key IDs are rate-limited and single-flight: concurrent callers await the running reload
+ * and no reload is attempted if the last attempt is more recent than the configured minimum refresh interval.
+ * <p>
+ * A successful reload replaces the current verifier atomically and notifies all registered key set listeners.
+ * Token verification reads the current verifier without acquiring a lock.
+ * The last successfully loaded key set remains in use if the authorization server is unreachable.
+ */
+public class OidcKeySetManager implements JwtDecoder {
+
+	private static final Logger LOG = getLogger(OidcKeySetManager.class.getName());
+
+	/**
+	 * An immutable key set along with the decoder to verify tokens against this key set.
+	 */
+	private static final class KeySetVerifier {
+		private final JWKSet keySet;
+		private final Set<String> keyIds;
+		private final JwtDecoder decoder;
+
+		KeySetVerifier(JWSAlgorithm alg, JWKSet keySet){
+			this.keySet = keySet;
+			this.keyIds = unmodifiableSet(keySet.getKeys()
+												.stream()
+												.map(JWK::getKeyID)
+												.collect(toSet()));
+			this.decoder = new DefaultJwksDecoder(alg, keySet);
+		}
+
+		boolean knows(String keyId) {
+			return keyId == null || keyIds.contains(keyId);
+		}
+	}
+
+	private final JWSAlgorithm algorithm;
+	private final Supplier<JWKSet> loader;
+	private final long minRefreshIntervalMillis;
+	private final AtomicReference<KeySetVerifier> current;
+	private final AtomicLong refreshes = new AtomicLong();
+	private final AtomicLong failedRefreshes = new AtomicLong();
+	private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+	private long lastAttempt;
+	private volatile long lastRefresh;
+
+	/**
+	 * Creates a <code>OidcKeySetManager</code>.
+	 * @param algorithm the JWS algorithm
+	 * @param keySet the initial key set
+	 * @param loader the key set loader to reload the key set from the authorization server
+	 * @param minRefreshIntervalMillis the minimum interval between two reloads triggered by unknown key IDs in milliseconds
+	 */
+	public OidcKeySetManager(JWSAlgorithm algorithm,
+							 JWKSet keySet,
+							 Supplier<JWKSet> loader,
+							 long minRefreshIntervalMillis) {
+		this.algorithm = requireNonNull(algorithm,"JWS algorithm is a mandatory attribute");
+		this.loader = requireNonNull(loader,"JWKS loader is a mandatory attribute");
+		this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+		this.current = new AtomicReference<>(new KeySetVerifier(algorithm,
+																 requireNonNull(keySet,"JWKS is a mandatory attribute")));
+		this.lastAttempt = currentTimeMillis();
+		this.lastRefresh = lastAttempt;
+	}
+
+	/**
+	 * Reloads the key set from the authorization server.
+	 * The current key set remains in use if the key set cannot be loaded.
+	 * @return <code>true</code> if the key set was reloaded, <code>false</code> otherwise.
+	 */
+	public synchronized boolean refresh() {
+		lastAttempt = currentTimeMillis();
+		try {
+			JWKSet keySet = loader.get();
+			if(keySet == null) {
+				return false;
+			}
+			KeySetVerifier verifier = new KeySetVerifier(algorithm, keySet);
+			current.set(verifier);
+			lastRefresh = currentTimeMillis();
+			refreshes.incrementAndGet();
+			keySetChanged();
+			LOG.fine(() -> format("%s: JSON Web Key Set refreshed. Trusted key IDs: %s",
+								  OID0010I_JWKS_REFRESHED.getReasonCode(),
+								  verifier.keyIds));
+			return true;
+		} catch (RuntimeException e) {
+			failedRefreshes.incrementAndGet();
+			LOG.warning(() -> format("%s: Cannot refresh JSON Web Key Set. Continue with last known key set. Reason: %s",
+									 OID0007E_CANNOT_READ_JWKS.getReasonCode(),
+									 e.getMessage()));
+			LOG.log(FINER, e.getMessage(), e);
+			return false;
+		}
+	}
+
+	/**
+	 * Replaces the current key set with the given key set.
+	 * @param keySet the new key set
+	 */
+	synchronized void update(JWKSet keySet) {
+		current.set(new KeySetVerifier(algorithm, requireNonNull(keySet,"JWKS is a mandatory attribute")));
+		lastRefresh = currentTimeMillis();
+		keySetChanged();
+	}
+
+	/**
+	 * Registers a listener that is notified whenever the current key set was replaced.
+	 * @param listener the key set listener
+	 */
+	void addKeySetListener(Runnable listener) {
+		listeners.add(requireNonNull(listener,"Listener is a mandatory attribute"));
+	}
+
+	private void keySetChanged() {
+		for(Runnable listener : listeners) {
+			listener.run();
+		}
+	}
+
+	private KeySetVerifier refreshOnUnknownKeyId(KeySetVerifier stale) {
+		synchronized (this) {
+			if(current.get() != stale) {
+				// Key set reloaded by a concurrent request.
+				return current.get();
+			}
+			if(currentTimeMillis() - lastAttempt < minRefreshIntervalMillis) {
+				// Rate limit reached. Do not bother the authorization server.
+				return stale;
+			}
+			refresh();
+			return current.get();
+		}
+	}
+
+	private KeySetVerifier verifierFor(String token) {
+		KeySetVerifier verifier = current.get();
+		if(verifier.knows(keyIdOf(token))) {
+			return verifier;
+		}
+		return refreshOnUnknownKeyId(verifier);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Claims decode(String jwt) {
+		return verifierFor(jwt).decoder.decode(jwt);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Jwt decodeToken(String jwt) {
+		return verifierFor(jwt).decoder.decodeToken(jwt);
+	}
+
+	/**
+	 * Returns the current key set.
+	 * @return the current key set.
+	 */
+	public JWKSet getKeySet() {
+		return current.get().keySet;
+	}
+
+	/**
+	 * Tests whether the current key set contains a key with the given key ID.
+	 * @param keyId the key ID
+	 * @return <code>true</code> if the current key set contains the key, <code>false</code> otherwise.
+	 */
+	public boolean isKnownKeyId(String keyId) {
+		return keyId != null && current.get().keyIds.contains(keyId);
+	}
+
+	/**
+	 * Returns the IDs of all keys of the current key set.
+	 * @return the immutable set of key IDs.
+	 */
+	Set<String> getKeyIds() {
+		return current.get().keyIds;
+	}
+
+	/**
+	 * Returns the timestamp of the last successful key set reload in milliseconds since epoch.
+	 * @return the timestamp of the last successful key set reload.
+	 */
+	public long getLastRefresh() {
+		return lastRefresh;
+	}
+	
+	/**
+	 * Returns the number of successful key set reloads.
+	 * @return the number of successful key set reloads.
+	 */
+	public long getRefreshCount() {
+		return refreshes.get();
+	}
+	
+	/**
+	 * Returns the number of failed key set reloads.
+	 * @return the number of failed key set reloads.
+	 */
+	public long getFailedRefreshCount() {
+		return failedRefreshes.get();
+	}
+
+}
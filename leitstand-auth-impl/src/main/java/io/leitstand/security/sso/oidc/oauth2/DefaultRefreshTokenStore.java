@@ -17,10 +17,13 @@ package io.leitstand.security.sso.oidc.oauth2;
 
 import static io.leitstand.commons.model.StringUtil.fromUtf8Bytes;
 import static io.leitstand.commons.model.StringUtil.toUtf8Bytes;
+import static io.leitstand.security.sso.oidc.oauth2.RefreshTokenStoreEntry.findExpiredSubjects;
+import static io.leitstand.security.sso.oidc.oauth2.RefreshTokenStoreEntry.removeBySubjects;
 import static java.util.Base64.getEncoder;
 
 import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 
 import javax.inject.Inject;
 
@@ -78,4 +81,17 @@ public class DefaultRefreshTokenStore implements RefreshTokenStore{
 		return null;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int removeExpiredRefreshTokens(Date expiredBefore, int batchSize) {
+		// Select the primary keys first to bound the number of rows locked and deleted by one transaction.
+		List<String> subs = repository.execute(findExpiredSubjects(expiredBefore, batchSize));
+		if(subs.isEmpty()) {
+			return 0;
+		}
+		return repository.execute(removeBySubjects(subs));
+	}
+	
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.sso.oidc.oauth2;
+
+import static io.leitstand.commons.etc.Environment.getSystemProperty;
+import static io.leitstand.commons.rs.ResourceUtil.tryParseInt;
+import static io.leitstand.security.sso.oidc.ReasonCode.OID0008I_EXPIRED_REFRESH_TOKENS_PURGED;
+import static io.leitstand.security.sso.oidc.ReasonCode.OID0009E_CANNOT_PURGE_REFRESH_TOKENS;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Logger.getLogger;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.leitstand.commons.StartupListener;
+import io.leitstand.security.sso.oidc.config.OidcConfig;
+
+/**
+ * The <code>RefreshTokenPurgeJob</code> periodically removes expired refresh tokens from the <code>auth.oauth2_refreshtoken</code> table.
+ * <p>
+ * Expired tokens are removed in bounded batches. Every batch is removed in a separate transaction to keep row locks short-lived,
+ * and the job pauses between two batches to limit the load on the database.
+ * The purge job is only scheduled if OpenID/Connect is enabled, because refresh tokens are only stored for OpenID/Connect logins.
+ * <p>
+ * The following environment properties allow to tune the purge job:
+ * <ul>
+ * <li><code>OIDC_REFRESH_TOKEN_PURGE_INTERVAL</code> the purge interval in seconds. Defaults to 3600 seconds.</li>
+ * <li><code>OIDC_REFRESH_TOKEN_PURGE_BATCH_SIZE</code> the maximum number of tokens removed by a single transaction. Defaults to 500.</li>
+ * <li><code>OIDC_REFRESH_TOKEN_PURGE_PAUSE</code> the pause between two batches in milliseconds. Defaults to 100 milliseconds.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class RefreshTokenPurgeJob implements StartupListener {
+
+	private static final Logger LOG = getLogger(RefreshTokenPurgeJob.class.getName());
+
+	private static final String OIDC_REFRESH_TOKEN_PURGE_INTERVAL	= "OIDC_REFRESH_TOKEN_PURGE_INTERVAL";
+	private static final String OIDC_REFRESH_TOKEN_PURGE_BATCH_SIZE = "OIDC_REFRESH_TOKEN_PURGE_BATCH_SIZE";
+	private static final String OIDC_REFRESH_TOKEN_PURGE_PAUSE		= "OIDC_REFRESH_TOKEN_PURGE_PAUSE";
+
+	private static final int DEFAULT_PURGE_INTERVAL   = 3600;
+	private static final int DEFAULT_PURGE_BATCH_SIZE = 500;
+	private static final int DEFAULT_PURGE_PAUSE	  = 100;
+
+	@Resource
+	private ManagedScheduledExecutorService scheduler;
+
+	private RefreshTokenStore store;
+
+	private OidcConfig oidcConfig;
+
+	private ScheduledFuture<?> job;
+
+	private int batchSize;
+
+	private long pauseMillis;
+
+	private final AtomicLong totalPurged = new AtomicLong();
+	private volatile long lastPurged;
+	private volatile long lastDurationMillis;
+
+	protected RefreshTokenPurgeJob() {
+		// CDI
+	}
+
+	@Inject
+	protected RefreshTokenPurgeJob(RefreshTokenStore store, OidcConfig oidcConfig) {
+		this.store = store;
+		this.oidcConfig = oidcConfig;
+	}
+
+	/**
+	 * Schedules the purge job if OpenID/Connect is enabled.
+	 */
+	@Override
+	public void onStartup() {
+		if(oidcConfig == null) {
+			// No refresh tokens are stored if OpenID/Connect is disabled.
+			return;
+		}
+
+		int interval = max(1, tryParseInt(getSystemProperty(OIDC_REFRESH_TOKEN_PURGE_INTERVAL), DEFAULT_PURGE_INTERVAL));
+		batchSize    = max(1, tryParseInt(getSystemProperty(OIDC_REFRESH_TOKEN_PURGE_BATCH_SIZE), DEFAULT_PURGE_BATCH_SIZE));
+		pauseMillis  = max(0, tryParseInt(getSystemProperty(OIDC_REFRESH_TOKEN_PURGE_PAUSE), DEFAULT_PURGE_PAUSE));
+
+		job = scheduler.scheduleWithFixedDelay(this::purgeExpiredRefreshTokens,
+											   interval,
+											   interval,
+											   SECONDS);
+	}
+
+	@PreDestroy
+	protected void cancel() {
+		if(job != null) {
+			job.cancel(true);
+		}
+	}
+
+	/**
+	 * Removes all expired refresh tokens batch by batch.
+	 */
+	void purgeExpiredRefreshTokens() {
+		long start = currentTimeMillis();
+		Date now = new Date(start);
+		long purged = 0;
+		try {
+			int removed;
+			do {
+				removed = store.removeExpiredRefreshTokens(now, batchSize);
+				purged += removed;
+				if(removed == batchSize && pauseMillis > 0) {
+					MILLISECONDS.sleep(pauseMillis);
+				}
+			} while (removed == batchSize);
+		} catch (InterruptedException e) {
+			currentThread().interrupt();
+		} catch (RuntimeException e) {
+			// Do not propagate the exception, because this would suppress all subsequent executions of the job.
+			LOG.warning(() -> format("%s: Cannot purge expired refresh tokens: %s",
+									 OID0009E_CANNOT_PURGE_REFRESH_TOKENS.getReasonCode(),
+									 e.getMessage()));
+			LOG.log(FINER, e.getMessage(), e);
+		} finally {
+			long duration = currentTimeMillis() - start;
+			long count = purged;
+			lastPurged = count;
+			lastDurationMillis = duration;
+			totalPurged.addAndGet(count);
+			LOG.fine(() -> format("%s: Purged %d expired refresh tokens in %d ms.",
+								  OID0008I_EXPIRED_REFRESH_TOKENS_PURGED.getReasonCode(),
+								  count,
+								  duration));
+		}
+	}
+
+	/**
+	 * Returns the number of expired refresh tokens removed by the last purge run.
+	 * @return the number of refresh tokens removed by the last run.
+	 */
+	public long getLastPurgedCount() {
+		return lastPurged;
+	}
+
+	/**
+	 * Returns the duration of the last purge run in milliseconds.
+	 * @return the duration of the last purge run in milliseconds.
+	 */
+	public long getLastPurgeDurationMillis() {
+		return lastDurationMillis;
+	}
+
+	/**
+	 * Returns the total number of expired refresh tokens removed since application startup.
+	 * @return the total number of removed refresh tokens.
+	 */
+	public long getTotalPurgedCount() {
+		return totalPurged.get();
+	}
+
+}
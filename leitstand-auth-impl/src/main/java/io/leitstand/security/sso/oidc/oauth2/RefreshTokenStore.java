@@ -37,4 +37,13 @@ public interface RefreshTokenStore {
 	 */
 	String getRefreshToken(String sub);
 	
+	/**
+	 * Removes a bounded batch of refresh tokens that expired before the given date.
+	 * Callers purge all expired tokens by invoking this method repeatedly until it returns a value less than the batch size.
+	 * @param expiredBefore the reference date for the expiry check
+	 * @param batchSize the maximum number of tokens to be removed 
+	 * @return the number of removed tokens
+	 */
+	int removeExpiredRefreshTokens(Date expiredBefore, int batchSize);
+	
 }
@@ -19,19 +19,43 @@ import static javax.persistence.TemporalType.TIMESTAMP;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.List;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 
-@Table(schema="auth", name="oauth2_refreshtoken")
+import io.leitstand.commons.model.Query;
+
+@Table(schema="auth", 
+	   name="oauth2_refreshtoken",
+	   indexes=@Index(name="oauth2_refreshtoken_exp_idx", columnList="exp"))
 @Entity
+@NamedQuery(name="RefreshTokenStoreEntry.findExpiredSubjects",
+			query="SELECT e.sub FROM RefreshTokenStoreEntry e WHERE e.expiryDate < :exp ORDER BY e.expiryDate")
+@NamedQuery(name="RefreshTokenStoreEntry.removeBySubjects",
+			query="DELETE FROM RefreshTokenStoreEntry e WHERE e.sub IN :subs")
 public class RefreshTokenStoreEntry implements Serializable{
 	
 	private static final long serialVersionUID = 1L;
 
+	public static Query<List<String>> findExpiredSubjects(Date expiredBefore, int limit){
+		return em -> em.createNamedQuery("RefreshTokenStoreEntry.findExpiredSubjects",String.class)
+					   .setParameter("exp", expiredBefore, TIMESTAMP)
+					   .setMaxResults(limit)
+					   .getResultList();
+	}
+	
+	public static Query<Integer> removeBySubjects(List<String> subs){
+		return em -> em.createNamedQuery("RefreshTokenStoreEntry.removeBySubjects")
+					   .setParameter("subs", subs)
+					   .executeUpdate();
+	}
+
 	@Id
 	private String sub;
 	@Column(name="token64")
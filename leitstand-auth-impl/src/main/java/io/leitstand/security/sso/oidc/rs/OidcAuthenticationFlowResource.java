@@ -21,8 +21,11 @@ import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.net.URLDecoder.decode;
 import static java.util.logging.Logger.getLogger;
+import static javax.ws.rs.core.HttpHeaders.RETRY_AFTER;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.Response.ok;
+import static javax.ws.rs.core.Response.status;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 
 import java.io.UnsupportedEncodingException;
 import java.util.Date;
@@ -40,6 +43,7 @@ import javax.ws.rs.core.Response;
 import io.leitstand.commons.rs.Public;
 import io.leitstand.commons.rs.Resource;
 import io.leitstand.security.oauth2.Oauth2AccessToken;
+import io.leitstand.security.sso.oidc.config.OidcConfigNotReadyException;
 import io.leitstand.security.sso.oidc.oauth2.RefreshTokenStore;
 import io.leitstand.security.sso.oidc.service.OidcService;
 import io.leitstand.security.sso.oidc.service.OidcUserInfo;
@@ -80,10 +84,18 @@ public class OidcAuthenticationFlowResource {
 								 @QueryParam("redirect_uri") String redirectUri) throws UnsupportedEncodingException{
 		
 		// Obtain an access token
-		Oauth2AccessToken accessToken = oidc.getAccessToken(code, decode(redirectUri,"UTF-8"));
-	
-		// Load user info
-		OidcUserInfo userInfo = oidc.getUserInfo(accessToken);
+		Oauth2AccessToken accessToken;
+		OidcUserInfo userInfo;
+		try {
+			accessToken = oidc.getAccessToken(code, decode(redirectUri,"UTF-8"));
+			// Load user info
+			userInfo = oidc.getUserInfo(accessToken);
+		} catch (OidcConfigNotReadyException e) {
+			// Endpoints are unknown until the configuration discovery has completed.
+			return status(SERVICE_UNAVAILABLE)
+				   .header(RETRY_AFTER, e.getRetryAfter())
+				   .build();
+		}
 		
 		// Store user for auditing
 		users.storeUser(userInfo);
@@ -77,6 +77,7 @@ public class OidcService {
 	public Oauth2AccessToken getAccessToken(String code,
 											String redirectUri) {
 		
+		config.assertReady();
 		Form request = new Form()
 					   .param("grant_type", "authorization_code")
 					   .param("code", code);
@@ -103,6 +104,7 @@ public class OidcService {
 	}
 	
 	public Oauth2AccessToken refreshAccessToken(String refreshToken) {
+		config.assertReady();
 		Form request = new Form()
 					   .param("grant_type","refresh_token")
 					   .param("refresh_token", refreshToken);
@@ -127,6 +129,7 @@ public class OidcService {
 	}
 	
 	public OidcUserInfo getUserInfo(Oauth2AccessToken accessToken) {
+		config.assertReady();
 		try {
 			JsonObject userData = client.target(config.getUserInfoEndpoint())
 						 				.request()
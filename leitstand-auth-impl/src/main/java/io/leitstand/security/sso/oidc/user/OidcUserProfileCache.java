@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.sso.oidc.user;
+
+import static io.leitstand.security.crypto.SecureHashes.sha256;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Base64.getEncoder;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import io.leitstand.security.auth.UserName;
+import io.leitstand.security.sso.oidc.service.OidcUserInfo;
+import io.leitstand.security.users.event.UserEvent;
+
+/**
+ * The <code>OidcUserProfileCache</code> remembers a digest of the last stored OpenID/Connect user profile of a user.
+ * <p>
+ * The {@link OidcUserService} consults this cache to skip loading and updating the user record
+ * if the user profile has not changed since the last login.
+ * A digest is only recorded after the transaction storing the profile has been committed,
+ * and it is evicted when the user is modified or removed.
+ * Cached digests expire after ten minutes to pick up changes that were made to the user record on other nodes.
+ */
+@ApplicationScoped
+class OidcUserProfileCache {
+
+	private static final long TTL_MILLIS = MINUTES.toMillis(10);
+	private static final int MAX_ENTRIES = 10000;
+
+	private static final class Entry {
+		private final String digest;
+		private final long expiry;
+
+		Entry(String digest, long expiry){
+			this.digest = digest;
+			this.expiry = expiry;
+		}
+	}
+
+	static String digest(OidcUserInfo userInfo) {
+		String profile = String.join("\u0000",
+									 userInfo.getSub(),
+									 String.valueOf(userInfo.getGivenName()),
+									 String.valueOf(userInfo.getFamilyName()),
+									 String.valueOf(userInfo.getEmail()));
+		return getEncoder().encodeToString(sha256().hash(profile));
+	}
+
+	private final ConcurrentMap<UserName,Entry> profiles = new ConcurrentHashMap<>();
+
+	/**
+	 * Tests whether the given user profile is unchanged since it was stored last.
+	 * @param userInfo the user profile
+	 * @return <code>true</code> if the profile is known and unchanged, <code>false</code> otherwise.
+	 */
+	boolean isUnchanged(OidcUserInfo userInfo) {
+		Entry entry = profiles.get(userInfo.getUserName());
+		if(entry == null) {
+			return false;
+		}
+		if(entry.expiry < currentTimeMillis()) {
+			profiles.remove(userInfo.getUserName(), entry);
+			return false;
+		}
+		return entry.digest.equals(digest(userInfo));
+	}
+
+	/**
+	 * Records the digest of a stored user profile.
+	 * @param userInfo the stored user profile
+	 */
+	void stored(OidcUserInfo userInfo) {
+		if(profiles.size() >= MAX_ENTRIES) {
+			// Drop all entries rather than tracking access order.
+			// The next login of each user simply stores the profile again.
+			profiles.clear();
+		}
+		profiles.put(userInfo.getUserName(),
+					 new Entry(digest(userInfo),
+							   currentTimeMillis() + TTL_MILLIS));
+	}
+
+	/**
+	 * Records the digest of a stored user profile after the transaction has been committed.
+	 * @param event the stored user profile
+	 */
+	void profileStored(@Observes(during=AFTER_SUCCESS) OidcUserProfileStored event) {
+		stored(event.getUserInfo());
+	}
+	
+	/**
+	 * Removes the cached profile digest of a modified or removed user.
+	 * @param event the user event
+	 */
+	void userModified(@Observes(during=AFTER_SUCCESS) UserEvent event) {
+		evict(event.getUserName());
+	}
+
+	/**
+	 * Removes the cached profile digest of the given user.
+	 * @param userName the user name
+	 */
+	void evict(UserName userName) {
+		profiles.remove(userName);
+	}
+
+}
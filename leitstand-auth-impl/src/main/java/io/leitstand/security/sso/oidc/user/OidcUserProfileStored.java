@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.sso.oidc.user;
+
+import io.leitstand.security.sso.oidc.service.OidcUserInfo;
+
+/**
+ * Reports that the profile of an OpenID/Connect user has been stored in the user record.
+ * <p>
+ * The {@link OidcUserProfileCache} records the profile digest once the transaction storing the profile has been committed.
+ */
+final class OidcUserProfileStored {
+
+	private final OidcUserInfo userInfo;
+	
+	OidcUserProfileStored(OidcUserInfo userInfo){
+		this.userInfo = userInfo;
+	}
+	
+	/**
+	 * Returns the stored user profile.
+	 * @return the stored user profile.
+	 */
+	OidcUserInfo getUserInfo() {
+		return userInfo;
+	}
+	
+}
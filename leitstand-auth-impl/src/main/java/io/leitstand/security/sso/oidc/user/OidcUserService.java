@@ -24,6 +24,7 @@ import static java.util.logging.Logger.getLogger;
 
 import java.util.logging.Logger;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import io.leitstand.commons.messages.Messages;
@@ -43,19 +44,33 @@ public class OidcUserService {
 	
 	private Repository repository;
 	
+	private OidcUserProfileCache profiles;
+	
+	private Event<OidcUserProfileStored> events;
+	
 	protected OidcUserService() {
 		// CDI
 	}
 	
 	@Inject
-	protected OidcUserService(@IdentityManagement Repository repository, Messages messages) {
+	protected OidcUserService(@IdentityManagement Repository repository, 
+							  OidcUserProfileCache profiles,
+							  Event<OidcUserProfileStored> events,
+							  Messages messages) {
 		this.repository = repository;
+		this.profiles = profiles;
+		this.events = events;
 		this.messages = messages;
 	}
 	
 	
 	public void storeUser(OidcUserInfo userInfo) {
 		UserName userName = userInfo.getUserName();
+		if(profiles.isUnchanged(userInfo)) {
+			// Profile unchanged since last login. Skip reading and updating the user record.
+			LOG.finer(() -> format("User %s profile unchanged.",userName));
+			return;
+		}
 		User user = repository.execute(findUserByName(userName));
 		if(user == null) {
 			user = new User(userId(userInfo.getSub())  ,userName);
@@ -64,6 +79,8 @@ public class OidcUserService {
 		user.setGivenName(userInfo.getGivenName());
 		user.setFamilyName(userInfo.getFamilyName());
 		user.setEmailAddress(userInfo.getEmail());
+		// The profile cache records the profile when the transaction has been committed.
+		events.fire(new OidcUserProfileStored(userInfo));
 		
 		LOG.fine(() -> format("%s: User %s stored.",
 					          IDM0001I_USER_STORED.getReasonCode(),
@@ -95,7 +95,7 @@ public class CookieManager implements AccessTokenManager{
 		}
 		UserInfo user = userRegistry.getUserInfo(userName);
 		Date expiryDate = computeExpiryDate(user);
-		String jws = createJws(user, expiryDate);
+		String jws = createJws(user, expiryDate, new Date());
 		
 		writeCookie(request, 
 					response, 
@@ -106,10 +106,11 @@ public class CookieManager implements AccessTokenManager{
 		return true;
 	}
 
-	private String createJws(UserInfo userInfo, Date expiryDate) {
+	private String createJws(UserInfo userInfo, Date expiryDate, Date authTime) {
 	    
 	    Claims claims = newClaims()
 	                    .issuedAt(new Date())
+	                    .authTime(authTime)
 	                    .expiresAt(expiryDate)
 	                    .subject(userInfo.getUserName().toString())
 	                    .scopes(userInfo.getScopes())
@@ -207,7 +208,7 @@ public class CookieManager implements AccessTokenManager{
 				
 				writeCookie(request, 
 							response, 
-							createJws(user,expiry),
+							createJws(user,expiry,claims.getAuthTime()),
 							(int)(expiry.getTime() - currentTimeMillis())/1000);
 				
 			}
@@ -17,15 +17,22 @@ package io.leitstand.security.sso.standalone.config;
 
 import static io.leitstand.commons.etc.Environment.getSystemProperty;
 import static io.leitstand.commons.rs.ResourceUtil.tryParseInt;
+import static io.leitstand.security.rsa.RsaKeyPairLoader.await;
+import static io.leitstand.security.rsa.RsaKeyPairLoader.loadRsaKeyPair;
 import static io.leitstand.security.rsa.RsaKeys.PEM_FILE_PROCESSOR;
 import static io.leitstand.security.rsa.RsaKeys.exportKeyPair;
 import static io.leitstand.security.rsa.RsaKeys.generateRsaKeyPair;
 import static io.leitstand.security.sso.standalone.config.StandaloneLoginConfig.STANDALONE_LOGIN_KEY_ID;
 import static io.leitstand.security.sso.standalone.config.StandaloneLoginConfig.newStandaloneLoginConfig;
+import static java.util.concurrent.ForkJoinPool.commonPool;
 
 import java.security.KeyPair;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
@@ -42,12 +49,16 @@ import io.leitstand.security.sso.oidc.config.OidcConfig;
  * The standalone login configuration uses <em>RS256</em> signed access tokens.
  * The RSA key pair is read from the <em>LEITSTAND_HOME/login.pem</em> file.
  * The provider creates a 2048-bit RSA key pair and creates the <em>login.pem</em> file in case the file does not exist.
+ * The key pair is loaded in the background, concurrently to the other startup tasks.
+ * The first consumer of the standalone login configuration waits until the key pair is loaded.
  * <p>
  * An access token expires after 3600 seconds (= 60 minutes = 1 hour) and gets renewed if a token is expired but 
  * does not exceed the refresh period of 60 seconds.
  * <p>
  * The <code>JWS_TTL</code> environment property allows changing the access token time-to-live duration. 
  * The <code>JWS_REFRESH</code> environment property allows changing the grace period for renewing an expired access token.
+ * The <code>JWS_MAX_SESSION_AGE</code> environment property allows changing the maximum session age in seconds,
+ * after which a system client cannot refresh an access token anymore. The default maximum session age is 24 hours.
  * 
  */
 @ApplicationScoped
@@ -61,12 +72,16 @@ public class StandaloneConfigProvider implements StartupListener {
 
 	private static final String STANDALONE_JWS_TTL = "JWS_TTL";
 	private static final String STANDALONE_JWS_REFRESH = "JWS_REFRESH";
+	private static final String STANDALONE_JWS_MAX_SESSION_AGE = "JWS_MAX_SESSION_AGE";
 		
 	private Environment env;
 	
 	private OidcConfig oidc;
 	
-    private StandaloneLoginConfig config;
+    private CompletableFuture<StandaloneLoginConfig> config;
+    
+    @Resource
+    private ManagedExecutorService executor;
 
 	
 	protected StandaloneConfigProvider() {
@@ -90,19 +105,24 @@ public class StandaloneConfigProvider implements StartupListener {
 	        return;
 	    }
 	    
-	    KeyPair keyPair = readAccessTokenKeyPair();
-		
-	    DefaultRsaJwtService jwtService = new DefaultRsaJwtService(keyPair, STANDALONE_LOGIN_KEY_ID);
-	    
 		Duration jwtTtl = Duration.ofSeconds(tryParseInt(getSystemProperty(STANDALONE_JWS_TTL), 3600)); 
 		Duration jwtRefresh = Duration.ofSeconds(tryParseInt(getSystemProperty(STANDALONE_JWS_REFRESH),60)); 
+		Duration maxSessionAge = Duration.ofSeconds(tryParseInt(getSystemProperty(STANDALONE_JWS_MAX_SESSION_AGE),86400)); 
 
-		this.config = newStandaloneLoginConfig()
-		              .withRefresh(jwtRefresh)
-		              .withTimeToLive(jwtTtl)
-		              .withJwtService(jwtService)
-		              .withKeySet(jwtService.getKeySet())
-		              .build();
+		Executor keyLoader = executor != null ? executor : commonPool();
+		this.config = loadRsaKeyPair(ACCESS_TOKEN_KEY_PEM_FILE,
+									 this::readAccessTokenKeyPair,
+									 keyLoader)
+					  .thenApply(keyPair -> {
+						  DefaultRsaJwtService jwtService = new DefaultRsaJwtService(keyPair, STANDALONE_LOGIN_KEY_ID);
+						  return newStandaloneLoginConfig()
+								 .withRefresh(jwtRefresh)
+								 .withTimeToLive(jwtTtl)
+								 .withMaxSessionAge(maxSessionAge)
+								 .withJwtService(jwtService)
+								 .withKeySet(jwtService.getKeySet())
+								 .build();
+					  });
 		
 	}
 
@@ -118,7 +138,10 @@ public class StandaloneConfigProvider implements StartupListener {
     
 	@Produces
     protected StandaloneLoginConfig getConfig() {
-		return config;
+		if (config == null) {
+			return null;
+		}
+		return await(config);
 	}
     
 }
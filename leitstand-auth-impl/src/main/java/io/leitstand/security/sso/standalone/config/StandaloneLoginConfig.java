@@ -83,6 +83,18 @@ public class StandaloneLoginConfig {
             return this;
         }
         
+        /**
+         * Sets the maximum session age. 
+         * An access token cannot be refreshed once the session exceeds the maximum age and the user must login again.
+         * @param maxSessionAge the maximum session age
+         * @return a reference to this builder to continue with object creation
+         */
+        public Builder withMaxSessionAge(Duration maxSessionAge) {
+            assertNotInvalidated(getClass(), config);
+            config.maxSessionAge = maxSessionAge;
+            return this;
+        }
+        
         /**
          * Sets the service to verify a Leitstand access token.
          * @param service the JWT verification service
@@ -124,6 +136,7 @@ public class StandaloneLoginConfig {
     
     private Duration jwtTtl = Duration.ofSeconds(3600);
 	private Duration jwtRefresh = Duration.ofSeconds(300);
+	private Duration maxSessionAge = Duration.ofHours(24);
     private JwtService jwtService;
     private JWKSet keySet;
 
@@ -183,6 +196,14 @@ public class StandaloneLoginConfig {
 		return jwtRefresh;
 	}
 	
+	/**
+	 * Returns the maximum session age.
+	 * @return the maximum session age.
+	 */
+	public Duration getMaxSessionAge() {
+		return maxSessionAge;
+	}
+	
 	/**
 	 * Returns the set of trusted keys.
 	 * @return the set of trusted keys.
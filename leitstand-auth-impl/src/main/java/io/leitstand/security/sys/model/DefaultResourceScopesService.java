@@ -1,8 +1,10 @@
 package io.leitstand.security.sys.model;
 
+import static io.leitstand.security.auth.scope.ScopeIndex.scopeIndex;
+import static io.leitstand.security.auth.scope.ScopeRegistry.scopeRegistry;
+import static io.leitstand.security.auth.scope.ScopeTrie.withWildcards;
 import static java.util.Arrays.asList;
 import static java.util.Arrays.stream;
-import static java.util.Collections.unmodifiableSortedSet;
 import static java.util.stream.Collectors.toSet;
 import static java.util.stream.Stream.empty;
 
@@ -16,6 +18,7 @@ import javax.inject.Inject;
 
 import io.leitstand.commons.rs.ApiResources;
 import io.leitstand.security.auth.Scopes;
+import io.leitstand.security.auth.scope.ScopeIndex;
 import io.leitstand.security.sys.service.ResourceScopesService;
 
 /**
@@ -23,6 +26,10 @@ import io.leitstand.security.sys.service.ResourceScopesService;
  * <p>
  * The resource scopes are discovered from the <code>{@literal @Scope}</code> annotations
  * on Leitstand API resources (annotated with <code>{@literal @Resource}</code>.
+ * The scopes are read from the compile-time {@link ScopeIndex}.
+ * Resources that were not compiled with the scope index processor are inspected by reflection.
+ * The resource scopes include a wildcard grant like <code>adm.*</code> for every parent scope, 
+ * which allows granting a scope and all its sub-scopes to a role.
  */
 
 @ApplicationScoped
@@ -63,12 +70,19 @@ public class DefaultResourceScopesService implements ResourceScopesService{
 	@PostConstruct
 	protected void discoverScopes() {
 		SortedSet<String> scopes = new TreeSet<>();
+		ScopeIndex index = scopeIndex();
 		
 		for(Class<?> resource : resources.getClasses()) {
-			scopes.addAll(declaredScopes(resource));
+			if(index.isIndexed(resource)) {
+				scopes.addAll(index.getDeclaredScopes(resource));
+			} else {
+				scopes.addAll(declaredScopes(resource));
+			}
 		}
 		
-		this.scopes = unmodifiableSortedSet(scopes);
+		scopeRegistry().register(scopes);
+		// Offer a wildcard grant for every scope hierarchy.
+		this.scopes = withWildcards(scopes);
 		
 	}
 
@@ -17,12 +17,20 @@ import com.nimbusds.jose.jwk.JWKSet;
 
 import io.leitstand.security.accesskeys.model.AccessKeyConfig;
 import io.leitstand.security.sso.oidc.config.OidcConfig;
+import io.leitstand.security.sso.oidc.config.OidcIssuers;
 import io.leitstand.security.sso.standalone.config.StandaloneLoginConfig;
 import io.leitstand.security.sys.service.LoginConfiguration;
 import io.leitstand.security.sys.service.LoginConfigurationService;
 import io.leitstand.security.sys.service.SsoSettings;
 import io.leitstand.security.sys.service.SsoSettingsService;
 
+/**
+ * The default <code>SsoSettingsService</code> and <code>LoginConfigurationService</code> implementation.
+ * <p>
+ * The SSO settings are created once at startup.
+ * The JSON Web Key Set is only recreated when the keys of a trusted OpenID/Connect issuer have changed.
+ * Hence the same <code>JWKSet</code> instance is returned until a key rotation takes place.
+ */
 @ApplicationScoped
 public class DefaultSsoService implements SsoSettingsService, LoginConfigurationService{
 
@@ -32,16 +40,39 @@ public class DefaultSsoService implements SsoSettingsService, LoginConfiguration
     
     private OidcConfig oidcConfig;
     
-    private JWKSet trustedKeys;
+    private OidcIssuers oidcIssuers;
+    
+    private JWKSet localKeys;
+    
+    private SsoSettings ssoSettings;
+    
+    /**
+     * The trusted keys consisting of the local keys and the keys of the trusted OpenID/Connect issuers.
+     */
+    private static final class TrustedKeys {
+    	private final List<JWK> issuerKeys;
+    	private final JWKSet keySet;
+    	
+    	private TrustedKeys(List<JWK> issuerKeys, JWKSet keySet) {
+    		this.issuerKeys = issuerKeys;
+    		this.keySet = keySet;
+    	}
+    }
+    
+    private volatile TrustedKeys trustedKeys;
     
     protected DefaultSsoService() {
     	// CDI
     }
     
     @Inject
-    protected DefaultSsoService(AccessKeyConfig accessKeyConfig, OidcConfig oidcConfig, StandaloneLoginConfig standaloneConfig) {
+    protected DefaultSsoService(AccessKeyConfig accessKeyConfig, 
+    							OidcConfig oidcConfig, 
+    							OidcIssuers oidcIssuers, 
+    							StandaloneLoginConfig standaloneConfig) {
     	this.accessKeyConfig = accessKeyConfig;
     	this.oidcConfig = oidcConfig;
+    	this.oidcIssuers = oidcIssuers;
     	this.standaloneConfig = standaloneConfig;
     }
     
@@ -58,24 +89,21 @@ public class DefaultSsoService implements SsoSettingsService, LoginConfiguration
     		keys.addAll(standaloneConfig.getKeySet().getKeys());
     	}
     	
-    	if (oidcConfig != null) {
-    		keys.addAll(oidcConfig.getKeySet().getKeys());
-    	}
+    	localKeys = new JWKSet(keys);
     	
-    	trustedKeys = new JWKSet(keys);
+    	URI tokenEndpoint = service("/system/auth/token");
+    	URI jwksEndpoint = service("/system/auth/config/jwks");
     	
+    	ssoSettings = newSsoSettings()
+    				  .withJwksUri(jwksEndpoint)
+    				  .withTokenEndpoint(tokenEndpoint)
+    				  .build();
     	
     }
     
     @Override
     public SsoSettings getSsoSettings() {
-        URI tokenEndpoint = service("/system/auth/token");
-        URI jwksEndpoint = service("/system/auth/config/jwks");
-        
-        return newSsoSettings()
-               .withJwksUri(jwksEndpoint)
-               .withTokenEndpoint(tokenEndpoint)
-               .build();
+        return ssoSettings;
     }
 
     private URI service(String path) {
@@ -89,12 +117,27 @@ public class DefaultSsoService implements SsoSettingsService, LoginConfiguration
     
     @Override
     public JWKSet getJWKSet() {
-        return trustedKeys;
+    	if (oidcIssuers.isEmpty()) {
+    		return localKeys;
+    	}
+    	// Read the current OpenID/Connect keys to reflect key rotations.
+    	List<JWK> issuerKeys = oidcIssuers.getKeys();
+    	TrustedKeys current = trustedKeys;
+    	if (current != null && current.issuerKeys.equals(issuerKeys)) {
+    		return current.keySet;
+    	}
+    	List<JWK> keys = new LinkedList<>(localKeys.getKeys());
+    	keys.addAll(issuerKeys);
+    	current = new TrustedKeys(issuerKeys, new JWKSet(keys));
+    	trustedKeys = current;
+        return current.keySet;
     } 
    
 	@Override
 	public LoginConfiguration getLoginConfiguration() {
 		if (oidcConfig != null ) {
+			// The authorization endpoint is unknown while the configuration discovery is pending.
+			oidcConfig.assertReady();
 			return newLoginConfiguration()
 				   .withOidcClientId(oidcConfig.getClientId().toString())
 				   .withLoginView(oidcConfig.getAuthorizationEndpoint())
@@ -105,5 +148,10 @@ public class DefaultSsoService implements SsoSettingsService, LoginConfiguration
 		
 
 	}
+	
+	@Override
+	public boolean isLoginConfigurationReady() {
+		return oidcConfig == null || oidcConfig.isReady();
+	}
     
 }
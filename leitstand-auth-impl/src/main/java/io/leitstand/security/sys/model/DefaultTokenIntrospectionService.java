@@ -0,0 +1,205 @@
+package io.leitstand.security.sys.model;
+
+import static io.leitstand.security.auth.accesskeys.AccessKeyId.accessKeyId;
+import static io.leitstand.security.auth.accesskeys.ApiAccessKeys.isRevocable;
+import static io.leitstand.security.sys.service.ReasonCode.SYS0005E_INTROSPECTION_BATCH_TOO_LARGE;
+import static io.leitstand.security.sys.service.TokenIntrospection.inactiveToken;
+import static io.leitstand.security.sys.service.TokenIntrospection.newTokenIntrospection;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.ForkJoinPool.commonPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.logging.Logger.getLogger;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.leitstand.commons.UnprocessableEntityException;
+import io.leitstand.security.accesskeys.service.AccessKeyValidatorService;
+import io.leitstand.security.auth.accesskeys.AccessKeyId;
+import io.leitstand.security.auth.bearer.BearerTokenValidator;
+import io.leitstand.security.auth.jwt.Claims;
+import io.leitstand.security.auth.jwt.Jwt;
+import io.leitstand.security.auth.jwt.JwtException;
+import io.leitstand.security.sys.service.TokenIntrospection;
+import io.leitstand.security.sys.service.TokenIntrospectionService;
+
+/**
+ * Introspects API access keys, standalone login access tokens and OpenID/Connect access tokens.
+ * <p>
+ * A batch of tokens is introspected in three steps.
+ * First, the results of recently introspected tokens are read from a short-living cache.
+ * Second, the signatures of all other tokens are verified in parallel.
+ * Third, all non-temporary API access keys of the batch are checked for revocation with a single database query.
+ * Consequently, a gateway fanning out many tokens costs one database round trip per batch at most.
+ * <p>
+ * The introspection results are cached for 10 seconds, but not longer than the token is valid,
+ * which means that it can take up to 10 seconds until revoking an API access key is reflected by the introspection result
+ * in addition to the access key state cache of the {@link AccessKeyValidatorService}.
+ */
+@ApplicationScoped
+public class DefaultTokenIntrospectionService implements TokenIntrospectionService {
+
+	private static final Logger LOG = getLogger(DefaultTokenIntrospectionService.class.getName());
+
+	static final int MAX_BATCH_SIZE = 100;
+	private static final long CACHE_TTL = SECONDS.toMillis(10);
+	private static final int CACHE_SIZE = 10000;
+
+	private static Long seconds(Date date) {
+		if (date == null) {
+			return null;
+		}
+		return MILLISECONDS.toSeconds(date.getTime());
+	}
+
+	private SystemClientRegistry clients;
+
+	private BearerTokenValidator validator;
+
+	private AccessKeyValidatorService accesskeys;
+
+	private IntrospectionCache cache;
+
+	@Resource
+	private ManagedExecutorService executor;
+
+	protected DefaultTokenIntrospectionService() {
+		// CDI
+	}
+
+	@Inject
+	protected DefaultTokenIntrospectionService(SystemClientRegistry clients,
+											   BearerTokenValidator validator,
+											   AccessKeyValidatorService accesskeys) {
+		this.clients = clients;
+		this.validator = validator;
+		this.accesskeys = accesskeys;
+		this.cache = new IntrospectionCache(CACHE_TTL, CACHE_SIZE);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TokenIntrospection introspect(String systemId, String systemSecret, String token) {
+		return introspect(systemId, systemSecret, singletonList(token)).get(0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<TokenIntrospection> introspect(String systemId, String systemSecret, List<String> tokens) {
+		// Check that the client is allowed to introspect access tokens.
+		clients.authenticate(systemId, systemSecret);
+
+		if (tokens.size() > MAX_BATCH_SIZE) {
+			LOG.fine(() -> format("%s: System client %s attempted to introspect %d tokens in one batch.",
+								  SYS0005E_INTROSPECTION_BATCH_TOO_LARGE.getReasonCode(),
+								  systemId,
+								  tokens.size()));
+			throw new UnprocessableEntityException(SYS0005E_INTROSPECTION_BATCH_TOO_LARGE,
+												   tokens.size(),
+												   MAX_BATCH_SIZE);
+		}
+
+		long now = currentTimeMillis();
+		Map<String,TokenIntrospection> results = new LinkedHashMap<>();
+		Set<String> uncached = new LinkedHashSet<>();
+		for (String token : tokens) {
+			if (token == null || results.containsKey(token)) {
+				continue;
+			}
+			TokenIntrospection cached = cache.get(token, now);
+			if (cached != null) {
+				results.put(token, cached);
+			} else {
+				uncached.add(token);
+			}
+		}
+
+		// Verify the token signatures in parallel.
+		// A single token is verified by the calling thread.
+		Executor verifier = executor != null ? executor : commonPool();
+		Map<String,CompletableFuture<Jwt>> pending = new LinkedHashMap<>();
+		for (String token : uncached) {
+			pending.put(token, uncached.size() == 1
+							   ? completedFuture(verify(token))
+							   : supplyAsync(() -> verify(token), verifier));
+		}
+		Map<String,Jwt> verified = new LinkedHashMap<>();
+		for (Map.Entry<String,CompletableFuture<Jwt>> entry : pending.entrySet()) {
+			Jwt jwt = entry.getValue().join();
+			if (jwt == null || jwt.isExpired()) {
+				results.put(entry.getKey(), inactiveToken());
+			} else {
+				verified.put(entry.getKey(), jwt);
+			}
+		}
+
+		// Check all long-living API access keys of the batch with a single query.
+		List<AccessKeyId> keyIds = new ArrayList<>();
+		for (Jwt jwt : verified.values()) {
+			if (isRevocable(jwt)) {
+				keyIds.add(accessKeyId(jwt.getClaims().getJwtId()));
+			}
+		}
+		Set<AccessKeyId> revoked = keyIds.isEmpty() ? emptySet() : accesskeys.getRevokedAccessKeys(keyIds);
+
+		for (Map.Entry<String,Jwt> entry : verified.entrySet()) {
+			Jwt jwt = entry.getValue();
+			Claims claims = jwt.getClaims();
+			TokenIntrospection result = inactiveToken();
+			if (!isRevocable(jwt) || !revoked.contains(accessKeyId(claims.getJwtId()))) {
+				result = newTokenIntrospection()
+						 .withSubject(claims.getSubject())
+						 .withScope(String.join(" ", claims.getScopes()))
+						 .withTokenId(claims.getJwtId())
+						 .withTokenType("Bearer")
+						 .withIssuedAt(seconds(claims.getIssuedAt()))
+						 .withExpiresAt(seconds(claims.getExpiresAt()))
+						 .build();
+			}
+			results.put(entry.getKey(), result);
+		}
+
+		for (String token : uncached) {
+			cache.put(token, results.get(token), now);
+		}
+
+		List<TokenIntrospection> introspections = new ArrayList<>(tokens.size());
+		for (String token : tokens) {
+			introspections.add(token != null ? results.get(token) : inactiveToken());
+		}
+		return introspections;
+	}
+
+	private Jwt verify(String token) {
+		try {
+			return validator.decodeToken(token);
+		} catch (JwtException e) {
+			LOG.fine(() -> format("Introspected token is invalid: %s", e.getMessage()));
+			return null;
+		}
+	}
+
+}
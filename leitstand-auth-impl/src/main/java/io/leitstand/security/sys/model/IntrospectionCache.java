@@ -0,0 +1,99 @@
+package io.leitstand.security.sys.model;
+
+import static io.leitstand.security.sys.model.SystemClient.hashSecret;
+import static java.lang.Math.min;
+import static java.util.Base64.getEncoder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.leitstand.security.sys.service.TokenIntrospection;
+
+/**
+ * A bounded cache of token introspection results.
+ * <p>
+ * The results are cached by the SHA-256 hash of the token, so that the cache does not retain the tokens.
+ * Every result expires after the given time-to-live but not later than the token.
+ * Expired results are purged when the cache is full.
+ * The result is not cached if the cache is still full after purging all expired results.
+ */
+class IntrospectionCache {
+
+	private static final class CachedIntrospection {
+		private final TokenIntrospection result;
+		private final long expiry;
+
+		CachedIntrospection(TokenIntrospection result, long expiry) {
+			this.result = result;
+			this.expiry = expiry;
+		}
+
+		boolean isExpired(long now) {
+			return expiry <= now;
+		}
+	}
+
+	private static String cacheKey(String token) {
+		return getEncoder().encodeToString(hashSecret(token));
+	}
+
+	private final ConcurrentMap<String,CachedIntrospection> results = new ConcurrentHashMap<>();
+	private final long timeToLive;
+	private final int maxSize;
+
+	/**
+	 * Creates an <code>IntrospectionCache</code>.
+	 * @param timeToLive the time-to-live of a cached result in milliseconds
+	 * @param maxSize the maximum number of cached results
+	 */
+	IntrospectionCache(long timeToLive, int maxSize) {
+		this.timeToLive = timeToLive;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the cached introspection result of the given token.
+	 * @param token the access token
+	 * @param now the current time in milliseconds
+	 * @return the cached result or <code>null</code> if no result is cached or the cached result has expired.
+	 */
+	TokenIntrospection get(String token, long now) {
+		CachedIntrospection cached = results.get(cacheKey(token));
+		if (cached == null || cached.isExpired(now)) {
+			return null;
+		}
+		return cached.result;
+	}
+
+	/**
+	 * Caches the introspection result of the given token.
+	 * @param token the access token
+	 * @param result the introspection result
+	 * @param now the current time in milliseconds
+	 */
+	void put(String token, TokenIntrospection result, long now) {
+		long expiry = now + timeToLive;
+		if (result.getExpiresAt() != null) {
+			expiry = min(expiry, result.getExpiresAt() * 1000);
+		}
+		if (expiry <= now) {
+			return;
+		}
+		if (results.size() >= maxSize) {
+			results.values().removeIf(cached -> cached.isExpired(now));
+			if (results.size() >= maxSize) {
+				return;
+			}
+		}
+		results.put(cacheKey(token), new CachedIntrospection(result, expiry));
+	}
+
+	/**
+	 * Returns the number of cached results including expired results not purged yet.
+	 * @return the number of cached results.
+	 */
+	int size() {
+		return results.size();
+	}
+
+}
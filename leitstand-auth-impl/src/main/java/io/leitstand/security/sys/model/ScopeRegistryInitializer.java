@@ -0,0 +1,63 @@
+package io.leitstand.security.sys.model;
+
+import static io.leitstand.security.auth.scope.ScopeRegistry.scopeRegistry;
+import static java.lang.String.format;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Logger.getLogger;
+
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.leitstand.commons.StartupListener;
+import io.leitstand.security.auth.scope.ScopeRegistry;
+import io.leitstand.security.sys.service.ResourceScopesService;
+import io.leitstand.security.users.service.RoleService;
+import io.leitstand.security.users.service.RoleSettings;
+
+/**
+ * Seeds the {@link ScopeRegistry} with the resource scopes and the scopes of all roles at startup.
+ * <p>
+ * Seeding assigns the lowest scope IDs to the scopes in use, which keeps the scope masks small.
+ * Scopes not known at startup are registered on demand.
+ */
+@ApplicationScoped
+public class ScopeRegistryInitializer implements StartupListener {
+
+	private static final Logger LOG = getLogger(ScopeRegistryInitializer.class.getName());
+	
+	private ResourceScopesService resourceScopes;
+	
+	private RoleService roles;
+	
+	protected ScopeRegistryInitializer() {
+		// CDI
+	}
+	
+	@Inject
+	protected ScopeRegistryInitializer(ResourceScopesService resourceScopes, RoleService roles) {
+		this.resourceScopes = resourceScopes;
+		this.roles = roles;
+	}
+	
+	/**
+	 * Registers the resource scopes and the role scopes.
+	 */
+	@Override
+	public void onStartup() {
+		ScopeRegistry registry = scopeRegistry();
+		registry.register(resourceScopes.getResourceScopes());
+		try {
+			for(RoleSettings role : roles.getRoles()) {
+				registry.register(role.getScopes());
+			}
+		} catch (RuntimeException e) {
+			// Role scopes get registered on demand.
+			LOG.warning(() -> format("Cannot read role scopes: %s", e.getMessage()));
+			LOG.log(FINE, e.getMessage(), e);
+		}
+		LOG.fine(() -> format("Registered %d scopes.", registry.size()));
+	}
+	
+}
@@ -1,15 +1,112 @@
 package io.leitstand.security.sys.model;
 
+import static io.leitstand.commons.jsonb.IsoDateAdapter.isoDateFormat;
+import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.auth.jwt.Claims.newClaims;
+import static io.leitstand.security.oauth2.Oauth2AccessToken.newOauth2AccessToken;
+import static io.leitstand.security.sys.service.ReasonCode.SYS0002E_SESSION_EXPIRED;
+import static io.leitstand.security.sys.service.ReasonCode.SYS0003E_USER_NOT_FOUND;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.logging.Logger.getLogger;
+
+import java.util.Date;
+import java.util.logging.Logger;
+
 import javax.enterprise.context.Dependent;
+import javax.inject.Inject;
 
+import io.leitstand.commons.AccessDeniedException;
+import io.leitstand.security.auth.UserName;
+import io.leitstand.security.auth.jwt.Claims;
+import io.leitstand.security.auth.user.UserRegistry;
 import io.leitstand.security.oauth2.Oauth2AccessToken;
+import io.leitstand.security.sso.standalone.config.StandaloneLoginConfig;
+import io.leitstand.security.users.service.UserInfo;
 
+/**
+ * Refreshes an access token issued by the standalone login.
+ * <p>
+ * The presented access token is verified with the standalone login key.
+ * The token can be expired, but the session must not exceed the configured maximum session age.
+ * The session starts when the user logs in and is preserved in the <code>auth_time</code> claim of all refreshed access tokens.
+ * The user's grants are read again from the user registry,
+ * such that the refreshed access token reflects recent role modifications.
+ * The refreshed access token expires after the access token time-to-live, but not later than the session.
+ */
 @Dependent
 public class StandaloneAccessTokenRefresh {
 
-    
+    private static final Logger LOG = getLogger(StandaloneAccessTokenRefresh.class.getName());
+
+    private StandaloneLoginConfig config;
+
+    private UserRegistry users;
+
+    protected StandaloneAccessTokenRefresh() {
+        // CDI
+    }
+
+    @Inject
+    protected StandaloneAccessTokenRefresh(StandaloneLoginConfig config, UserRegistry users) {
+        this.config = config;
+        this.users = users;
+    }
+
+    /**
+     * Refreshes the given access token.
+     * @param accessToken the access token to be refreshed
+     * @return the refreshed access token
+     * @throws AccessDeniedException if the access token is invalid, the session has expired or the user does not exist anymore.
+     */
     public Oauth2AccessToken refreshAccessToken(String accessToken) {
-        throw new UnsupportedOperationException();
+        Claims claims = config.decodeAccessToken(accessToken);
+        UserName userName = userName(claims.getSubject());
+
+        long now = currentTimeMillis();
+        Date authTime = claims.getAuthTime();
+        long sessionExpiry = authTime.getTime() + config.getMaxSessionAge().toMillis();
+        if (sessionExpiry <= now) {
+            LOG.fine(() -> format("%s: Cannot refresh access token of user %s. Session started at %s has expired.",
+                                  SYS0002E_SESSION_EXPIRED.getReasonCode(),
+                                  userName,
+                                  isoDateFormat(authTime)));
+            throw new AccessDeniedException(SYS0002E_SESSION_EXPIRED,
+                                            userName,
+                                            isoDateFormat(authTime));
+        }
+
+        // Read the user's grants again to reflect recent role modifications.
+        UserInfo user = users.getUserInfo(userName);
+        if (user == null) {
+            LOG.fine(() -> format("%s: Cannot refresh access token of user %s. User does not exist.",
+                                  SYS0003E_USER_NOT_FOUND.getReasonCode(),
+                                  userName));
+            throw new AccessDeniedException(SYS0003E_USER_NOT_FOUND, userName);
+        }
+
+        Date expiry = new Date(min(now + timeToLive(user), sessionExpiry));
+        String token = config.signAccessToken(newClaims()
+                                              .issuedAt(new Date(now))
+                                              .authTime(authTime)
+                                              .expiresAt(expiry)
+                                              .subject(userName.toString())
+                                              .scopes(user.getScopes()));
+
+        return newOauth2AccessToken()
+               .withAccessToken(token)
+               .withTokenType("Bearer")
+               .withExpiresIn((int) MILLISECONDS.toSeconds(expiry.getTime() - now))
+               .build();
+    }
+
+    private long timeToLive(UserInfo user) {
+        if (user.getAccessTokenTtl() != null && user.getAccessTokenTtlUnit() != null) {
+            return user.getAccessTokenTtlUnit().toMillis(user.getAccessTokenTtl());
+        }
+        return config.getTimeToLive().toMillis();
     }
-    
+
 }
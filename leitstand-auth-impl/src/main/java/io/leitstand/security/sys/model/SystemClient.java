@@ -0,0 +1,129 @@
+package io.leitstand.security.sys.model;
+
+import static io.leitstand.security.crypto.SecureHashes.sha256;
+import static java.security.MessageDigest.isEqual;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A system client allowed to refresh access tokens.
+ * <p>
+ * A system client stores the SHA-256 hash of its secret, counts its requests and limits its request rate by a {@link TokenBucket}.
+ * System client secrets are random machine secrets, hence a fast secure hash is sufficient to protect the secret.
+ */
+public final class SystemClient {
+
+	/**
+	 * Computes the SHA-256 hash of a system client secret.
+	 * @param secret the secret
+	 * @return the SHA-256 hash of the secret.
+	 */
+	static byte[] hashSecret(String secret) {
+		return sha256().hash(secret);
+	}
+	
+	private final String clientId;
+	private final byte[] secretHash;
+	private final long requestsPerMinute;
+	private final long burst;
+	private final TokenBucket bucket;
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	
+	SystemClient(String clientId, 
+				 byte[] secretHash, 
+				 long requestsPerMinute, 
+				 long burst) {
+		this.clientId = clientId;
+		this.secretHash = secretHash.clone();
+		this.requestsPerMinute = requestsPerMinute;
+		this.burst = burst;
+		this.bucket = new TokenBucket(burst, requestsPerMinute);
+	}
+	
+	/**
+	 * Returns the client ID.
+	 * @return the client ID.
+	 */
+	public String getClientId() {
+		return clientId;
+	}
+	
+	/**
+	 * Returns the number of refresh requests per minute the client is allowed to send.
+	 * @return the number of refresh requests per minute.
+	 */
+	public long getRequestsPerMinute() {
+		return requestsPerMinute;
+	}
+	
+	/**
+	 * Returns the number of requests the client is allowed to send in a burst.
+	 * @return the burst size.
+	 */
+	public long getBurst() {
+		return burst;
+	}
+	
+	/**
+	 * Returns the number of authenticated requests of this client.
+	 * @return the number of authenticated requests.
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+	
+	/**
+	 * Returns the number of requests rejected due to the rate limit.
+	 * @return the number of rejected requests.
+	 */
+	public long getRejected() {
+		return rejected.get();
+	}
+	
+	/**
+	 * Tests whether the given secret is the secret of this client.
+	 * @param secret the secret
+	 * @return <code>true</code> if the secret is valid, <code>false</code> otherwise.
+	 */
+	boolean isValidSecret(String secret) {
+		return secret != null && isEqual(secretHash, hashSecret(secret));
+	}
+	
+	/**
+	 * Counts a request and consumes a token.
+	 * @return <code>true</code> if the request is within the rate limit, <code>false</code> if the request must be rejected.
+	 */
+	boolean tryAcquire() {
+		requests.incrementAndGet();
+		if (bucket.tryAcquire()) {
+			return true;
+		}
+		rejected.incrementAndGet();
+		return false;
+	}
+	
+	/**
+	 * Returns the number of seconds until the client can send the next request.
+	 * @return the number of seconds until the client can send the next request.
+	 */
+	long getRetryAfterSeconds() {
+		return bucket.getRetryAfterSeconds();
+	}
+	
+	/**
+	 * Tests whether the given client has the same configuration as this client.
+	 * The registry keeps an unchanged client when reloading the configuration, 
+	 * such that the counters and the token bucket of the client are preserved.
+	 * @param client the reloaded client
+	 * @return <code>true</code> if both clients have the same configuration.
+	 */
+	boolean hasSameConfiguration(SystemClient client) {
+		return clientId.equals(client.clientId)
+			   && Arrays.equals(secretHash, client.secretHash)
+			   && requestsPerMinute == client.requestsPerMinute
+			   && burst == client.burst;
+	}
+	
+}
@@ -0,0 +1,195 @@
+package io.leitstand.security.sys.model;
+
+import static io.leitstand.commons.etc.Environment.getSystemProperty;
+import static io.leitstand.commons.etc.FileProcessor.properties;
+import static io.leitstand.commons.rs.ResourceUtil.tryParseInt;
+import static io.leitstand.security.sys.model.SystemClient.hashSecret;
+import static io.leitstand.security.sys.service.ReasonCode.SYS0001E_INVALID_SYSTEM_CREDENTIALS;
+import static io.leitstand.security.sys.service.ReasonCode.SYS0004E_TOO_MANY_REQUESTS;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.Base64.getDecoder;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.logging.Logger.getLogger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.leitstand.commons.AccessDeniedException;
+import io.leitstand.commons.etc.Environment;
+import io.leitstand.security.sys.service.TooManyRequestsException;
+
+/**
+ * The registry of all system clients allowed to refresh and introspect access tokens.
+ * <p>
+ * The system clients are read from the <code>LEITSTAND_ETC/system-clients.properties</code> file.
+ * Every client is described by the properties below, where <code>&lt;client_id&gt;</code> is the client ID:
+ * <ul>
+ * <li><code>&lt;client_id&gt;.secret</code>: the Base64-encoded SHA-256 hash of the client secret,
+ * 	   e.g. computed by <code>echo -n $SECRET | openssl dgst -sha256 -binary | base64</code></li>
+ * <li><code>&lt;client_id&gt;.rate</code>: the number of refresh requests per minute (optional, defaults to 60)</li>
+ * <li><code>&lt;client_id&gt;.burst</code>: the number of refresh requests in a burst (optional, defaults to the rate)</li>
+ * </ul>
+ * The registry falls back to the <code>SYSTEM_CLIENT_ID</code> and <code>SYSTEM_CLIENT_SECRET</code> properties
+ * if the file does not exist or does not declare a client.
+ * <p>
+ * The clients are kept in an immutable map, which is replaced when the configuration is reloaded.
+ * The configuration is reloaded every 30 seconds,
+ * whereas clients with an unchanged configuration are preserved to retain their counters and token buckets.
+ */
+@ApplicationScoped
+public class SystemClientRegistry {
+
+	private static final Logger LOG = getLogger(SystemClientRegistry.class.getName());
+
+	static final String SYSTEM_CLIENTS_FILE = "system-clients.properties";
+	private static final String SECRET_SUFFIX = ".secret";
+	private static final String RATE_SUFFIX = ".rate";
+	private static final String BURST_SUFFIX = ".burst";
+	private static final int DEFAULT_REQUESTS_PER_MINUTE = 60;
+	private static final long RELOAD_INTERVAL = SECONDS.toNanos(30);
+
+	/**
+	 * Creates the system clients from the given configuration.
+	 * Clients with an unchanged configuration are taken from the current clients.
+	 * @param config the system clients configuration
+	 * @param current the current clients
+	 * @return the immutable map of system clients by client ID.
+	 */
+	static Map<String,SystemClient> readClients(Properties config, Map<String,SystemClient> current){
+		Map<String,SystemClient> clients = new HashMap<>();
+		for(String name : config.stringPropertyNames()) {
+			if(!name.endsWith(SECRET_SUFFIX)) {
+				continue;
+			}
+			String clientId = name.substring(0, name.length()-SECRET_SUFFIX.length());
+			try {
+				byte[] secretHash = getDecoder().decode(config.getProperty(name).trim());
+				int rate = tryParseInt(config.getProperty(clientId+RATE_SUFFIX), DEFAULT_REQUESTS_PER_MINUTE);
+				int burst = tryParseInt(config.getProperty(clientId+BURST_SUFFIX), rate);
+				clients.put(clientId,
+							preserve(current, new SystemClient(clientId, secretHash, rate, burst)));
+			} catch (IllegalArgumentException e) {
+				LOG.warning(() -> format("Ignore system client %s due to invalid secret hash: %s",
+										 clientId,
+										 e.getMessage()));
+			}
+		}
+
+		if(clients.isEmpty()) {
+			// Fall back to the single system client configured by system properties.
+			String clientId = getSystemProperty("SYSTEM_CLIENT_ID","leitstand");
+			String secret = getSystemProperty("SYSTEM_CLIENT_SECRET","changeit");
+			clients.put(clientId,
+						preserve(current, new SystemClient(clientId,
+														   hashSecret(secret),
+														   DEFAULT_REQUESTS_PER_MINUTE,
+														   DEFAULT_REQUESTS_PER_MINUTE)));
+		}
+		return unmodifiableMap(clients);
+	}
+
+	private static SystemClient preserve(Map<String,SystemClient> current, SystemClient client) {
+		SystemClient existing = current.get(client.getClientId());
+		if(existing != null && existing.hasSameConfiguration(client)) {
+			return existing;
+		}
+		return client;
+	}
+
+	private Environment env;
+
+	private volatile Map<String,SystemClient> clients = new HashMap<>();
+
+	private volatile long nextReload;
+
+	protected SystemClientRegistry() {
+		// CDI
+	}
+
+	@Inject
+	protected SystemClientRegistry(Environment env) {
+		this.env = env;
+	}
+
+	/**
+	 * Returns the system client with the given ID.
+	 * @param clientId the client ID
+	 * @return the system client or <code>null</code> if the client does not exist.
+	 */
+	public SystemClient getClient(String clientId) {
+		if(clientId == null) {
+			return null;
+		}
+		return currentClients().get(clientId);
+	}
+
+	/**
+	 * Authenticates a system client and consumes one request of the client's rate limit.
+	 * @param clientId the client ID
+	 * @param clientSecret the client secret
+	 * @return the authenticated system client
+	 * @throws AccessDeniedException if the client does not exist or the secret is invalid
+	 * @throws TooManyRequestsException if the client exceeded its rate limit
+	 */
+	public SystemClient authenticate(String clientId, String clientSecret) {
+		SystemClient client = getClient(clientId);
+		if (client == null || !client.isValidSecret(clientSecret)) {
+			throw new AccessDeniedException(SYS0001E_INVALID_SYSTEM_CREDENTIALS);
+		}
+		if (!client.tryAcquire()) {
+			LOG.fine(() -> format("%s: System client %s exceeded the rate limit of %d requests per minute (%d of %d requests rejected).",
+								  SYS0004E_TOO_MANY_REQUESTS.getReasonCode(),
+								  clientId,
+								  client.getRequestsPerMinute(),
+								  client.getRejected(),
+								  client.getRequests()));
+			throw new TooManyRequestsException(client.getRetryAfterSeconds(),
+											   SYS0004E_TOO_MANY_REQUESTS,
+											   clientId,
+											   client.getRequestsPerMinute());
+		}
+		return client;
+	}
+
+	/**
+	 * Returns all system clients, for example to report the counters of all clients.
+	 * @return all system clients.
+	 */
+	public Collection<SystemClient> getClients(){
+		return unmodifiableCollection(currentClients().values());
+	}
+
+	private Map<String,SystemClient> currentClients(){
+		if(clients.isEmpty() || nanoTime() - nextReload >= 0) {
+			reload();
+		}
+		return clients;
+	}
+
+	private synchronized void reload() {
+		long now = nanoTime();
+		if(!clients.isEmpty() && now - nextReload < 0) {
+			// Reloaded by a concurrent request.
+			return;
+		}
+		Properties config = env.loadConfig(SYSTEM_CLIENTS_FILE,
+										   properties(),
+										   () -> new Properties());
+		Map<String,SystemClient> reloaded = readClients(config, clients);
+		if(!reloaded.keySet().equals(clients.keySet())) {
+			LOG.info(() -> format("Loaded system clients %s.", reloaded.keySet()));
+		}
+		clients = reloaded;
+		nextReload = now + RELOAD_INTERVAL;
+	}
+
+}
@@ -0,0 +1,82 @@
+package io.leitstand.security.sys.model;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A token bucket to limit the request rate of a client.
+ * <p>
+ * The bucket holds up to <code>capacity</code> tokens and is refilled continuously at the configured rate.
+ * Every request consumes one token. A request is rejected if the bucket is empty.
+ * The capacity allows a client to send a burst of requests after a period of inactivity.
+ */
+final class TokenBucket {
+
+	private final long capacity;
+	private final double tokensPerNano;
+	private double tokens;
+	private long lastRefill;
+	
+	/**
+	 * Creates a full token bucket.
+	 * @param capacity the maximum number of tokens
+	 * @param tokensPerMinute the refill rate
+	 */
+	TokenBucket(long capacity, long tokensPerMinute) {
+		this(capacity, tokensPerMinute, nanoTime());
+	}
+	
+	TokenBucket(long capacity, long tokensPerMinute, long now) {
+		this.capacity = capacity;
+		this.tokensPerNano = tokensPerMinute / (double) MINUTES.toNanos(1);
+		this.tokens = capacity;
+		this.lastRefill = now;
+	}
+	
+	/**
+	 * Attempts to consume a token.
+	 * @return <code>true</code> if a token was consumed, <code>false</code> if the bucket is empty.
+	 */
+	boolean tryAcquire() {
+		return tryAcquire(nanoTime());
+	}
+	
+	synchronized boolean tryAcquire(long now) {
+		refill(now);
+		if (tokens >= 1) {
+			tokens -= 1;
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the number of seconds until the next token is available.
+	 * @return the number of seconds until the next token is available, but at least one second.
+	 */
+	long getRetryAfterSeconds() {
+		return getRetryAfterSeconds(nanoTime());
+	}
+	
+	synchronized long getRetryAfterSeconds(long now) {
+		refill(now);
+		if (tokensPerNano == 0) {
+			return MINUTES.toSeconds(1);
+		}
+		long nanos = (long) ceil(max(0, 1 - tokens) / tokensPerNano);
+		return max(1, (long) ceil(nanos / (double) SECONDS.toNanos(1)));
+	}
+	
+	private void refill(long now) {
+		long elapsed = now - lastRefill;
+		if (elapsed > 0) {
+			tokens = min(capacity, tokens + elapsed * tokensPerNano);
+			lastRefill = now;
+		}
+	}
+	
+}
@@ -25,6 +25,7 @@ public class AuthSystemResources implements SystemResourceProvider {
                      SsoSettingsResource.class,
                      LoginConfigResource.class,
                      ScopesResource.class,
+                     TokenIntrospectionResource.class,
                      JWKSetMessageBodyWriter.class);
     }
 
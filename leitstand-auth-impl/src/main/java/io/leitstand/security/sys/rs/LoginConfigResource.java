@@ -1,14 +1,21 @@
 package io.leitstand.security.sys.rs;
 
+import static javax.ws.rs.core.HttpHeaders.RETRY_AFTER;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.Response.noContent;
+import static javax.ws.rs.core.Response.ok;
+import static javax.ws.rs.core.Response.status;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 
 import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
 
 import io.leitstand.commons.rs.Public;
 import io.leitstand.commons.rs.Resource;
+import io.leitstand.security.sso.oidc.config.OidcConfigNotReadyException;
 import io.leitstand.security.sys.service.LoginConfiguration;
 import io.leitstand.security.sys.service.LoginConfigurationService;
 
@@ -21,6 +28,8 @@ import io.leitstand.security.sys.service.LoginConfigurationService;
 @Path("/login/config")
 @Produces(APPLICATION_JSON)
 public class LoginConfigResource {
+	
+	private static final int RETRY_AFTER_SECONDS = 5;
 
 	private LoginConfigurationService service;
 	
@@ -35,10 +44,34 @@ public class LoginConfigResource {
 	
 	/**
 	 * Returns the active login configuration.
-	 * @return the active login configuration.
+	 * @return the active login configuration or <code>503 Service Unavailable</code> with a <code>Retry-After</code> header
+	 * while the OpenID/Connect configuration discovery is pending.
+	 */
+	@GET
+	public Response getLoginConfiguration() {
+		try {
+			return ok(service.getLoginConfiguration()).build();
+		} catch (OidcConfigNotReadyException e) {
+			return status(SERVICE_UNAVAILABLE)
+				   .header(RETRY_AFTER, e.getRetryAfter())
+				   .build();
+		}
+	}
+	
+	/**
+	 * Reports whether the login configuration is complete.
+	 * Returns <code>204 No Content</code> if the login configuration is complete 
+	 * and <code>503 Service Unavailable</code> while the OpenID/Connect configuration discovery is pending.
+	 * @return the login configuration readiness.
 	 */
 	@GET
-	public LoginConfiguration getLoginConfiguration() {
-		return service.getLoginConfiguration();
+	@Path("/ready")
+	public Response isLoginConfigurationReady() {
+		if(service.isLoginConfigurationReady()) {
+			return noContent().build();
+		}
+		return status(SERVICE_UNAVAILABLE)
+			   .header(RETRY_AFTER, RETRY_AFTER_SECONDS)
+			   .build();
 	}
 }
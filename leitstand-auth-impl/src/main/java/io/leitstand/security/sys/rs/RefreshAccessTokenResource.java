@@ -1,17 +1,24 @@
 package io.leitstand.security.sys.rs;
 
+import static javax.ws.rs.core.HttpHeaders.RETRY_AFTER;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.Response.ok;
+import static javax.ws.rs.core.Response.status;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+import static javax.ws.rs.core.Response.Status.TOO_MANY_REQUESTS;
 
 import javax.inject.Inject;
 import javax.ws.rs.FormParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
 
 import io.leitstand.commons.AccessDeniedException;
 import io.leitstand.commons.rs.Resource;
-import io.leitstand.security.oauth2.Oauth2AccessToken;
+import io.leitstand.security.sso.oidc.config.OidcConfigNotReadyException;
 import io.leitstand.security.sys.service.RefreshAccessTokenService;
+import io.leitstand.security.sys.service.TooManyRequestsException;
 
 /**
  * REST resource to refresh an expired access token.
@@ -39,15 +46,27 @@ public class RefreshAccessTokenResource {
      * @param clientId client ID to authenticate the refresh request
      * @param clientSecret client secret to authenticate the refresh request.
      * @param accessToken the access token to be refreshed.
-     * @return the refreshed access token
+     * @return the refreshed access token or <code>429 Too Many Requests</code> with a <code>Retry-After</code> header 
+     * if the client exceeded its rate limit and <code>503 Service Unavailable</code> with a <code>Retry-After</code> header 
+     * if an OpenID/Connect access token cannot be refreshed while the OpenID/Connect configuration discovery is pending.
      * @throws AccessDeniedException if the client credentials or the access token is invalid 
      * or if the access token cannot be refreshed for any other reason.
      */
     @POST
-    public Oauth2AccessToken refresh(@FormParam("client_id") String clientId,
-                                     @FormParam("client_secret") String clientSecret,
-                                     @FormParam("access_token") String accessToken) {
-        return service.refreshAccessToken(clientId, clientSecret, accessToken);
+    public Response refresh(@FormParam("client_id") String clientId,
+                            @FormParam("client_secret") String clientSecret,
+                            @FormParam("access_token") String accessToken) {
+        try {
+            return ok(service.refreshAccessToken(clientId, clientSecret, accessToken)).build();
+        } catch (TooManyRequestsException e) {
+            return status(TOO_MANY_REQUESTS)
+                   .header(RETRY_AFTER, e.getRetryAfter())
+                   .build();
+        } catch (OidcConfigNotReadyException e) {
+            return status(SERVICE_UNAVAILABLE)
+                   .header(RETRY_AFTER, e.getRetryAfter())
+                   .build();
+        }
     }
     
     
@@ -1,5 +1,7 @@
 package io.leitstand.security.sys.rs;
 
+import static io.leitstand.security.auth.rs.EntityTags.conditionalGet;
+import static io.leitstand.security.auth.rs.EntityTags.entityTag;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
 import java.util.SortedSet;
@@ -8,6 +10,9 @@ import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 
 import io.leitstand.commons.rs.Public;
 import io.leitstand.commons.rs.Resource;
@@ -36,11 +41,16 @@ public class ScopesResource {
 	
 	/**
 	 * Returns all existing resource scopes in alphabetical order. 
+	 * The resource scopes are static. The entity tag is the hash of all scopes.
+	 * @param request the request to evaluate the <code>If-None-Match</code> header
 	 * @return set of resource scopes in alphabetical order
 	 */
 	@GET
-	public SortedSet<String> getScopes(){
-		return scopes.getResourceScopes();
+	public Response getScopes(@Context Request request){
+		SortedSet<String> resourceScopes = scopes.getResourceScopes();
+		return conditionalGet(request, 
+							  entityTag(resourceScopes.toArray()), 
+							  () -> resourceScopes);
 	}
 	
 	
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.sys.rs;
+
+import static io.leitstand.security.auth.rs.RenderedDocument.render;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.ext.Providers;
+
+import com.nimbusds.jose.jwk.JWKSet;
+
+import io.leitstand.security.auth.rs.RenderedDocument;
+import io.leitstand.security.sys.service.SsoSettings;
+
+/**
+ * Holds the rendered SSO settings and JSON Web Key Set documents.
+ * <p>
+ * A document is rendered again when the <code>SsoSettingsService</code> returns a new document instance,
+ * i.e. when the JSON Web Key Set has changed due to a key rotation.
+ * Concurrent requests might render the same document twice, which is harmless because both renderings are equal.
+ */
+@ApplicationScoped
+public class SsoDocuments {
+
+	private final AtomicReference<RenderedDocument> ssoSettings = new AtomicReference<>();
+	private final AtomicReference<RenderedDocument> jwks = new AtomicReference<>();
+	
+	/**
+	 * Returns the rendered SSO settings.
+	 * @param settings the current SSO settings
+	 * @param providers the JAX-RS providers to render the settings if needed
+	 * @return the rendered SSO settings.
+	 */
+	public RenderedDocument getSsoSettings(SsoSettings settings, Providers providers) {
+		return current(ssoSettings, settings, SsoSettings.class, providers);
+	}
+
+	/**
+	 * Returns the rendered JSON Web Key Set.
+	 * @param keySet the current JSON Web Key Set
+	 * @param providers the JAX-RS providers to render the key set if needed
+	 * @return the rendered JSON Web Key Set.
+	 */
+	public RenderedDocument getJWKSet(JWKSet keySet, Providers providers) {
+		return current(jwks, keySet, JWKSet.class, providers);
+	}
+	
+	private static <T> RenderedDocument current(AtomicReference<RenderedDocument> cache, 
+												T document, 
+												Class<T> type, 
+												Providers providers) {
+		RenderedDocument rendered = cache.get();
+		if(rendered == null || !rendered.isRenderingOf(document)) {
+			rendered = render(document, type, providers);
+			cache.set(rendered);
+		}
+		return rendered;
+	}
+	
+}
@@ -1,13 +1,18 @@
 package io.leitstand.security.sys.rs;
 
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
 import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
-
-import com.nimbusds.jose.jwk.JWKSet;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Providers;
 
 import io.leitstand.commons.rs.Public;
 import io.leitstand.commons.rs.Resource;
@@ -16,6 +21,10 @@ import io.leitstand.security.sys.service.SsoSettingsService;
 
 /**
  * REST resource for reading the Single-Sign On settings.
+ * <p>
+ * Both the SSO settings and the JSON Web Key Set are rendered once and served with an entity tag 
+ * and a <code>Cache-Control</code> header.
+ * The JSON Web Key Set has a shorter <code>max-age</code> than the SSO settings to propagate key rotations quickly.
  * @see SsoSettings
  * @see SsoSettingsService
  */
@@ -25,37 +34,57 @@ import io.leitstand.security.sys.service.SsoSettingsService;
 @Produces(APPLICATION_JSON)
 public class SsoSettingsResource {
 
+    private static final int SSO_SETTINGS_MAX_AGE = (int) HOURS.toSeconds(1);
+    private static final int JWKS_MAX_AGE = (int) MINUTES.toSeconds(5);
     
     private SsoSettingsService service;
     
+    private SsoDocuments documents;
+    
     public SsoSettingsResource() {
 		// CDI and JAX-RS
     }
     
     @Inject
-    protected SsoSettingsResource(SsoSettingsService service) {
+    protected SsoSettingsResource(SsoSettingsService service, SsoDocuments documents) {
     	this.service = service;
+    	this.documents = documents;
+    }
+    
+    static CacheControl maxAge(int seconds) {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setMaxAge(seconds);
+        return cacheControl;
     }
     
     /**
      * Returns the Single-Sign On settings enabling other Leitstand services to 
      * validate Leitstand access tokens.
+     * @param request the request to evaluate the <code>If-None-Match</code> header
+     * @param providers the JAX-RS providers to render the settings
      * @return the Single-Sign On settings.
      */
     @GET
-    public SsoSettings getSsoSettings() {
-        return service.getSsoSettings();
+    public Response getSsoSettings(@Context Request request, 
+                                   @Context Providers providers) {
+        return documents.getSsoSettings(service.getSsoSettings(), providers)
+                        .conditionalGetResponse(request, maxAge(SSO_SETTINGS_MAX_AGE));
     }
 
     
     /**
      * Returns the JSON Web Key Set to validate Leitstand access tokens.
+     * The key set is only rendered again after a key rotation.
+     * @param request the request to evaluate the <code>If-None-Match</code> header
+     * @param providers the JAX-RS providers to render the key set
      * @return the JSON Web Key Set to validate Leitstand access tokens.
      */
     @GET
     @Path("/jwks")
-    public JWKSet getJWKSet() {
-        return service.getJWKSet();
+    public Response getJWKSet(@Context Request request,
+                              @Context Providers providers) {
+        return documents.getJWKSet(service.getJWKSet(), providers)
+                        .conditionalGetResponse(request, maxAge(JWKS_MAX_AGE));
     }
     
 }
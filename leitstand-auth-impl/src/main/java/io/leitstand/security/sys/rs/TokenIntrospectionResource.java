@@ -0,0 +1,93 @@
+package io.leitstand.security.sys.rs;
+
+import static javax.ws.rs.core.HttpHeaders.RETRY_AFTER;
+import static javax.ws.rs.core.MediaType.APPLICATION_FORM_URLENCODED;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.Response.ok;
+import static javax.ws.rs.core.Response.status;
+import static javax.ws.rs.core.Response.Status.TOO_MANY_REQUESTS;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.inject.Inject;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+import io.leitstand.commons.AccessDeniedException;
+import io.leitstand.commons.UnprocessableEntityException;
+import io.leitstand.commons.rs.Resource;
+import io.leitstand.security.sys.service.TokenIntrospectionService;
+import io.leitstand.security.sys.service.TooManyRequestsException;
+
+/**
+ * REST resource to introspect access tokens as specified by RFC 7662.
+ * <p>
+ * The batch mode allows a gateway to introspect up to 100 tokens with a single request.
+ */
+@Resource
+@Path("/auth/introspect")
+@Consumes(APPLICATION_FORM_URLENCODED)
+@Produces(APPLICATION_JSON)
+public class TokenIntrospectionResource {
+
+    private TokenIntrospectionService service;
+    
+    public TokenIntrospectionResource() {
+        // CDI and JAX-RS
+    }
+    
+    @Inject
+    protected TokenIntrospectionResource(TokenIntrospectionService service) {
+        this.service = service;
+    }
+    
+    /**
+     * POST method to introspect an access token.
+     * @param clientId client ID to authenticate the introspection request
+     * @param clientSecret client secret to authenticate the introspection request
+     * @param token the access token to be introspected
+     * @return the introspection result or <code>429 Too Many Requests</code> with a <code>Retry-After</code> header
+     * if the client exceeded its rate limit.
+     * @throws AccessDeniedException if the client credentials are invalid
+     */
+    @POST
+    public Response introspect(@FormParam("client_id") String clientId,
+                               @FormParam("client_secret") String clientSecret,
+                               @FormParam("token") String token) {
+        return rateLimited(() -> service.introspect(clientId, clientSecret, token));
+    }
+    
+    /**
+     * POST method to introspect a batch of access tokens.
+     * @param clientId client ID to authenticate the introspection request
+     * @param clientSecret client secret to authenticate the introspection request
+     * @param tokens the access tokens to be introspected
+     * @return the introspection results in the order of the submitted tokens or <code>429 Too Many Requests</code> 
+     * with a <code>Retry-After</code> header if the client exceeded its rate limit.
+     * @throws AccessDeniedException if the client credentials are invalid
+     * @throws UnprocessableEntityException if the batch exceeds the maximum batch size
+     */
+    @POST
+    @Path("/batch")
+    public Response introspect(@FormParam("client_id") String clientId,
+                               @FormParam("client_secret") String clientSecret,
+                               @FormParam("token") List<String> tokens) {
+        return rateLimited(() -> service.introspect(clientId, clientSecret, tokens));
+    }
+    
+    private static Response rateLimited(Supplier<Object> introspection) {
+        try {
+            return ok(introspection.get()).build();
+        } catch (TooManyRequestsException e) {
+            return status(TOO_MANY_REQUESTS)
+                   .header(RETRY_AFTER, e.getRetryAfter())
+                   .build();
+        }
+    }
+    
+}
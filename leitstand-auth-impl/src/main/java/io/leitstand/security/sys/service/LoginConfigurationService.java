@@ -13,4 +13,11 @@ public interface LoginConfigurationService {
 	 */
 	public LoginConfiguration getLoginConfiguration();
 	
+	/**
+	 * Returns whether the login configuration is complete.
+	 * The login configuration is incomplete while the OpenID/Connect configuration discovery is pending.
+	 * @return <code>true</code> if the login configuration is complete, <code>false</code> otherwise.
+	 */
+	public boolean isLoginConfigurationReady();
+	
 }
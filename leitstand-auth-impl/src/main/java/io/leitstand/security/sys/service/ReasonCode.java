@@ -14,7 +14,27 @@ public enum ReasonCode implements Reason {
     /**
      * Access denied due to invalid credentials.
      */
-    SYS0001E_INVALID_SYSTEM_CREDENTIALS;
+    SYS0001E_INVALID_SYSTEM_CREDENTIALS,
+    
+    /**
+     * Access token cannot be refreshed because the session exceeds the maximum session age.
+     */
+    SYS0002E_SESSION_EXPIRED,
+    
+    /**
+     * Access token cannot be refreshed because the user does not exist anymore.
+     */
+    SYS0003E_USER_NOT_FOUND,
+    
+    /**
+     * Access token refresh rejected because the system client exceeded its rate limit.
+     */
+    SYS0004E_TOO_MANY_REQUESTS,
+    
+    /**
+     * Token introspection rejected because the batch exceeds the maximum batch size.
+     */
+    SYS0005E_INTROSPECTION_BATCH_TOO_LARGE;
     
     
     private static final ResourceBundle MESSAGES = ResourceBundle.getBundle("SystemMessages");
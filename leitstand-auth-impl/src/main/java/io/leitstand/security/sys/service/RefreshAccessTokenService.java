@@ -16,6 +16,7 @@ public interface RefreshAccessTokenService {
      * @param accessToken the access token to be refreshed
      * @return the refreshed access token
      * @throws AccessDeniedException when the access token cannot be refreshed or the system credentials are invalid
+     * @throws TooManyRequestsException when the system client exceeded its rate limit
      */
     Oauth2AccessToken refreshAccessToken(String systemId, String systemSecret, String accessToken);
     
@@ -0,0 +1,198 @@
+package io.leitstand.security.sys.service;
+
+import static io.leitstand.commons.model.BuilderUtil.assertNotInvalidated;
+
+import javax.json.bind.annotation.JsonbProperty;
+
+import io.leitstand.commons.model.ValueObject;
+
+/**
+ * The result of an access token introspection as specified by RFC 7662.
+ * <p>
+ * An inactive token only reports the <code>active</code> flag.
+ * All other properties are only reported for active tokens.
+ */
+public class TokenIntrospection extends ValueObject {
+
+	private static final TokenIntrospection INACTIVE = new TokenIntrospection();
+
+	/**
+	 * Returns the introspection result of an invalid, expired or revoked token.
+	 * @return the introspection result of an inactive token.
+	 */
+	public static TokenIntrospection inactiveToken() {
+		return INACTIVE;
+	}
+
+	/**
+	 * Creates a builder for an active token introspection result.
+	 * @return a builder for an active token introspection result.
+	 */
+	public static Builder newTokenIntrospection() {
+		return new Builder();
+	}
+
+	/**
+	 * A builder to create an immutable <code>TokenIntrospection</code>.
+	 */
+	public static class Builder {
+
+		private TokenIntrospection token = new TokenIntrospection();
+
+		/**
+		 * Sets the subject of the token.
+		 * @param subject the subject of the token
+		 * @return a reference to this builder to continue with the object creation
+		 */
+		public Builder withSubject(String subject) {
+			assertNotInvalidated(getClass(), token);
+			token.subject = subject;
+			return this;
+		}
+
+		/**
+		 * Sets the space-separated list of the token scopes.
+		 * @param scope the token scopes
+		 * @return a reference to this builder to continue with the object creation
+		 */
+		public Builder withScope(String scope) {
+			assertNotInvalidated(getClass(), token);
+			token.scope = scope;
+			return this;
+		}
+
+		/**
+		 * Sets the token ID.
+		 * @param tokenId the token ID
+		 * @return a reference to this builder to continue with the object creation
+		 */
+		public Builder withTokenId(String tokenId) {
+			assertNotInvalidated(getClass(), token);
+			token.tokenId = tokenId;
+			return this;
+		}
+
+		/**
+		 * Sets the token type.
+		 * @param tokenType the token type
+		 * @return a reference to this builder to continue with the object creation
+		 */
+		public Builder withTokenType(String tokenType) {
+			assertNotInvalidated(getClass(), token);
+			token.tokenType = tokenType;
+			return this;
+		}
+
+		/**
+		 * Sets when the token was issued in seconds since epoch.
+		 * @param issuedAt the issue timestamp in seconds since epoch
+		 * @return a reference to this builder to continue with the object creation
+		 */
+		public Builder withIssuedAt(Long issuedAt) {
+			assertNotInvalidated(getClass(), token);
+			token.issuedAt = issuedAt;
+			return this;
+		}
+
+		/**
+		 * Sets when the token expires in seconds since epoch.
+		 * @param expiresAt the expiry timestamp in seconds since epoch
+		 * @return a reference to this builder to continue with the object creation
+		 */
+		public Builder withExpiresAt(Long expiresAt) {
+			assertNotInvalidated(getClass(), token);
+			token.expiresAt = expiresAt;
+			return this;
+		}
+
+		/**
+		 * Returns the immutable token introspection result of an active token.
+		 * @return the immutable token introspection result.
+		 */
+		public TokenIntrospection build() {
+			try {
+				assertNotInvalidated(getClass(), token);
+				token.active = true;
+				return token;
+			} finally {
+				this.token = null;
+			}
+		}
+	}
+
+	private boolean active;
+
+	@JsonbProperty("sub")
+	private String subject;
+
+	private String scope;
+
+	@JsonbProperty("jti")
+	private String tokenId;
+
+	@JsonbProperty("token_type")
+	private String tokenType;
+
+	@JsonbProperty("iat")
+	private Long issuedAt;
+
+	@JsonbProperty("exp")
+	private Long expiresAt;
+
+	/**
+	 * Returns whether the token is active.
+	 * @return <code>true</code> if the token is valid and neither expired nor revoked, <code>false</code> otherwise.
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * Returns the subject of the token.
+	 * @return the subject of the token.
+	 */
+	public String getSubject() {
+		return subject;
+	}
+
+	/**
+	 * Returns the space-separated list of the token scopes.
+	 * @return the token scopes.
+	 */
+	public String getScope() {
+		return scope;
+	}
+
+	/**
+	 * Returns the token ID.
+	 * @return the token ID.
+	 */
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	/**
+	 * Returns the token type.
+	 * @return the token type.
+	 */
+	public String getTokenType() {
+		return tokenType;
+	}
+
+	/**
+	 * Returns when the token was issued in seconds since epoch.
+	 * @return the issue timestamp in seconds since epoch.
+	 */
+	public Long getIssuedAt() {
+		return issuedAt;
+	}
+
+	/**
+	 * Returns when the token expires in seconds since epoch.
+	 * @return the expiry timestamp in seconds since epoch.
+	 */
+	public Long getExpiresAt() {
+		return expiresAt;
+	}
+
+}
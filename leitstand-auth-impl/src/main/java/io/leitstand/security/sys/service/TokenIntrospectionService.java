@@ -0,0 +1,38 @@
+package io.leitstand.security.sys.service;
+
+import java.util.List;
+
+import io.leitstand.commons.AccessDeniedException;
+import io.leitstand.commons.UnprocessableEntityException;
+
+/**
+ * The <code>TokenIntrospectionService</code> allows system clients to introspect access tokens as specified by RFC 7662.
+ * <p>
+ * The service supports API access keys, standalone login access tokens and access tokens issued by a trusted OpenID/Connect issuer.
+ */
+public interface TokenIntrospectionService {
+
+	/**
+	 * Introspects an access token.
+	 * @param systemId the system ID
+	 * @param systemSecret the system secret
+	 * @param token the access token
+	 * @return the introspection result
+	 * @throws AccessDeniedException when the system credentials are invalid
+	 * @throws TooManyRequestsException when the system client exceeded its rate limit
+	 */
+	TokenIntrospection introspect(String systemId, String systemSecret, String token);
+
+	/**
+	 * Introspects a batch of access tokens.
+	 * @param systemId the system ID
+	 * @param systemSecret the system secret
+	 * @param tokens the access tokens
+	 * @return the introspection results in the order of the given tokens
+	 * @throws AccessDeniedException when the system credentials are invalid
+	 * @throws TooManyRequestsException when the system client exceeded its rate limit
+	 * @throws UnprocessableEntityException when the batch exceeds the maximum batch size
+	 */
+	List<TokenIntrospection> introspect(String systemId, String systemSecret, List<String> tokens);
+
+}
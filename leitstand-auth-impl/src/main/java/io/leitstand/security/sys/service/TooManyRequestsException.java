@@ -0,0 +1,33 @@
+package io.leitstand.security.sys.service;
+
+import io.leitstand.commons.LeitstandException;
+
+/**
+ * The <code>TooManyRequestsException</code> signals that a client exceeded its rate limit.
+ */
+public class TooManyRequestsException extends LeitstandException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfter;
+    
+    /**
+     * Creates a new <code>TooManyRequestsException</code>.
+     * @param retryAfter the number of seconds until the client can send the next request
+     * @param reason the reason why this exception is raised
+     * @param args the reason message arguments
+     */
+    public TooManyRequestsException(long retryAfter, ReasonCode reason, Object... args) {
+        super(reason, args);
+        this.retryAfter = retryAfter;
+    }
+    
+    /**
+     * Returns the number of seconds until the client can send the next request.
+     * @return the number of seconds until the client can send the next request.
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+    
+}
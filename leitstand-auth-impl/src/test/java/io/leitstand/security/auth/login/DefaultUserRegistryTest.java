@@ -35,6 +35,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import io.leitstand.commons.EntityNotFoundException;
@@ -49,6 +50,9 @@ public class DefaultUserRegistryTest {
 	@Mock
 	private UserService users;
 	
+	@Spy
+	private UserInfoCache cache = new UserInfoCache(0, 0);
+	
 	@InjectMocks
 	private DefaultUserRegistry registry = new DefaultUserRegistry();
 	
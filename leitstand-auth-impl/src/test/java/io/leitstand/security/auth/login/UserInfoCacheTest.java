@@ -0,0 +1,81 @@
+package io.leitstand.security.auth.login;
+
+import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.users.event.RoleEvent.newRoleEvent;
+import static io.leitstand.security.users.event.UserEvent.newUserEvent;
+import static io.leitstand.security.users.service.RoleName.roleName;
+import static io.leitstand.security.users.service.UserSettings.newUserSettings;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.leitstand.security.auth.UserName;
+import io.leitstand.security.users.service.UserInfo;
+import io.leitstand.security.users.service.UserService;
+
+public class UserInfoCacheTest {
+
+	private static final UserName USER = userName("unittest");
+	
+	private UserService users;
+	private UserInfoCache cache;
+	
+	@Before
+	public void initTestEnvironment() {
+		users = mock(UserService.class);
+		when(users.getUser(USER)).thenReturn(newUserSettings()
+											 .withUserName(USER)
+											 .withRoles(roleName("Operator"))
+											 .withScopes("ivt")
+											 .build());
+		cache = new UserInfoCache(60000, 10);
+	}
+	
+	@Test
+	public void return_cached_user_info() {
+		UserInfo userInfo = cache.getUserInfo(USER, users::getUser);
+		assertTrue(userInfo.getScopes().contains("ivt"));
+		assertSame(userInfo, cache.getUserInfo(USER, users::getUser));
+		verify(users).getUser(USER);
+	}
+	
+	@Test
+	public void evict_user_info_of_modified_user() {
+		cache.getUserInfo(USER, users::getUser);
+		cache.userModified(newUserEvent()
+						   .withUserName(USER)
+						   .build());
+		cache.getUserInfo(USER, users::getUser);
+		verify(users,times(2)).getUser(USER);
+	}
+	
+	@Test
+	public void evict_user_info_of_users_in_modified_role() {
+		cache.getUserInfo(USER, users::getUser);
+		cache.roleModified(newRoleEvent()
+						   .withRoleName(roleName("Administrator"))
+						   .build());
+		cache.getUserInfo(USER, users::getUser);
+		verify(users).getUser(USER);
+		cache.roleModified(newRoleEvent()
+						   .withRoleName(roleName("Operator"))
+						   .build());
+		cache.getUserInfo(USER, users::getUser);
+		verify(users,times(2)).getUser(USER);
+	}
+	
+	@Test
+	public void disabled_cache_does_not_cache_user_info() {
+		cache = new UserInfoCache(0, 10);
+		cache.getUserInfo(USER, users::getUser);
+		cache.getUserInfo(USER, users::getUser);
+		verify(users,times(2)).getUser(USER);
+	}
+	
+}
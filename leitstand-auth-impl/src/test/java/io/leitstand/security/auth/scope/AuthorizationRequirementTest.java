@@ -0,0 +1,78 @@
+package io.leitstand.security.auth.scope;
+
+import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.auth.scope.AuthorizationRequirement.compile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import io.leitstand.commons.rs.Public;
+import io.leitstand.security.auth.Scopes;
+import io.leitstand.security.auth.UserContext;
+import io.leitstand.security.auth.http.UserContextProvider;
+
+public class AuthorizationRequirementTest {
+
+	@Scopes({"resource.b","resource.a"})
+	static final class ProtectedResource {
+		
+		@Scopes("method")
+		public void method() {
+			
+		}
+		
+		@Public
+		public void everyone() {
+			
+		}
+	}
+	
+	static final class UnprotectedResource {
+		
+		public void foo() {
+			
+		}
+	}
+	
+	@Test
+	public void precompute_sorted_summary_of_allowed_scopes() throws Exception {
+		AuthorizationRequirement requirement = compile(ProtectedResource.class.getMethod("method"));
+		assertEquals("method, resource.a, resource.b", requirement.getScopesAllowed());
+	}
+	
+	@Test
+	public void public_method_of_protected_resource_is_public() throws Exception {
+		assertTrue(compile(ProtectedResource.class.getMethod("everyone")).isPublic());
+		assertFalse(compile(ProtectedResource.class.getMethod("method")).isPublic());
+	}
+	
+	@Test
+	public void resource_without_scopes_is_accessible_for_authenticated_users() throws Exception {
+		UserContext user = mock(UserContext.class);
+		assertTrue(compile(UnprotectedResource.class.getMethod("foo")).isSatisfiedBy(user));
+	}
+	
+	@Test
+	public void resource_scope_grants_access_to_method() throws Exception {
+		UserContext user = mock(UserContext.class);
+		when(user.scopesIncludeOneOf("resource.b","resource.a")).thenReturn(true);
+		assertTrue(compile(ProtectedResource.class.getMethod("method")).isSatisfiedBy(user));
+	}
+	
+	@Test
+	public void wildcard_grant_grants_access_to_method() throws Exception {
+		UserContextProvider user = new UserContextProvider();
+		user.setUserName(userName("unittest"));
+		user.setScopes("resource.*");
+		assertTrue(compile(ProtectedResource.class.getMethod("method")).isSatisfiedBy(user));
+		user = new UserContextProvider();
+		user.setUserName(userName("unittest"));
+		user.setScopes("other.*","method.read");
+		assertFalse(compile(ProtectedResource.class.getMethod("method")).isSatisfiedBy(user));
+	}
+	
+}
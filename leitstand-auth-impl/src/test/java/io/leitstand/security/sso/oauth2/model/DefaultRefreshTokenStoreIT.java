@@ -108,4 +108,27 @@ public class DefaultRefreshTokenStoreIT extends Oauth2IT{
 		});
 	}
 	
+	@Test
+	public void remove_expired_refresh_tokens_in_batches() {
+		String active = randomUUID().toString();
+		String expiredA = randomUUID().toString();
+		String expiredB = randomUUID().toString();
+		Date now = new Date();
+		transaction(() -> {
+			store.storeRefreshToken(active, "active", new Date(now.getTime()+10000));
+			store.storeRefreshToken(expiredA, "a", new Date(now.getTime()-20000));
+			store.storeRefreshToken(expiredB, "b", new Date(now.getTime()-10000));
+		});
+		transaction(() -> {
+			assertEquals(1,store.removeExpiredRefreshTokens(now, 1));
+		});
+		transaction(() -> {
+			assertEquals(1,store.removeExpiredRefreshTokens(now, 1));
+		});
+		transaction(() -> {
+			assertEquals(0,store.removeExpiredRefreshTokens(now, 1));
+			assertEquals("active",store.getRefreshToken(active));
+		});
+	}
+	
 }
@@ -0,0 +1,84 @@
+package io.leitstand.security.sso.oidc.config;
+
+import static com.nimbusds.jose.JWSAlgorithm.RS256;
+import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.rsa.RsaKeys.generateRsaKeyPair;
+import static io.leitstand.security.sso.oidc.config.OidcConfig.newOpenIdConfig;
+import static javax.json.Json.createObjectBuilder;
+import static javax.json.Json.createReader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+import javax.json.JsonObject;
+import javax.security.enterprise.credential.Password;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+
+public class OidcConfigDiscoveryTest {
+
+	private JsonObject discovered;
+
+	@Before
+	public void initDiscoveredConfig() {
+		KeyPair pair = generateRsaKeyPair(2048);
+		RSAKey key = new RSAKey.Builder((RSAPublicKey)pair.getPublic())
+						 .privateKey((RSAPrivateKey)pair.getPrivate())
+						 .keyID("k0")
+						 .build();
+		discovered = createObjectBuilder()
+					 .add("issuer","https://idp.example.com")
+					 .add("authorization_endpoint","https://idp.example.com/authorize")
+					 .add("token_endpoint","https://idp.example.com/token")
+					 .add("userinfo_endpoint","https://idp.example.com/userinfo")
+					 .add("end_session_endpoint","https://idp.example.com/logout")
+					 .add("jwks_uri","https://idp.example.com/jwks")
+					 .add("jwks",createReader(new StringReader(new JWKSet(key).toString(false))).readObject())
+					 .build();
+	}
+
+	@Test
+	public void restore_cached_configuration_without_private_keys() {
+		OidcConfigDiscovery discovery = new OidcConfigDiscovery(URI.create("https://idp.example.com/.well-known/openid-configuration"))
+										.restore(discovered);
+		OidcConfigDiscovery restored = new OidcConfigDiscovery(URI.create("https://idp.example.com/.well-known/openid-configuration"))
+									   .restore(discovery.toJson());
+
+		assertEquals("https://idp.example.com", restored.getIssuer());
+		assertEquals("https://idp.example.com/token", restored.getTokenEndpoint());
+		assertEquals(URI.create("https://idp.example.com/jwks"), restored.getJwksEndpoint());
+		assertEquals("k0", restored.getKeySet().getKeys().get(0).getKeyID());
+		assertFalse(restored.getKeySet().getKeys().get(0).isPrivate());
+	}
+
+	@Test
+	public void config_is_ready_once_discovered() {
+		OidcConfigDiscovery discovery = new OidcConfigDiscovery(URI.create("https://idp.example.com/.well-known/openid-configuration"))
+										.restore(discovered);
+		OidcConfig config = newOpenIdConfig()
+							.withClientId(userName("client"))
+							.withClientSecret(new Password("secret"))
+							.withKeySetManager(new OidcKeySetManager(RS256, new JWKSet(), () -> null, 0))
+							.build();
+		assertFalse(config.isReady());
+		assertNull(config.getAuthorizationEndpoint());
+
+		config.discovered(discovery);
+
+		assertTrue(config.isReady());
+		assertEquals(URI.create("https://idp.example.com/authorize"), config.getAuthorizationEndpoint());
+		assertEquals(1, config.getKeySet().getKeys().size());
+	}
+
+}
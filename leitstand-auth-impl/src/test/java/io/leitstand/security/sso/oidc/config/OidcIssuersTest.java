@@ -0,0 +1,112 @@
+package io.leitstand.security.sso.oidc.config;
+
+import static com.nimbusds.jose.JWSAlgorithm.RS256;
+import static io.leitstand.security.auth.jwt.Claims.newClaims;
+import static io.leitstand.security.rsa.RsaKeys.generateRsaKeyPair;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import io.leitstand.security.auth.jwt.DefaultRsaJwtService;
+import io.leitstand.security.auth.jwt.JwtEncoder;
+import io.leitstand.security.auth.jwt.JwtException;
+
+public class OidcIssuersTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	private KeyPair eu;
+	private KeyPair us;
+	private OidcIssuers.Issuer euIssuer;
+	private OidcIssuers.Issuer usIssuer;
+	private OidcIssuers issuers;
+
+	private static OidcKeySetManager keys(KeyPair pair, String kid) {
+		JWKSet keySet = new JWKSet(new RSAKey.Builder((RSAPublicKey)pair.getPublic()).keyID(kid).build());
+		return new OidcKeySetManager(RS256, keySet, () -> keySet, 0);
+	}
+
+	@Before
+	public void initIssuers() {
+		eu = generateRsaKeyPair(2048);
+		us = generateRsaKeyPair(2048);
+		euIssuer = new OidcIssuers.Issuer("eu", "https://eu.example.com", keys(eu, "eu-1"));
+		usIssuer = new OidcIssuers.Issuer("us", "https://us.example.com", keys(us, "us-1"));
+		issuers = new OidcIssuers(asList(euIssuer, usIssuer));
+	}
+
+	@Test
+	public void route_token_to_issuer_owning_the_key() {
+		JwtEncoder encoder = new DefaultRsaJwtService(us, "us-1");
+		assertNotNull(issuers.decodeToken(encoder.encode(newClaims().build())));
+		assertEquals(1, usIssuer.getAcceptedTokenCount());
+		assertEquals(0, euIssuer.getAcceptedTokenCount());
+		assertEquals(0, euIssuer.getRejectedTokenCount());
+	}
+
+	@Test
+	public void route_token_by_key_id_after_key_set_refresh() {
+		KeyPair rotated = generateRsaKeyPair(2048);
+		JWKSet[] keySet = {new JWKSet(new RSAKey.Builder((RSAPublicKey)eu.getPublic()).keyID("eu-1").build())};
+		OidcKeySetManager keys = new OidcKeySetManager(RS256, keySet[0], () -> keySet[0], 0);
+		OidcIssuers.Issuer rotating = new OidcIssuers.Issuer("eu", "https://eu.example.com", keys);
+		OidcIssuers issuers = new OidcIssuers(asList(usIssuer, rotating));
+		
+		keySet[0] = new JWKSet(new RSAKey.Builder((RSAPublicKey)rotated.getPublic()).keyID("eu-2").build());
+		keys.refresh();
+		
+		// The token has no issuer claim and can only be routed by its key ID.
+		JwtEncoder encoder = new DefaultRsaJwtService(rotated, "eu-2");
+		assertNotNull(issuers.decodeToken(encoder.encode(newClaims().build())));
+		assertEquals(1, rotating.getAcceptedTokenCount());
+		assertEquals(0, usIssuer.getRejectedTokenCount());
+	}
+
+	@Test
+	public void reject_token_of_untrusted_issuer() {
+		exception.expect(JwtException.class);
+		JwtEncoder encoder = new DefaultRsaJwtService(generateRsaKeyPair(2048), "other");
+		issuers.decodeToken(encoder.encode(newClaims().claim("iss","https://other.example.com").build()));
+	}
+
+	@Test
+	public void route_token_with_unknown_key_by_issuer_claim() {
+		JwtEncoder encoder = new DefaultRsaJwtService(generateRsaKeyPair(2048), "eu-2");
+		try {
+			issuers.decodeToken(encoder.encode(newClaims().claim("iss","https://eu.example.com").build()));
+		} catch (JwtException e) {
+			// The forged key is not part of the issuer key set.
+		}
+		assertEquals(1, euIssuer.getRejectedTokenCount());
+		assertEquals(0, usIssuer.getRejectedTokenCount());
+	}
+
+	@Test
+	public void route_token_with_unknown_key_by_discovered_issuer_name() {
+		OidcIssuers.Issuer pending = new OidcIssuers.Issuer("default", null, keys(generateRsaKeyPair(2048), "default-1"));
+		OidcIssuers issuers = new OidcIssuers(asList(pending, euIssuer));
+		issuers.issuerDiscovered(pending, "https://idp.example.com");
+		JwtEncoder encoder = new DefaultRsaJwtService(generateRsaKeyPair(2048), "default-2");
+		try {
+			issuers.decodeToken(encoder.encode(newClaims().claim("iss","https://idp.example.com").build()));
+		} catch (JwtException e) {
+			// The forged key is not part of the issuer key set.
+		}
+		assertEquals("https://idp.example.com", pending.getIssuer());
+		assertEquals(1, pending.getRejectedTokenCount());
+		assertEquals(0, euIssuer.getRejectedTokenCount());
+	}
+
+}
@@ -0,0 +1,122 @@
+package io.leitstand.security.sso.oidc.config;
+
+import static com.nimbusds.jose.JWSAlgorithm.RS256;
+import static io.leitstand.security.auth.jwt.Claims.newClaims;
+import static io.leitstand.security.rsa.RsaKeys.generateRsaKeyPair;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import io.leitstand.security.auth.jwt.DefaultRsaJwtService;
+import io.leitstand.security.auth.jwt.JwtEncoder;
+import io.leitstand.security.auth.jwt.JwtException;
+
+public class OidcKeySetManagerTest {
+
+	private static final String KEY_0 = "k0";
+	private static final String KEY_1 = "k1";
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	private KeyPair p0;
+	private KeyPair p1;
+	private AtomicReference<JWKSet> idpKeys;
+	private AtomicInteger loads;
+
+	private static JWKSet keySet(KeyPair pair, String kid) {
+		return new JWKSet(new RSAKey.Builder((RSAPublicKey)pair.getPublic()).keyID(kid).build());
+	}
+
+	@Before
+	public void initKeys() {
+		p0 = generateRsaKeyPair(2048);
+		p1 = generateRsaKeyPair(2048);
+		idpKeys = new AtomicReference<>(keySet(p0, KEY_0));
+		loads = new AtomicInteger();
+	}
+
+	private OidcKeySetManager manager(long minRefreshIntervalMillis) {
+		return new OidcKeySetManager(RS256,
+									 idpKeys.get(),
+									 () -> {
+										 loads.incrementAndGet();
+										 JWKSet keys = idpKeys.get();
+										 if(keys == null) {
+											 throw new IllegalStateException("IdP not reachable");
+										 }
+										 return keys;
+									 },
+									 minRefreshIntervalMillis);
+	}
+
+	@Test
+	public void accept_token_signed_with_rotated_key() {
+		OidcKeySetManager keys = manager(0);
+		idpKeys.set(keySet(p1, KEY_1));
+		JwtEncoder encoder = new DefaultRsaJwtService(p1, KEY_1);
+
+		assertNotNull(keys.decode(encoder.encode(newClaims().build())));
+		assertEquals(1, loads.get());
+		assertTrue(keys.isKnownKeyId(KEY_1));
+		assertFalse(keys.isKnownKeyId(KEY_0));
+	}
+
+	@Test
+	public void do_not_reload_key_set_for_known_key() {
+		OidcKeySetManager keys = manager(0);
+		JwtEncoder encoder = new DefaultRsaJwtService(p0, KEY_0);
+
+		keys.decode(encoder.encode(newClaims().build()));
+		assertEquals(0, loads.get());
+	}
+
+	@Test
+	public void rate_limit_reloads_for_unknown_keys() {
+		OidcKeySetManager keys = manager(60000);
+		JwtEncoder encoder = new DefaultRsaJwtService(generateRsaKeyPair(2048), "unknown");
+		String token = encoder.encode(newClaims().build());
+		for(int i=0; i < 3; i++) {
+			try {
+				keys.decode(token);
+			} catch (JwtException e) {
+				// expected
+			}
+		}
+		assertEquals(0, loads.get());
+	}
+
+	@Test
+	public void keep_last_known_key_set_if_idp_is_not_reachable() {
+		OidcKeySetManager keys = manager(0);
+		idpKeys.set(null);
+
+		assertFalse(keys.refresh());
+		assertTrue(keys.isKnownKeyId(KEY_0));
+		JwtEncoder encoder = new DefaultRsaJwtService(p0, KEY_0);
+		assertNotNull(keys.decode(encoder.encode(newClaims().build())));
+	}
+
+	@Test
+	public void reject_token_signed_with_unknown_key_after_reload() {
+		exception.expect(JwtException.class);
+		OidcKeySetManager keys = manager(0);
+		JwtEncoder encoder = new DefaultRsaJwtService(generateRsaKeyPair(2048), "unknown");
+		keys.decode(encoder.encode(newClaims().build()));
+	}
+
+}
@@ -0,0 +1,73 @@
+package io.leitstand.security.sso.oidc.user;
+
+import static io.leitstand.security.sso.oidc.service.OidcUserInfo.newUserInfo;
+import static io.leitstand.security.users.event.UserEvent.Type.MODIFIED;
+import static io.leitstand.security.users.event.UserEvent.Type.REMOVED;
+import static io.leitstand.security.users.event.UserEvent.newUserEvent;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.leitstand.security.sso.oidc.service.OidcUserInfo;
+
+public class OidcUserProfileCacheTest {
+
+	private static final OidcUserInfo JDOE = newUserInfo()
+											 .withSub("jdoe-sub")
+											 .withPreferredUsername("jdoe")
+											 .withGivenName("John")
+											 .withFamilyName("Doe")
+											 .build();
+	
+	private OidcUserProfileCache cache;
+	
+	@Before
+	public void initTestEnvironment() {
+		cache = new OidcUserProfileCache();
+	}
+	
+	@Test
+	public void unknown_profile_is_not_unchanged() {
+		assertFalse(cache.isUnchanged(JDOE));
+	}
+	
+	@Test
+	public void record_profile_when_transaction_was_committed() {
+		cache.profileStored(new OidcUserProfileStored(JDOE));
+		assertTrue(cache.isUnchanged(JDOE));
+	}
+	
+	@Test
+	public void modified_profile_is_not_unchanged() {
+		cache.profileStored(new OidcUserProfileStored(JDOE));
+		assertFalse(cache.isUnchanged(newUserInfo()
+									  .withSub("jdoe-sub")
+									  .withPreferredUsername("jdoe")
+									  .withGivenName("Jane")
+									  .withFamilyName("Doe")
+									  .build()));
+	}
+	
+	@Test
+	public void evict_profile_of_modified_user() {
+		cache.profileStored(new OidcUserProfileStored(JDOE));
+		cache.userModified(newUserEvent()
+						   .withUserName(JDOE.getUserName())
+						   .withType(MODIFIED)
+						   .build());
+		assertFalse(cache.isUnchanged(JDOE));
+	}
+	
+	@Test
+	public void evict_profile_of_removed_user() {
+		cache.profileStored(new OidcUserProfileStored(JDOE));
+		cache.userModified(newUserEvent()
+						   .withUserName(JDOE.getUserName())
+						   .withType(REMOVED)
+						   .build());
+		assertFalse(cache.isUnchanged(JDOE));
+	}
+	
+}
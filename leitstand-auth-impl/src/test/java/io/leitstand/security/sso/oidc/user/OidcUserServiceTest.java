@@ -0,0 +1,62 @@
+package io.leitstand.security.sso.oidc.user;
+
+import static io.leitstand.security.sso.oidc.service.OidcUserInfo.newUserInfo;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import javax.enterprise.event.Event;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.leitstand.commons.messages.Messages;
+import io.leitstand.commons.model.Repository;
+import io.leitstand.security.sso.oidc.service.OidcUserInfo;
+import io.leitstand.security.users.model.User;
+
+public class OidcUserServiceTest {
+
+	private static final OidcUserInfo JDOE = newUserInfo()
+											 .withSub("7f3b7bd1-0e1c-4a07-9b39-3d6d1f8ea5a4")
+											 .withPreferredUsername("jdoe")
+											 .withGivenName("John")
+											 .withFamilyName("Doe")
+											 .build();
+	
+	private Repository repository;
+	private OidcUserProfileCache profiles;
+	private Event<OidcUserProfileStored> events;
+	private OidcUserService service;
+	
+	@SuppressWarnings("unchecked")
+	@Before
+	public void initTestEnvironment() {
+		repository = mock(Repository.class);
+		profiles = mock(OidcUserProfileCache.class);
+		events = mock(Event.class);
+		service = new OidcUserService(repository, 
+									  profiles, 
+									  events, 
+									  mock(Messages.class));
+	}
+	
+	@Test
+	public void do_not_record_profile_before_transaction_was_committed() {
+		service.storeUser(JDOE);
+		verify(repository).add(any(User.class));
+		verify(events).fire(any(OidcUserProfileStored.class));
+		verify(profiles, never()).stored(JDOE);
+	}
+	
+	@Test
+	public void skip_unchanged_profile() {
+		when(profiles.isUnchanged(JDOE)).thenReturn(true);
+		service.storeUser(JDOE);
+		verifyZeroInteractions(repository, events);
+	}
+	
+}
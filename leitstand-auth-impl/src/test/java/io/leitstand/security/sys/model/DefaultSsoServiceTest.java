@@ -0,0 +1,59 @@
+package io.leitstand.security.sys.model;
+
+import static com.nimbusds.jose.JWSAlgorithm.RS256;
+import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.sso.oidc.config.OidcConfig.newOpenIdConfig;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.net.URI;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.nimbusds.jose.jwk.JWKSet;
+
+import io.leitstand.security.sso.oidc.config.OidcConfig;
+import io.leitstand.security.sso.oidc.config.OidcConfigNotReadyException;
+import io.leitstand.security.sso.oidc.config.OidcIssuers;
+import io.leitstand.security.sso.oidc.config.OidcKeySetManager;
+
+public class DefaultSsoServiceTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	private static OidcConfig.Builder oidcConfig() {
+		return newOpenIdConfig()
+			   .withClientId(userName("leitstand"))
+			   .withKeySetManager(new OidcKeySetManager(RS256, new JWKSet(), () -> null, 0));
+	}
+
+	@Test
+	public void reject_login_configuration_request_while_discovery_is_pending() {
+		DefaultSsoService service = new DefaultSsoService(null,
+														  oidcConfig().build(),
+														  mock(OidcIssuers.class),
+														  null);
+		assertFalse(service.isLoginConfigurationReady());
+		exception.expect(OidcConfigNotReadyException.class);
+		service.getLoginConfiguration();
+	}
+
+	@Test
+	public void read_login_configuration_when_endpoints_are_known() {
+		URI authorizationEndpoint = URI.create("https://idp.example.com/auth");
+		DefaultSsoService service = new DefaultSsoService(null,
+														  oidcConfig()
+														  .withAuthorizationEndpoint(authorizationEndpoint)
+														  .build(),
+														  mock(OidcIssuers.class),
+														  null);
+		assertTrue(service.isLoginConfigurationReady());
+		assertEquals(authorizationEndpoint, service.getLoginConfiguration().getLoginView());
+	}
+
+}
@@ -0,0 +1,145 @@
+package io.leitstand.security.sys.model;
+
+import static io.leitstand.security.accesskeys.model.AccessKeyConfig.API_KEY_ID;
+import static io.leitstand.security.auth.accesskeys.AccessKeyId.accessKeyId;
+import static io.leitstand.security.auth.jwt.Claims.newClaims;
+import static io.leitstand.security.sys.model.DefaultTokenIntrospectionService.MAX_BATCH_SIZE;
+import static io.leitstand.security.sys.service.ReasonCode.SYS0005E_INTROSPECTION_BATCH_TOO_LARGE;
+import static io.leitstand.testing.ut.LeitstandCoreMatchers.reason;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
+
+import io.leitstand.commons.UnprocessableEntityException;
+import io.leitstand.security.accesskeys.service.AccessKeyValidatorService;
+import io.leitstand.security.auth.accesskeys.AccessKeyId;
+import io.leitstand.security.auth.bearer.BearerTokenValidator;
+import io.leitstand.security.auth.jwt.Jwt;
+import io.leitstand.security.auth.jwt.JwtException;
+import io.leitstand.security.sys.service.TokenIntrospection;
+
+public class DefaultTokenIntrospectionServiceTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	private static final AccessKeyId ACTIVE_KEY = accessKeyId("a3c1d2a8-0bd2-4fb6-8ad3-4f0e7d0bbf11");
+	private static final AccessKeyId REVOKED_KEY = accessKeyId("0c8e5ad0-3c1e-4a4f-92fb-5d9c3a4b7e21");
+
+	private static Jwt jwt(String keyId, String jti, String temporary, long expiry) {
+		Jwt jwt = mock(Jwt.class);
+		when(jwt.getKeyID()).thenReturn(keyId);
+		when(jwt.isExpired()).thenReturn(expiry <= currentTimeMillis());
+		when(jwt.getClaims()).thenReturn(newClaims()
+										 .jwtId(jti)
+										 .subject("unittest")
+										 .scopes("ivt")
+										 .claim("temporary", temporary)
+										 .issuedAt(new Date())
+										 .expiresAt(new Date(expiry))
+										 .build());
+		return jwt;
+	}
+
+	private BearerTokenValidator validator;
+	private AccessKeyValidatorService accesskeys;
+	private DefaultTokenIntrospectionService service;
+
+	@Before
+	public void initTestEnvironment() {
+		validator = mock(BearerTokenValidator.class);
+		accesskeys = mock(AccessKeyValidatorService.class);
+		service = new DefaultTokenIntrospectionService(mock(SystemClientRegistry.class),
+													   validator,
+													   accesskeys);
+		long expiry = currentTimeMillis() + MINUTES.toMillis(5);
+		Jwt standalone = jwt("standalone", "login", null, expiry);
+		Jwt active = jwt(API_KEY_ID, ACTIVE_KEY.toString(), null, expiry);
+		Jwt revoked = jwt(API_KEY_ID, REVOKED_KEY.toString(), null, expiry);
+		Jwt temporary = jwt(API_KEY_ID, "temporary", "true", expiry);
+		Jwt expired = jwt("standalone", "expired", null, currentTimeMillis() - 1000);
+		when(validator.decodeToken("standalone")).thenReturn(standalone);
+		when(validator.decodeToken("active")).thenReturn(active);
+		when(validator.decodeToken("revoked")).thenReturn(revoked);
+		when(validator.decodeToken("temporary")).thenReturn(temporary);
+		when(validator.decodeToken("expired")).thenReturn(expired);
+		when(validator.decodeToken("invalid")).thenThrow(new JwtException("Invalid signature"));
+		when(accesskeys.getRevokedAccessKeys(any(Collection.class))).thenReturn(singleton(REVOKED_KEY));
+	}
+
+	@Test
+	public void introspect_active_token() {
+		TokenIntrospection result = service.introspect("client", "secret", "standalone");
+
+		assertTrue(result.isActive());
+		assertEquals("unittest",result.getSubject());
+		assertEquals("ivt",result.getScope());
+		assertEquals("login",result.getTokenId());
+		verifyZeroInteractions(accesskeys);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void introspect_batch_with_one_revocation_query() {
+		List<TokenIntrospection> results = service.introspect("client", 
+															  "secret", 
+															  asList("standalone","active","revoked","temporary","expired","invalid"));
+
+		assertEquals(6,results.size());
+		assertTrue(results.get(0).isActive());
+		assertTrue(results.get(1).isActive());
+		assertFalse(results.get(2).isActive());
+		assertTrue(results.get(3).isActive());
+		assertFalse(results.get(4).isActive());
+		assertFalse(results.get(5).isActive());
+
+		ArgumentCaptor<Collection> keyIds = ArgumentCaptor.forClass(Collection.class);
+		verify(accesskeys).getRevokedAccessKeys(keyIds.capture());
+		assertEquals(2,keyIds.getValue().size());
+		assertTrue(keyIds.getValue().contains(ACTIVE_KEY));
+		assertTrue(keyIds.getValue().contains(REVOKED_KEY));
+	}
+
+	@Test
+	public void read_recently_introspected_tokens_from_cache() {
+		service.introspect("client", "secret", asList("active","revoked"));
+		List<TokenIntrospection> results = service.introspect("client", "secret", asList("active","revoked","active"));
+
+		assertTrue(results.get(0).isActive());
+		assertFalse(results.get(1).isActive());
+		assertTrue(results.get(2).isActive());
+		verify(validator,times(1)).decodeToken("active");
+		verify(validator,times(1)).decodeToken("revoked");
+		verify(accesskeys,times(1)).getRevokedAccessKeys(any(Collection.class));
+	}
+
+	@Test
+	public void throw_UnprocessableEntityException_when_batch_is_too_large() {
+		exception.expect(UnprocessableEntityException.class);
+		exception.expect(reason(SYS0005E_INTROSPECTION_BATCH_TOO_LARGE));
+
+		service.introspect("client", "secret", nCopies(MAX_BATCH_SIZE+1, "standalone"));
+	}
+
+}
@@ -0,0 +1,60 @@
+package io.leitstand.security.sys.model;
+
+import static io.leitstand.security.sys.service.TokenIntrospection.inactiveToken;
+import static io.leitstand.security.sys.service.TokenIntrospection.newTokenIntrospection;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import io.leitstand.security.sys.service.TokenIntrospection;
+
+public class IntrospectionCacheTest {
+
+	@Test
+	public void return_cached_result_until_ttl_expires() {
+		IntrospectionCache cache = new IntrospectionCache(10000, 10);
+		cache.put("token", inactiveToken(), 1000);
+
+		assertSame(inactiveToken(),cache.get("token", 10999));
+		assertNull(cache.get("token", 11000));
+		assertNull(cache.get("other", 1000));
+	}
+
+	@Test
+	public void do_not_cache_result_longer_than_token_is_valid() {
+		IntrospectionCache cache = new IntrospectionCache(10000, 10);
+		TokenIntrospection result = newTokenIntrospection()
+									.withSubject("unittest")
+									.withExpiresAt(5L)
+									.build();
+		cache.put("token", result, 1000);
+
+		assertSame(result,cache.get("token", 4999));
+		assertNull(cache.get("token", 5000));
+	}
+
+	@Test
+	public void purge_expired_results_when_cache_is_full() {
+		IntrospectionCache cache = new IntrospectionCache(10000, 2);
+		cache.put("a", inactiveToken(), 0);
+		cache.put("b", inactiveToken(), 5000);
+		cache.put("c", inactiveToken(), 10000);
+
+		assertEquals(2,cache.size());
+		assertNull(cache.get("a", 10000));
+		assertSame(inactiveToken(),cache.get("c", 10000));
+	}
+
+	@Test
+	public void do_not_cache_result_when_cache_is_full() {
+		IntrospectionCache cache = new IntrospectionCache(10000, 1);
+		cache.put("a", inactiveToken(), 0);
+		cache.put("b", inactiveToken(), 0);
+
+		assertEquals(1,cache.size());
+		assertNull(cache.get("b", 0));
+	}
+
+}
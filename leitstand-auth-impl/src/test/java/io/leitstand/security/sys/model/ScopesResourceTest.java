@@ -91,6 +91,12 @@ public class ScopesResourceTest {
 		assertTrue(scopes.getResourceScopes().contains("unittest.resource.a.default.method"));
 
 	}
-
+	
+	@Test
+	public void offer_wildcard_grants_for_parent_scopes() {
+		assertTrue(scopes.getResourceScopes().contains("unittest.*"));
+		assertTrue(scopes.getResourceScopes().contains("unittest.resource.a.*"));
+		assertTrue(scopes.getResourceScopes().contains("unittest.resource.b.*"));
+	}
 	
 }
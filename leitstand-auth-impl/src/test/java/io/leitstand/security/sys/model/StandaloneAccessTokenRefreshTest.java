@@ -0,0 +1,110 @@
+package io.leitstand.security.sys.model;
+
+import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.auth.jwt.Claims.newClaims;
+import static io.leitstand.security.rsa.RsaKeys.generateRsaKeyPair;
+import static io.leitstand.security.sso.standalone.config.StandaloneLoginConfig.STANDALONE_LOGIN_KEY_ID;
+import static io.leitstand.security.sso.standalone.config.StandaloneLoginConfig.newStandaloneLoginConfig;
+import static io.leitstand.security.sys.service.ReasonCode.SYS0002E_SESSION_EXPIRED;
+import static io.leitstand.security.sys.service.ReasonCode.SYS0003E_USER_NOT_FOUND;
+import static io.leitstand.security.users.service.UserInfo.newUserInfo;
+import static io.leitstand.testing.ut.LeitstandCoreMatchers.reason;
+import static java.lang.System.currentTimeMillis;
+import static java.time.Duration.ofHours;
+import static java.time.Duration.ofMinutes;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import io.leitstand.commons.AccessDeniedException;
+import io.leitstand.security.auth.jwt.Claims;
+import io.leitstand.security.auth.jwt.DefaultRsaJwtService;
+import io.leitstand.security.auth.user.UserRegistry;
+import io.leitstand.security.oauth2.Oauth2AccessToken;
+import io.leitstand.security.sso.standalone.config.StandaloneLoginConfig;
+
+public class StandaloneAccessTokenRefreshTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	private StandaloneLoginConfig config;
+	private UserRegistry users;
+	private StandaloneAccessTokenRefresh refresh;
+
+	@Before
+	public void initTestEnvironment() {
+		config = newStandaloneLoginConfig()
+				 .withTimeToLive(ofHours(1))
+				 .withMaxSessionAge(ofHours(8))
+				 .withJwtService(new DefaultRsaJwtService(generateRsaKeyPair(2048), STANDALONE_LOGIN_KEY_ID))
+				 .build();
+		users = mock(UserRegistry.class);
+		refresh = new StandaloneAccessTokenRefresh(config, users);
+	}
+
+	private String accessToken(long authTime) {
+		return config.signAccessToken(newClaims()
+									  .issuedAt(new Date(authTime))
+									  .authTime(new Date(authTime))
+									  .expiresAt(new Date(authTime+MINUTES.toMillis(1)))
+									  .subject("unittest")
+									  .scopes("ivt"));
+	}
+
+	@Test
+	public void refresh_expired_access_token_with_current_grants() {
+		long authTime = currentTimeMillis() - HOURS.toMillis(1);
+		when(users.getUserInfo(userName("unittest"))).thenReturn(newUserInfo()
+																 .withUserName(userName("unittest"))
+																 .withScopes("ivt","adm")
+																 .build());
+
+		Oauth2AccessToken token = refresh.refreshAccessToken(accessToken(authTime));
+
+		Claims claims = config.decodeAccessToken(token.getAccessToken());
+		assertEquals("unittest",claims.getSubject());
+		assertTrue(claims.hasScope("adm"));
+		assertEquals(authTime/1000,claims.getAuthTime().getTime()/1000);
+		assertTrue(token.getExpiresIn() > 3500);
+	}
+
+	@Test
+	public void do_not_exceed_max_session_age() {
+		long authTime = currentTimeMillis() - HOURS.toMillis(8) + MINUTES.toMillis(10);
+		when(users.getUserInfo(userName("unittest"))).thenReturn(newUserInfo()
+																 .withUserName(userName("unittest"))
+																 .build());
+
+		Oauth2AccessToken token = refresh.refreshAccessToken(accessToken(authTime));
+
+		assertTrue(token.getExpiresIn() <= ofMinutes(10).getSeconds());
+	}
+
+	@Test
+	public void throw_AccessDeniedException_when_session_has_expired() {
+		exception.expect(AccessDeniedException.class);
+		exception.expect(reason(SYS0002E_SESSION_EXPIRED));
+
+		refresh.refreshAccessToken(accessToken(currentTimeMillis() - HOURS.toMillis(9)));
+	}
+
+	@Test
+	public void throw_AccessDeniedException_when_user_does_not_exist() {
+		exception.expect(AccessDeniedException.class);
+		exception.expect(reason(SYS0003E_USER_NOT_FOUND));
+
+		refresh.refreshAccessToken(accessToken(currentTimeMillis()));
+	}
+
+}
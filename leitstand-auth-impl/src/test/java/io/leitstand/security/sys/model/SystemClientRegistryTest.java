@@ -0,0 +1,88 @@
+package io.leitstand.security.sys.model;
+
+import static io.leitstand.security.sys.model.SystemClient.hashSecret;
+import static io.leitstand.security.sys.model.SystemClientRegistry.readClients;
+import static java.util.Base64.getEncoder;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+public class SystemClientRegistryTest {
+
+	private static String secretHash(String secret) {
+		return getEncoder().encodeToString(hashSecret(secret));
+	}
+
+	@Test
+	public void read_clients_with_hashed_secrets() {
+		Properties config = new Properties();
+		config.setProperty("inventory.secret", secretHash("inventory-secret"));
+		config.setProperty("inventory.rate", "120");
+		config.setProperty("inventory.burst", "10");
+		config.setProperty("metrics.secret", secretHash("metrics-secret"));
+
+		Map<String,SystemClient> clients = readClients(config, emptyMap());
+
+		assertEquals(2,clients.size());
+		SystemClient inventory = clients.get("inventory");
+		assertTrue(inventory.isValidSecret("inventory-secret"));
+		assertFalse(inventory.isValidSecret("metrics-secret"));
+		assertFalse(inventory.isValidSecret(null));
+		assertEquals(120,inventory.getRequestsPerMinute());
+		assertEquals(10,inventory.getBurst());
+		SystemClient metrics = clients.get("metrics");
+		assertEquals(60,metrics.getRequestsPerMinute());
+		assertEquals(60,metrics.getBurst());
+	}
+
+	@Test
+	public void ignore_client_with_malformed_secret_hash() {
+		Properties config = new Properties();
+		config.setProperty("inventory.secret", secretHash("inventory-secret"));
+		config.setProperty("metrics.secret", "not base64!");
+
+		Map<String,SystemClient> clients = readClients(config, emptyMap());
+
+		assertEquals(1,clients.size());
+		assertTrue(clients.containsKey("inventory"));
+	}
+
+	@Test
+	public void fall_back_to_system_client_properties() {
+		assertEquals(1,readClients(new Properties(), emptyMap()).size());
+	}
+
+	@Test
+	public void preserve_unchanged_clients_on_reload() {
+		Properties config = new Properties();
+		config.setProperty("inventory.secret", secretHash("inventory-secret"));
+		config.setProperty("metrics.secret", secretHash("metrics-secret"));
+		Map<String,SystemClient> current = readClients(config, emptyMap());
+
+		config.setProperty("metrics.rate", "10");
+		Map<String,SystemClient> reloaded = readClients(config, current);
+
+		assertSame(current.get("inventory"),reloaded.get("inventory"));
+		assertNotSame(current.get("metrics"),reloaded.get("metrics"));
+	}
+
+	@Test
+	public void count_requests_and_rejections() {
+		SystemClient client = new SystemClient("inventory", hashSecret("secret"), 60, 1);
+
+		assertTrue(client.tryAcquire());
+		assertFalse(client.tryAcquire());
+
+		assertEquals(2,client.getRequests());
+		assertEquals(1,client.getRejected());
+	}
+
+}
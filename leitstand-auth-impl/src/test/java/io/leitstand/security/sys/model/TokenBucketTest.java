@@ -0,0 +1,46 @@
+package io.leitstand.security.sys.model;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TokenBucketTest {
+
+	@Test
+	public void allow_burst_up_to_capacity() {
+		TokenBucket bucket = new TokenBucket(3, 60, 0);
+		assertTrue(bucket.tryAcquire(0));
+		assertTrue(bucket.tryAcquire(0));
+		assertTrue(bucket.tryAcquire(0));
+		assertFalse(bucket.tryAcquire(0));
+	}
+
+	@Test
+	public void refill_tokens_at_configured_rate() {
+		TokenBucket bucket = new TokenBucket(1, 60, 0);
+		assertTrue(bucket.tryAcquire(0));
+		assertFalse(bucket.tryAcquire(SECONDS.toNanos(1)/2));
+		assertTrue(bucket.tryAcquire(SECONDS.toNanos(1)));
+	}
+
+	@Test
+	public void do_not_exceed_capacity() {
+		TokenBucket bucket = new TokenBucket(2, 60, 0);
+		long later = SECONDS.toNanos(60);
+		assertTrue(bucket.tryAcquire(later));
+		assertTrue(bucket.tryAcquire(later));
+		assertFalse(bucket.tryAcquire(later));
+	}
+
+	@Test
+	public void compute_retry_after_seconds() {
+		TokenBucket bucket = new TokenBucket(1, 6, 0);
+		assertTrue(bucket.tryAcquire(0));
+		assertEquals(10,bucket.getRetryAfterSeconds(0));
+		assertEquals(5,bucket.getRetryAfterSeconds(SECONDS.toNanos(5)));
+	}
+
+}
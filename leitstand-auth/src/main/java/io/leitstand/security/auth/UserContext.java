@@ -17,6 +17,8 @@ package io.leitstand.security.auth;
 
 import java.util.Set;
 
+import io.leitstand.security.auth.scope.ScopeMask;
+
 /**
  * The request-scoped CDI-managed <code>UserContext</code> provides information about the authenticated user.
  */
@@ -29,7 +31,9 @@ public interface UserContext {
 	UserName getUserName();
 	/**
 	 * Returns the scopes the user is authorized to access.
+	 * The scopes can contain wildcard grants like <code>adm.*</code>.
 	 * @return the scopes the user is authorized to access.
+	 * @see io.leitstand.security.auth.scope.ScopeTrie
 	 */
 	Set<String> getScopes();
 	
@@ -41,8 +45,17 @@ public interface UserContext {
 	
 	/**
 	 * Tests whether the user is allowed to access at least one of the given scopes.
+	 * A scope is also accessible if it is covered by a wildcard grant.
 	 * @param scopes the scopes to be tested for access
 	 * @return <code>true</code> if the user is allowed to access at least one of the given scopes, <code>false</code> otherwise.
 	 */
 	boolean scopesIncludeOneOf(String... scopes);
+	
+	/**
+	 * Returns the scopes the user is authorized to access as scope mask.
+	 * @return the scope mask or <code>null</code> if the scopes cannot be represented as scope mask.
+	 */
+	default ScopeMask getScopeMask() {
+		return null;
+	}
 }
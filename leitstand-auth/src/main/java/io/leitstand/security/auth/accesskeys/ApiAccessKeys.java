@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.accesskeys;
+
+import io.leitstand.security.auth.jwt.Jwt;
+
+/**
+ * Utility to classify API access key tokens.
+ */
+public final class ApiAccessKeys {
+
+	/** Holds the key ID of the key pair that signs API access keys. */
+	public static final String API_KEY_ID = "api-access";
+	
+	/**
+	 * Tests whether the given token is a long-living API access key, which can be revoked before it expires.
+	 * Temporary access keys are short-living and cannot be revoked.
+	 * @param jwt the verified token
+	 * @return <code>true</code> if the token is a revocable API access key, <code>false</code> otherwise.
+	 */
+	public static boolean isRevocable(Jwt jwt) {
+		return API_KEY_ID.equals(jwt.getKeyID()) && !"true".equals(jwt.getClaims().getClaim("temporary"));
+	}
+	
+	private ApiAccessKeys() {
+		// No instances allowed
+	}
+	
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+
+/**
+ * Streams the rows of a query result to a consumer.
+ * <p>
+ * The query runs in a read-only transaction and fetches the rows in chunks of the given fetch size,
+ * which allows the JDBC driver to use a database cursor instead of reading the entire result set into memory.
+ * Every row is passed to the consumer as soon as it has been read. No row is retained after it has been consumed.
+ */
+public final class QueryStream {
+
+	/**
+	 * Maps the current row of a result set to an object.
+	 * @param <T> the object type
+	 */
+	@FunctionalInterface
+	public interface RowMapping<T> {
+		/**
+		 * Maps the current row.
+		 * @param rs the result set
+		 * @return the mapped row
+		 * @throws SQLException if a column cannot be read
+		 */
+		T map(ResultSet rs) throws SQLException;
+	}
+	
+	/**
+	 * Executes a query and passes all rows to the given consumer.
+	 * @param ds the data source
+	 * @param fetchSize the number of rows fetched in one round trip
+	 * @param sql the SQL query
+	 * @param mapping the row mapping
+	 * @param consumer the consumer of the mapped rows
+	 * @param args the query parameters
+	 * @param <T> the row type
+	 * @throws PersistenceException if the query fails
+	 */
+	public static <T> void streamQuery(DataSource ds,
+									   int fetchSize,
+									   String sql,
+									   RowMapping<T> mapping,
+									   Consumer<? super T> consumer,
+									   Object... args) {
+		try(Connection c = ds.getConnection()){
+			// A cursor is only used if auto-commit is disabled.
+			// Connections enlisted in a container-managed transaction have auto-commit disabled already.
+			boolean autoCommit = c.getAutoCommit();
+			if(autoCommit) {
+				c.setAutoCommit(false);
+			}
+			try(PreparedStatement stmt = c.prepareStatement(sql)){
+				stmt.setFetchSize(fetchSize);
+				for(int i=0; i < args.length; i++) {
+					stmt.setObject(i+1, args[i]);
+				}
+				try(ResultSet rs = stmt.executeQuery()){
+					while(rs.next()) {
+						consumer.accept(mapping.map(rs));
+					}
+				}
+			} finally {
+				if(autoCommit) {
+					// Nothing to commit for a query.
+					c.rollback();
+					c.setAutoCommit(true);
+				}
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		}
+	}
+	
+	private QueryStream() {
+		// No instances allowed
+	}
+	
+}
@@ -1,10 +1,14 @@
 package io.leitstand.security.auth.jwt;
 
 import static io.leitstand.commons.model.BuilderUtil.assertNotInvalidated;
+import static io.leitstand.security.auth.scope.ScopeTrie.compile;
+import static io.leitstand.security.auth.scope.ScopeTrie.containsWildcard;
 import static java.lang.System.currentTimeMillis;
 import static java.util.Arrays.asList;
 import static java.util.Arrays.stream;
 import static java.util.Collections.emptySet;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toSet;
 
@@ -19,6 +23,8 @@ import com.nimbusds.jwt.JWTClaimsSet;
  */
 public class Claims {
 
+    private static final String AUTH_TIME = "auth_time";
+
     /**
      * Creates a builder for an immutable Claims object.
      * @return a builder for an immutable Claims object.
@@ -112,6 +118,19 @@ public class Claims {
             return this;
         }
         
+        /**
+         * Sets the time when the user authenticated (auth_time).
+         * The authentication time is preserved when an access token is refreshed 
+         * and allows limiting the age of a session.
+         * @param authTime the authentication time
+         * @return a reference to this builder to continue object creation.
+         */
+        public Builder authTime(Date authTime) {
+            assertNotInvalidated(getClass(), claims);
+            claims.claim(AUTH_TIME, authTime != null ? MILLISECONDS.toSeconds(authTime.getTime()) : null);
+            return this;
+        }
+        
         /**
          * Adds a custom claim.
          * @param name the claim name
@@ -173,11 +192,15 @@ public class Claims {
     
     /**
      * Returns <code>true</code> if the JWT token claims contains at least one of the specified scopes. 
+     * Wildcard grants like <code>adm.*</code> contain the parent scope and all its sub-scopes.
      * @param scopes expected scopes
      * @return <code>true</code> if this JWT token claims contains at least one of the specified scopes.
      */
     public boolean hasScope(String... scopes) {
         Set<String> claimsScopes = getScopes();
+        if (containsWildcard(claimsScopes)) {
+            return compile(claimsScopes).matchesOneOf(scopes);
+        }
         for (String scope : scopes) {
             if (claimsScopes.contains(scope)) {
                 return true;
@@ -211,6 +234,19 @@ public class Claims {
         return claims.getExpirationTime();
     }
     
+    /**
+     * Returns the time when the user authenticated.
+     * Falls back to the creation date of the JWT token if the token has no <code>auth_time</code> claim.
+     * @return the authentication time.
+     */
+    public Date getAuthTime() {
+        Object authTime = claims.getClaim(AUTH_TIME);
+        if (authTime instanceof Number) {
+            return new Date(SECONDS.toMillis(((Number) authTime).longValue()));
+        }
+        return getIssuedAt();
+    }
+    
     /**
      * Returns whether this JWT token is expired or not.
      * @return <code>true</code> when the token is expired, <code>false</code> if not.
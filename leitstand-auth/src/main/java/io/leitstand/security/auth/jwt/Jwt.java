@@ -1,9 +1,46 @@
 package io.leitstand.security.auth.jwt;
 
+import java.text.ParseException;
+
 import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
 
 public class Jwt {
+	
+	/**
+	 * Reads the key ID from the JOSE header of the given token without parsing the token payload or verifying the token signature.
+	 * @param token the JSON web token
+	 * @return the key ID or <code>null</code> if the header does not specify a key ID.
+	 * @throws JwtException if the token header is malformed
+	 */
+	public static String keyIdOf(String token) {
+		int dot = token.indexOf('.');
+		if(dot < 0) {
+			throw new JwtException("Malformed token: Missing JOSE header");
+		}
+		try {
+			return JWSHeader.parse(new Base64URL(token.substring(0,dot))).getKeyID();
+		} catch (ParseException e) {
+			throw new JwtException("Malformed token: "+e.getMessage(),e);
+		}
+	}
+	
+	/**
+	 * Reads the issuer claim from the given token without verifying the token signature.
+	 * The returned value must only be used to select the key set to verify the token.
+	 * @param token the JSON web token
+	 * @return the issuer or <code>null</code> if the token does not specify an issuer.
+	 * @throws JwtException if the token is malformed
+	 */
+	public static String issuerOf(String token) {
+		try {
+			return JWTParser.parse(token).getJWTClaimsSet().getIssuer();
+		} catch (ParseException e) {
+			throw new JwtException("Malformed token: "+e.getMessage(),e);
+		}
+	}
 
 	private Claims claims;
 	private String algorithm;
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.rs;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Base64.getUrlEncoder;
+import static javax.ws.rs.core.Response.ok;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Supplier;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+/**
+ * Utility to create strong entity tags and to answer conditional <code>GET</code> requests.
+ * <p>
+ * An entity tag is the SHA-256 hash of the properties that identify a representation, 
+ * typically the entity ID and its version or modification date, or the entire content of a document.
+ * Equal properties result in equal entity tags on all Leitstand nodes.
+ */
+public final class EntityTags {
+
+	/**
+	 * Creates a strong entity tag from the given representation properties.
+	 * @param properties the properties that identify the representation
+	 * @return the entity tag
+	 */
+	public static EntityTag entityTag(Object... properties) {
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			for(Object property : properties) {
+				sha256.update(String.valueOf(property).getBytes(UTF_8));
+				// Separate properties to distinguish ("ab","c") from ("a","bc").
+				sha256.update((byte) 0);
+			}
+			return new EntityTag(getUrlEncoder().withoutPadding().encodeToString(sha256.digest()));
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform must support SHA-256.
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Answers a conditional <code>GET</code> request.
+	 * Returns <code>304 Not Modified</code> if the <code>If-None-Match</code> header of the request matches the given entity tag.
+	 * Otherwise returns the entity supplied by the given supplier.
+	 * Both responses convey the entity tag in the <code>ETag</code> header.
+	 * @param request the request
+	 * @param tag the entity tag of the current representation
+	 * @param entity the entity supplier, which is only invoked if the client has no current representation
+	 * @return the response
+	 */
+	public static Response conditionalGet(Request request, 
+										  EntityTag tag, 
+										  Supplier<?> entity) {
+		return conditionalGet(request, tag, null, entity);
+	}
+	
+	/**
+	 * Answers a conditional <code>GET</code> request of a cacheable representation.
+	 * Both the <code>304 Not Modified</code> and the <code>200 OK</code> response convey the entity tag 
+	 * in the <code>ETag</code> header and the given cache control directives in the <code>Cache-Control</code> header.
+	 * @param request the request
+	 * @param tag the entity tag of the current representation
+	 * @param cacheControl the cache control directives or <code>null</code> to omit the <code>Cache-Control</code> header
+	 * @param entity the entity supplier, which is only invoked if the client has no current representation
+	 * @return the response
+	 */
+	public static Response conditionalGet(Request request, 
+										  EntityTag tag, 
+										  CacheControl cacheControl,
+										  Supplier<?> entity) {
+		ResponseBuilder notModified = request.evaluatePreconditions(tag);
+		if(notModified != null) {
+			return notModified.tag(tag)
+							  .cacheControl(cacheControl)
+							  .build();
+		}
+		return ok(entity.get()).tag(tag)
+							   .cacheControl(cacheControl)
+							   .build();
+	}
+	
+	private EntityTags() {
+		// No instances allowed
+	}
+	
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.rs;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.util.function.Consumer;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+/**
+ * Writes a JSON array element by element to the response.
+ * <p>
+ * The elements are passed to the <code>JsonArrayOutput</code> as they are read, for example while iterating over a JDBC result set.
+ * Every element is serialized with the JSON message body writer of the application. 
+ * Hence, the elements are serialized the same way as if the complete list was returned by the resource method,
+ * but neither the list nor its JSON representation is kept in memory.
+ * The response is written after the resource method returned.
+ * The element source is therefore invoked in its own transaction.
+ * @param <T> the element type
+ */
+public final class JsonArrayOutput<T> implements StreamingOutput {
+
+	private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+	
+	/**
+	 * Creates a streaming JSON array.
+	 * @param <T> the element type
+	 * @param type the element type
+	 * @param providers the JAX-RS providers to obtain the JSON message body writer
+	 * @param source the element source, which passes all elements to the given consumer
+	 * @return the streaming JSON array
+	 */
+	public static <T> JsonArrayOutput<T> jsonArray(Class<T> type, 
+												   Providers providers, 
+												   Consumer<Consumer<T>> source){
+		return new JsonArrayOutput<>(type, providers, source);
+	}
+	
+	/**
+	 * Protects the response stream from being closed or flushed by the message body writer after an element was written.
+	 * The container flushes the response once the complete array has been written.
+	 */
+	private static final class ElementOutputStream extends FilterOutputStream {
+		
+		ElementOutputStream(OutputStream out){
+			super(out);
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+		
+		@Override
+		public void flush() {
+			// Flushing every element would send every element in its own chunk.
+		}
+		
+		@Override
+		public void close() {
+			// The response stream is closed by the container.
+		}
+	}
+	
+	private final Class<T> type;
+	private final Providers providers;
+	private final Consumer<Consumer<T>> source;
+	
+	private JsonArrayOutput(Class<T> type, 
+							Providers providers, 
+							Consumer<Consumer<T>> source) {
+		this.type = type;
+		this.providers = providers;
+		this.source = source;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(OutputStream out) throws IOException {
+		MessageBodyWriter<T> writer = providers.getMessageBodyWriter(type, 
+																	 type, 
+																	 NO_ANNOTATIONS, 
+																	 APPLICATION_JSON_TYPE);
+		OutputStream element = new ElementOutputStream(out);
+		boolean[] first = {true};
+		out.write('[');
+		try {
+			source.accept(item -> {
+				try {
+					if(!first[0]) {
+						out.write(',');
+					}
+					first[0] = false;
+					writer.writeTo(item, 
+								   type, 
+								   type, 
+								   NO_ANNOTATIONS, 
+								   APPLICATION_JSON_TYPE, 
+								   new MultivaluedHashMap<>(), 
+								   element);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		out.write(']');
+	}
+	
+}
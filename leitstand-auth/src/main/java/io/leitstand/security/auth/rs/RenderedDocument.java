@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.rs;
+
+import static io.leitstand.security.auth.rs.EntityTags.conditionalGet;
+import static io.leitstand.security.auth.rs.EntityTags.entityTag;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+/**
+ * The immutable JSON representation of a rarely changing document.
+ * <p>
+ * The document is serialized once with the JSON message body writer of the application.
+ * The rendered bytes are written to every response as they are, without serializing the document again.
+ * The entity tag is the hash of the rendered bytes.
+ * A <code>RenderedDocument</code> remembers the document it was rendered from, 
+ * which allows the owner of a rendered document to detect when the document must be rendered again.
+ */
+public final class RenderedDocument {
+
+	private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+	
+	/**
+	 * Renders the given document.
+	 * @param <T> the document type
+	 * @param document the document
+	 * @param type the document type
+	 * @param providers the JAX-RS providers to obtain the JSON message body writer
+	 * @return the rendered document.
+	 */
+	public static <T> RenderedDocument render(T document, 
+											  Class<T> type, 
+											  Providers providers) {
+		MessageBodyWriter<T> writer = providers.getMessageBodyWriter(type, 
+																	 type, 
+																	 NO_ANNOTATIONS, 
+																	 APPLICATION_JSON_TYPE);
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			writer.writeTo(document, 
+						   type, 
+						   type, 
+						   NO_ANNOTATIONS, 
+						   APPLICATION_JSON_TYPE, 
+						   new MultivaluedHashMap<>(), 
+						   out);
+			return new RenderedDocument(document, out.toByteArray());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private final Object document;
+	private final byte[] content;
+	private final EntityTag tag;
+	
+	private RenderedDocument(Object document, byte[] content) {
+		this.document = document;
+		this.content = content;
+		this.tag = entityTag(new String(content, UTF_8));
+	}
+	
+	/**
+	 * Tests whether this is the rendering of the given document instance.
+	 * @param document the document
+	 * @return <code>true</code> if this document was rendered from the given instance, <code>false</code> otherwise.
+	 */
+	public boolean isRenderingOf(Object document) {
+		return this.document == document;
+	}
+	
+	/**
+	 * Returns the entity tag of the rendered document.
+	 * @return the entity tag of the rendered document.
+	 */
+	public EntityTag getEntityTag() {
+		return tag;
+	}
+	
+	/**
+	 * Returns the number of bytes of the rendered document.
+	 * @return the number of bytes of the rendered document.
+	 */
+	public int getContentLength() {
+		return content.length;
+	}
+	
+	/**
+	 * Answers a conditional <code>GET</code> request of the rendered document.
+	 * The rendered bytes are passed to the response as they are. 
+	 * The response must not modify the bytes.
+	 * @param request the request to evaluate the <code>If-None-Match</code> header
+	 * @param cacheControl the cache control directives
+	 * @return <code>304 Not Modified</code> if the client has a current representation, 
+	 * otherwise <code>200 OK</code> with the rendered document.
+	 */
+	public Response conditionalGetResponse(Request request, CacheControl cacheControl) {
+		return conditionalGet(request, tag, cacheControl, () -> content);
+	}
+	
+}
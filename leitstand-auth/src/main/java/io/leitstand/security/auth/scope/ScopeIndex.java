@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.scope;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Logger.getLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+/**
+ * The <code>ScopeIndex</code> provides access to the scope declarations recorded by the {@link ScopeIndexProcessor} at compile time.
+ * <p>
+ * The index is read once from all <code>META-INF/leitstand/scopes.idx</code> resources on the class path.
+ * Types that were not compiled with the {@link ScopeIndexProcessor} are not part of the index.
+ * Consumers must fall back to reflection for these types.
+ */
+public final class ScopeIndex {
+
+	private static final Logger LOG = getLogger(ScopeIndex.class.getName());
+
+	/** The scope index resource name. */
+	public static final String SCOPE_INDEX = "META-INF/leitstand/scopes.idx";
+
+	static final String SCOPES_ANNOTATION = "io.leitstand.security.auth.Scopes";
+	static final String PUBLIC_ANNOTATION = "io.leitstand.commons.rs.Public";
+
+	private static final class Holder {
+		private static final ScopeIndex INSTANCE = loadScopeIndex(ScopeIndex.class.getClassLoader());
+	}
+
+	/**
+	 * Returns the scope index of the application.
+	 * @return the scope index of the application.
+	 */
+	public static ScopeIndex scopeIndex() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * Loads the scope index from all scope index resources visible to the given class loader.
+	 * @param classLoader the class loader
+	 * @return the scope index
+	 */
+	public static ScopeIndex loadScopeIndex(ClassLoader classLoader) {
+		ScopeIndex index = new ScopeIndex();
+		try {
+			Enumeration<URL> resources = classLoader.getResources(SCOPE_INDEX);
+			while(resources.hasMoreElements()) {
+				URL resource = resources.nextElement();
+				try(BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), UTF_8))){
+					String line = reader.readLine();
+					while(line != null) {
+						index.add(line);
+						line = reader.readLine();
+					}
+				}
+			}
+		} catch (IOException e) {
+			LOG.warning(() -> format("Cannot read scope index: %s", e.getMessage()));
+			LOG.log(FINE, e.getMessage(), e);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the signature of the given method as recorded in the scope index.
+	 * @param method the method
+	 * @return the method signature
+	 */
+	public static String signature(Method method) {
+		StringBuilder signature = new StringBuilder(method.getName());
+		signature.append('(');
+		Class<?>[] params = method.getParameterTypes();
+		for(int i=0; i < params.length; i++) {
+			if(i > 0) {
+				signature.append(',');
+			}
+			signature.append(params[i].getCanonicalName());
+		}
+		return signature.append(')').toString();
+	}
+
+	/**
+	 * The scope declaration of a type or a method.
+	 */
+	public static final class Entry {
+
+		private final boolean publicAccess;
+		private final List<String> scopes;
+
+		Entry(boolean publicAccess, List<String> scopes){
+			this.publicAccess = publicAccess;
+			this.scopes = scopes;
+		}
+
+		/**
+		 * Returns whether the type or method is annotated with <code>{@literal @Public}</code>.
+		 * @return <code>true</code> if everyone can access the type or method.
+		 */
+		public boolean isPublic() {
+			return publicAccess;
+		}
+
+		/**
+		 * Returns the declared scopes.
+		 * @return the immutable list of declared scopes or an empty list if the type or method declares no scopes.
+		 */
+		public List<String> getScopes() {
+			return scopes;
+		}
+
+		/**
+		 * Returns whether the type or method declares scopes.
+		 * @return <code>true</code> if a <code>{@literal @Scopes}</code> annotation is present.
+		 */
+		public boolean hasScopes() {
+			return !scopes.isEmpty();
+		}
+	}
+
+	private final Map<String,Entry> types = new HashMap<>();
+	private final Map<String,Map<String,Entry>> methods = new HashMap<>();
+
+	private ScopeIndex() {
+		// Use loadScopeIndex or scopeIndex
+	}
+
+	private void add(String line) {
+		String[] columns = line.split("\\|",-1);
+		if(columns.length != 4) {
+			// Ignore malformed lines.
+			return;
+		}
+		List<String> scopes = columns[3].isEmpty() ? emptyList() : unmodifiableList(asList(columns[3].split(",")));
+		Entry entry = new Entry(Boolean.parseBoolean(columns[2]), scopes);
+		if(columns[1].isEmpty()) {
+			types.put(columns[0], entry);
+		} else {
+			methods.computeIfAbsent(columns[0], k -> new HashMap<>())
+				   .put(columns[1], entry);
+		}
+	}
+
+	/**
+	 * Tests whether the given type is part of the index.
+	 * @param type the type
+	 * @return <code>true</code> if the type is indexed, <code>false</code> otherwise.
+	 */
+	public boolean isIndexed(Class<?> type) {
+		return types.containsKey(type.getName());
+	}
+
+	/**
+	 * Returns the type-level scope declaration of the given type.
+	 * @param type the type
+	 * @return the type-level scope declaration or <code>null</code> if the type is not indexed.
+	 */
+	public Entry getTypeEntry(Class<?> type) {
+		return types.get(type.getName());
+	}
+
+	/**
+	 * Returns the method-level scope declaration of the given method.
+	 * @param method the method
+	 * @return the method-level scope declaration or <code>null</code> if the method declares neither <code>{@literal @Scopes}</code> nor <code>{@literal @Public}</code>.
+	 */
+	public Entry getMethodEntry(Method method) {
+		return methods.getOrDefault(method.getDeclaringClass().getName(), emptyMap())
+					  .get(signature(method));
+	}
+
+	/**
+	 * Returns all scopes declared by the given type and its methods.
+	 * @param type the indexed type
+	 * @return all declared scopes or an empty set if the type is not indexed.
+	 */
+	public Set<String> getDeclaredScopes(Class<?> type) {
+		Set<String> scopes = new TreeSet<>();
+		Entry typeEntry = types.get(type.getName());
+		if(typeEntry != null) {
+			scopes.addAll(typeEntry.getScopes());
+		}
+		for(Entry methodEntry : methods.getOrDefault(type.getName(), emptyMap()).values()) {
+			scopes.addAll(methodEntry.getScopes());
+		}
+		return scopes;
+	}
+
+}
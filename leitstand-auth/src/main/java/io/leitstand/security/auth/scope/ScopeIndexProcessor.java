@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.scope;
+
+import static io.leitstand.security.auth.scope.ScopeIndex.PUBLIC_ANNOTATION;
+import static io.leitstand.security.auth.scope.ScopeIndex.SCOPES_ANNOTATION;
+import static io.leitstand.security.auth.scope.ScopeIndex.SCOPE_INDEX;
+import static java.util.Locale.ENGLISH;
+import static javax.lang.model.element.ElementKind.METHOD;
+import static javax.tools.Diagnostic.Kind.ERROR;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Annotation processor that creates the scope index of all types declaring {@link io.leitstand.security.auth.Scopes}
+ * or <code>{@literal @Public}</code> annotations.
+ * <p>
+ * The index is written to <code>META-INF/leitstand/scopes.idx</code>.
+ * Every line describes either a type or a method of a type.
+ * A line consists of four <code>|</code>-separated columns:
+ * the binary type name, the method signature (empty for types), the public flag and the comma-separated list of declared scopes.
+ * The method signature is formed by the method name followed by the canonical names of the erased parameter types in parentheses.
+ * Type annotations like <code>{@literal @NotNull}</code> are not part of the signature.
+ * The type-level annotations include inherited annotations, which mirrors {@link Class#getAnnotation(Class)}.
+ * @see ScopeIndex
+ */
+@SupportedAnnotationTypes({SCOPES_ANNOTATION, PUBLIC_ANNOTATION})
+public class ScopeIndexProcessor extends AbstractProcessor {
+
+	private final Map<String,List<String>> index = new TreeMap<>();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+		for(TypeElement annotation : annotations) {
+			for(Element element : round.getElementsAnnotatedWith(annotation)) {
+				Element type = element.getKind() == METHOD ? element.getEnclosingElement() : element;
+				if(type instanceof TypeElement) {
+					indexType((TypeElement) type);
+				}
+			}
+		}
+		if(round.processingOver() && !index.isEmpty()) {
+			writeIndex();
+		}
+		// Do not claim the annotations.
+		return false;
+	}
+
+	private void indexType(TypeElement type) {
+		String typeName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		if(index.containsKey(typeName)) {
+			return;
+		}
+		List<String> lines = new ArrayList<>();
+		List<? extends AnnotationMirror> typeAnnotations = processingEnv.getElementUtils().getAllAnnotationMirrors(type);
+		lines.add(line(typeName, "", typeAnnotations));
+		for(Element member : type.getEnclosedElements()) {
+			if(member.getKind() == METHOD) {
+				List<? extends AnnotationMirror> methodAnnotations = member.getAnnotationMirrors();
+				if(isPublic(methodAnnotations) || scopes(methodAnnotations) != null) {
+					lines.add(line(typeName, signature((ExecutableElement) member), methodAnnotations));
+				}
+			}
+		}
+		index.put(typeName, lines);
+	}
+
+	private String signature(ExecutableElement method) {
+		StringBuilder signature = new StringBuilder(method.getSimpleName());
+		signature.append('(');
+		List<? extends VariableElement> params = method.getParameters();
+		for(int i=0; i < params.size(); i++) {
+			if(i > 0) {
+				signature.append(',');
+			}
+			signature.append(typeName(processingEnv.getTypeUtils().erasure(params.get(i).asType())));
+		}
+		return signature.append(')').toString();
+	}
+
+	// TypeMirror.toString() includes type annotations, whereas Class.getCanonicalName() does not.
+	private static String typeName(TypeMirror type) {
+		switch(type.getKind()) {
+			case ARRAY:
+				return typeName(((ArrayType) type).getComponentType())+"[]";
+			case DECLARED:
+				return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+			default:
+				// Primitive types
+				return type.getKind().name().toLowerCase(ENGLISH);
+		}
+	}
+
+	private static String line(String type, String method, List<? extends AnnotationMirror> annotations) {
+		String scopes = scopes(annotations);
+		return type+"|"+method+"|"+isPublic(annotations)+"|"+(scopes != null ? scopes : "");
+	}
+
+	private static boolean isPublic(List<? extends AnnotationMirror> annotations) {
+		return annotation(annotations, PUBLIC_ANNOTATION) != null;
+	}
+
+	private static String scopes(List<? extends AnnotationMirror> annotations) {
+		AnnotationMirror scopes = annotation(annotations, SCOPES_ANNOTATION);
+		if(scopes == null) {
+			return null;
+		}
+		StringBuilder value = new StringBuilder();
+		for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> attribute : scopes.getElementValues().entrySet()) {
+			if(attribute.getKey().getSimpleName().contentEquals("value")) {
+				Object values = attribute.getValue().getValue();
+				if(values instanceof List) {
+					for(Object scope : (List<?>) values) {
+						append(value, ((AnnotationValue) scope).getValue());
+					}
+				} else {
+					append(value, values);
+				}
+			}
+		}
+		return value.toString();
+	}
+
+	private static void append(StringBuilder scopes, Object scope) {
+		if(scopes.length() > 0) {
+			scopes.append(',');
+		}
+		scopes.append(scope);
+	}
+
+	private static AnnotationMirror annotation(List<? extends AnnotationMirror> annotations, String name) {
+		for(AnnotationMirror annotation : annotations) {
+			Element type = annotation.getAnnotationType().asElement();
+			if(type instanceof TypeElement && ((TypeElement) type).getQualifiedName().contentEquals(name)) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	private void writeIndex() {
+		try (Writer writer = processingEnv.getFiler()
+										  .createResource(CLASS_OUTPUT, "", SCOPE_INDEX)
+										  .openWriter()){
+			for(List<String> lines : index.values()) {
+				for(String line : lines) {
+					writer.write(line);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(ERROR, "Cannot write scope index: "+e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.scope;
+
+import static java.lang.Math.min;
+
+/**
+ * An immutable set of scopes represented as bit mask of the scope IDs assigned by the {@link ScopeRegistry}.
+ * <p>
+ * Testing whether two scope masks intersect is a word-wise <code>AND</code> operation 
+ * and does not depend on the scope name lengths.
+ */
+public final class ScopeMask {
+
+	/** An empty scope mask. */
+	public static final ScopeMask NO_SCOPES = new ScopeMask(new long[0]);
+	
+	private final long[] words;
+	
+	ScopeMask(long[] words){
+		this.words = words;
+	}
+	
+	/**
+	 * Tests whether this mask contains the scope with the given ID.
+	 * @param scopeId the scope ID
+	 * @return <code>true</code> if this mask contains the scope, <code>false</code> otherwise.
+	 */
+	public boolean contains(int scopeId) {
+		int word = scopeId >>> 6;
+		return scopeId >= 0 && word < words.length && (words[word] & (1L << scopeId)) != 0;
+	}
+	
+	/**
+	 * Tests whether this mask and the given mask have at least one scope in common.
+	 * @param mask the other mask
+	 * @return <code>true</code> if both masks have at least one scope in common, <code>false</code> otherwise.
+	 */
+	public boolean intersects(ScopeMask mask) {
+		int length = min(words.length, mask.words.length);
+		for(int i=0; i < length; i++) {
+			if((words[i] & mask.words[i]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns whether this mask is empty.
+	 * @return <code>true</code> if this mask contains no scope, <code>false</code> otherwise.
+	 */
+	public boolean isEmpty() {
+		for(long word : words) {
+			if(word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+}
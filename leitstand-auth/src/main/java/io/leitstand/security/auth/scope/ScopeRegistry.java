@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.scope;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The process-wide <code>ScopeRegistry</code> assigns a dense integer ID to every scope.
+ * <p>
+ * The registry is seeded with the resource scopes and the scopes of all roles at startup. 
+ * Unknown scopes get registered on demand.
+ * Scope IDs are never reassigned, which allows computing a {@link ScopeMask} once and using it until the process terminates.
+ * The registry accepts at most {@value #MAX_SCOPES} scopes to protect against unbounded growth.
+ * Scope sets with scopes beyond this limit cannot be represented as mask and must be checked by name.
+ */
+public final class ScopeRegistry {
+	
+	/** Maximum number of registered scopes. */
+	public static final int MAX_SCOPES = 4096;
+	
+	private static final ScopeRegistry INSTANCE = new ScopeRegistry(MAX_SCOPES);
+	
+	/**
+	 * Returns the process-wide scope registry.
+	 * @return the process-wide scope registry.
+	 */
+	public static ScopeRegistry scopeRegistry() {
+		return INSTANCE;
+	}
+
+	private final ConcurrentMap<String,Integer> ids = new ConcurrentHashMap<>();
+	private final int maxScopes;
+	
+	ScopeRegistry(int maxScopes){
+		this.maxScopes = maxScopes;
+	}
+	
+	/**
+	 * Registers the given scopes.
+	 * Wildcard grants are skipped, because wildcard grants are matched by a {@link ScopeTrie}.
+	 * @param scopes the scopes to be registered
+	 */
+	public void register(Collection<String> scopes) {
+		for(String scope : scopes) {
+			if(!ScopeTrie.isWildcard(scope)) {
+				register(scope);
+			}
+		}
+	}
+	
+	/**
+	 * Registers the given scope if it is not registered yet.
+	 * @param scope the scope name
+	 * @return the scope ID or <code>-1</code> if the registry is full.
+	 */
+	public int register(String scope) {
+		Integer id = ids.get(scope);
+		if(id != null) {
+			return id;
+		}
+		synchronized (this) {
+			// Assign IDs in registration order.
+			id = ids.get(scope);
+			if(id == null) {
+				if(ids.size() >= maxScopes) {
+					return -1;
+				}
+				id = ids.size();
+				ids.put(scope, id);
+			}
+			return id;
+		}
+	}
+	
+	/**
+	 * Returns the ID of the given scope.
+	 * @param scope the scope name
+	 * @return the scope ID or <code>-1</code> if the scope is not registered.
+	 */
+	public int getScopeId(String scope) {
+		Integer id = ids.get(scope);
+		return id != null ? id : -1;
+	}
+	
+	/**
+	 * Returns the number of registered scopes.
+	 * @return the number of registered scopes.
+	 */
+	public int size() {
+		return ids.size();
+	}
+	
+	/**
+	 * Creates a mask of the given scopes and registers all unknown scopes.
+	 * @param scopes the scopes
+	 * @return the scope mask or <code>null</code> if the scopes cannot be represented as mask because the registry is full.
+	 */
+	public ScopeMask mask(Collection<String> scopes) {
+		if(scopes.isEmpty()) {
+			return ScopeMask.NO_SCOPES;
+		}
+		int[] scopeIds = new int[scopes.size()];
+		int maxId = 0;
+		int i = 0;
+		for(String scope : scopes) {
+			int id = register(scope);
+			if(id < 0) {
+				return null;
+			}
+			scopeIds[i++] = id;
+			maxId = Math.max(maxId, id);
+		}
+		long[] words = new long[(maxId >>> 6) + 1];
+		for(int id : scopeIds) {
+			words[id >>> 6] |= 1L << id;
+		}
+		return new ScopeMask(words);
+	}
+	
+}
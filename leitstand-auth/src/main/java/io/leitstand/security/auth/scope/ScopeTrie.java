@@ -0,0 +1,266 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.auth.scope;
+
+import static java.util.Collections.unmodifiableSortedSet;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A prefix trie of granted scopes.
+ * <p>
+ * Scopes form a hierarchy of dot-separated segments, e.g. <code>adm.user.read</code> is a sub-scope of <code>adm.user</code>
+ * and <code>adm</code>.
+ * A wildcard grant ends with <code>.*</code> and grants access to the parent scope and all its sub-scopes,
+ * i.e. <code>adm.*</code> grants access to <code>adm</code>, <code>adm.read</code> and <code>adm.user.read</code>.
+ * The single wildcard <code>*</code> grants access to all scopes.
+ * All other grants are matched exactly.
+ * <p>
+ * Matching a scope walks one trie node per scope segment and hence does not depend on the number of granted scopes.
+ * A <code>ScopeTrie</code> is immutable once compiled.
+ */
+public final class ScopeTrie {
+
+	/** The wildcard segment. */
+	public static final String WILDCARD = "*";
+
+	private static final String WILDCARD_SUFFIX = "."+WILDCARD;
+
+	/** A trie without grants. */
+	public static final ScopeTrie NO_GRANTS = new ScopeTrie();
+
+	/**
+	 * Tests whether the given scope is a wildcard grant.
+	 * @param scope the scope
+	 * @return <code>true</code> if the scope is <code>*</code> or ends with <code>.*</code>.
+	 */
+	public static boolean isWildcard(String scope) {
+		return WILDCARD.equals(scope) || scope.endsWith(WILDCARD_SUFFIX);
+	}
+
+	/**
+	 * Tests whether the given scopes contain at least one wildcard grant.
+	 * @param scopes the scopes
+	 * @return <code>true</code> if the scopes contain a wildcard grant.
+	 */
+	public static boolean containsWildcard(Collection<String> scopes) {
+		for(String scope : scopes) {
+			if(isWildcard(scope)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compiles a trie of the given grants.
+	 * @param grants the granted scopes including wildcard grants.
+	 * @return the compiled trie.
+	 */
+	public static ScopeTrie compile(Collection<String> grants) {
+		if(grants.isEmpty()) {
+			return NO_GRANTS;
+		}
+		ScopeTrie trie = new ScopeTrie();
+		for(String grant : grants) {
+			trie.add(grant);
+		}
+		return trie;
+	}
+
+	/**
+	 * Normalizes the given grants by removing all grants that are covered by a wildcard grant.
+	 * For example, <code>adm.*</code>, <code>adm.user</code> and <code>ivt</code> are normalized to <code>adm.*</code> and <code>ivt</code>.
+	 * @param grants the grants
+	 * @return the sorted, immutable set of normalized grants.
+	 */
+	public static SortedSet<String> normalize(Collection<String> grants) {
+		SortedSet<String> normalized = new TreeSet<>();
+		if(!containsWildcard(grants)) {
+			normalized.addAll(grants);
+			return unmodifiableSortedSet(normalized);
+		}
+		ScopeTrie wildcards = new ScopeTrie();
+		for(String grant : grants) {
+			if(isWildcard(grant)) {
+				wildcards.add(grant);
+			}
+		}
+		for(String grant : grants) {
+			if(WILDCARD.equals(grant)) {
+				normalized.add(grant);
+			} else if(isWildcard(grant)) {
+				// Keep a wildcard unless a wildcard of a parent scope exists.
+				String scope = grant.substring(0, grant.length()-WILDCARD_SUFFIX.length());
+				int dot = scope.lastIndexOf('.');
+				if(!wildcards.covers(dot < 0 ? "" : scope.substring(0, dot))) {
+					normalized.add(grant);
+				}
+			} else if(!wildcards.matches(grant)) {
+				normalized.add(grant);
+			}
+		}
+		return unmodifiableSortedSet(normalized);
+	}
+
+	/**
+	 * Adds a wildcard grant for every parent scope of the given scopes.
+	 * For example, the scopes <code>adm</code>, <code>adm.read</code> and <code>adm.user.read</code>
+	 * result in the wildcards <code>adm.*</code> and <code>adm.user.*</code>.
+	 * @param scopes the scopes
+	 * @return the sorted, immutable set of the given scopes and the wildcard grants of their parent scopes.
+	 */
+	public static SortedSet<String> withWildcards(Collection<String> scopes) {
+		SortedSet<String> expanded = new TreeSet<>(scopes);
+		for(String scope : scopes) {
+			if(isWildcard(scope)) {
+				continue;
+			}
+			int dot = scope.indexOf('.');
+			while(dot > 0) {
+				expanded.add(scope.substring(0,dot)+WILDCARD_SUFFIX);
+				dot = scope.indexOf('.', dot+1);
+			}
+		}
+		return unmodifiableSortedSet(expanded);
+	}
+
+	private static final class Node {
+		private final Map<String,Node> children = new HashMap<>(4);
+		private boolean granted;
+		private boolean wildcard;
+	}
+
+	private final Node root = new Node();
+	private boolean wildcards;
+
+	private ScopeTrie() {
+		// Use compile
+	}
+
+	private void add(String grant) {
+		if(WILDCARD.equals(grant)) {
+			root.wildcard = true;
+			wildcards = true;
+			return;
+		}
+		boolean wildcard = grant.endsWith(WILDCARD_SUFFIX);
+		String scope = wildcard ? grant.substring(0, grant.length()-WILDCARD_SUFFIX.length()) : grant;
+		Node node = root;
+		int start = 0;
+		while(start <= scope.length()) {
+			int end = scope.indexOf('.', start);
+			if(end < 0) {
+				end = scope.length();
+			}
+			node = node.children.computeIfAbsent(scope.substring(start, end), k -> new Node());
+			start = end + 1;
+		}
+		if(wildcard) {
+			node.wildcard = true;
+			wildcards = true;
+		} else {
+			node.granted = true;
+		}
+	}
+
+	/**
+	 * Returns whether this trie contains at least one wildcard grant.
+	 * @return <code>true</code> if this trie contains a wildcard grant.
+	 */
+	public boolean hasWildcards() {
+		return wildcards;
+	}
+
+	/**
+	 * Tests whether the given scope is granted.
+	 * @param scope the scope
+	 * @return <code>true</code> if the scope is granted explicitly or by a wildcard grant.
+	 */
+	public boolean matches(String scope) {
+		if(isWildcard(scope)) {
+			// A wildcard is granted only if a wildcard of the same or a parent scope is granted.
+			return covers(WILDCARD.equals(scope) ? "" : scope.substring(0, scope.length()-WILDCARD_SUFFIX.length()));
+		}
+		Node node = root;
+		int start = 0;
+		while(start <= scope.length()) {
+			if(node.wildcard) {
+				return true;
+			}
+			int end = scope.indexOf('.', start);
+			if(end < 0) {
+				end = scope.length();
+			}
+			node = node.children.get(scope.substring(start, end));
+			if(node == null) {
+				return false;
+			}
+			start = end + 1;
+		}
+		return node.granted || node.wildcard;
+	}
+
+	/**
+	 * Tests whether a wildcard grant covers the given scope and all its sub-scopes.
+	 * @param scope the scope or an empty string to test for the <code>*</code> wildcard.
+	 * @return <code>true</code> if a wildcard grant covers the scope.
+	 */
+	private boolean covers(String scope) {
+		if(root.wildcard) {
+			return true;
+		}
+		if(scope.isEmpty()) {
+			return false;
+		}
+		Node node = root;
+		int start = 0;
+		while(start <= scope.length()) {
+			int end = scope.indexOf('.', start);
+			if(end < 0) {
+				end = scope.length();
+			}
+			node = node.children.get(scope.substring(start, end));
+			if(node == null) {
+				return false;
+			}
+			if(node.wildcard) {
+				return true;
+			}
+			start = end + 1;
+		}
+		return false;
+	}
+
+	/**
+	 * Tests whether at least one of the given scopes is granted.
+	 * @param scopes the scopes
+	 * @return <code>true</code> if at least one of the given scopes is granted.
+	 */
+	public boolean matchesOneOf(String... scopes) {
+		for(String scope : scopes) {
+			if(matches(scope)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -5,6 +5,7 @@ import static io.leitstand.testing.ut.LeitstandCoreMatchers.hasSizeOf;
 import static io.leitstand.testing.ut.LeitstandCoreMatchers.isEmptyList;
 import static io.leitstand.testing.ut.LeitstandCoreMatchers.isEmptySet;
 import static java.lang.System.currentTimeMillis;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -71,4 +72,22 @@ public class ClaimsTest {
         assertTrue(claims.isExpired());
 
     }
+    
+    @Test
+    public void read_auth_time_in_seconds() {
+        Claims claims = newClaims()
+                        .issuedAt(new Date(2000000))
+                        .authTime(new Date(1000500))
+                        .build();
+        assertEquals(new Date(1000000),claims.getAuthTime());
+    }
+    
+    @Test
+    public void fallback_to_issue_date_when_auth_time_is_missing() {
+        Claims claims = newClaims()
+                        .issuedAt(new Date(2000000))
+                        .build();
+        assertEquals(new Date(2000000),claims.getAuthTime());
+    }
+    
 }
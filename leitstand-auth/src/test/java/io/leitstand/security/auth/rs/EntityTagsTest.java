@@ -0,0 +1,67 @@
+package io.leitstand.security.auth.rs;
+
+import static io.leitstand.security.auth.rs.EntityTags.conditionalGet;
+import static io.leitstand.security.auth.rs.EntityTags.entityTag;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+public class EntityTagsTest {
+
+	@Test
+	public void equal_properties_create_equal_tags() {
+		assertEquals(entityTag("user",1L),entityTag("user",1L));
+	}
+
+	@Test
+	public void different_properties_create_different_tags() {
+		assertNotEquals(entityTag("user",1L),entityTag("user",2L));
+	}
+
+	@Test
+	public void shifted_properties_create_different_tags() {
+		assertNotEquals(entityTag("ab","c"),entityTag("a","bc"));
+	}
+
+	@Test
+	public void create_strong_tags() {
+		assertFalse(entityTag("user").isWeak());
+	}
+
+	@Test
+	public void return_entity_when_tag_does_not_match() {
+		EntityTag tag = entityTag("user",1L);
+		Request request = mock(Request.class);
+
+		Response response = conditionalGet(request, tag, () -> "user");
+
+		assertEquals(200,response.getStatus());
+		assertEquals("user",response.getEntity());
+		assertEquals(tag,response.getEntityTag());
+	}
+
+	@Test
+	public void return_not_modified_without_reading_entity_when_tag_matches() {
+		EntityTag tag = entityTag("user",1L);
+		Request request = mock(Request.class);
+		when(request.evaluatePreconditions(tag)).thenReturn(Response.notModified());
+		AtomicBoolean read = new AtomicBoolean();
+
+		Response response = conditionalGet(request, tag, () -> read.getAndSet(true));
+
+		assertEquals(304,response.getStatus());
+		assertEquals(tag,response.getEntityTag());
+		assertFalse(read.get());
+	}
+
+}
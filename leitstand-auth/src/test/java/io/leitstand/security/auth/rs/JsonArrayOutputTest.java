@@ -0,0 +1,94 @@
+package io.leitstand.security.auth.rs;
+
+import static io.leitstand.security.auth.rs.JsonArrayOutput.jsonArray;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonArrayOutputTest {
+	
+	private static final class QuotingWriter implements MessageBodyWriter<String> {
+
+		@Override
+		public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+			return true;
+		}
+
+		@Override
+		public void writeTo(String t, 
+							Class<?> type, 
+							Type genericType, 
+							Annotation[] annotations, 
+							MediaType mediaType,
+							MultivaluedMap<String, Object> httpHeaders, 
+							OutputStream entityStream) throws IOException {
+			entityStream.write(("\""+t+"\"").getBytes(UTF_8));
+			entityStream.flush();
+			entityStream.close();
+		}
+	}
+	
+	private static final class CloseAwareOutputStream extends ByteArrayOutputStream {
+		private boolean closed;
+		private boolean flushed;
+		
+		@Override
+		public void flush() throws IOException {
+			flushed = true;
+		}
+		
+		@Override
+		public void close() throws IOException {
+			closed = true;
+		}
+	}
+	
+	private Providers providers;
+	
+	@Before
+	public void initTestEnvironment() {
+		providers = mock(Providers.class);
+		doReturn(new QuotingWriter()).when(providers).getMessageBodyWriter(eq(String.class), 
+																		   eq(String.class), 
+																		   any(Annotation[].class), 
+																		   any(MediaType.class));
+	}
+	
+	@Test
+	public void write_empty_array() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		jsonArray(String.class, providers, items -> {}).write(out);
+		assertEquals("[]", out.toString("UTF-8"));
+	}
+	
+	@Test
+	public void write_elements_separated_by_comma_without_closing_or_flushing_the_response() throws IOException {
+		CloseAwareOutputStream out = new CloseAwareOutputStream();
+		jsonArray(String.class, providers, items -> {
+			items.accept("a");
+			items.accept("b");
+		}).write(out);
+		assertEquals("[\"a\",\"b\"]", out.toString("UTF-8"));
+		assertFalse(out.closed);
+		assertFalse(out.flushed);
+	}
+	
+}
@@ -0,0 +1,110 @@
+package io.leitstand.security.auth.rs;
+
+import static io.leitstand.security.auth.rs.RenderedDocument.render;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class RenderedDocumentTest {
+
+	private static final class QuotingWriter implements MessageBodyWriter<String> {
+
+		@Override
+		public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+			return true;
+		}
+
+		@Override
+		public void writeTo(String t,
+							Class<?> type,
+							Type genericType,
+							Annotation[] annotations,
+							MediaType mediaType,
+							MultivaluedMap<String, Object> httpHeaders,
+							OutputStream entityStream) throws IOException {
+			entityStream.write(("\""+t+"\"").getBytes(UTF_8));
+		}
+	}
+
+	private Providers providers;
+
+	@Before
+	public void initTestEnvironment() {
+		providers = mock(Providers.class);
+		doReturn(new QuotingWriter()).when(providers).getMessageBodyWriter(eq(String.class),
+																		   eq(String.class),
+																		   any(Annotation[].class),
+																		   any(MediaType.class));
+	}
+
+	@Test
+	public void render_document_with_message_body_writer() {
+		RenderedDocument document = render("doc", String.class, providers);
+
+		Response response = document.conditionalGetResponse(mock(Request.class), new CacheControl());
+
+		assertEquals(200,response.getStatus());
+		assertArrayEquals("\"doc\"".getBytes(UTF_8),(byte[]) response.getEntity());
+		assertEquals(5,document.getContentLength());
+		assertEquals(document.getEntityTag(),response.getEntityTag());
+	}
+
+	@Test
+	public void detect_rendered_document_instance() {
+		String doc = new String("doc");
+		RenderedDocument document = render(doc, String.class, providers);
+
+		assertTrue(document.isRenderingOf(doc));
+		assertFalse(document.isRenderingOf(new String("doc")));
+	}
+
+	@Test
+	public void equal_documents_have_equal_tags() {
+		assertEquals(render("doc", String.class, providers).getEntityTag(),
+					 render(new String("doc"), String.class, providers).getEntityTag());
+		assertNotEquals(render("doc", String.class, providers).getEntityTag(),
+						render("other", String.class, providers).getEntityTag());
+	}
+
+	@Test
+	public void return_not_modified_with_cache_control() {
+		RenderedDocument document = render("doc", String.class, providers);
+		Request request = mock(Request.class);
+		when(request.evaluatePreconditions(document.getEntityTag())).thenReturn(Response.notModified());
+		CacheControl cacheControl = new CacheControl();
+		cacheControl.setMaxAge(300);
+
+		Response response = document.conditionalGetResponse(request, cacheControl);
+
+		assertEquals(304,response.getStatus());
+		assertNull(response.getEntity());
+		assertEquals(document.getEntityTag(),response.getEntityTag());
+		assertEquals(cacheControl,response.getMetadata().getFirst("Cache-Control"));
+	}
+
+}
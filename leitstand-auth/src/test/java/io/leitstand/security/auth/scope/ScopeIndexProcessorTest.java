@@ -0,0 +1,111 @@
+package io.leitstand.security.auth.scope;
+
+import static io.leitstand.security.auth.scope.ScopeIndex.loadScopeIndex;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.write;
+import static java.util.Arrays.asList;
+import static javax.tools.ToolProvider.getSystemJavaCompiler;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ScopeIndexProcessorTest {
+	
+	private static final String RESOURCE = 
+			"package unittest;\n"+
+			"import io.leitstand.security.auth.Scopes;\n"+
+			"import io.leitstand.commons.rs.Public;\n"+
+			"import java.util.List;\n"+
+			"import java.lang.annotation.*;\n"+
+			"@Scopes({\"adm\",\"adm.user\"})\n"+
+			"public class UnitTestResource {\n"+
+			"  @Target({ElementType.PARAMETER,ElementType.TYPE_USE}) @Retention(RetentionPolicy.RUNTIME) public @interface Valid {}\n"+
+			"  @Target({ElementType.PARAMETER,ElementType.TYPE_USE}) @Retention(RetentionPolicy.RUNTIME) public @interface NotNull {}\n"+
+			"  @Scopes(\"adm.read\") public String getUser(String id, List<String> filter){ return id; }\n"+
+			"  @Scopes(\"adm.read\") public String getRole(@Valid String id, @NotNull int[] flags){ return id; }\n"+
+			"  @Public public void getSettings(){}\n"+
+			"  @Public public void getLoginSettings(@NotNull String id){}\n"+
+			"  public void storeUser(String id){}\n"+
+			"}\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private ScopeIndex index;
+	private Class<?> resource;
+	
+	@Before
+	public void compileResource() throws Exception {
+		Path sources = createDirectories(folder.getRoot().toPath().resolve("src/unittest"));
+		File classes = folder.newFolder("classes");
+		Path source = write(sources.resolve("UnitTestResource.java"), RESOURCE.getBytes(UTF_8));
+		
+		int rc = getSystemJavaCompiler().run(null, null, null, 
+											 "-classpath", System.getProperty("java.class.path"),
+											 "-processor", ScopeIndexProcessor.class.getName(),
+											 "-d", classes.getAbsolutePath(),
+											 source.toString());
+		assertEquals(0, rc);
+		
+		ClassLoader loader = new URLClassLoader(new URL[] {classes.toURI().toURL()}, getClass().getClassLoader());
+		index = loadScopeIndex(loader);
+		resource = loader.loadClass("unittest.UnitTestResource");
+	}
+	
+	@Test
+	public void index_type_scopes() {
+		assertTrue(index.isIndexed(resource));
+		assertEquals(asList("adm","adm.user"), index.getTypeEntry(resource).getScopes());
+		assertFalse(index.getTypeEntry(resource).isPublic());
+	}
+	
+	@Test
+	public void index_method_scopes() throws Exception {
+		ScopeIndex.Entry entry = index.getMethodEntry(resource.getMethod("getUser", String.class, java.util.List.class));
+		assertEquals(asList("adm.read"), entry.getScopes());
+		assertFalse(entry.isPublic());
+	}
+	
+	@Test
+	public void index_method_with_type_annotated_parameters() throws Exception {
+		ScopeIndex.Entry entry = index.getMethodEntry(resource.getMethod("getRole", String.class, int[].class));
+		assertEquals(asList("adm.read"), entry.getScopes());
+		assertFalse(entry.isPublic());
+	}
+	
+	@Test
+	public void index_public_method_with_type_annotated_parameter() throws Exception {
+		ScopeIndex.Entry entry = index.getMethodEntry(resource.getMethod("getLoginSettings", String.class));
+		assertTrue(entry.isPublic());
+	}
+	
+	@Test
+	public void index_public_method() throws Exception {
+		ScopeIndex.Entry entry = index.getMethodEntry(resource.getMethod("getSettings"));
+		assertTrue(entry.isPublic());
+		assertFalse(entry.hasScopes());
+	}
+	
+	@Test
+	public void do_not_index_method_without_annotations() throws Exception {
+		assertNull(index.getMethodEntry(resource.getMethod("storeUser", String.class)));
+	}
+	
+	@Test
+	public void read_all_declared_scopes() {
+		assertEquals(3, index.getDeclaredScopes(resource).size());
+	}
+	
+}
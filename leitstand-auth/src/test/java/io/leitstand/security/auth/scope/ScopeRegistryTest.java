@@ -0,0 +1,43 @@
+package io.leitstand.security.auth.scope;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ScopeRegistryTest {
+
+	@Test
+	public void assign_dense_ids_in_registration_order() {
+		ScopeRegistry registry = new ScopeRegistry(10);
+		assertEquals(0, registry.register("adm"));
+		assertEquals(1, registry.register("adm.read"));
+		assertEquals(0, registry.register("adm"));
+		assertEquals(-1, registry.getScopeId("ivt"));
+	}
+	
+	@Test
+	public void masks_intersect_if_scopes_overlap() {
+		ScopeRegistry registry = new ScopeRegistry(200);
+		for(int i=0; i < 100; i++) {
+			registry.register("scope."+i);
+		}
+		ScopeMask user = registry.mask(asList("scope.1","scope.99"));
+		assertTrue(user.intersects(registry.mask(asList("scope.99"))));
+		assertTrue(user.contains(registry.getScopeId("scope.1")));
+		assertFalse(user.intersects(registry.mask(asList("scope.2","scope.70"))));
+		assertFalse(user.intersects(ScopeMask.NO_SCOPES));
+	}
+	
+	@Test
+	public void cannot_create_mask_when_registry_is_full() {
+		ScopeRegistry registry = new ScopeRegistry(1);
+		registry.register("adm");
+		assertEquals(-1, registry.register("ivt"));
+		assertNull(registry.mask(asList("adm","ivt")));
+	}
+	
+}
@@ -0,0 +1,61 @@
+package io.leitstand.security.auth.scope;
+
+import static io.leitstand.security.auth.scope.ScopeTrie.compile;
+import static io.leitstand.security.auth.scope.ScopeTrie.normalize;
+import static io.leitstand.security.auth.scope.ScopeTrie.withWildcards;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class ScopeTrieTest {
+
+	@Test
+	public void wildcard_grants_parent_scope_and_all_sub_scopes() {
+		ScopeTrie grants = compile(asList("adm.*"));
+		assertTrue(grants.hasWildcards());
+		assertTrue(grants.matches("adm"));
+		assertTrue(grants.matches("adm.read"));
+		assertTrue(grants.matches("adm.user.read"));
+		assertTrue(grants.matches("adm.user.*"));
+		assertFalse(grants.matches("admin"));
+		assertFalse(grants.matches("ivt"));
+	}
+	
+	@Test
+	public void scope_grants_are_matched_exactly() {
+		ScopeTrie grants = compile(asList("ivt.read"));
+		assertFalse(grants.hasWildcards());
+		assertTrue(grants.matches("ivt.read"));
+		assertFalse(grants.matches("ivt"));
+		assertFalse(grants.matches("ivt.read.all"));
+		assertFalse(grants.matches("ivt.*"));
+	}
+	
+	@Test
+	public void single_wildcard_grants_all_scopes() {
+		ScopeTrie grants = compile(asList("*"));
+		assertTrue(grants.matchesOneOf("adm"));
+		assertTrue(grants.matchesOneOf("ivt.read"));
+		assertTrue(grants.matchesOneOf("*"));
+	}
+	
+	@Test
+	public void normalize_removes_grants_covered_by_wildcards() {
+		assertEquals(new TreeSet<>(asList("adm.*","ivt")),
+					 normalize(asList("adm.*","adm.user","adm.user.*","ivt")));
+		assertEquals(new TreeSet<>(asList("adm","adm.read")),
+					 normalize(asList("adm","adm.read")));
+	}
+	
+	@Test
+	public void add_wildcards_of_parent_scopes() {
+		assertEquals(new TreeSet<>(asList("adm","adm.*","adm.read","adm.user.*","adm.user.read","ivt")),
+					 withWildcards(asList("adm","adm.read","adm.user.read","ivt")));
+	}
+	
+}
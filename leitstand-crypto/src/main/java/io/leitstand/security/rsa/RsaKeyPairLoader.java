@@ -0,0 +1,77 @@
+package io.leitstand.security.rsa;
+
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Logger.getLogger;
+
+import java.security.KeyPair;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Loads RSA key pairs in the background.
+ * <p>
+ * Reading a PEM file and in particular generating a missing RSA key pair are expensive operations.
+ * The <code>RsaKeyPairLoader</code> allows loading all key pairs concurrently at startup,
+ * whereas a key pair consumer only waits for the key pair when the key pair is used for the first time.
+ * The loader logs the time it took to load each key pair.
+ */
+public final class RsaKeyPairLoader {
+
+    private static final Logger LOG = getLogger(RsaKeyPairLoader.class.getName());
+
+    /**
+     * Loads a RSA key pair asynchronously.
+     * @param name the key pair name, typically the PEM file name.
+     * @param loader the key pair loader that either reads an existing key pair or generates a new key pair.
+     * @param executor the executor to run the loader.
+     * @return the future key pair.
+     */
+    public static CompletableFuture<KeyPair> loadRsaKeyPair(String name,
+                                                            Supplier<KeyPair> loader,
+                                                            Executor executor) {
+        return supplyAsync(() -> {
+            long start = nanoTime();
+            try {
+                KeyPair keyPair = loader.get();
+                long duration = NANOSECONDS.toMillis(nanoTime() - start);
+                LOG.info(() -> format("Loaded %s key pair in %d ms.", name, duration));
+                return keyPair;
+            } catch (RuntimeException e) {
+                LOG.severe(() -> format("Cannot load %s key pair: %s", name, e.getMessage()));
+                LOG.log(FINER, e.getMessage(), e);
+                throw e;
+            }
+        }, executor);
+    }
+
+    /**
+     * Waits for a key pair or any value derived from a key pair.
+     * @param <T> the value type
+     * @param future the future value
+     * @return the value
+     * @throws RuntimeException the exception raised by the key pair loader if the key pair cannot be loaded
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                // Raise the exception of the loader.
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RsaException("Cannot load RSA key pair", e);
+        }
+    }
+
+    private RsaKeyPairLoader() {
+        // No instances allowed.
+    }
+
+}
@@ -0,0 +1,52 @@
+package io.leitstand.security.rsa;
+
+import static io.leitstand.security.rsa.RsaKeyPairLoader.await;
+import static io.leitstand.security.rsa.RsaKeyPairLoader.loadRsaKeyPair;
+import static io.leitstand.security.rsa.RsaKeys.generateRsaKeyPair;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.rules.ExpectedException.none;
+
+import java.security.KeyPair;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class RsaKeyPairLoaderTest {
+
+    @Rule
+    public ExpectedException exception = none();
+    
+    private ExecutorService executor = newFixedThreadPool(2);
+    
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void load_key_pairs_concurrently() {
+        CompletableFuture<KeyPair> api = loadRsaKeyPair("api.pem", () -> generateRsaKeyPair(2048), executor);
+        CompletableFuture<KeyPair> login = loadRsaKeyPair("login.pem", () -> generateRsaKeyPair(2048), executor);
+        
+        assertNotNull(await(api));
+        assertNotNull(await(login));
+        assertNotSame(await(api), await(login));
+    }
+    
+    @Test
+    public void raise_loader_exception_when_awaiting_key_pair() {
+        exception.expect(RsaException.class);
+        exception.expectMessage("Malformed PEM file");
+        CompletableFuture<KeyPair> pair = loadRsaKeyPair("api.pem", 
+                                                         () -> { throw new RsaException("Malformed PEM file"); }, 
+                                                         executor);
+        await(pair);
+    }
+    
+}
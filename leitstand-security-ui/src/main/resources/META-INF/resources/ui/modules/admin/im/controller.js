@@ -51,13 +51,22 @@ const usersController = function() {
 	const users = new Users();
 	return new Controller({
 		resource:users,
-		viewModel:function(users){
-			return {'users':users,
-					'filter':this.location.param('filter')};
+		viewModel:function(page){
+			return {'users':page.users,
+					'filter':this.location.param('filter'),
+					'cursor':this.location.param('cursor'),
+					'next':page.next};
 		},
 		buttons:{
 			'filter':function(){
 				this.reload({'filter':this.getViewModel('filter')});
+			},
+			'first':function(){
+				this.reload({'filter':this.getViewModel('filter')});
+			},
+			'next':function(){
+				this.reload({'filter':this.getViewModel('filter'),
+							 'cursor':this.getViewModel('next')});
 			}
 		}
 	});
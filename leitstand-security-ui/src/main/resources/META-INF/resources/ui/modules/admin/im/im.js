@@ -23,7 +23,7 @@ export class Users extends Resource {
 	}
 	
 	load(params) {
-		return this.json("/api/v1/users?filter={{&filter}}",
+		return this.json("/api/v1/users?filter={{&filter}}&limit=100&cursor={{&cursor}}",
 						 this._cfg,
 						 params)
 				   .GET();
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.event;
+
+import static io.leitstand.commons.model.BuilderUtil.assertNotInvalidated;
+import static io.leitstand.security.users.event.RoleEvent.Type.REMOVED;
+
+import io.leitstand.commons.model.CompositeValue;
+import io.leitstand.security.users.service.RoleId;
+import io.leitstand.security.users.service.RoleName;
+
+/**
+ * RoleEvent reports when a role got created, modified or has been removed.
+ */
+public class RoleEvent extends CompositeValue {
+
+	public enum Type {
+		MODIFIED,
+		REMOVED
+	}
+	
+	/**
+	 * Returns a builder for an immutable <code>RoleEvent</code>.
+	 * @return a <code>RoleEvent</code> builder.
+	 */
+	public static Builder newRoleEvent() {
+		return new Builder();
+	}
+	
+	public static class Builder {
+		
+		private RoleEvent event = new RoleEvent();
+		
+		/**
+		 * Sets the role ID.
+		 * @param roleId the role ID
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withRoleId(RoleId roleId) {
+			assertNotInvalidated(getClass(), event);
+			event.roleId = roleId;
+			return this;
+		}
+		
+		/**
+		 * Sets the role name the role was known by before the modification.
+		 * @param roleName the role name
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withRoleName(RoleName roleName) {
+			assertNotInvalidated(getClass(), event);
+			event.roleName = roleName;
+			return this;
+		}
+		
+		/**
+		 * Sets the event type representing whether the role has been stored or removed.
+		 * @param type the event type
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withType(Type type) {
+			assertNotInvalidated(getClass(), event);
+			event.type = type;
+			return this;
+		}
+		
+		/**
+		 * Creates an immutable <code>RoleEvent</code> and invalidates this builder.
+		 * Subsequent calls of the <code>build()</code> method raise an exception.
+		 * @return the immutable <code>RoleEvent</code>.
+		 */
+		public RoleEvent build() {
+			try {
+				assertNotInvalidated(getClass(), event);
+				return event;
+			} finally {
+				this.event = null;
+			}
+		}
+	}
+	
+	private RoleId roleId;
+	private RoleName roleName;
+	private Type type;
+	
+	/**
+	 * Returns the role ID.
+	 * @return the role ID.
+	 */
+	public RoleId getRoleId() {
+		return roleId;
+	}
+	
+	/**
+	 * Returns the role name the role was known by before the modification.
+	 * @return the role name.
+	 */
+	public RoleName getRoleName() {
+		return roleName;
+	}
+	
+	/**
+	 * Returns the event type.
+	 * @return the event type.
+	 */
+	public Type getType() {
+		return type;
+	}
+	
+	/**
+	 * Returns whether the role has been removed.
+	 * @return <code>true</code> if the role has been removed, <code>false</code> if not.
+	 */
+	public boolean isRemoved() {
+		return type == REMOVED;
+	}
+	
+}
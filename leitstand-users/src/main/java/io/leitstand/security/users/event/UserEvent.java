@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.event;
+
+import static io.leitstand.commons.model.BuilderUtil.assertNotInvalidated;
+import static io.leitstand.security.users.event.UserEvent.Type.REMOVED;
+
+import io.leitstand.commons.model.CompositeValue;
+import io.leitstand.security.auth.UserName;
+import io.leitstand.security.users.service.UserId;
+
+/**
+ * UserEvent reports when a user got modified or has been removed.
+ */
+public class UserEvent extends CompositeValue {
+
+	public enum Type {
+		MODIFIED,
+		REMOVED
+	}
+	
+	/**
+	 * Returns a builder for an immutable <code>UserEvent</code>.
+	 * @return a <code>UserEvent</code> builder.
+	 */
+	public static Builder newUserEvent() {
+		return new Builder();
+	}
+	
+	public static class Builder {
+		
+		private UserEvent event = new UserEvent();
+		
+		/**
+		 * Sets the user ID.
+		 * @param userId the user ID
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withUserId(UserId userId) {
+			assertNotInvalidated(getClass(), event);
+			event.userId = userId;
+			return this;
+		}
+		
+		/**
+		 * Sets the user name the user was known by before the modification.
+		 * @param userName the user name
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withUserName(UserName userName) {
+			assertNotInvalidated(getClass(), event);
+			event.userName = userName;
+			return this;
+		}
+		
+		/**
+		 * Sets the event type representing whether the user has been modified or removed.
+		 * @param type the event type
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withType(Type type) {
+			assertNotInvalidated(getClass(), event);
+			event.type = type;
+			return this;
+		}
+		
+		/**
+		 * Creates an immutable <code>UserEvent</code> and invalidates this builder.
+		 * Subsequent calls of the <code>build()</code> method raise an exception.
+		 * @return the immutable <code>UserEvent</code>.
+		 */
+		public UserEvent build() {
+			try {
+				assertNotInvalidated(getClass(), event);
+				return event;
+			} finally {
+				this.event = null;
+			}
+		}
+	}
+	
+	private UserId userId;
+	private UserName userName;
+	private Type type;
+	
+	/**
+	 * Returns the user ID.
+	 * @return the user ID.
+	 */
+	public UserId getUserId() {
+		return userId;
+	}
+	
+	/**
+	 * Returns the user name the user was known by before the modification.
+	 * @return the user name.
+	 */
+	public UserName getUserName() {
+		return userName;
+	}
+	
+	/**
+	 * Returns the event type.
+	 * @return the event type.
+	 */
+	public Type getType() {
+		return type;
+	}
+	
+	/**
+	 * Returns whether the user has been removed.
+	 * @return <code>true</code> if the user has been removed, <code>false</code> if not.
+	 */
+	public boolean isRemoved() {
+		return type == REMOVED;
+	}
+	
+}
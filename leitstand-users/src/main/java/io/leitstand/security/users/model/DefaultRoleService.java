@@ -16,7 +16,9 @@
 package io.leitstand.security.users.model;
 
 import static io.leitstand.commons.messages.MessageFactory.createMessage;
-import static io.leitstand.security.users.model.Role.findAllRoles;
+import static io.leitstand.security.users.event.RoleEvent.newRoleEvent;
+import static io.leitstand.security.users.event.RoleEvent.Type.MODIFIED;
+import static io.leitstand.security.users.event.RoleEvent.Type.REMOVED;
 import static io.leitstand.security.users.model.Role.findRoleById;
 import static io.leitstand.security.users.model.Role.findRoleByName;
 import static io.leitstand.security.users.service.ReasonCode.IDM0006E_ROLE_NOT_FOUND;
@@ -25,14 +27,13 @@ import static io.leitstand.security.users.service.ReasonCode.IDM0011I_ROLE_STORE
 import static io.leitstand.security.users.service.ReasonCode.IDM0100E_CANNOT_ADD_SYSTEM_ROLE;
 import static io.leitstand.security.users.service.ReasonCode.IDM0101E_CANNOT_UPDATE_SYSTEM_ROLE;
 import static io.leitstand.security.users.service.ReasonCode.IDM0102E_CANNOT_REMOVE_SYSTEM_ROLE;
-import static io.leitstand.security.users.service.RoleSettings.newRoleSettings;
 import static java.lang.String.format;
 import static java.util.logging.Logger.getLogger;
-import static java.util.stream.Collectors.toList;
 
 import java.util.List;
 import java.util.logging.Logger;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import io.leitstand.commons.ConflictException;
@@ -42,6 +43,7 @@ import io.leitstand.commons.messages.Messages;
 import io.leitstand.commons.model.Query;
 import io.leitstand.commons.model.Repository;
 import io.leitstand.commons.model.Service;
+import io.leitstand.security.users.event.RoleEvent;
 import io.leitstand.security.users.service.RoleId;
 import io.leitstand.security.users.service.RoleName;
 import io.leitstand.security.users.service.RoleService;
@@ -49,6 +51,9 @@ import io.leitstand.security.users.service.RoleSettings;
 
 /**
  * Default {@link RoleService} implementation.
+ * <p>
+ * Roles are read from the {@link RoleCatalog}. 
+ * Role modifications are written to the database and fire a {@link RoleEvent} to update the catalog once committed.
  */
 @Service
 public class DefaultRoleService implements RoleService {
@@ -60,15 +65,23 @@ public class DefaultRoleService implements RoleService {
 	
 	private Messages messages;
 	
+	private Event<RoleEvent> events;
+	
+	private RoleCatalog catalog;
 
 	protected DefaultRoleService() {
 		// CDI
 	}
 	
 	@Inject
-	protected DefaultRoleService(@IdentityManagement Repository repository, Messages messages){
+	protected DefaultRoleService(@IdentityManagement Repository repository, 
+								 Messages messages,
+								 Event<RoleEvent> events,
+								 RoleCatalog catalog){
 		this.repository = repository;
 		this.messages = messages;
+		this.events = events;
+		this.catalog = catalog;
 	}
 	
 	/**
@@ -76,15 +89,15 @@ public class DefaultRoleService implements RoleService {
 	 */
 	@Override
 	public List<RoleSettings> getRoles() {
-		return repository.execute(findAllRoles())
-						 .stream()
-						 .map(r -> newRoleSettings()
-								   .withRoleId(r.getRoleId())
-								   .withRoleName(r.getRoleName())
-								   .withDescription(r.getDescription())
-								   .withScopes(r.getScopes())
-								   .build())
-						 .collect(toList());
+		return catalog.getRoles();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRolesTag() {
+		return catalog.getTag();
 	}
 
 	@Override
@@ -114,6 +127,7 @@ public class DefaultRoleService implements RoleService {
 		}
 	
 		
+		fire(role, MODIFIED);
 		role.setRoleName(settings.getRoleName());
 		role.setDescription(settings.getDescription());
 		role.setScopes(settings.getScopes());
@@ -142,6 +156,7 @@ public class DefaultRoleService implements RoleService {
 			}
 			
 			repository.remove(role);
+			fire(role, REMOVED);
 			LOG.info(() -> format("%s: Removed role %s", 
 								  IDM0010I_ROLE_REMOVED.getReasonCode(),
 								  role.getRoleName())) ;
@@ -157,9 +172,9 @@ public class DefaultRoleService implements RoleService {
 
 	@Override
 	public RoleSettings getRole(RoleId roleId) {
-		Role role = repository.execute(findRoleById(roleId));
+		RoleSettings role = catalog.getRole(roleId);
 		if(role != null) {
-			return settingsOf(role);
+			return role;
 		}
 		LOG.fine(() -> format("%s: Role %s not found.",
 							 IDM0006E_ROLE_NOT_FOUND.getReasonCode(),
@@ -169,9 +184,9 @@ public class DefaultRoleService implements RoleService {
 
 	@Override
 	public RoleSettings getRole(RoleName roleName) {
-		Role role = repository.execute(findRoleByName(roleName));
+		RoleSettings role = catalog.getRole(roleName);
 		if(role != null) {
-			return settingsOf(role);
+			return role;
 		}
 		LOG.fine(() -> format("%s: Role %s not found.",
 							 IDM0006E_ROLE_NOT_FOUND.getReasonCode(),
@@ -179,15 +194,13 @@ public class DefaultRoleService implements RoleService {
 		throw new EntityNotFoundException(IDM0006E_ROLE_NOT_FOUND,roleName);
 	}
 	
-	private RoleSettings settingsOf(Role role) {
-		return newRoleSettings()
-			   .withRoleId(role.getRoleId())
-			   .withRoleName(role.getRoleName())
-			   .withDescription(role.getDescription())
-			   .withScopes(role.getScopes())
-			   .withSystemRole(role.isSystemRole())
-			   .build();
-		
+	private void fire(Role role, RoleEvent.Type type) {
+		// Report the role name before the role settings are applied.
+		events.fire(newRoleEvent()
+					.withRoleId(role.getRoleId())
+					.withRoleName(role.getRoleName())
+					.withType(type)
+					.build());
 	}
 	
 }
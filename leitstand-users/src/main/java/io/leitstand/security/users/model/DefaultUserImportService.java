@@ -0,0 +1,245 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.model;
+
+import static io.leitstand.security.users.model.UserImportRecord.parseUserRecord;
+import static io.leitstand.security.users.service.ReasonCode.IDM0013E_INVALID_USER_RECORD;
+import static io.leitstand.security.users.service.ReasonCode.IDM0015I_USERS_IMPORTED;
+import static io.leitstand.security.users.service.UserImportError.newUserImportError;
+import static io.leitstand.security.users.service.UserImportReport.newUserImportReport;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.ForkJoinPool.commonPool;
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Logger.getLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.json.JsonException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import io.leitstand.security.users.service.UserImportError;
+import io.leitstand.security.users.service.UserImportReport;
+import io.leitstand.security.users.service.UserImportService;
+import io.leitstand.security.users.service.UserSubmission;
+
+/**
+ * Default {@link UserImportService} implementation.
+ * <p>
+ * The import reads the input stream line by line and processes the records in batches of {@value #BATCH_SIZE} records.
+ * Every record is validated by the bean validation constraints of the {@link UserSubmission} before it is added to a batch.
+ * The password hashes of a batch are computed concurrently. 
+ * A record is rejected if its password hash cannot be computed.
+ * Afterwards the batch is added in a single transaction.
+ * If the transaction fails, the records of the batch are added one by one to report the failing records.
+ * Only a single batch is kept in memory and at most {@value #MAX_REPORTED_ERRORS} errors are reported.
+ */
+@ApplicationScoped
+public class DefaultUserImportService implements UserImportService {
+
+	private static final Logger LOG = getLogger(DefaultUserImportService.class.getName());
+	
+	static final int BATCH_SIZE = 500;
+	static final int MAX_REPORTED_ERRORS = 1000;
+	
+	private UserImportBatch batch;
+	
+	private PasswordService hashing;
+	
+	private Validator validator;
+	
+	@Resource
+	private ManagedExecutorService executor;
+	
+	protected DefaultUserImportService() {
+		// CDI
+	}
+	
+	@Inject
+	protected DefaultUserImportService(UserImportBatch batch, 
+									   PasswordService hashing,
+									   Validator validator) {
+		this.batch = batch;
+		this.hashing = hashing;
+		this.validator = validator;
+	}
+	
+	private final class Import {
+		private final List<UserImportError> errors = new ArrayList<>();
+		private long imported;
+		private long rejected;
+		
+		void reject(UserImportError error) {
+			rejected++;
+			if(errors.size() < MAX_REPORTED_ERRORS) {
+				errors.add(error);
+			}
+		}
+		
+		void addUsers(List<UserImportRecord> batchRecords) {
+			List<UserImportRecord> records = hashPasswords(batchRecords);
+			if(records.isEmpty()) {
+				return;
+			}
+			try {
+				List<UserImportError> batchErrors = batch.addUsers(records);
+				imported += records.size() - batchErrors.size();
+				batchErrors.forEach(this::reject);
+			} catch (RuntimeException e) {
+				LOG.fine(() -> format("Cannot add user batch with %d records: %s. Add records one by one.", 
+									  records.size(), 
+									  e.getMessage()));
+				for(UserImportRecord record : records) {
+					addUser(record);
+				}
+			}
+		}
+		
+		private List<UserImportRecord> hashPasswords(List<UserImportRecord> records) {
+			Executor hasher = executor != null ? executor : commonPool();
+			List<CompletableFuture<?>> hashes = new ArrayList<>(records.size());
+			for(UserImportRecord record : records) {
+				hashes.add(runAsync(() -> record.hashPassword(hashing), hasher));
+			}
+			// Reject records with a failing password hash, but import all other records of the batch.
+			List<UserImportRecord> hashed = new ArrayList<>(records.size());
+			for(int i=0; i < records.size(); i++) {
+				UserImportRecord record = records.get(i);
+				try {
+					hashes.get(i).join();
+					hashed.add(record);
+				} catch (CompletionException e) {
+					Throwable cause = e.getCause() != null ? e.getCause() : e;
+					LOG.log(FINER, cause.getMessage(), cause);
+					reject(newUserImportError()
+						   .withLine(record.getLine())
+						   .withUserName(record.getUser().getUserName())
+						   .withReason(IDM0013E_INVALID_USER_RECORD, record.getLine(), cause.getMessage())
+						   .build());
+				}
+			}
+			return hashed;
+		}
+		
+		private void addUser(UserImportRecord record) {
+			try {
+				List<UserImportError> recordErrors = batch.addUsers(singletonList(record));
+				if(recordErrors.isEmpty()) {
+					imported++;
+				}
+				recordErrors.forEach(this::reject);
+			} catch (RuntimeException e) {
+				LOG.log(FINER, e.getMessage(), e);
+				reject(newUserImportError()
+					   .withLine(record.getLine())
+					   .withUserName(record.getUser().getUserName())
+					   .withReason(IDM0013E_INVALID_USER_RECORD, record.getLine(), e.getMessage())
+					   .build());
+			}
+		}
+		
+		UserImportReport report() {
+			return newUserImportReport()
+				   .withImported(imported)
+				   .withRejected(rejected)
+				   .withErrors(errors)
+				   .build();
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public UserImportReport importUsers(InputStream ndjson) {
+		Import users = new Import();
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, UTF_8))){
+			List<UserImportRecord> records = new ArrayList<>(BATCH_SIZE);
+			long line = 0;
+			for(String json = reader.readLine(); json != null; json = reader.readLine()) {
+				line++;
+				if(json.trim().isEmpty()) {
+					continue;
+				}
+				try {
+					UserImportRecord record = parseUserRecord(line, json);
+					Set<ConstraintViolation<UserSubmission>> violations = validator.validate(record.getUser());
+					if(violations.isEmpty()) {
+						records.add(record);
+					} else {
+						users.reject(newUserImportError()
+									 .withLine(line)
+									 .withUserName(record.getUser().getUserName())
+									 .withReason(IDM0013E_INVALID_USER_RECORD, line, violations(violations))
+									 .build());
+					}
+				} catch (IllegalArgumentException | JsonException e) {
+					users.reject(newUserImportError()
+								 .withLine(line)
+								 .withReason(IDM0013E_INVALID_USER_RECORD, line, e.getMessage())
+								 .build());
+				}
+				if(records.size() == BATCH_SIZE) {
+					users.addUsers(records);
+					records = new ArrayList<>(BATCH_SIZE);
+				}
+			}
+			if(!records.isEmpty()) {
+				users.addUsers(records);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		UserImportReport report = users.report();
+		LOG.info(() -> format("%s: %d users imported, %d records rejected.",
+							  IDM0015I_USERS_IMPORTED.getReasonCode(),
+							  report.getImported(),
+							  report.getRejected()));
+		return report;
+	}
+	
+	private static String violations(Set<ConstraintViolation<UserSubmission>> violations) {
+		StringBuilder messages = new StringBuilder();
+		for(ConstraintViolation<UserSubmission> violation : violations) {
+			if(messages.length() > 0) {
+				messages.append(", ");
+			}
+			messages.append(violation.getPropertyPath())
+					.append(": ")
+					.append(violation.getMessage());
+		}
+		return messages.toString();
+	}
+	
+}
@@ -18,11 +18,19 @@ package io.leitstand.security.users.model;
 import static io.leitstand.commons.db.DatabaseService.prepare;
 import static io.leitstand.commons.messages.MessageFactory.createMessage;
 import static io.leitstand.commons.model.StringUtil.isEmptyString;
+import static io.leitstand.commons.model.StringUtil.isNonEmptyString;
 import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.auth.jdbc.QueryStream.streamQuery;
+import static io.leitstand.security.users.event.UserEvent.newUserEvent;
+import static io.leitstand.security.users.event.UserEvent.Type.MODIFIED;
+import static io.leitstand.security.users.event.UserEvent.Type.REMOVED;
 import static io.leitstand.security.users.model.PasswordService.ITERATIONS;
-import static io.leitstand.security.users.model.Role.findRoleByName;
+import static io.leitstand.security.users.model.Role.findRolesByNames;
 import static io.leitstand.security.users.model.User.findUserById;
 import static io.leitstand.security.users.model.User.findUserByName;
+import static io.leitstand.security.users.model.User.findUserWithRolesById;
+import static io.leitstand.security.users.model.User.findUserWithRolesByName;
+import static io.leitstand.security.users.model.UserCursor.cursorOf;
 import static io.leitstand.security.users.service.EmailAddress.emailAddress;
 import static io.leitstand.security.users.service.ReasonCode.IDM0001I_USER_STORED;
 import static io.leitstand.security.users.service.ReasonCode.IDM0002I_PASSWORD_RESET;
@@ -34,20 +42,33 @@ import static io.leitstand.security.users.service.ReasonCode.IDM0007E_ADMIN_PRIV
 import static io.leitstand.security.users.service.ReasonCode.IDM0008E_PASSWORD_MISMATCH;
 import static io.leitstand.security.users.service.ReasonCode.IDM0009I_USER_REMOVED;
 import static io.leitstand.security.users.service.UserId.userId;
+import static io.leitstand.security.users.service.UserPage.newUserPage;
 import static io.leitstand.security.users.service.UserReference.newUserReference;
 import static io.leitstand.security.users.service.UserSettings.newUserSettings;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.joining;
 import static java.util.logging.Level.FINER;
 import static java.util.logging.Logger.getLogger;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.security.enterprise.credential.Password;
+import javax.sql.DataSource;
 
 import io.leitstand.commons.AccessDeniedException;
 import io.leitstand.commons.EntityNotFoundException;
@@ -58,8 +79,10 @@ import io.leitstand.commons.model.Repository;
 import io.leitstand.commons.model.Service;
 import io.leitstand.security.auth.UserContext;
 import io.leitstand.security.auth.UserName;
+import io.leitstand.security.users.event.UserEvent;
 import io.leitstand.security.users.service.RoleName;
 import io.leitstand.security.users.service.UserId;
+import io.leitstand.security.users.service.UserPage;
 import io.leitstand.security.users.service.UserReference;
 import io.leitstand.security.users.service.UserService;
 import io.leitstand.security.users.service.UserSettings;
@@ -72,6 +95,10 @@ import io.leitstand.security.users.service.UserSubmission;
 public class DefaultUserService implements UserService {
 
 	private static final String ADM_SCOPE = "adm";
+	
+	static final int MAX_PAGE_SIZE = 1000;
+	static final int MAX_SEARCH_RESULTS = 100;
+	static final int FETCH_SIZE = 500;
 
 	private static final Logger LOG = getLogger(DefaultUserService.class.getName());
 	
@@ -79,12 +106,18 @@ public class DefaultUserService implements UserService {
 	
 	private DatabaseService db;
 	
+	private DataSource ds;
+	
 	private Messages messages;
 	
 	private PasswordService hashing;
 	
 	private UserContext context;
 	
+	private Event<UserEvent> events;
+	
+	private RoleCatalog catalog;
+	
 	
 	protected DefaultUserService() {
 		// CDI constructor
@@ -93,14 +126,20 @@ public class DefaultUserService implements UserService {
 	@Inject
 	protected DefaultUserService(@IdentityManagement Repository repository,
 								 @IdentityManagement DatabaseService db,
+								 @IdentityManagement DataSource ds,
 								 PasswordService hashing,
 								 Messages messages,
-								 UserContext context) {
+								 UserContext context,
+								 Event<UserEvent> events,
+								 RoleCatalog catalog) {
 		this.repository = repository;
 		this.db = db;
+		this.ds = ds;
 		this.messages = messages;
 		this.hashing = hashing;
 		this.context = context;
+		this.events = events;
+		this.catalog = catalog;
 		
 	}
 	
@@ -109,30 +148,113 @@ public class DefaultUserService implements UserService {
 	 */
 	@Override
 	public List<UserReference> findUsers(String filter) {
-		
+		List<UserReference> users = new LinkedList<>();
+		findUsers(filter, users::add);
+		return users;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void findUsers(String filter, Consumer<UserReference> users) {
+		// Pass the users to the consumer while iterating over the result set.
 		if(isEmptyString(filter)) {
-			return db.executeQuery(prepare("SELECT uuid, name, email, givenname, familyname, salt64 FROM auth.userdata ORDER BY familyname,givenname,name"), 
-						    	   rs -> newUserReference()
-						    	   		 .withUserId(userId(rs.getString(1)))
-						    	   		 .withUserName(userName(rs.getString(2)))
-						    	   		 .withEmailAddress(emailAddress(rs.getString(3)))
-						    	   		 .withGivenName(rs.getString(4))
-						    	   		 .withFamilyName(rs.getString(5))
-						    	   		 .withOidcOnly(rs.getString(6) == null)
-						    	   		 .build());
+			streamQuery(ds, 
+						FETCH_SIZE,
+						"SELECT uuid, name, email, givenname, familyname, salt64 FROM auth.userdata ORDER BY familyname,givenname,name", 
+						DefaultUserService::userReference,
+						users);
+			return;
 		}
 
-		return db.executeQuery(prepare("SELECT uuid, name, email, givenname, familyname, salt64 FROM auth.userdata WHERE (familyname ~ ? OR name ~ ? ) ORDER BY familyname,givenname,name",
-									   filter,
-									   filter), 
-					    	   rs -> newUserReference()
-					    	   		 .withUserId(userId(rs.getString(1)))
-					    	   		 .withUserName(userName(rs.getString(2)))
-					    	   		 .withEmailAddress(emailAddress(rs.getString(3)))
-					    	   		 .withGivenName(rs.getString(4))
-					    	   		 .withFamilyName(rs.getString(5))
-					    	   		 .withOidcOnly(rs.getString(6) == null)
-					    	   		 .build());
+		streamQuery(ds,
+					FETCH_SIZE,
+					"SELECT uuid, name, email, givenname, familyname, salt64 FROM auth.userdata WHERE (familyname ~ ? OR name ~ ? ) ORDER BY familyname,givenname,name",
+					DefaultUserService::userReference,
+					users,
+					filter,
+					filter);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public UserPage findUsers(String filter, 
+							  String cursor, 
+							  int limit, 
+							  boolean total) {
+		int pageSize = max(1, min(limit, MAX_PAGE_SIZE));
+		StringBuilder where = new StringBuilder();
+		List<Object> params = new ArrayList<>();
+		UserSearchTerm term = UserSearchTerm.parse(filter);
+		if(term != null) {
+			term.appendPredicate(where, params);
+		}
+		
+		Long count = null;
+		if(total) {
+			count = db.getSingleResult(prepare("SELECT count(*) FROM auth.userdata"+where, 
+											   params.toArray()), 
+									   rs -> rs.getLong(1));
+		}
+		
+		if(isNonEmptyString(cursor)) {
+			// Keyset pagination: Continue after the last user of the previous page.
+			UserCursor position = UserCursor.decode(cursor);
+			where.append(where.length() == 0 ? " WHERE " : " AND ");
+			where.append("(coalesce(familyname,''), coalesce(givenname,''), name) > (?, ?, ?)");
+			params.add(position.getFamilyName());
+			params.add(position.getGivenName());
+			params.add(position.getUserName());
+		}
+		// Read one additional user to detect whether a next page exists.
+		params.add(pageSize+1);
+		List<UserReference> users = db.executeQuery(prepare("SELECT uuid, name, email, givenname, familyname, salt64 FROM auth.userdata"+where+" ORDER BY coalesce(familyname,''), coalesce(givenname,''), name LIMIT ?",
+															params.toArray()),
+													DefaultUserService::userReference);
+		String next = null;
+		if(users.size() > pageSize) {
+			users = users.subList(0, pageSize);
+			next = cursorOf(users.get(pageSize-1)).encode();
+		}
+		return newUserPage()
+			   .withUsers(users)
+			   .withNext(next)
+			   .withTotal(count)
+			   .build();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<UserReference> searchUsers(String query, int limit) {
+		UserSearchTerm term = UserSearchTerm.parse(query);
+		if(term == null) {
+			return emptyList();
+		}
+		StringBuilder where = new StringBuilder();
+		List<Object> params = new ArrayList<>();
+		term.appendPredicate(where, params);
+		StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+		term.appendRank(orderBy, params);
+		params.add(max(1, min(limit, MAX_SEARCH_RESULTS)));
+		return db.executeQuery(prepare("SELECT uuid, name, email, givenname, familyname, salt64 FROM auth.userdata"+where+orderBy+", coalesce(familyname,''), coalesce(givenname,''), name LIMIT ?", 
+									   params.toArray()), 
+							   DefaultUserService::userReference);
+	}
+	
+	private static UserReference userReference(ResultSet rs) throws SQLException {
+		return newUserReference()
+			   .withUserId(userId(rs.getString(1)))
+			   .withUserName(userName(rs.getString(2)))
+			   .withEmailAddress(emailAddress(rs.getString(3)))
+			   .withGivenName(rs.getString(4))
+			   .withFamilyName(rs.getString(5))
+			   .withOidcOnly(rs.getString(6) == null)
+			   .build();
 	}
 
 	/**
@@ -142,6 +264,7 @@ public class DefaultUserService implements UserService {
 	public void storeUserSettings(UserSettings settings) {
 		User user = findUser(settings.getUserId());
 		if(context.scopesIncludeOneOf(ADM_SCOPE) || context.getUserName().equals(user.getUserName())) {
+			fire(user, MODIFIED);
 			user.setUserName(settings.getUserName());
 			user.setGivenName(settings.getGivenName());
 			user.setFamilyName(settings.getFamilyName());
@@ -184,13 +307,28 @@ public class DefaultUserService implements UserService {
 	 */
 	@Override
 	public UserSettings getUser(UserName userName) {
-		User user = findUser(userName);
+		// Fetch user and roles at once. Role scopes are read from the role catalog.
+		User user = repository.execute(findUserWithRolesByName(userName));
+		if(user == null) {
+			LOG.fine(()->format("%s: User %s does not exist.",
+								IDM0004E_USER_NOT_FOUND.getReasonCode(),
+								userName));
+			throw new EntityNotFoundException(IDM0004E_USER_NOT_FOUND, 
+											  userName);
+		}
 		return settingsOf(user);
 	}
 	
 	@Override
 	public UserSettings getUser(UserId userId) {
-		User user = findUser(userId);
+		User user = repository.execute(findUserWithRolesById(userId));
+		if(user == null) {
+			LOG.fine(()->format("%s: User %s not found.",
+								IDM0004E_USER_NOT_FOUND.getReasonCode(),
+								userId));
+			throw new EntityNotFoundException(IDM0004E_USER_NOT_FOUND, 
+											  userId);
+		}
 		return settingsOf(user);
 	}
 
@@ -204,7 +342,7 @@ public class DefaultUserService implements UserService {
 			   .withDateCreated(user.getDateCreated())
 			   .withDateModified(user.getDateModified())
 			   .withRoles(user.getRoles(Role::getRoleName))
-			   .withScopes(user.getScopes())
+			   .withScopes(catalog.getEffectiveScopes(user.getRoles(Role::getRoleId)))
 			   .withAccessTokenTtl(user.getTokenTtl(),user.getTokenTtlUnit())
 			   .withOidcOnly(user.getPasswordHash() == null)
 			   .build();
@@ -429,14 +567,25 @@ public class DefaultUserService implements UserService {
 	}
 
 	private List<Role> loadRoles(Collection<RoleName> roleNames) {
-		List<Role> roles = new LinkedList<>();
-		for(RoleName roleName : roleNames) {
-			Role role = repository.execute(findRoleByName(roleName));
-			if(role == null) {
+		if(roleNames.isEmpty()) {
+			return new LinkedList<>();
+		}
+		List<Role> roles = repository.execute(findRolesByNames(roleNames));
+		if(roles.size() < roleNames.size()) {
+			Set<RoleName> missing = new TreeSet<>(roleNames);
+			for(Role role : roles) {
+				missing.remove(role.getRoleName());
+			}
+			if(!missing.isEmpty()) {
+				String missingRoles = missing.stream()
+											 .map(RoleName::toString)
+											 .collect(joining(", "));
+				LOG.fine(() -> format("%s: Roles %s not found.", 
+									  IDM0006E_ROLE_NOT_FOUND.getReasonCode(),
+									  missingRoles));
 				throw new EntityNotFoundException(IDM0006E_ROLE_NOT_FOUND,
-												  roleName);
+												  missingRoles);
 			}
-			roles.add(role);
 		}
 		return roles;
 	}
@@ -458,6 +607,7 @@ public class DefaultUserService implements UserService {
 
 	private void removeUser(User user) {
 		repository.remove(user);
+		fire(user, REMOVED);
 		LOG.fine(()->format("%s: Removed user %s (%s).", 
 							IDM0009I_USER_REMOVED.getReasonCode(),
 							user.getUserName(),
@@ -466,5 +616,14 @@ public class DefaultUserService implements UserService {
 								   user.getUserName(),
 								   user.getUserId()));
 	}
+	
+	private void fire(User user, UserEvent.Type type) {
+		// Report the user name before the user settings are applied.
+		events.fire(newUserEvent()
+					.withUserId(user.getUserId())
+					.withUserName(user.getUserName())
+					.withType(type)
+					.build());
+	}
 
 }
@@ -43,4 +43,14 @@ public class IdentityManagementDatabaseServiceProducer {
 		return new DatabaseService(ds);
 	}
 	
+	/**
+	 * Makes the data source of the identity management module available to stream large query results.
+	 * @return the identity management data source.
+	 */
+	@Produces
+	@IdentityManagement
+	public DataSource identityManagementDataSource() {
+		return ds;
+	}
+	
 }
@@ -15,9 +15,11 @@
  */
 package io.leitstand.security.users.model;
 
+import static io.leitstand.security.auth.scope.ScopeTrie.compile;
+import static io.leitstand.security.auth.scope.ScopeTrie.normalize;
 import static io.leitstand.security.users.service.RoleId.roleId;
-import static java.util.Collections.unmodifiableSet;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -31,10 +33,12 @@ import javax.persistence.JoinColumn;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 
 import io.leitstand.commons.jpa.BooleanConverter;
 import io.leitstand.commons.model.Query;
 import io.leitstand.commons.model.VersionableEntity;
+import io.leitstand.security.auth.scope.ScopeTrie;
 import io.leitstand.security.users.jpa.RoleNameConverter;
 import io.leitstand.security.users.service.RoleId;
 import io.leitstand.security.users.service.RoleName;
@@ -57,10 +61,14 @@ import io.leitstand.security.users.service.RoleName;
 @NamedQueries({
 @NamedQuery(name="Role.findByName", 
 	 		query="SELECT r FROM Role r WHERE r.name=:name"),
+@NamedQuery(name="Role.findByNames", 
+			query="SELECT r FROM Role r WHERE r.name IN :names"),
 @NamedQuery(name="Role.findById", 
 			query="SELECT r FROM Role r WHERE r.uuid=:uuid"),
 @NamedQuery(name="Role.findAll",
-			query="SELECT r FROM Role r ORDER BY r.name ASC")})
+			query="SELECT r FROM Role r ORDER BY r.name ASC"),
+@NamedQuery(name="Role.findAllWithScopes",
+			query="SELECT DISTINCT r FROM Role r LEFT JOIN FETCH r.scopes ORDER BY r.name ASC")})
 public class Role extends VersionableEntity implements Comparable<Role>{
 
 	private static final long serialVersionUID = 1L;
@@ -88,6 +96,18 @@ public class Role extends VersionableEntity implements Comparable<Role>{
 					   .getSingleResult();
 	}
 	
+	/**
+	 * Returns a query to fetch all roles with the given names by a single statement.
+	 * Role names that do not exist are ignored.
+	 * @param roles the role names
+	 * @return a query to fetch the existing roles with the given names.
+	 */
+	public static Query<List<Role>> findRolesByNames(Collection<RoleName> roles) {
+		return em -> em.createNamedQuery("Role.findByNames",Role.class)
+					   .setParameter("names",roles)
+					   .getResultList();
+	}
+	
 	/**
 	 * Returns a query to fetch all existing roles.
 	 * @return a query to fetch all existing roles.
@@ -97,6 +117,15 @@ public class Role extends VersionableEntity implements Comparable<Role>{
 					   .getResultList();
 	}
 
+	/**
+	 * Returns a query to fetch all existing roles including their scopes.
+	 * @return a query to fetch all existing roles and their scopes with a single query.
+	 */
+	public static Query<List<Role>> findAllRolesWithScopes(){
+		return em -> em.createNamedQuery("Role.findAllWithScopes", Role.class)
+					   .getResultList();
+	}
+
 	@Convert(converter = RoleNameConverter.class)
 	@Column(unique=true)
 	private RoleName name;
@@ -109,6 +138,8 @@ public class Role extends VersionableEntity implements Comparable<Role>{
 	private Set<String> scopes;
 	@Convert(converter=BooleanConverter.class)
 	private boolean system;
+	@Transient
+	private transient ScopeTrie grants;
 	
 	/**
 	 * JPA constructor.
@@ -175,27 +206,33 @@ public class Role extends VersionableEntity implements Comparable<Role>{
 	
 	/**
 	 * Returns the scopes this role can access.
+	 * Scopes covered by a wildcard grant of this role are omitted, 
+	 * i.e. a role granting <code>adm.*</code> and <code>adm.user</code> returns <code>adm.*</code> only.
 	 * @return the scopes this role can access.
 	 */
 	public Set<String> getScopes() {
-		return unmodifiableSet(scopes);
+		return normalize(scopes);
 	}
 	
 	/**
 	 * Sets the scopes this role can access.
-	 * @param scopes
+	 * @param scopes the scopes including wildcard grants like <code>adm.*</code>.
 	 */
 	public void setScopes(Set<String> scopes) {
 		this.scopes = new HashSet<>(scopes);
+		this.grants = null;
 	}
 
 	/**
 	 * Returns <code>true</code> if users in this role can access the specified scope.
 	 * @param scope the scope 
-	 * @return <code>true</code> if users in this role can accss the specified scope.
+	 * @return <code>true</code> if users in this role can access the specified scope either explicitly or by a wildcard grant.
 	 */
 	public boolean includesScope(String scope) {
-		return scopes.contains(scope);
+		if(grants == null) {
+			grants = compile(scopes);
+		}
+		return grants.matches(scope);
 	}
 	
 	/**
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.model;
+
+import static io.leitstand.security.auth.rs.EntityTags.entityTag;
+import static io.leitstand.security.auth.scope.ScopeTrie.normalize;
+import static io.leitstand.security.users.model.Role.findAllRolesWithScopes;
+import static io.leitstand.security.users.service.RoleSettings.newRoleSettings;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.Collections.emptySortedSet;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.logging.Logger.getLogger;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import io.leitstand.commons.model.Repository;
+import io.leitstand.security.users.event.RoleEvent;
+import io.leitstand.security.users.service.RoleId;
+import io.leitstand.security.users.service.RoleName;
+import io.leitstand.security.users.service.RoleSettings;
+
+/**
+ * The <code>RoleCatalog</code> is an immutable, in-memory snapshot of all roles and their scopes.
+ * <p>
+ * Roles are rarely modified but read on every login and every access token refresh.
+ * The catalog reads all roles including their scopes with a single query and
+ * computes the normalized scope set of every role once, 
+ * such that the effective scopes of a user can be computed from the user's role IDs without reading the role scopes from the database.
+ * <p>
+ * The catalog has a monotonic version, which is incremented whenever a role modification is committed on this node.
+ * A new snapshot is loaded on the next read access after a modification. 
+ * Role modifications committed on other nodes are not signaled by an event.
+ * Therefore a snapshot expires after 30 seconds and is revalidated by reading the roles from the database again,
+ * which bounds the time until a role modification on another node takes effect.
+ * The current snapshot is never modified but replaced by the new snapshot.
+ * Every snapshot has a content tag, which allows clients to detect role modifications without reading the roles.
+ */
+@ApplicationScoped
+public class RoleCatalog {
+
+	private static final Logger LOG = getLogger(RoleCatalog.class.getName());
+	
+	private static final class Snapshot {
+		private final long version;
+		private final long loaded;
+		private final List<RoleSettings> roles;
+		private final Map<RoleId,RoleSettings> rolesById;
+		private final Map<RoleName,RoleSettings> rolesByName;
+		private final String tag;
+		
+		private Snapshot(long version, long loaded, List<RoleSettings> roles) {
+			this.version = version;
+			this.loaded = loaded;
+			this.roles = unmodifiableList(roles);
+			Map<RoleId,RoleSettings> rolesById = new HashMap<>();
+			Map<RoleName,RoleSettings> rolesByName = new HashMap<>();
+			List<Object> properties = new ArrayList<>(5*roles.size());
+			for(RoleSettings role : roles) {
+				rolesById.put(role.getRoleId(), role);
+				rolesByName.put(role.getRoleName(), role);
+				properties.add(role.getRoleId());
+				properties.add(role.getRoleName());
+				properties.add(role.getDescription());
+				properties.add(role.getScopes());
+				properties.add(role.isSystemRole());
+			}
+			this.rolesById = unmodifiableMap(rolesById);
+			this.rolesByName = unmodifiableMap(rolesByName);
+			this.tag = entityTag(properties.toArray()).getValue();
+		}
+		
+		private boolean isValid(long currentVersion, long now, long maxAge) {
+			return version == currentVersion && now - loaded < maxAge;
+		}
+	}
+	
+	private static final long MAX_SNAPSHOT_AGE = SECONDS.toNanos(30);
+	
+	private Repository repository;
+	private final AtomicLong version = new AtomicLong();
+	private long maxSnapshotAge;
+	private volatile Snapshot snapshot;
+	
+	protected RoleCatalog() {
+		// CDI
+	}
+	
+	@Inject
+	protected RoleCatalog(@IdentityManagement Repository repository) {
+		this(repository, MAX_SNAPSHOT_AGE);
+	}
+	
+	/**
+	 * Creates a <code>RoleCatalog</code> with a custom snapshot expiry.
+	 * @param repository the identity management repository
+	 * @param maxSnapshotAge the maximum snapshot age in nanoseconds
+	 */
+	RoleCatalog(Repository repository, long maxSnapshotAge) {
+		this.repository = repository;
+		this.maxSnapshotAge = maxSnapshotAge;
+	}
+	
+	private Snapshot snapshot() {
+		Snapshot current = snapshot;
+		if(current != null && current.isValid(version.get(), nanoTime(), maxSnapshotAge)) {
+			return current;
+		}
+		return reload();
+	}
+	
+	private synchronized Snapshot reload() {
+		long loadedAt = nanoTime();
+		Snapshot current = snapshot;
+		if(current != null && current.isValid(version.get(), loadedAt, maxSnapshotAge)) {
+			// Reloaded by a concurrent request.
+			return current;
+		}
+		long loadedVersion = version.get();
+		List<RoleSettings> roles = new ArrayList<>();
+		for(Role role : repository.execute(findAllRolesWithScopes())) {
+			roles.add(newRoleSettings()
+					  .withRoleId(role.getRoleId())
+					  .withRoleName(role.getRoleName())
+					  .withDescription(role.getDescription())
+					  .withScopes(role.getScopes())
+					  .withSystemRole(role.isSystemRole())
+					  .build());
+		}
+		// A snapshot of an outdated version is discarded on the next read access.
+		Snapshot loaded = new Snapshot(loadedVersion, loadedAt, roles);
+		snapshot = loaded;
+		LOG.fine(() -> format("Loaded role catalog version %d with %d roles.", 
+							  loadedVersion, 
+							  loaded.roles.size()));
+		return loaded;
+	}
+	
+	/**
+	 * Returns the catalog version.
+	 * @return the catalog version.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+	
+	/**
+	 * Returns the content tag of all roles.
+	 * The tag is derived from the role settings and hence equal on all nodes with the same roles.
+	 * @return the content tag of all roles.
+	 */
+	public String getTag() {
+		return snapshot().tag;
+	}
+	
+	/**
+	 * Returns all roles ordered by role name.
+	 * @return all roles.
+	 */
+	public List<RoleSettings> getRoles(){
+		return snapshot().roles;
+	}
+	
+	/**
+	 * Returns the role with the given ID.
+	 * @param roleId the role ID
+	 * @return the role or <code>null</code> if the role does not exist.
+	 */
+	public RoleSettings getRole(RoleId roleId) {
+		return snapshot().rolesById.get(roleId);
+	}
+	
+	/**
+	 * Returns the role with the given name.
+	 * @param roleName the role name
+	 * @return the role or <code>null</code> if the role does not exist.
+	 */
+	public RoleSettings getRole(RoleName roleName) {
+		return snapshot().rolesByName.get(roleName);
+	}
+	
+	/**
+	 * Returns the effective scopes of the given roles.
+	 * Unknown roles are ignored.
+	 * @param roleIds the role IDs
+	 * @return the normalized union of the scopes of all given roles.
+	 */
+	public SortedSet<String> getEffectiveScopes(Collection<RoleId> roleIds) {
+		if(roleIds.isEmpty()) {
+			return emptySortedSet();
+		}
+		Snapshot catalog = snapshot();
+		if(roleIds.size() == 1) {
+			RoleSettings role = catalog.rolesById.get(roleIds.iterator().next());
+			return role != null ? role.getScopes() : emptySortedSet();
+		}
+		SortedSet<String> scopes = new TreeSet<>();
+		for(RoleId roleId : roleIds) {
+			RoleSettings role = catalog.rolesById.get(roleId);
+			if(role != null) {
+				scopes.addAll(role.getScopes());
+			}
+		}
+		return normalize(scopes);
+	}
+	
+	/**
+	 * Increments the catalog version when a role modification has been committed.
+	 * @param event the role event
+	 */
+	void roleModified(@Observes(during=AFTER_SUCCESS) RoleEvent event) {
+		long modified = version.incrementAndGet();
+		LOG.fine(() -> format("Role %s modified. Role catalog version %d outdated.", 
+							  event.getRoleName(), 
+							  modified-1));
+	}
+	
+}
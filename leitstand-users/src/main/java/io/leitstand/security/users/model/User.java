@@ -17,6 +17,7 @@ package io.leitstand.security.users.model;
 
 import static io.leitstand.commons.model.ByteArrayUtil.decodeBase64String;
 import static io.leitstand.commons.model.ByteArrayUtil.encodeBase64String;
+import static io.leitstand.security.auth.scope.ScopeTrie.normalize;
 import static io.leitstand.security.users.service.UserId.randomUserId;
 import static io.leitstand.security.users.service.UserId.userId;
 import static java.util.Collections.unmodifiableSet;
@@ -72,7 +73,13 @@ import io.leitstand.security.users.service.UserId;
 	@NamedQuery(name = "User.findUserById",
 			    query= "SELECT u FROM User u WHERE u.uuid=:uuid"),
 	@NamedQuery(name = "User.findUserByName",
-				query= "SELECT u FROM User u WHERE u.name=:name")
+				query= "SELECT u FROM User u WHERE u.name=:name"),
+	@NamedQuery(name = "User.findUserWithRolesById",
+				query= "SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.uuid=:uuid"),
+	@NamedQuery(name = "User.findUserWithRolesByName",
+				query= "SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.name=:name"),
+	@NamedQuery(name = "User.findUserNames",
+				query= "SELECT u.name FROM User u WHERE u.name IN :names")
 })
 public class User extends AbstractEntity {
 
@@ -101,6 +108,41 @@ public class User extends AbstractEntity {
 					   .getSingleResult();
 	}
 	
+	/**
+	 * Returns a query to search a user account by its UUID.
+	 * The query fetches the user account and all assigned roles with a single statement.
+	 * @param userId the user accounts UUID
+	 * @return the user account with its roles
+	 */
+	public static Query<User> findUserWithRolesById(UserId userId){
+		return em -> em.createNamedQuery("User.findUserWithRolesById",User.class)
+					   .setParameter("uuid",userId.toString())
+					   .getSingleResult();
+	}
+	
+	/**
+	 * Returns a query to search a user account by its user name.
+	 * The query fetches the user account and all assigned roles with a single statement.
+	 * @param userName the user name
+	 * @return the user account with its roles
+	 */
+	public static Query<User> findUserWithRolesByName(UserName userName){
+		return em -> em.createNamedQuery("User.findUserWithRolesByName",User.class)
+					   .setParameter("name",userName)
+					   .getSingleResult();
+	}
+	
+	/**
+	 * Returns a query to read which of the given user names are already in use.
+	 * @param userNames the user names
+	 * @return the user names in use
+	 */
+	public static Query<List<UserName>> findUserNames(Collection<UserName> userNames){
+		return em -> em.createNamedQuery("User.findUserNames",UserName.class)
+					   .setParameter("names",userNames)
+					   .getResultList();
+	}
+	
 	private String uuid;
 	
 	@Convert(converter=UserNameConverter.class)
@@ -372,12 +414,17 @@ public class User extends AbstractEntity {
 		this.tokenTtlUnit = unit;
 	}
 
+	/**
+	 * Returns the scopes of all roles of this user.
+	 * Scopes covered by a wildcard grant of another role are omitted.
+	 * @return the scopes this user can access.
+	 */
 	public Set<String> getScopes() {
 		Set<String> scopes = new TreeSet<>();
 		for(Role role : roles.values()) {
 			scopes.addAll(role.getScopes());
 		}
-		return unmodifiableSet(scopes);
+		return normalize(scopes);
 	}
 	
 	
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.model;
+
+import static io.leitstand.security.users.service.ReasonCode.IDM0012E_INVALID_CURSOR;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Base64.getUrlDecoder;
+import static java.util.Base64.getUrlEncoder;
+import static java.util.logging.Logger.getLogger;
+
+import java.util.logging.Logger;
+
+import io.leitstand.commons.UnprocessableEntityException;
+import io.leitstand.security.users.service.UserReference;
+
+/**
+ * The position of a user in the user list ordered by family name, given name and user name.
+ * <p>
+ * The cursor is exposed as opaque, URL-safe string. 
+ * Missing family and given names are represented as empty strings to be consistent with the sort order of the user list.
+ */
+final class UserCursor {
+
+	private static final Logger LOG = getLogger(UserCursor.class.getName());
+	private static final char SEPARATOR = '\0';
+	
+	/**
+	 * Returns the cursor pointing to the given user.
+	 * @param user the user
+	 * @return the cursor pointing to the given user.
+	 */
+	static UserCursor cursorOf(UserReference user) {
+		return new UserCursor(nonNull(user.getFamilyName()), 
+							  nonNull(user.getGivenName()), 
+							  user.getUserName().toString());
+	}
+	
+	/**
+	 * Decodes the given cursor.
+	 * @param cursor the encoded cursor
+	 * @return the decoded cursor
+	 * @throws UnprocessableEntityException if the cursor is malformed.
+	 */
+	static UserCursor decode(String cursor) {
+		try {
+			String position = new String(getUrlDecoder().decode(cursor), UTF_8);
+			int family = position.indexOf(SEPARATOR);
+			int given = position.indexOf(SEPARATOR, family+1);
+			if(family >= 0 && given > family && position.indexOf(SEPARATOR, given+1) < 0 && given+1 < position.length()) {
+				return new UserCursor(position.substring(0, family),
+									  position.substring(family+1, given),
+									  position.substring(given+1));
+			}
+		} catch (IllegalArgumentException e) {
+			// Not a base64 string. Report the malformed cursor below.
+		}
+		LOG.fine(() -> format("%s: Malformed user search cursor %s.",
+							  IDM0012E_INVALID_CURSOR.getReasonCode(),
+							  cursor));
+		throw new UnprocessableEntityException(IDM0012E_INVALID_CURSOR, cursor);
+	}
+	
+	private static String nonNull(String s) {
+		return s != null ? s : "";
+	}
+	
+	private final String familyName;
+	private final String givenName;
+	private final String userName;
+	
+	private UserCursor(String familyName, String givenName, String userName) {
+		this.familyName = familyName;
+		this.givenName = givenName;
+		this.userName = userName;
+	}
+	
+	String getFamilyName() {
+		return familyName;
+	}
+	
+	String getGivenName() {
+		return givenName;
+	}
+	
+	String getUserName() {
+		return userName;
+	}
+	
+	/**
+	 * Returns the opaque, URL-safe representation of this cursor.
+	 * @return the encoded cursor.
+	 */
+	String encode() {
+		String position = familyName + SEPARATOR + givenName + SEPARATOR + userName;
+		return getUrlEncoder().withoutPadding().encodeToString(position.getBytes(UTF_8));
+	}
+	
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.model;
+
+import static io.leitstand.security.users.model.PasswordService.ITERATIONS;
+import static io.leitstand.security.users.model.Role.findAllRoles;
+import static io.leitstand.security.users.model.User.findUserNames;
+import static io.leitstand.security.users.service.ReasonCode.IDM0006E_ROLE_NOT_FOUND;
+import static io.leitstand.security.users.service.ReasonCode.IDM0014E_USER_EXISTS;
+import static io.leitstand.security.users.service.UserImportError.newUserImportError;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import io.leitstand.commons.model.Repository;
+import io.leitstand.commons.model.Service;
+import io.leitstand.security.auth.UserName;
+import io.leitstand.security.users.service.RoleName;
+import io.leitstand.security.users.service.UserImportError;
+import io.leitstand.security.users.service.UserSubmission;
+
+/**
+ * Adds a batch of imported users in a single transaction.
+ * <p>
+ * Existing users are detected with a single query for all user names of the batch.
+ * All roles are read once per batch.
+ */
+@Service
+class UserImportBatch {
+
+	private Repository repository;
+	
+	protected UserImportBatch() {
+		// CDI
+	}
+	
+	@Inject
+	protected UserImportBatch(@IdentityManagement Repository repository) {
+		this.repository = repository;
+	}
+	
+	/**
+	 * Adds the users of the given records.
+	 * Records of existing users and records referring to unknown roles are rejected.
+	 * @param records the records
+	 * @return the errors of the rejected records or an empty list if all users were added.
+	 */
+	List<UserImportError> addUsers(List<UserImportRecord> records) {
+		Set<UserName> userNames = new HashSet<>();
+		for(UserImportRecord record : records) {
+			userNames.add(record.getUser().getUserName());
+		}
+		Set<UserName> existing = new HashSet<>(repository.execute(findUserNames(userNames)));
+		Map<RoleName,Role> roles = new HashMap<>();
+		for(Role role : repository.execute(findAllRoles())) {
+			roles.put(role.getRoleName(), role);
+		}
+		
+		List<UserImportError> errors = new ArrayList<>();
+		for(UserImportRecord record : records) {
+			UserSubmission submission = record.getUser();
+			if(!existing.add(submission.getUserName())) {
+				errors.add(newUserImportError()
+						   .withLine(record.getLine())
+						   .withUserName(submission.getUserName())
+						   .withReason(IDM0014E_USER_EXISTS, submission.getUserName())
+						   .build());
+				continue;
+			}
+			List<Role> userRoles = new LinkedList<>();
+			RoleName unknownRole = null;
+			for(RoleName roleName : submission.getRoles()) {
+				Role role = roles.get(roleName);
+				if(role == null) {
+					unknownRole = roleName;
+					break;
+				}
+				userRoles.add(role);
+			}
+			if(unknownRole != null) {
+				errors.add(newUserImportError()
+						   .withLine(record.getLine())
+						   .withUserName(submission.getUserName())
+						   .withReason(IDM0006E_ROLE_NOT_FOUND, unknownRole)
+						   .build());
+				continue;
+			}
+			
+			User user = new User(submission.getUserId(),
+								 submission.getUserName());
+			user.setGivenName(submission.getGivenName());
+			user.setFamilyName(submission.getFamilyName());
+			user.setEmailAddress(submission.getEmail());
+			if(submission.isCustomAccessTokenTtl()) {
+				user.setAccessTokenTtl(submission.getAccessTokenTtl(), 
+									   submission.getAccessTokenTtlUnit());
+			} else {
+				user.setAccessTokenTtl(0, null);
+			}
+			user.setRoles(userRoles);
+			user.setPassword(record.getHash(), 
+							 record.getSalt(), 
+							 ITERATIONS);
+			repository.add(user);
+		}
+		return errors;
+	}
+	
+}
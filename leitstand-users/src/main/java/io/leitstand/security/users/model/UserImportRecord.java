@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.model;
+
+import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.users.model.PasswordService.ITERATIONS;
+import static io.leitstand.security.users.service.EmailAddress.emailAddress;
+import static io.leitstand.security.users.service.ReasonCode.IDM0008E_PASSWORD_MISMATCH;
+import static io.leitstand.security.users.service.RoleName.roleName;
+import static io.leitstand.security.users.service.UserId.userId;
+import static io.leitstand.security.users.service.UserSubmission.newUserSubmission;
+import static javax.json.Json.createReader;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.security.enterprise.credential.Password;
+
+import io.leitstand.security.users.service.RoleName;
+import io.leitstand.security.users.service.UserSubmission;
+
+/**
+ * A record of a user import.
+ * <p>
+ * A record is parsed from a single line of the imported newline-delimited JSON stream.
+ * The password hash is computed separately, which allows computing the hashes of many records concurrently.
+ */
+final class UserImportRecord {
+
+	/**
+	 * Parses a user record.
+	 * @param line the line number
+	 * @param json the user record
+	 * @return the parsed record
+	 * @throws IllegalArgumentException if the user record is malformed
+	 * @throws javax.json.JsonException if the user record is not a JSON object
+	 */
+	static UserImportRecord parseUserRecord(long line, String json) {
+		try(JsonReader reader = createReader(new StringReader(json))){
+			JsonObject user = reader.readObject();
+			String userName = user.getString("user_name", null);
+			if(userName == null) {
+				throw new IllegalArgumentException("user_name is required");
+			}
+			String password = user.getString("password", null);
+			if(password == null) {
+				throw new IllegalArgumentException("password is required");
+			}
+			String confirmed = user.getString("confirmed_password", password);
+			if(!password.equals(confirmed)) {
+				throw new IllegalArgumentException(IDM0008E_PASSWORD_MISMATCH.getMessage());
+			}
+			
+			UserSubmission.Builder submission = newUserSubmission()
+												.withUserName(userName(userName))
+												.withGivenName(user.getString("given_name", null))
+												.withFamilyName(user.getString("family_name", null))
+												.withPassword(new Password(password))
+												.withConfirmedPassword(new Password(confirmed));
+			String userId = user.getString("user_id", null);
+			if(userId != null) {
+				submission.withUserId(userId(userId));
+			}
+			String email = user.getString("email", null);
+			if(email != null) {
+				submission.withEmailAddress(emailAddress(email));
+			}
+			if(user.containsKey("roles")) {
+				Set<RoleName> roles = new TreeSet<>();
+				for(JsonValue role : user.getJsonArray("roles")) {
+					roles.add(roleName(((JsonString)role).getString()));
+				}
+				submission.withRoles(roles);
+			}
+			if(user.containsKey("access_token_ttl") && !user.isNull("access_token_ttl")) {
+				submission.withAccessTokenTtl(user.getJsonNumber("access_token_ttl").longValue(), 
+											  TimeUnit.valueOf(user.getString("access_token_ttl_unit")));
+			}
+			return new UserImportRecord(line, submission.build());
+		} catch (ClassCastException | NullPointerException e) {
+			throw new IllegalArgumentException("unexpected attribute type or missing attribute");
+		}
+	}
+	
+	private final long line;
+	private final UserSubmission user;
+	private byte[] salt;
+	private byte[] hash;
+	
+	UserImportRecord(long line, UserSubmission user){
+		this.line = line;
+		this.user = user;
+	}
+	
+	/**
+	 * Computes the password hash and clears the password and the confirmed password afterwards, even if the hash cannot be computed.
+	 * @param hashing the password service
+	 */
+	void hashPassword(PasswordService hashing) {
+		try {
+			byte[] salt = hashing.salt();
+			this.hash = hashing.hash(user.getPassword(), salt, ITERATIONS);
+			this.salt = salt;
+		} finally {
+			// Do not keep the plain text passwords of a batch in memory.
+			user.getPassword().clear();
+			user.getConfirmedPassword().clear();
+		}
+	}
+	
+	long getLine() {
+		return line;
+	}
+	
+	UserSubmission getUser() {
+		return user;
+	}
+	
+	byte[] getSalt() {
+		return Arrays.copyOf(salt, salt.length);
+	}
+	
+	byte[] getHash() {
+		return Arrays.copyOf(hash, hash.length);
+	}
+	
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.model;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Locale.ROOT;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A user search term.
+ * <p>
+ * The search term is split into whitespace-separated tokens.
+ * A user matches the search term if every token is a case-insensitive prefix 
+ * of the user name, family name, given name or email address of the user.
+ * The prefix match is expressed as <code>lower(column) LIKE 'token%'</code> predicate,
+ * which can be served by an index on the lower-cased column 
+ * (see <code>doc/datamodel.md</code>) rather than scanning the entire user table.
+ */
+final class UserSearchTerm {
+
+	/** The columns matched by a search token. */
+	static final String[] SEARCH_COLUMNS = {"name", "familyname", "givenname", "email"};
+	
+	/** The maximum number of considered search tokens. */
+	static final int MAX_TOKENS = 4;
+
+	/**
+	 * Parses the given search term.
+	 * @param term the search term
+	 * @return the parsed search term or <code>null</code> if the search term does not contain any token.
+	 */
+	static UserSearchTerm parse(String term) {
+		if(term == null) {
+			return null;
+		}
+		List<String> tokens = new ArrayList<>(MAX_TOKENS);
+		for(String token : term.trim().toLowerCase(ROOT).split("\\s+")) {
+			if(!token.isEmpty() && tokens.size() < MAX_TOKENS) {
+				tokens.add(token);
+			}
+		}
+		return tokens.isEmpty() ? null : new UserSearchTerm(tokens);
+	}
+	
+	/**
+	 * Returns the <code>LIKE</code> pattern to match all values starting with the given token.
+	 * <code>LIKE</code> wildcards in the token are escaped.
+	 * @param token the search token 
+	 * @return the prefix pattern.
+	 */
+	static String prefixPattern(String token) {
+		StringBuilder pattern = new StringBuilder(token.length()+1);
+		for(char c : token.toCharArray()) {
+			if(c == '%' || c == '_' || c == '\\') {
+				pattern.append('\\');
+			}
+			pattern.append(c);
+		}
+		return pattern.append('%').toString();
+	}
+	
+	private final List<String> tokens;
+	
+	private UserSearchTerm(List<String> tokens) {
+		this.tokens = unmodifiableList(tokens);
+	}
+	
+	/**
+	 * Returns the lower-cased search tokens.
+	 * @return the lower-cased search tokens.
+	 */
+	List<String> getTokens() {
+		return tokens;
+	}
+	
+	/**
+	 * Appends the search predicate to the given SQL <code>WHERE</code> clause 
+	 * and adds the predicate parameters to the given parameter list.
+	 * @param where the <code>WHERE</code> clause
+	 * @param params the parameter list
+	 */
+	void appendPredicate(StringBuilder where, List<Object> params) {
+		for(String token : tokens) {
+			where.append(where.length() == 0 ? " WHERE (" : " AND (");
+			String pattern = prefixPattern(token);
+			for(int i=0; i < SEARCH_COLUMNS.length; i++) {
+				if(i > 0) {
+					where.append(" OR ");
+				}
+				where.append("lower(")
+					 .append(SEARCH_COLUMNS[i])
+					 .append(") LIKE ?");
+				params.add(pattern);
+			}
+			where.append(")");
+		}
+	}
+	
+	/**
+	 * Appends the rank expression of this search term to the given SQL <code>ORDER BY</code> clause
+	 * and adds the expression parameters to the given parameter list.
+	 * An exact user name match ranks first, followed by user name, family name, given name and email address prefix matches of the first token.
+	 * @param orderBy the <code>ORDER BY</code> clause
+	 * @param params the parameter list
+	 */
+	void appendRank(StringBuilder orderBy, List<Object> params) {
+		String token = tokens.get(0);
+		String pattern = prefixPattern(token);
+		orderBy.append("CASE WHEN lower(name) = ? THEN 0");
+		params.add(token);
+		for(int i=0; i < SEARCH_COLUMNS.length; i++) {
+			orderBy.append(" WHEN lower(")
+				   .append(SEARCH_COLUMNS[i])
+				   .append(") LIKE ? THEN ")
+				   .append(i+1);
+			params.add(pattern);
+		}
+		orderBy.append(" ELSE ")
+			   .append(SEARCH_COLUMNS.length+1)
+			   .append(" END");
+	}
+	
+}
@@ -20,14 +20,14 @@ import static io.leitstand.commons.model.Patterns.UUID_PATTERN;
 import static io.leitstand.commons.rs.ReasonCode.VAL0003E_IMMUTABLE_ATTRIBUTE;
 import static io.leitstand.commons.rs.Responses.created;
 import static io.leitstand.commons.rs.Responses.success;
+import static io.leitstand.security.auth.rs.EntityTags.conditionalGet;
+import static io.leitstand.security.auth.rs.JsonArrayOutput.jsonArray;
 import static io.leitstand.security.users.rs.Scopes.ADM;
 import static io.leitstand.security.users.rs.Scopes.ADM_READ;
 import static io.leitstand.security.users.rs.Scopes.ADM_USER;
 import static io.leitstand.security.users.rs.Scopes.ADM_USER_READ;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
-import java.util.List;
-
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -37,7 +37,11 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Providers;
 
 import io.leitstand.commons.ConflictException;
 import io.leitstand.commons.messages.Messages;
@@ -75,12 +79,22 @@ public class RolesResource {
 	
 	/**
 	 * Returns all existing roles.
+	 * The roles are streamed to the client.
+	 * A client can send the entity tag of a previous response in an <code>If-None-Match</code> header 
+	 * to get a <code>304 Not Modified</code> response if the roles have not been modified.
+	 * @param request the request to evaluate the <code>If-None-Match</code> header
+	 * @param providers the JAX-RS providers to serialize the roles
 	 * @return all existing roles.
 	 */
 	@GET
 	@Scopes({ADM, ADM_USER, ADM_USER_READ,ADM_READ})
-	public List<RoleSettings> getRoles(){
-		return service.getRoles();
+	public Response getRoles(@Context Request request, 
+							 @Context Providers providers){
+		return conditionalGet(request, 
+							  new EntityTag(service.getRolesTag()), 
+							  () -> jsonArray(RoleSettings.class, 
+									  		  providers, 
+									  		  roles -> service.getRoles().forEach(roles)));
 	}
 	
 	@GET
@@ -18,12 +18,16 @@ package io.leitstand.security.users.rs;
 import static io.leitstand.commons.model.ObjectUtil.isDifferent;
 import static io.leitstand.commons.model.Patterns.UUID_PATTERN;
 import static io.leitstand.commons.rs.ReasonCode.VAL0003E_IMMUTABLE_ATTRIBUTE;
+import static io.leitstand.security.auth.rs.EntityTags.conditionalGet;
+import static io.leitstand.security.auth.rs.EntityTags.entityTag;
 import static io.leitstand.security.users.rs.Scopes.ADM;
 import static io.leitstand.security.users.rs.Scopes.ADM_READ;
 import static io.leitstand.security.users.rs.Scopes.ADM_USER;
 import static io.leitstand.security.users.rs.Scopes.ADM_USER_READ;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
+import java.util.Date;
+
 import javax.inject.Inject;
 import javax.validation.Valid;
 import javax.ws.rs.Consumes;
@@ -34,6 +38,10 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 
 import io.leitstand.commons.ConflictException;
 import io.leitstand.commons.messages.Messages;
@@ -81,26 +89,49 @@ public class UserResource {
 	
 	/**
 	 * Returns the user account settings.
+	 * Responds with <code>304 Not Modified</code> if the <code>If-None-Match</code> header matches the current entity tag.
+	 * @param request the request to evaluate the <code>If-None-Match</code> header
 	 * @param userName the login ID 
 	 * @return the user account settings.
 	 */
 	@GET
 	@Path("/{user}")
 	@Scopes({ADM, ADM_USER, ADM_READ, ADM_USER_READ})
-	public UserSettings getUserSettings(@Valid @PathParam("user") UserName userName) {
-		return service.getUser(userName);
+	public Response getUserSettings(@Context Request request,
+									@Valid @PathParam("user") UserName userName) {
+		UserSettings settings = service.getUser(userName);
+		return conditionalGet(request, userTag(settings), () -> settings);
 	}
 	
 	/**
 	 * Returns the user account settings.
+	 * Responds with <code>304 Not Modified</code> if the <code>If-None-Match</code> header matches the current entity tag.
+	 * @param request the request to evaluate the <code>If-None-Match</code> header
 	 * @param userId the account UUID
 	 * @return the user account settings.
 	 */
 	@GET
 	@Path("/{user:"+UUID_PATTERN+"}")
 	@Scopes({ADM, ADM_USER, ADM_READ, ADM_USER_READ})
-	public UserSettings getUserSettings(@PathParam("user") UserId userId) {
-		return service.getUser(userId);
+	public Response getUserSettings(@Context Request request,
+									@PathParam("user") UserId userId) {
+		UserSettings settings = service.getUser(userId);
+		return conditionalGet(request, userTag(settings), () -> settings);
+	}
+	
+	/**
+	 * Creates the entity tag of the given user account.
+	 * The tag is derived from the modification date of the account.
+	 * Roles and scopes are included, because modifying a role changes the user's scopes but not the modification date of the account.
+	 * @param settings the user account settings
+	 * @return the entity tag of the user account.
+	 */
+	static EntityTag userTag(UserSettings settings) {
+		Date dateModified = settings.getDateModified();
+		return entityTag(settings.getUserId(),
+						 dateModified != null ? dateModified.getTime() : null,
+						 settings.getRoles(),
+						 settings.getScopes());
 	}
 
 
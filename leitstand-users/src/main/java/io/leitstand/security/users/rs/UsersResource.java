@@ -19,12 +19,16 @@ import static io.leitstand.security.users.rs.Scopes.ADM;
 import static io.leitstand.security.users.rs.Scopes.ADM_READ;
 import static io.leitstand.security.users.rs.Scopes.ADM_USER;
 import static io.leitstand.security.users.rs.Scopes.ADM_USER_READ;
+import static io.leitstand.commons.model.StringUtil.isEmptyString;
+import static io.leitstand.commons.model.StringUtil.isNonEmptyString;
+import static io.leitstand.security.auth.rs.JsonArrayOutput.jsonArray;
 import static java.lang.String.format;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.Response.created;
+import static javax.ws.rs.core.Response.ok;
 
+import java.io.InputStream;
 import java.net.URI;
-import java.util.List;
 
 import javax.inject.Inject;
 import javax.validation.Valid;
@@ -34,11 +38,16 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Providers;
 
 import io.leitstand.commons.messages.Messages;
 import io.leitstand.commons.rs.Resource;
 import io.leitstand.security.auth.Scopes;
+import io.leitstand.security.users.service.UserImportReport;
+import io.leitstand.security.users.service.UserImportService;
+import io.leitstand.security.users.service.UserPage;
 import io.leitstand.security.users.service.UserReference;
 import io.leitstand.security.users.service.UserService;
 import io.leitstand.security.users.service.UserSubmission;
@@ -53,32 +62,82 @@ import io.leitstand.security.users.service.UserSubmission;
 @Produces(APPLICATION_JSON)
 public class UsersResource {
 
+	static final int DEFAULT_PAGE_SIZE = 100;
+	static final int DEFAULT_SEARCH_RESULTS = 20;
+	static final String NDJSON = "application/x-ndjson";
+
 	private Messages messages;
 	
 	private UserService service;
 	
+	private UserImportService importer;
+	
 	public UsersResource() {
 		// CDI and JAX-RS
 	}
 	
 	@Inject
-	protected UsersResource(UserService service, Messages messages) {
+	protected UsersResource(UserService service, UserImportService importer, Messages messages) {
 		this.service = service;
+		this.importer = importer;
 		this.messages = messages;
 	}
 	
 	/**
 	 * Returns all users matching the given filter expression.
-	 * @param filter - the POSIX filter expression
+	 * <p>
+	 * The users are returned page by page if either a page size or a cursor is specified.
+	 * A page is a JSON object with the <code>users</code> of the page, the <code>next</code> cursor to read the next page, 
+	 * if a next page exists, and the <code>total</code> number of matching users, if requested.
+	 * Alternatively, a search query ranks the users matching all tokens of the query by relevance.
+	 * @param filter - the POSIX filter expression for the unpaged user list or the search tokens for the paged user list
+	 * @param query - the optional search query
+	 * @param limit - the optional page size or maximum number of search results
+	 * @param cursor - the optional cursor of the page to be read
+	 * @param total - whether to return the total number of matching users
+	 * @param providers - the JAX-RS providers to serialize the unpaged user list
 	 * @return all users matching the given filter expression or an empty list if no users were found.
 	 */
 	@GET
 	@Path("/")
 	@Scopes({ADM, ADM_USER, ADM_READ, ADM_USER_READ})
-	public List<UserReference> findUsers(@QueryParam("filter") String filter){
-		return service.findUsers(filter);
+	public Response findUsers(@QueryParam("filter") String filter,
+							  @QueryParam("q") String query,
+							  @QueryParam("limit") Integer limit,
+							  @QueryParam("cursor") String cursor,
+							  @QueryParam("total") boolean total,
+							  @Context Providers providers){
+		if(isNonEmptyString(query)) {
+			return ok(service.searchUsers(query, 
+										  limit != null ? limit : DEFAULT_SEARCH_RESULTS)).build();
+		}
+		if(limit == null && isEmptyString(cursor)) {
+			// Preserve the unpaged API for existing clients, but stream the users to the client as they are read.
+			return ok(jsonArray(UserReference.class, 
+								providers, 
+								users -> service.findUsers(filter, users)),
+					  APPLICATION_JSON).build();
+		}
+		UserPage page = service.findUsers(filter, 
+										  cursor, 
+										  limit != null ? limit : DEFAULT_PAGE_SIZE, 
+										  total);
+		return ok(page).build();
 	}
-
+	
+	/**
+	 * Imports user accounts from a newline-delimited JSON stream.
+	 * Every line describes a user account in the same format as a {@link UserSubmission}.
+	 * @param ndjson - the user accounts
+	 * @return the import report with the number of imported users and the errors of all rejected records.
+	 */
+	@POST
+	@Path("/_import")
+	@Consumes({NDJSON, APPLICATION_JSON})
+	public UserImportReport importUsers(InputStream ndjson) {
+		return importer.importUsers(ndjson);
+	}
+	
 	/**
 	 * Creates a new user account and assigns a UUID to the account.
 	 * @param user - the user account settings.
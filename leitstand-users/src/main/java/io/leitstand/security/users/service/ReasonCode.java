@@ -45,6 +45,14 @@ public enum ReasonCode implements Reason{
 	IDM0010I_ROLE_REMOVED,
 	/** The role has been stored in the identity management system.*/
 	IDM0011I_ROLE_STORED,
+	/** The user search cursor is malformed.*/
+	IDM0012E_INVALID_CURSOR,
+	/** A user import record is malformed.*/
+	IDM0013E_INVALID_USER_RECORD,
+	/** A user with the same user name already exists.*/
+	IDM0014E_USER_EXISTS,
+	/** A user import has been completed.*/
+	IDM0015I_USERS_IMPORTED,
 	/** Rejected attempt to add a system role*/
 	IDM0100E_CANNOT_ADD_SYSTEM_ROLE,
 	/** Rejected attempt to modify a system role*/
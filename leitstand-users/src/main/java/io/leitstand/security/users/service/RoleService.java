@@ -19,6 +19,11 @@ import java.util.List;
 
 public interface RoleService {
 	List<RoleSettings> getRoles();
+	/**
+	 * Returns an opaque tag of all roles. The tag changes whenever a role is modified.
+	 * @return the tag of all roles.
+	 */
+	String getRolesTag();
 	RoleSettings getRole(RoleId roleId);
 	RoleSettings getRole(RoleName roleName);
 	boolean storeRole(RoleSettings settings);
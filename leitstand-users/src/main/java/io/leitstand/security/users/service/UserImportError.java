@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.service;
+
+import static io.leitstand.commons.model.BuilderUtil.assertNotInvalidated;
+
+import io.leitstand.commons.model.ValueObject;
+import io.leitstand.security.auth.UserName;
+
+/**
+ * A rejected record of a user import.
+ */
+public class UserImportError extends ValueObject {
+
+	/**
+	 * Returns a builder for an immutable <code>UserImportError</code>.
+	 * @return a <code>UserImportError</code> builder.
+	 */
+	public static Builder newUserImportError() {
+		return new Builder();
+	}
+	
+	public static class Builder {
+		
+		private UserImportError error = new UserImportError();
+		
+		/**
+		 * Sets the line number of the rejected record.
+		 * @param line the line number
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withLine(long line) {
+			assertNotInvalidated(getClass(), error);
+			error.line = line;
+			return this;
+		}
+		
+		/**
+		 * Sets the user name of the rejected record.
+		 * @param userName the user name or <code>null</code> if the record is malformed.
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withUserName(UserName userName) {
+			assertNotInvalidated(getClass(), error);
+			error.userName = userName;
+			return this;
+		}
+		
+		/**
+		 * Sets the reason why the record was rejected.
+		 * @param reason the reason
+		 * @param args the message arguments
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withReason(ReasonCode reason, Object... args) {
+			assertNotInvalidated(getClass(), error);
+			error.reason = reason.getReasonCode();
+			error.message = reason.getMessage(args);
+			return this;
+		}
+		
+		/**
+		 * Creates an immutable <code>UserImportError</code> and invalidates this builder.
+		 * @return the immutable <code>UserImportError</code>.
+		 */
+		public UserImportError build() {
+			try {
+				assertNotInvalidated(getClass(), error);
+				return error;
+			} finally {
+				this.error = null;
+			}
+		}
+	}
+	
+	private long line;
+	private UserName userName;
+	private String reason;
+	private String message;
+	
+	/**
+	 * Returns the line number of the rejected record.
+	 * @return the line number of the rejected record.
+	 */
+	public long getLine() {
+		return line;
+	}
+	
+	/**
+	 * Returns the user name of the rejected record.
+	 * @return the user name or <code>null</code> if the record is malformed.
+	 */
+	public UserName getUserName() {
+		return userName;
+	}
+	
+	/**
+	 * Returns the reason code why the record was rejected.
+	 * @return the reason code
+	 */
+	public String getReason() {
+		return reason;
+	}
+	
+	/**
+	 * Returns the message explaining why the record was rejected.
+	 * @return the message
+	 */
+	public String getMessage() {
+		return message;
+	}
+	
+}
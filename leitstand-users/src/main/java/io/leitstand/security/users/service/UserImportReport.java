@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.service;
+
+import static io.leitstand.commons.model.BuilderUtil.assertNotInvalidated;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.leitstand.commons.model.ValueObject;
+
+/**
+ * The outcome of a user import.
+ * <p>
+ * The report states the number of imported users, the number of rejected records 
+ * and the errors of the rejected records.
+ * The number of reported errors is limited. 
+ * The number of rejected records can therefore exceed the number of reported errors.
+ */
+public class UserImportReport extends ValueObject {
+
+	/**
+	 * Returns a builder for an immutable <code>UserImportReport</code>.
+	 * @return a <code>UserImportReport</code> builder.
+	 */
+	public static Builder newUserImportReport() {
+		return new Builder();
+	}
+	
+	public static class Builder {
+		
+		private UserImportReport report = new UserImportReport();
+		
+		/**
+		 * Sets the number of imported users.
+		 * @param imported the number of imported users
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withImported(long imported) {
+			assertNotInvalidated(getClass(), report);
+			report.imported = imported;
+			return this;
+		}
+		
+		/**
+		 * Sets the number of rejected records.
+		 * @param rejected the number of rejected records
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withRejected(long rejected) {
+			assertNotInvalidated(getClass(), report);
+			report.rejected = rejected;
+			return this;
+		}
+		
+		/**
+		 * Sets the errors of the rejected records.
+		 * @param errors the errors
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withErrors(List<UserImportError> errors) {
+			assertNotInvalidated(getClass(), report);
+			report.errors = unmodifiableList(new ArrayList<>(errors));
+			return this;
+		}
+		
+		/**
+		 * Creates an immutable <code>UserImportReport</code> and invalidates this builder.
+		 * @return the immutable <code>UserImportReport</code>.
+		 */
+		public UserImportReport build() {
+			try {
+				assertNotInvalidated(getClass(), report);
+				return report;
+			} finally {
+				this.report = null;
+			}
+		}
+	}
+	
+	private long imported;
+	private long rejected;
+	private List<UserImportError> errors = emptyList();
+	
+	/**
+	 * Returns the number of imported users.
+	 * @return the number of imported users.
+	 */
+	public long getImported() {
+		return imported;
+	}
+	
+	/**
+	 * Returns the number of rejected records.
+	 * @return the number of rejected records.
+	 */
+	public long getRejected() {
+		return rejected;
+	}
+	
+	/**
+	 * Returns the errors of the rejected records.
+	 * @return the errors of the rejected records in input order.
+	 */
+	public List<UserImportError> getErrors() {
+		return errors;
+	}
+	
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.service;
+
+import java.io.InputStream;
+
+/**
+ * The <code>UserImportService</code> imports user accounts in bulk.
+ */
+public interface UserImportService {
+
+	/**
+	 * Imports the user accounts from the given <a href="http://ndjson.org">newline-delimited JSON</a> stream.
+	 * <p>
+	 * Every line contains a JSON object describing one user account in the same format as a {@link UserSubmission}.
+	 * The confirmed password is optional.
+	 * Malformed records, records of existing users and records referring to unknown roles are rejected and reported.
+	 * All other user accounts are added.
+	 * @param ndjson the user records
+	 * @return the import report
+	 */
+	UserImportReport importUsers(InputStream ndjson);
+	
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.service;
+
+import static io.leitstand.commons.model.BuilderUtil.assertNotInvalidated;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.leitstand.commons.model.ValueObject;
+
+/**
+ * A page of user references ordered by family name, given name and user name.
+ * <p>
+ * The page provides an opaque cursor to read the next page, 
+ * if more users exist, and optionally the total number of users matching the search criteria.
+ */
+public class UserPage extends ValueObject {
+
+	/**
+	 * Returns a builder for an immutable <code>UserPage</code>.
+	 * @return a <code>UserPage</code> builder.
+	 */
+	public static Builder newUserPage() {
+		return new Builder();
+	}
+	
+	public static class Builder {
+		
+		private UserPage page = new UserPage();
+		
+		/**
+		 * Sets the users of this page.
+		 * @param users the users
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withUsers(List<UserReference> users) {
+			assertNotInvalidated(getClass(), page);
+			page.users = unmodifiableList(new ArrayList<>(users));
+			return this;
+		}
+		
+		/**
+		 * Sets the cursor to read the next page.
+		 * @param next the cursor or <code>null</code> if this is the last page.
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withNext(String next) {
+			assertNotInvalidated(getClass(), page);
+			page.next = next;
+			return this;
+		}
+		
+		/**
+		 * Sets the total number of matching users.
+		 * @param total the total number of matching users or <code>null</code> if the total was not requested.
+		 * @return a reference to this builder to continue object creation
+		 */
+		public Builder withTotal(Long total) {
+			assertNotInvalidated(getClass(), page);
+			page.total = total;
+			return this;
+		}
+		
+		/**
+		 * Creates an immutable <code>UserPage</code> and invalidates this builder.
+		 * @return the immutable <code>UserPage</code>.
+		 */
+		public UserPage build() {
+			try {
+				assertNotInvalidated(getClass(), page);
+				return page;
+			} finally {
+				this.page = null;
+			}
+		}
+	}
+	
+	private List<UserReference> users = emptyList();
+	private String next;
+	private Long total;
+	
+	/**
+	 * Returns the users of this page.
+	 * @return the users of this page.
+	 */
+	public List<UserReference> getUsers() {
+		return users;
+	}
+	
+	/**
+	 * Returns the cursor to read the next page.
+	 * @return the cursor to read the next page or <code>null</code> if this is the last page.
+	 */
+	public String getNext() {
+		return next;
+	}
+	
+	/**
+	 * Returns the total number of users matching the search criteria.
+	 * @return the total number of users or <code>null</code> if the total was not requested.
+	 */
+	public Long getTotal() {
+		return total;
+	}
+	
+}
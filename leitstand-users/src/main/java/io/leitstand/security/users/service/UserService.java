@@ -16,6 +16,7 @@
 package io.leitstand.security.users.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.security.enterprise.credential.Password;
 
@@ -38,6 +39,37 @@ public interface UserService {
 	 */
 	public List<UserReference> findUsers(String filter);
 	
+	/**
+	 * Passes all users matching the given filter string to the given consumer.
+	 * The users are passed while the query result is read and are not retained by the service.
+	 * @param filter a POSIX regular expression to filter for user ID and surname
+	 * @param users the consumer of the matching users
+	 */
+	public void findUsers(String filter, Consumer<UserReference> users);
+	
+	/**
+	 * Returns a page of users matching the given filter string.
+	 * Users are ordered by family name, given name and user name.
+	 * @param filter whitespace-separated search tokens or <code>null</code> to read all users. 
+	 *               A user matches the filter if every token is a case-insensitive prefix of the user ID, surname, given name or email address.
+	 * @param cursor the cursor returned with the previous page or <code>null</code> to read the first page.
+	 * @param limit the maximum number of users on the page.
+	 * @param total whether to compute the total number of matching users.
+	 * @return the page of matching users.
+	 */
+	public UserPage findUsers(String filter, String cursor, int limit, boolean total);
+	
+	/**
+	 * Searches for users matching the given search query.
+	 * A user matches the query if every whitespace-separated token of the query is a case-insensitive prefix of 
+	 * the user ID, surname, given name or email address.
+	 * Users with a user ID equal to the first token rank first, followed by user ID, surname, given name and email address prefix matches.
+	 * @param query the search query
+	 * @param limit the maximum number of returned users.
+	 * @return the ranked list of matching users or an empty list if no matches exist.
+	 */
+	public List<UserReference> searchUsers(String query, int limit);
+	
 	/**
 	 * Returns the settings of the authenticated user.
 	 * @return the settings of the authenticated user.
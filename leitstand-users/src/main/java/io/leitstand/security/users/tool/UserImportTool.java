@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 RtBrick Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.leitstand.security.users.tool;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Command-line tool to import users from a newline-delimited JSON file.
+ * <p>
+ * The tool streams the file to the user import endpoint of a Leitstand instance and prints the import report.
+ * Usage: <code>UserImportTool &lt;file&gt; [&lt;leitstand-url&gt;]</code>.
+ * The access token is read from the <code>LEITSTAND_ACCESS_TOKEN</code> environment variable or prompted for.
+ */
+public class UserImportTool {
+
+	private static final String DEFAULT_URL = "http://localhost:8080";
+	private static final int CHUNK_SIZE = 64 * 1024;
+	
+	public static void main(String[] args) throws Exception {
+		ConsoleDelegate console = new ConsoleDelegate();
+		if(args.length < 1) {
+			console.printf("Usage: UserImportTool <file> [<leitstand-url>]");
+			return;
+		}
+		String url = args.length > 1 ? args[1] : DEFAULT_URL;
+		String token = System.getenv("LEITSTAND_ACCESS_TOKEN");
+		if(token == null) {
+			token = new String(console.readPassword("Please enter an access token: "));
+		}
+		
+		HttpURLConnection connection = (HttpURLConnection) new URL(url+"/api/v1/users/_import").openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setChunkedStreamingMode(CHUNK_SIZE);
+		connection.setRequestProperty("Content-Type", "application/x-ndjson");
+		connection.setRequestProperty("Accept", "application/json");
+		connection.setRequestProperty("Authorization", "Bearer "+token);
+		try(OutputStream out = connection.getOutputStream()){
+			Files.copy(Paths.get(args[0]), out);
+		}
+		
+		int status = connection.getResponseCode();
+		console.printf("Status: %d", status);
+		InputStream response = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		if(response != null) {
+			printResponse(console, response);
+		}
+	}
+
+	private static void printResponse(ConsoleDelegate console, InputStream response) throws IOException {
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(response, UTF_8))){
+			for(String line = reader.readLine(); line != null; line = reader.readLine()) {
+				console.printf("%s", line);
+			}
+		}
+	}
+	
+}
@@ -31,11 +31,14 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
+import javax.enterprise.event.Event;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -48,6 +51,7 @@ import io.leitstand.commons.UnprocessableEntityException;
 import io.leitstand.commons.messages.Message;
 import io.leitstand.commons.messages.Messages;
 import io.leitstand.commons.model.Repository;
+import io.leitstand.security.users.event.RoleEvent;
 import io.leitstand.security.users.service.RoleId;
 import io.leitstand.security.users.service.RoleSettings;
 
@@ -63,12 +67,19 @@ public class DefaultRoleServiceIT extends UsersIT{
 	private ArgumentCaptor<Message> message;
 
 	@Before
+	@SuppressWarnings("unchecked")
 	public void initTestResources() {
 		Repository repository = new Repository(getEntityManager());
 		messages = mock(Messages.class);
 		message = ArgumentCaptor.forClass(Message.class);
 		doNothing().when(messages).add(message.capture());
-		service = new DefaultRoleService(repository,messages);
+		RoleCatalog catalog = new RoleCatalog(repository);
+		Event<RoleEvent> events = mock(Event.class);
+		doAnswer(invocation -> {
+			catalog.roleModified((RoleEvent) invocation.getArguments()[0]);
+			return null;
+		}).when(events).fire(any(RoleEvent.class));
+		service = new DefaultRoleService(repository,messages,events,catalog);
 		
 		transaction(()->{
 			Role admin = repository.addIfAbsent(findRoleById(SYSTEMROLE_ID),
@@ -0,0 +1,173 @@
+package io.leitstand.security.users.model;
+
+import static io.leitstand.commons.model.ObjectUtil.asSet;
+import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.users.model.Role.findRoleByName;
+import static io.leitstand.security.users.model.User.findUserByName;
+import static io.leitstand.security.users.service.ReasonCode.IDM0006E_ROLE_NOT_FOUND;
+import static io.leitstand.security.users.service.ReasonCode.IDM0013E_INVALID_USER_RECORD;
+import static io.leitstand.security.users.service.ReasonCode.IDM0014E_USER_EXISTS;
+import static io.leitstand.security.users.service.RoleId.randomRoleId;
+import static io.leitstand.security.users.service.RoleName.roleName;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.validation.Validation.buildDefaultValidatorFactory;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import javax.security.enterprise.credential.Password;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.leitstand.commons.model.Repository;
+import io.leitstand.security.users.service.UserImportError;
+import io.leitstand.security.users.service.UserImportReport;
+
+public class DefaultUserImportServiceIT extends UsersIT {
+
+	private DefaultUserImportService service;
+	private Repository repository;
+	private PasswordService hashing;
+	
+	@Before
+	public void initTestResources() {
+		repository = new Repository(getEntityManager());
+		hashing = new PasswordService();
+		UserImportBatch batch = transactionalBatch();
+		service = new DefaultUserImportService(batch, 
+											   hashing, 
+											   buildDefaultValidatorFactory().getValidator());
+		
+		transaction(()->{
+			Role operator = repository.addIfAbsent(findRoleByName(roleName("Operator")),
+												   ()-> (new Role(randomRoleId(),roleName("Operator"))));
+			operator.setScopes(asSet("pod","element"));
+		});
+	}
+	
+	private UserImportBatch transactionalBatch() {
+		return new UserImportBatch(repository) {
+			@Override
+			List<UserImportError> addUsers(List<UserImportRecord> records) {
+				Object[] errors = new Object[1];
+				transaction(() -> {
+					errors[0] = super.addUsers(records);
+				});
+				@SuppressWarnings("unchecked")
+				List<UserImportError> batchErrors = (List<UserImportError>) errors[0];
+				return batchErrors;
+			}
+		};
+	}
+	
+	private UserImportReport importUsers(String... lines) {
+		return service.importUsers(new ByteArrayInputStream(String.join("\n", lines).getBytes(UTF_8)));
+	}
+	
+	@Test
+	public void import_users_and_report_rejected_records() {
+		UserImportReport report = importUsers("{\"user_name\":\"import_jdoe\",\"given_name\":\"John\",\"family_name\":\"Doe\",\"email\":\"john.doe@leitstand.io\",\"roles\":[\"Operator\"],\"password\":\"secret\"}",
+											  "",
+											  "{\"user_name\":\"import_unknown_role\",\"roles\":[\"Unknown\"],\"password\":\"secret\"}",
+											  "{\"user_name\":\"import_jdoe\",\"password\":\"secret\"}",
+											  "{\"user_name\":\"import_malformed\"",
+											  "{\"user_name\":\"import_nopass\"}");
+		
+		assertEquals(1,report.getImported());
+		assertEquals(4,report.getRejected());
+		List<UserImportError> errors = report.getErrors();
+		// Malformed records are reported when the line is read, rejected users when their batch is added.
+		assertEquals(5,errors.get(0).getLine());
+		assertEquals(IDM0013E_INVALID_USER_RECORD.getReasonCode(),errors.get(0).getReason());
+		assertNull(errors.get(0).getUserName());
+		assertEquals(6,errors.get(1).getLine());
+		assertEquals(IDM0013E_INVALID_USER_RECORD.getReasonCode(),errors.get(1).getReason());
+		assertEquals(3,errors.get(2).getLine());
+		assertEquals(IDM0006E_ROLE_NOT_FOUND.getReasonCode(),errors.get(2).getReason());
+		assertEquals(userName("import_unknown_role"),errors.get(2).getUserName());
+		assertEquals(4,errors.get(3).getLine());
+		assertEquals(IDM0014E_USER_EXISTS.getReasonCode(),errors.get(3).getReason());
+		
+		transaction(() -> {
+			User user = repository.execute(findUserByName(userName("import_jdoe")));
+			assertEquals("John",user.getGivenName());
+			assertEquals("Doe",user.getFamilyName());
+			assertEquals(asSet(roleName("Operator")),user.getRoleNames());
+			assertTrue(hashing.isExpectedPassword("secret".toCharArray(), 
+												  user.getSalt(), 
+												  user.getPasswordHash(), 
+												  user.getIterations()));
+			assertNull(repository.execute(findUserByName(userName("import_unknown_role"))));
+		});
+	}
+	
+	@Test
+	public void reject_existing_users() {
+		importUsers("{\"user_name\":\"import_existing\",\"password\":\"secret\"}");
+		UserImportReport report = importUsers("{\"user_name\":\"import_existing\",\"password\":\"secret\"}");
+		
+		assertEquals(0,report.getImported());
+		assertEquals(1,report.getRejected());
+		assertEquals(IDM0014E_USER_EXISTS.getReasonCode(),report.getErrors().get(0).getReason());
+	}
+	
+	@Test
+	public void reject_records_with_failing_password_hash() {
+		UserImportBatch batch = transactionalBatch();
+		PasswordService failing = new PasswordService() {
+			@Override
+			public byte[] hash(Password password, byte[] salt, int iterations) {
+				if("failing".equals(new String(password.getValue()))) {
+					throw new IllegalStateException("Cannot compute hash");
+				}
+				return super.hash(password, salt, iterations);
+			}
+		};
+		service = new DefaultUserImportService(batch, 
+											   failing, 
+											   buildDefaultValidatorFactory().getValidator());
+		
+		UserImportReport report = importUsers("{\"user_name\":\"import_failing\",\"password\":\"failing\"}",
+											  "{\"user_name\":\"import_hashed\",\"password\":\"secret\"}");
+		
+		assertEquals(1,report.getImported());
+		assertEquals(1,report.getRejected());
+		assertEquals(1,report.getErrors().get(0).getLine());
+		assertEquals(IDM0013E_INVALID_USER_RECORD.getReasonCode(),report.getErrors().get(0).getReason());
+		assertEquals(userName("import_failing"),report.getErrors().get(0).getUserName());
+		transaction(() -> {
+			assertNull(repository.execute(findUserByName(userName("import_failing"))));
+			assertNotNull(repository.execute(findUserByName(userName("import_hashed"))));
+		});
+	}
+	
+	@Test
+	public void clear_password_after_hashing() {
+		UserImportRecord record = UserImportRecord.parseUserRecord(1, "{\"user_name\":\"import_cleared\",\"password\":\"secret\"}");
+		record.hashPassword(hashing);
+		assertArrayEquals(new char[6], record.getUser().getPassword().getValue());
+		assertArrayEquals(new char[6], record.getUser().getConfirmedPassword().getValue());
+	}
+	
+	@Test
+	public void reject_records_violating_the_user_constraints() {
+		UserImportReport report = importUsers("{\"user_name\":\"import valid\",\"password\":\"secret\"}",
+											  "{\"user_name\":\"x\",\"password\":\"secret\"}",
+											  "{\"user_name\":\"import_valid\",\"password\":\"secret\"}");
+		
+		assertEquals(1,report.getImported());
+		assertEquals(2,report.getRejected());
+		assertEquals(1,report.getErrors().get(0).getLine());
+		assertEquals(IDM0013E_INVALID_USER_RECORD.getReasonCode(),report.getErrors().get(0).getReason());
+		assertEquals(userName("import valid"),report.getErrors().get(0).getUserName());
+		assertEquals(2,report.getErrors().get(1).getLine());
+		assertEquals(IDM0013E_INVALID_USER_RECORD.getReasonCode(),report.getErrors().get(1).getReason());
+	}
+	
+}
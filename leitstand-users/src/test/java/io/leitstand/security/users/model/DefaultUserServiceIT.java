@@ -20,6 +20,7 @@ import static io.leitstand.security.auth.UserName.userName;
 import static io.leitstand.security.users.model.Role.findRoleByName;
 import static io.leitstand.security.users.service.EmailAddress.emailAddress;
 import static io.leitstand.security.users.service.ReasonCode.IDM0004E_USER_NOT_FOUND;
+import static io.leitstand.security.users.service.ReasonCode.IDM0006E_ROLE_NOT_FOUND;
 import static io.leitstand.security.users.service.ReasonCode.IDM0008E_PASSWORD_MISMATCH;
 import static io.leitstand.security.users.service.RoleId.randomRoleId;
 import static io.leitstand.security.users.service.RoleName.roleName;
@@ -28,10 +29,16 @@ import static io.leitstand.security.users.service.UserSettings.newUserSettings;
 import static io.leitstand.security.users.service.UserSubmission.newUserSubmission;
 import static java.lang.Boolean.TRUE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+
+import javax.enterprise.event.Event;
+import javax.persistence.EntityManager;
 import javax.security.enterprise.credential.Password;
 
 import org.junit.Before;
@@ -49,6 +56,7 @@ import io.leitstand.commons.model.Repository;
 import io.leitstand.security.auth.UserContext;
 import io.leitstand.security.auth.UserName;
 import io.leitstand.security.users.service.UserId;
+import io.leitstand.security.users.service.UserReference;
 import io.leitstand.security.users.service.UserSettings;
 import io.leitstand.security.users.service.UserSubmission;
 import io.leitstand.testing.ut.LeitstandCoreMatchers;
@@ -64,6 +72,7 @@ public class DefaultUserServiceIT extends UsersIT {
 	private UserContext context;
 	
 	@Before
+	@SuppressWarnings("unchecked")
 	public void initTestResources() {
 		Repository repository = new Repository(getEntityManager());
 		DatabaseService db = getDatabase();
@@ -72,7 +81,7 @@ public class DefaultUserServiceIT extends UsersIT {
 		doNothing().when(messages).add(message.capture());
 		PasswordService hashing = new PasswordService();
 		context = mock(UserContext.class);
-		service = new DefaultUserService(repository,db,hashing,messages,context);
+		service = new DefaultUserService(repository,db,dataSource(),hashing,messages,context,mock(Event.class),new RoleCatalog(repository));
 		
 		transaction(()->{
 			Role admin = repository.addIfAbsent(findRoleByName(roleName("Administrator")),
@@ -254,4 +263,92 @@ public class DefaultUserServiceIT extends UsersIT {
 		});
  	}
 	
+	@Test
+	public void read_user_with_roles_in_a_single_query() {
+		UserSubmission user = newUserSubmission()
+							  .withUserId(randomUserId())
+							  .withUserName(userName("query_count"))
+							  .withRoles(roleName("Administrator"),roleName("Operator"))
+							  .withPassword(new Password("unittest"))
+							  .withConfirmedPassword(new Password("unittest"))
+							  .build();
+		transaction(()->{
+			service.addUser(user);
+		});
+		// Load the role catalog and clear the persistence context to read the user from the database.
+		transaction(()->{
+			service.getUser(user.getUserName());
+		});
+		EntityManager em = getEntityManager();
+		em.clear();
+		
+		transaction(()->{
+			em.createNativeQuery("SET QUERY_STATISTICS TRUE").executeUpdate();
+		});
+		transaction(()->{
+			UserSettings settings = service.getUser(user.getUserName());
+			assertEquals(asSet(roleName("Administrator"),roleName("Operator")),settings.getRoles());
+			assertEquals(asSet("admin","pod","element","metric","image"),settings.getScopes());
+		});
+		long[] queries = new long[1];
+		transaction(()->{
+			queries[0] = ((Number) em.createNativeQuery("SELECT SUM(EXECUTION_COUNT) FROM INFORMATION_SCHEMA.QUERY_STATISTICS WHERE SQL_STATEMENT LIKE 'SELECT%'")
+									 .getSingleResult()).longValue();
+			em.createNativeQuery("SET QUERY_STATISTICS FALSE").executeUpdate();
+		});
+		assertEquals(1,queries[0]);
+	}
+	
+	@Test
+	public void search_users_by_case_insensitive_prefix() {
+		transaction(()->{
+			service.addUser(newUserSubmission()
+							.withUserName(userName("anna_search"))
+							.withPassword(new Password("unittest"))
+							.withConfirmedPassword(new Password("unittest"))
+							.build());
+			service.addUser(newUserSubmission()
+							.withUserName(userName("bsearch"))
+							.withGivenName("Anna")
+							.withFamilyName("Searchbottom")
+							.withPassword(new Password("unittest"))
+							.withConfirmedPassword(new Password("unittest"))
+							.build());
+		});
+		
+		transaction(()->{
+			List<UserReference> users = service.searchUsers("ANNA", 10);
+			assertEquals(2,users.size());
+			assertEquals(userName("anna_search"),users.get(0).getUserName());
+			assertEquals(userName("bsearch"),users.get(1).getUserName());
+			
+			users = service.searchUsers("anna sea", 10);
+			assertEquals(1,users.size());
+			assertEquals(userName("bsearch"),users.get(0).getUserName());
+			
+			assertEquals(1,service.searchUsers("anna", 1).size());
+			assertTrue(service.searchUsers("nna", 10).isEmpty());
+		});
+	}
+	
+	@Test
+	public void report_all_missing_roles_in_one_error() {
+		UserSubmission user = newUserSubmission()
+							  .withUserName(userName("missing_roles"))
+							  .withRoles(roleName("Operator"),roleName("Missing1"),roleName("Missing2"))
+							  .withPassword(new Password("unittest"))
+							  .withConfirmedPassword(new Password("unittest"))
+							  .build();
+		
+		transaction(()->{
+			try {
+				service.addUser(user);
+				fail("EntityNotFoundException expected");
+			} catch(EntityNotFoundException e) {
+				assertEquals(IDM0006E_ROLE_NOT_FOUND,e.getReason());
+				assertTrue(e.getMessage().contains("Missing1, Missing2"));
+			}
+		});
+	}
+	
 }
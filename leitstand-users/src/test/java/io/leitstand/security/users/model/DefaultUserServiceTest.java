@@ -19,6 +19,7 @@ import static io.leitstand.security.auth.UserName.userName;
 import static io.leitstand.security.users.model.PasswordService.ITERATIONS;
 import static io.leitstand.security.users.model.UserSettingsMother.newOperator;
 import static io.leitstand.security.users.service.EmailAddress.emailAddress;
+import static io.leitstand.security.users.service.RoleName.roleName;
 import static io.leitstand.security.users.service.ReasonCode.IDM0005E_INCORRECT_PASSWORD;
 import static io.leitstand.security.users.service.ReasonCode.IDM0007E_ADMIN_PRIVILEGES_REQUIRED;
 import static io.leitstand.security.users.service.ReasonCode.IDM0008E_PASSWORD_MISMATCH;
@@ -45,6 +46,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import javax.enterprise.event.Event;
 import javax.security.enterprise.credential.Password;
 
 import org.junit.Rule;
@@ -63,6 +65,7 @@ import io.leitstand.commons.model.Query;
 import io.leitstand.commons.model.Repository;
 import io.leitstand.security.auth.UserContext;
 import io.leitstand.security.auth.UserName;
+import io.leitstand.security.users.event.UserEvent;
 import io.leitstand.security.users.service.EmailAddress;
 import io.leitstand.security.users.service.UserId;
 import io.leitstand.security.users.service.UserSettings;
@@ -87,6 +90,12 @@ public class DefaultUserServiceTest {
 	@Mock
 	private UserContext userContext;
 	
+	@Mock
+	private Event<UserEvent> events;
+	
+	@Mock
+	private RoleCatalog catalog;
+	
 	@InjectMocks
 	private DefaultUserService service = new DefaultUserService();
 	
@@ -159,11 +168,12 @@ public class DefaultUserServiceTest {
 		when(userContext.scopesIncludeOneOf("adm")).thenReturn(true);
 		User user = mock(User.class);
 		Role role = mock(Role.class);
+		when(role.getRoleName()).thenReturn(roleName("Operator"));
 		when(user.getUserName()).thenReturn(new UserName("other"));
 		
 		when(repository.execute(any(Query.class)))
 					   .thenReturn(user)
-					   .thenReturn(role);
+					   .thenReturn(asList(role));
 
 		
 		UserSettings settings = newOperator("other");
@@ -0,0 +1,83 @@
+package io.leitstand.security.users.model;
+
+import static io.leitstand.security.users.service.RoleId.randomRoleId;
+import static io.leitstand.security.users.service.RoleName.roleName;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.leitstand.commons.model.Query;
+import io.leitstand.commons.model.Repository;
+import io.leitstand.security.users.event.RoleEvent;
+
+public class RoleCatalogTest {
+
+	private static Role role(String name, String... scopes) {
+		Role role = new Role(randomRoleId(), roleName(name));
+		role.setScopes(new HashSet<>(asList(scopes)));
+		return role;
+	}
+
+	private Repository repository;
+
+	@Before
+	public void initTestEnvironment() {
+		repository = mock(Repository.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void storeRoles(Role... roles) {
+		when(repository.execute(any(Query.class))).thenReturn(asList(roles));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void read_roles_once_while_snapshot_is_valid() {
+		storeRoles(role("operator","ivt"));
+		RoleCatalog catalog = new RoleCatalog(repository, HOURS.toNanos(1));
+
+		catalog.getRoles();
+		catalog.getTag();
+
+		verify(repository,times(1)).execute(any(Query.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void reload_roles_when_local_role_modification_is_committed() {
+		storeRoles(role("operator","ivt"));
+		RoleCatalog catalog = new RoleCatalog(repository, HOURS.toNanos(1));
+		catalog.getRoles();
+
+		catalog.roleModified(mock(RoleEvent.class));
+		catalog.getRoles();
+
+		verify(repository,times(2)).execute(any(Query.class));
+	}
+
+	@Test
+	public void revalidate_expired_snapshot_to_detect_modifications_on_other_nodes() {
+		storeRoles(role("operator","ivt"));
+		RoleCatalog catalog = new RoleCatalog(repository, 0);
+		String tag = catalog.getTag();
+
+		storeRoles(role("operator","ivt"),role("administrator","adm"));
+		List<?> roles = catalog.getRoles();
+
+		assertEquals(2,roles.size());
+		assertNotEquals(tag,catalog.getTag());
+	}
+
+}
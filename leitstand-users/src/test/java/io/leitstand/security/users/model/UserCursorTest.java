@@ -0,0 +1,62 @@
+package io.leitstand.security.users.model;
+
+import static io.leitstand.security.auth.UserName.userName;
+import static io.leitstand.security.users.model.UserCursor.cursorOf;
+import static io.leitstand.security.users.service.ReasonCode.IDM0012E_INVALID_CURSOR;
+import static io.leitstand.security.users.service.UserReference.newUserReference;
+import static io.leitstand.testing.ut.LeitstandCoreMatchers.reason;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import io.leitstand.commons.UnprocessableEntityException;
+
+public class UserCursorTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Test
+	public void decode_encoded_cursor() {
+		UserCursor cursor = cursorOf(newUserReference()
+									 .withUserName(userName("jdoe"))
+									 .withGivenName("John")
+									 .withFamilyName("Doe")
+									 .build());
+
+		UserCursor decoded = UserCursor.decode(cursor.encode());
+		assertEquals("Doe",decoded.getFamilyName());
+		assertEquals("John",decoded.getGivenName());
+		assertEquals("jdoe",decoded.getUserName());
+	}
+
+	@Test
+	public void map_missing_names_to_empty_strings() {
+		UserCursor cursor = cursorOf(newUserReference()
+									 .withUserName(userName("jdoe"))
+									 .build());
+
+		UserCursor decoded = UserCursor.decode(cursor.encode());
+		assertEquals("",decoded.getFamilyName());
+		assertEquals("",decoded.getGivenName());
+		assertEquals("jdoe",decoded.getUserName());
+	}
+
+	@Test
+	public void throw_UnprocessableEntityException_when_cursor_is_not_base64_encoded() {
+		exception.expect(UnprocessableEntityException.class);
+		exception.expect(reason(IDM0012E_INVALID_CURSOR));
+
+		UserCursor.decode("not a cursor!");
+	}
+
+	@Test
+	public void throw_UnprocessableEntityException_when_cursor_is_malformed() {
+		exception.expect(UnprocessableEntityException.class);
+		exception.expect(reason(IDM0012E_INVALID_CURSOR));
+
+		UserCursor.decode("am9obg");
+	}
+}
@@ -0,0 +1,62 @@
+package io.leitstand.security.users.model;
+
+import static io.leitstand.security.users.model.UserSearchTerm.prefixPattern;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class UserSearchTermTest {
+
+	@Test
+	public void empty_search_term_has_no_tokens() {
+		assertNull(UserSearchTerm.parse(null));
+		assertNull(UserSearchTerm.parse(""));
+		assertNull(UserSearchTerm.parse("  \t "));
+	}
+
+	@Test
+	public void split_search_term_in_lower_case_tokens() {
+		UserSearchTerm term = UserSearchTerm.parse(" John  DOE ");
+		assertEquals(asList("john","doe"),term.getTokens());
+	}
+
+	@Test
+	public void escape_like_wildcards_in_prefix_pattern() {
+		assertEquals("jd%",prefixPattern("jd"));
+		assertEquals("j\\_d\\%%",prefixPattern("j_d%"));
+		assertEquals("j\\\\d%",prefixPattern("j\\d"));
+	}
+
+	@Test
+	public void every_token_must_match_a_search_column() {
+		StringBuilder where = new StringBuilder();
+		List<Object> params = new ArrayList<>();
+		UserSearchTerm.parse("john doe").appendPredicate(where, params);
+
+		assertEquals(" WHERE (lower(name) LIKE ? OR lower(familyname) LIKE ? OR lower(givenname) LIKE ? OR lower(email) LIKE ?)"+
+					 " AND (lower(name) LIKE ? OR lower(familyname) LIKE ? OR lower(givenname) LIKE ? OR lower(email) LIKE ?)",
+					 where.toString());
+		assertEquals(asList("john%","john%","john%","john%","doe%","doe%","doe%","doe%"),params);
+	}
+
+	@Test
+	public void rank_exact_user_name_match_first() {
+		StringBuilder orderBy = new StringBuilder();
+		List<Object> params = new ArrayList<>();
+		UserSearchTerm.parse("john doe").appendRank(orderBy, params);
+
+		assertEquals("CASE WHEN lower(name) = ? THEN 0"+
+					 " WHEN lower(name) LIKE ? THEN 1"+
+					 " WHEN lower(familyname) LIKE ? THEN 2"+
+					 " WHEN lower(givenname) LIKE ? THEN 3"+
+					 " WHEN lower(email) LIKE ? THEN 4"+
+					 " ELSE 5 END",
+					 orderBy.toString());
+		assertEquals(asList("john","john%","john%","john%","john%"),params);
+	}
+}
@@ -26,6 +26,16 @@ import io.leitstand.testing.it.JpaIT;
 
 public class UsersIT extends JpaIT{
 
+	private static DataSource dataSource;
+	
+	/**
+	 * Returns the data source of the test database.
+	 * @return the data source of the test database.
+	 */
+	protected static DataSource dataSource() {
+		return dataSource;
+	}
+
 	@Override
 	protected Properties getConnectionProperties() throws IOException {
 		Properties properties = new Properties();
@@ -35,6 +45,7 @@ public class UsersIT extends JpaIT{
 	
 	@Override
 	protected void initDatabase(DataSource ds) throws SQLException{
+		dataSource = ds;
 		try(Connection c = ds.getConnection()){
 			c.createStatement().execute("CREATE SCHEMA AUTH");
 			c.createStatement().execute("CREATE SCHEMA LEITSTAND");
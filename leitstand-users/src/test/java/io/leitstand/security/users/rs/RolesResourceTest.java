@@ -19,11 +19,29 @@ import static io.leitstand.security.users.service.RoleId.randomRoleId;
 import static io.leitstand.security.users.service.RoleName.roleName;
 import static io.leitstand.security.users.service.RoleSettings.newRoleSettings;
 import static io.leitstand.testing.ut.LeitstandCoreMatchers.reason;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -58,11 +76,50 @@ public class RolesResourceTest {
 	
 	
 	@Test
-	public void get_roles() {
-		resource.getRoles();
+	@SuppressWarnings("unchecked")
+	public void stream_roles() throws IOException {
+		RoleSettings role = newRoleSettings()
+							.withRoleName(roleName("foo"))
+							.build();
+		when(service.getRoles()).thenReturn(asList(role));
+		when(service.getRolesTag()).thenReturn("roles");
+		Providers providers = mock(Providers.class);
+		MessageBodyWriter<RoleSettings> writer = mock(MessageBodyWriter.class);
+		doReturn(writer).when(providers).getMessageBodyWriter(eq(RoleSettings.class), 
+															  eq(RoleSettings.class), 
+															  any(Annotation[].class), 
+															  any(MediaType.class));
+		
+		Response response = resource.getRoles(mock(Request.class), providers);
+		assertEquals(new EntityTag("roles"),response.getEntityTag());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		((StreamingOutput) response.getEntity()).write(out);
+		
 		verify(service).getRoles();
+		verify(writer).writeTo(eq(role), 
+							   eq(RoleSettings.class), 
+							   eq(RoleSettings.class), 
+							   any(Annotation[].class), 
+							   any(MediaType.class), 
+							   any(MultivaluedMap.class), 
+							   any(OutputStream.class));
+		assertEquals("[]",out.toString());
 	}
 
+	@Test
+	public void do_not_read_roles_when_roles_are_not_modified() {
+		EntityTag tag = new EntityTag("roles");
+		when(service.getRolesTag()).thenReturn("roles");
+		Request request = mock(Request.class);
+		when(request.evaluatePreconditions(tag)).thenReturn(Response.notModified());
+		
+		Response response = resource.getRoles(request, mock(Providers.class));
+		
+		assertEquals(304,response.getStatus());
+		assertEquals(tag,response.getEntityTag());
+		verify(service,never()).getRoles();
+	}
+	
 	@Test
 	public void get_role_by_name() {
 		RoleName role = roleName("foo");